@@ -10,6 +10,7 @@ import ErrorBoundary from './src/components/ErrorBoundary';
 import PermissionOnboarding from './src/components/PermissionOnboarding';
 import { FloatingCallManager } from './src/components/FloatingCallManager';
 import { PerformanceMonitor } from './src/utils/performance';
+import NativePerformance from './src/services/NativePerformance';
 
 function App(): React.JSX.Element {
   const [isDbReady, setIsDbReady] = useState(false);
@@ -18,6 +19,11 @@ function App(): React.JSX.Element {
   const [showOnboarding, setShowOnboarding] = useState(false);
   const [onboardingChecked, setOnboardingChecked] = useState(false);
 
+  // The first frame has been drawn once the frame after the first commit starts
+  useEffect(() => {
+    requestAnimationFrame(() => NativePerformance.markFirstFrame());
+  }, []);
+
   useEffect(() => {
     const initializeApp = async () => {
       try {
@@ -34,6 +34,11 @@
     public static *** i(...);
 }
 
+# Strip native overlay debug logging (already a no-op when OVERLAY_DEBUG_LOG is false)
+-assumenosideeffects class com.leadzen.OverlayLog {
+    static void d(...);
+}
+
 # Optimize and obfuscate code
 -optimizationpasses 5
 -dontusemixedcaseclassnames
@@ -0,0 +1,99 @@
+package com.leadzen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+// Generated CRM data for the instrumented benchmarks and stress runs
+final class BenchmarkLeads {
+    static final String[] STAGES = {"new", "contacted", "qualified", "proposal"};
+
+    private static final String[] FIRST_NAMES = {
+        "Ravi", "Priya", "Amit", "Sneha", "Arjun", "Kavya", "Rahul", "Ananya", "Vikram", "Meera",
+        "John", "Sarah", "David", "Emily", "Michael", "Olivia", "Daniel", "Sophia", "James", "Grace",
+    };
+    private static final String[] LAST_NAMES = {
+        "Sharma", "Patel", "Kumar", "Reddy", "Iyer", "Gupta", "Singh", "Nair", "Rao", "Mehta",
+        "Smith", "Johnson", "Brown", "Miller", "Wilson", "Taylor", "Anderson", "Thomas", "Moore", "Clark",
+    };
+    private static final String[] COMPANIES = {
+        "Acme Corp", "Globex", "Initech", "Umbrella Logistics", "Stark Industries", "Wayne Enterprises",
+        "Tata Consulting", "Infosys", "Reliance Retail", "Zenith Builders", "Sunrise Textiles", "Orbit Pharma",
+    };
+    private static final String[] WORDS = {
+        "called", "discussed", "pricing", "proposal", "demo", "scheduled", "follow", "up", "next", "week",
+        "budget", "approved", "decision", "maker", "interested", "renewal", "contract", "quote", "sent",
+        "meeting", "site", "visit", "requirements", "shared", "invoice", "pending", "payment", "delivery",
+        "timeline", "discount", "requested", "competitor", "evaluation", "trial", "feedback", "positive",
+    };
+
+    private BenchmarkLeads() {
+    }
+
+    // Leads 1..leadCount with spread-out created/updated times; lead i + 1 gets the stage
+    // STAGES[i % 4] and phone 9000000000 + i, every fifth a follow-up
+    static void seed(LeadStore store, int leadCount) throws Exception {
+        int nameColumn = LeadStoreSchema.columnIndex("name");
+        int companyColumn = LeadStoreSchema.columnIndex("company");
+        int phoneColumn = LeadStoreSchema.columnIndex("phone");
+        int statusColumn = LeadStoreSchema.columnIndex("status");
+        int createdColumn = LeadStoreSchema.COL_CREATED_AT;
+        int updatedColumn = LeadStoreSchema.COL_UPDATED_AT;
+        int followUpColumn = LeadStoreSchema.columnIndex("nextFollowUpAt");
+        long base = System.currentTimeMillis() - leadCount * 60_000L;
+
+        ArrayList<LeadStore.Mutation> seed = new ArrayList<>(leadCount);
+        for (int i = 0; i < leadCount; i++) {
+            Object[] values = new Object[LeadStoreSchema.LEAD_COLUMNS.length];
+            values[nameColumn] = FIRST_NAMES[i % FIRST_NAMES.length] + " "
+                + LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length] + " " + i;
+            values[companyColumn] = COMPANIES[(i * 31) % COMPANIES.length];
+            values[phoneColumn] = Long.toString(9_000_000_000L + i);
+            values[statusColumn] = STAGES[i % STAGES.length];
+            values[createdColumn] = base + i * 60_000L;
+            values[updatedColumn] = base + ((i * 7919L) % leadCount) * 60_000L;
+            long present = LeadStore.bit(nameColumn) | LeadStore.bit(companyColumn) | LeadStore.bit(phoneColumn)
+                | LeadStore.bit(statusColumn) | LeadStore.bit(createdColumn) | LeadStore.bit(updatedColumn);
+            if (i % 5 == 0) {
+                values[followUpColumn] = base + (leadCount + i) * 60_000L;
+                present |= LeadStore.bit(followUpColumn);
+            }
+            seed.add(new LeadStore.Mutation(LeadStore.Mutation.INSERT, i + 1, values, present));
+        }
+        store.apply(seed);
+    }
+
+    // Six to 25 words of sales-call vocabulary
+    static String sentence(Random random) {
+        StringBuilder sentence = new StringBuilder();
+        int words = 6 + random.nextInt(20);
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.toString();
+    }
+
+    // Submits every batch back to back, so the writer may group them, and waits for all of them
+    static void submitAll(LeadStore store, List<List<LeadStore.Mutation>> batches) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(batches.size());
+        LeadStore.Callback callback = new LeadStore.Callback() {
+            @Override
+            public void onSuccess(long[] results) {
+                done.countDown();
+            }
+
+            @Override
+            public void onError(Exception error) {
+                done.countDown();
+            }
+        };
+        for (List<LeadStore.Mutation> batch : batches) {
+            store.submit(batch, callback);
+        }
+        done.await();
+    }
+}
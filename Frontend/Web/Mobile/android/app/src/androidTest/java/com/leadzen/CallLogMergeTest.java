@@ -0,0 +1,133 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import android.content.Context;
+import android.database.Cursor;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+// The device sync and the app's own call logs writing the same call into call_logs
+@RunWith(AndroidJUnit4.class)
+public class CallLogMergeTest {
+    private static final String DATABASE = "leadzen_test_call_log_merge.db";
+    private static final String LEAD_PHONE = "+919876543210";
+
+    private Context context;
+    private LeadStore store;
+    private long now;
+
+    @Before
+    public void setUp() throws Exception {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DATABASE);
+        store = new LeadStore(context, DATABASE);
+        now = System.currentTimeMillis();
+        List<LeadStore.Mutation> lead = new ArrayList<>();
+        lead.add(LeadStore.Mutation.exec("INSERT INTO leads (id, name, phone_primary, created_at, updated_at)"
+            + " VALUES (1, 'Priya', ?, ?, ?)", LEAD_PHONE, now, now));
+        store.apply(lead);
+    }
+
+    @After
+    public void tearDown() {
+        store.close();
+        context.deleteDatabase(DATABASE);
+    }
+
+    // What CallLogSync commits for one device row
+    private void syncDevice(long deviceId, String number, long date, long durationSeconds) throws Exception {
+        CallLogSyncEngine.Rows rows = new CallLogSyncEngine.Rows() {
+            private boolean read;
+
+            @Override public boolean next() { return !read && (read = true); }
+            @Override public long id() { return deviceId; }
+            @Override public String number() { return number; }
+            @Override public int type() { return CallLogSyncEngine.DEVICE_OUTGOING; }
+            @Override public long date() { return date; }
+            @Override public long durationSeconds() { return durationSeconds; }
+        };
+        LongIntMap leads = store.leadIdsByPhone(0);
+        new CallLogSyncEngine(CallLogSyncEngine.DEFAULT_BATCH_SIZE).run(rows, 0L, 0L,
+            packed -> leads.get(packed, 0),
+            batch -> store.apply(CallLogSync.toMutations(batch)),
+            (id, watermark) -> { });
+    }
+
+    // What LeadStoreModule.indexCallLogs commits for one AsyncStorageService log
+    private void mirrorClient(long id, String number, long startedAt, String notes) throws Exception {
+        List<LeadStore.Mutation> mutations = new ArrayList<>();
+        CallLogMerge.addClientRow(mutations, Long.toString(id), 1L, number, "outgoing", "completed", 0L,
+            startedAt, null, notes, now);
+        store.apply(mutations);
+    }
+
+    private long count(String where) {
+        Cursor cursor = store.database().rawQuery("SELECT COUNT(*) FROM call_logs WHERE " + where, null);
+        try {
+            cursor.moveToFirst();
+            return cursor.getLong(0);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private void assertOneCall() throws Exception {
+        assertEquals(1, count("1"));
+        assertEquals(1, count("client_id = '7' AND device_call_id = 42 AND notes = 'Asked for a quote'"));
+        // The device owns the timing
+        assertEquals(1, count("started_at = " + (now - 60_000L) + " AND duration = 95"));
+        assertEquals(1, LeadAggregates.read(store.database()).callsToday);
+        assertEquals(0, LeadAggregates.verify(store.database()));
+    }
+
+    @Test
+    public void appLogThenDeviceSyncIsOneRow() throws Exception {
+        mirrorClient(7, "98765 43210", now - 55_000L, "Asked for a quote");
+        syncDevice(42, LEAD_PHONE, now - 60_000L, 95);
+        assertOneCall();
+
+        // A repeated sync batch and the app re-mirroring its logs on start change nothing
+        syncDevice(42, LEAD_PHONE, now - 60_000L, 95);
+        mirrorClient(7, "98765 43210", now - 55_000L, "Asked for a quote");
+        assertOneCall();
+    }
+
+    @Test
+    public void deviceSyncThenAppLogIsOneRow() throws Exception {
+        syncDevice(42, LEAD_PHONE, now - 60_000L, 95);
+        mirrorClient(7, "+91 98765-43210", now - 50_000L, "Asked for a quote");
+        assertOneCall();
+
+        mirrorClient(7, "+91 98765-43210", now - 50_000L, "Asked for a quote");
+        syncDevice(42, LEAD_PHONE, now - 60_000L, 95);
+        assertOneCall();
+    }
+
+    @Test
+    public void separateCallsStaySeparate() throws Exception {
+        syncDevice(42, LEAD_PHONE, now - 60_000L, 95);
+        // Same number, outside the window: another call
+        mirrorClient(8, LEAD_PHONE, now - 60_000L - CallLogMerge.MATCH_WINDOW_MS - 1_000L, null);
+        // Same time, another number
+        mirrorClient(9, "+919000000001", now - 60_000L, null);
+        assertEquals(3, count("1"));
+        assertEquals(1, count("device_call_id = 42 AND client_id IS NULL"));
+        assertEquals(0, LeadAggregates.verify(store.database()));
+
+        Cursor cursor = store.database().rawQuery("SELECT notes FROM call_logs WHERE client_id = '8'", null);
+        try {
+            cursor.moveToFirst();
+            assertNull(cursor.getString(0));
+        } finally {
+            cursor.close();
+        }
+    }
+}
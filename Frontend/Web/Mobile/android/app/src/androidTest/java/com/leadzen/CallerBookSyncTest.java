@@ -0,0 +1,104 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+// Lead writes reaching the overlay's caller index and the snapshot without a syncCallerIndex()
+@RunWith(AndroidJUnit4.class)
+public class CallerBookSyncTest {
+    private static final String DATABASE = "leadzen_test_caller_book_sync.db";
+    private static final int PHONE = LeadStoreSchema.columnIndex("phone");
+    private static final int NAME = LeadStoreSchema.columnIndex("name");
+
+    private Context context;
+    private File dir;
+    private LeadStore store;
+    private CallerBookSync sync;
+
+    @Before
+    public void setUp() throws Exception {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DATABASE);
+        dir = new File(context.getCacheDir(), "caller_book_sync");
+        dir.mkdirs();
+        store = new LeadStore(context, DATABASE);
+        sync = new CallerBookSync(store, dir);
+        sync.start();
+    }
+
+    @After
+    public void tearDown() {
+        sync.stop();
+        store.close();
+        context.deleteDatabase(DATABASE);
+        CallerIdIndex.install(CallerIdIndex.build(new String[0], new int[0], new String[0]));
+        LeadSnapshot.invalidateShared();
+        new File(dir, LeadSnapshot.FILE_NAME).delete();
+        dir.delete();
+    }
+
+    // Applies the mutations and waits for the rebuild their commit queued
+    private void apply(LeadStore.Mutation... mutations) throws Exception {
+        store.apply(Arrays.asList(mutations));
+        sync.flush().get(10, TimeUnit.SECONDS);
+    }
+
+    private static LeadStore.Mutation write(int kind, long id, String name, String phone) {
+        Object[] values = new Object[LeadStoreSchema.LEAD_COLUMNS.length];
+        values[PHONE] = phone;
+        long present = LeadStore.bit(PHONE);
+        if (name != null) {
+            values[NAME] = name;
+            present |= LeadStore.bit(NAME);
+        }
+        return new LeadStore.Mutation(kind, id, values, present);
+    }
+
+    private int snapshotLeadId(String phone) throws Exception {
+        LeadSnapshot snapshot = LeadSnapshot.shared(dir);
+        int record = snapshot.findByPhone(phone);
+        return record < 0 ? -1 : snapshot.leadId(record);
+    }
+
+    @Test
+    public void editedPhoneIsLookedUpUnderTheNewNumber() throws Exception {
+        apply(write(LeadStore.Mutation.INSERT, 1L, "Priya", "+919876543210"));
+        assertEquals(1, CallerIdIndex.get().lookupLeadId("98765 43210"));
+        assertEquals("Priya", CallerIdIndex.get().lookupName("+91 98765-43210"));
+        assertEquals(1, snapshotLeadId("9876543210"));
+
+        apply(write(LeadStore.Mutation.UPDATE, 1L, null, "+919123456780"));
+        assertEquals(1, CallerIdIndex.get().lookupLeadId("9123456780"));
+        assertEquals(-1, CallerIdIndex.get().lookupLeadId("9876543210"));
+        assertEquals(1, snapshotLeadId("+919123456780"));
+        assertEquals(-1, snapshotLeadId("9876543210"));
+
+        apply(LeadStore.Mutation.delete(1L));
+        assertEquals(-1, CallerIdIndex.get().lookupLeadId("9123456780"));
+        assertEquals(-1, snapshotLeadId("9123456780"));
+    }
+
+    @Test
+    public void leadWritesThroughExecAreFollowed() throws Exception {
+        apply(LeadStore.Mutation.exec("INSERT INTO leads (id, name, phone_primary, created_at, updated_at)"
+            + " VALUES (2, 'Arjun', '+919000000002', 0, 0)"));
+        assertEquals("Arjun", CallerIdIndex.get().lookupName("9000000002"));
+
+        apply(LeadStore.Mutation.exec("UPDATE leads SET name = 'Arjun Rao' WHERE id = 2"));
+        assertEquals("Arjun Rao", CallerIdIndex.get().lookupName("9000000002"));
+        LeadSnapshot snapshot = LeadSnapshot.shared(dir);
+        assertTrue(snapshot.findByPhone("9000000002") >= 0);
+        assertEquals("Arjun Rao", snapshot.readString(snapshot.findByPhone("9000000002"), LeadSnapshot.FIELD_NAME));
+    }
+}
@@ -0,0 +1,152 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertEquals;
+
+import android.content.Context;
+import android.database.DatabaseUtils;
+import android.util.Log;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+// The contact import on a scratch database fed by a generated address book instead of the
+// contacts provider. Logs contacts/s and the largest rise in used heap seen at the progress ticks,
+// which stays flat as the contact count grows.
+@RunWith(AndroidJUnit4.class)
+public class ContactsImporterBenchmarkTest {
+    private static final String TAG = "ContactsImporterBench";
+    private static final String DATABASE = "leadzen_test_contact_import.db";
+    private static final int CONTACTS = 50_000;
+
+    @Test
+    public void importsAGeneratedAddressBook() throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DATABASE);
+        LeadStore store = new LeadStore(context, DATABASE);
+        try {
+            SyntheticRows rows = new SyntheticRows(CONTACTS);
+            long rowCount = rows.rowCount();
+            Runtime runtime = Runtime.getRuntime();
+            runtime.gc();
+            long baseline = runtime.totalMemory() - runtime.freeMemory();
+            long[] peak = {baseline};
+            ContactImportEngine.Result result = new ContactImportEngine(
+                ContactImportEngine.DEFAULT_BATCH_SIZE, ContactImportEngine.DEFAULT_PROGRESS_INTERVAL_MS)
+                .run(rows, rowCount, store.leadIdsByPhone((int) rowCount),
+                    batch -> store.apply(ContactsImporter.toMutations(batch)),
+                    progress -> peak[0] = Math.max(peak[0], runtime.totalMemory() - runtime.freeMemory()));
+
+            assertEquals(CONTACTS, result.contactsRead);
+            assertEquals(rowCount, result.rowsRead);
+            assertEquals(0, result.matched);
+            assertEquals(CONTACTS, result.inserted + result.duplicates + result.withoutPhone);
+            assertEquals(result.inserted, DatabaseUtils.longForQuery(store.database(), "SELECT COUNT(*) FROM leads", null));
+            Log.i(TAG, "Imported " + result.contactsRead + " contacts at "
+                + Math.round(result.contactsRead / Math.max(1e-3, result.elapsedMs / 1000.0)) + " contacts/s, heap growth "
+                + (peak[0] - baseline) / 1024 + "KB");
+        } finally {
+            store.close();
+            context.deleteDatabase(DATABASE);
+        }
+    }
+
+    // Address book generated on the fly for the benchmark: one to four rows per contact,
+    // a second number on every third, email on two in five, organization on one in four, no number
+    // on one in twenty and a number shared with an earlier contact on one in thirty
+    private static final class SyntheticRows implements ContactImportEngine.Rows {
+        private static final String[] FIRST_NAMES = {"Ravi", "Priya", "Amit", "Sneha", "Arjun", "Kavya", "John", "Sarah"};
+        private static final String[] LAST_NAMES = {"Sharma", "Patel", "Kumar", "Reddy", "Smith", "Brown", "Nair", "Rao"};
+        private static final String[] COMPANIES = {"Acme Corp", "Globex", "Initech", "Tata Consulting", "Orbit Pharma"};
+
+        private final int contacts;
+        private int contact = -1;
+        private int row;
+        private final int[] kinds = new int[4];
+        private int rowCount;
+
+        SyntheticRows(int contacts) {
+            this.contacts = contacts;
+        }
+
+        long rowCount() {
+            long rows = 0;
+            for (int i = 0; i < contacts; i++) {
+                rows += shape(i, null);
+            }
+            return rows;
+        }
+
+        private static int shape(int i, int[] kinds) {
+            int n = 0;
+            if (i % 20 != 7) {
+                n = put(kinds, n, ContactImportEngine.KIND_PHONE);
+                if (i % 3 == 0) {
+                    n = put(kinds, n, ContactImportEngine.KIND_PHONE);
+                }
+            }
+            if (i % 5 < 2 || i % 20 == 7) {
+                n = put(kinds, n, ContactImportEngine.KIND_EMAIL);
+            }
+            if (i % 4 == 1) {
+                n = put(kinds, n, ContactImportEngine.KIND_ORGANIZATION);
+            }
+            return n;
+        }
+
+        private static int put(int[] kinds, int n, int kind) {
+            if (kinds != null) {
+                kinds[n] = kind;
+            }
+            return n + 1;
+        }
+
+        @Override
+        public boolean next() {
+            if (++row < rowCount) {
+                return true;
+            }
+            if (++contact >= contacts) {
+                return false;
+            }
+            row = 0;
+            rowCount = shape(contact, kinds);
+            return true;
+        }
+
+        @Override
+        public long contactId() {
+            return contact + 1L;
+        }
+
+        @Override
+        public int kind() {
+            return kinds[row];
+        }
+
+        @Override
+        public String displayName() {
+            return FIRST_NAMES[contact % FIRST_NAMES.length] + " " + LAST_NAMES[(contact / 8) % LAST_NAMES.length] + " " + contact;
+        }
+
+        @Override
+        public String value() {
+            switch (kinds[row]) {
+                case ContactImportEngine.KIND_PHONE:
+                    int owner = contact % 30 == 29 ? contact / 2 : contact;
+                    return "+91 98" + (10_000_000L + owner * 2L + (row == 0 ? 0 : 1));
+                case ContactImportEngine.KIND_EMAIL:
+                    return "contact" + contact + "@example.com";
+                case ContactImportEngine.KIND_ORGANIZATION:
+                    return COMPANIES[contact % COMPANIES.length];
+                default:
+                    return null;
+            }
+        }
+
+        @Override
+        public String title() {
+            return kinds[row] == ContactImportEngine.KIND_ORGANIZATION ? "Manager" : null;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.graphics.Rect;
+import android.view.View;
+import android.view.accessibility.AccessibilityNodeInfo;
+import android.view.accessibility.AccessibilityNodeProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+// The tap targets of a flat overlay section as accessibility nodes
+@RunWith(AndroidJUnit4.class)
+public class FlatOverlayViewTest {
+    private static final String[] LABELS = {"Labels", "Note", "Reminder", "Task"};
+
+    @Test
+    public void eachTargetIsAClickableVirtualView() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        List<String> clicks = new ArrayList<>();
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            OverlayActionBarView view = new OverlayActionBarView(context, new OverlayDrawables(context));
+            view.setOnTargetClickListener((target, label) -> clicks.add(target + " " + label));
+            view.measure(View.MeasureSpec.makeMeasureSpec(1080, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+            view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+
+            AccessibilityNodeProvider provider = view.getAccessibilityNodeProvider();
+            assertNotNull(provider);
+            AccessibilityNodeInfo host = provider.createAccessibilityNodeInfo(View.NO_ID);
+            assertEquals(LABELS.length, host.getChildCount());
+
+            Rect bounds = new Rect();
+            for (int i = 0; i < LABELS.length; i++) {
+                AccessibilityNodeInfo node = provider.createAccessibilityNodeInfo(i);
+                assertEquals(LABELS[i], node.getContentDescription().toString());
+                assertTrue(node.isClickable());
+                assertTrue(node.getActionList().contains(AccessibilityNodeInfo.AccessibilityAction.ACTION_CLICK));
+                node.getBoundsInParent(bounds);
+                assertTrue(bounds.toString(), bounds.width() > 0 && bounds.height() > 0);
+            }
+            assertTrue(provider.performAction(2, AccessibilityNodeInfo.ACTION_CLICK, null));
+        });
+        assertEquals(1, clicks.size());
+        assertEquals("2 Reminder", clicks.get(0));
+    }
+}
@@ -0,0 +1,161 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertEquals;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class LeadAggregatesTest {
+    private static final String TAG = "LeadAggregatesTest";
+    private static final String DATABASE = "leadzen_test_aggregates.db";
+    private static final long DAY = 86_400_000L;
+
+    private Context context;
+    private LeadStore store;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DATABASE);
+        store = new LeadStore(context, DATABASE);
+    }
+
+    @After
+    public void tearDown() {
+        store.close();
+        context.deleteDatabase(DATABASE);
+    }
+
+    @Test
+    public void readReportsTodaysCallsAndOverdueItems() throws Exception {
+        long now = System.currentTimeMillis();
+        List<LeadStore.Mutation> batch = new ArrayList<>();
+        batch.add(LeadStore.Mutation.exec("INSERT INTO leads (id, name, phone_primary, pipeline_stage, value,"
+            + " next_follow_up_at, created_at, updated_at) VALUES (1, 'A', '+919000000001', 'new', 100, ?, ?, ?)",
+            now - 2 * DAY, now, now));
+        batch.add(LeadStore.Mutation.exec("INSERT INTO leads (id, name, phone_primary, pipeline_stage, value,"
+            + " next_follow_up_at, created_at, updated_at) VALUES (2, 'B', '+919000000002', 'won', 250.5, ?, ?, ?)",
+            now + 7 * DAY, now, now));
+        batch.add(LeadStore.Mutation.exec("INSERT INTO call_logs (id, lead_id, phone_number, call_type, duration,"
+            + " started_at, created_at) VALUES (1, 1, '+919000000001', 'outgoing', 90, ?, ?)", now, now));
+        batch.add(LeadStore.Mutation.exec("INSERT INTO call_logs (id, lead_id, phone_number, call_type, duration,"
+            + " started_at, created_at) VALUES (2, 1, '+919000000001', 'missed', 0, ?, ?)", now, now));
+        batch.add(LeadStore.Mutation.exec("INSERT INTO call_logs (id, lead_id, phone_number, call_type, duration,"
+            + " started_at, created_at) VALUES (3, 2, '+919000000002', 'incoming', 60, ?, ?)", now - 3 * DAY, now));
+        batch.add(LeadStore.Mutation.exec("INSERT INTO tasks (id, lead_id, title, due_date, completed, created_at,"
+            + " updated_at) VALUES (1, 2, 'Send quote', ?, 0, ?, ?)", now - DAY, now, now));
+        batch.add(LeadStore.Mutation.exec("INSERT INTO tasks (id, lead_id, title, due_date, completed, created_at,"
+            + " updated_at) VALUES (2, 2, 'Done already', ?, 1, ?, ?)", now - DAY, now, now));
+        store.apply(batch);
+
+        LeadAggregates.Snapshot snapshot = LeadAggregates.read(store.database());
+        assertEquals(2, snapshot.callsToday);
+        assertEquals(1, snapshot.missedToday);
+        assertEquals(90, snapshot.talkSecondsToday);
+        assertEquals(1, snapshot.followUpsOverdue);
+        assertEquals(0, snapshot.followUpsToday);
+        assertEquals(1, snapshot.tasksOverdue);
+        assertEquals(2, snapshot.stages.size());
+        assertEquals(LeadAggregates.currentOffsetMinutes(), snapshot.offsetMinutes);
+        assertEquals(0, LeadAggregates.verify(store.database()));
+    }
+
+    // Random writes (leads inserted, restaged, revalued, rescheduled and deleted; call logs and
+    // tasks added, edited, completed and deleted) in batches of up to 20, each batch followed by
+    // verify()
+    @Test
+    public void triggersMatchARecomputeAfterRandomWrites() throws Exception {
+        int steps = 20_000;
+        Random random = new Random(11);
+        String[] stages = {"new", "contacted", "qualified", "proposal", "won", "lost"};
+        String[] callTypes = {"incoming", "outgoing", "missed"};
+        long now = System.currentTimeMillis();
+        long day = 86_400_000L;
+        ArrayList<Long> leads = new ArrayList<>();
+        long nextLead = 1;
+        long nextCall = 1;
+        long nextTask = 1;
+
+        int done = 0;
+        while (done < steps) {
+            // Leads are picked from the live list, so no write refers to a lead deleted earlier
+            List<LeadStore.Mutation> batch = new ArrayList<>();
+            int size = Math.min(steps - done, 1 + random.nextInt(20));
+            for (int i = 0; i < size; i++) {
+                int op = leads.isEmpty() ? 0 : random.nextInt(10);
+                long lead = leads.isEmpty() ? 0 : leads.get(random.nextInt(leads.size()));
+                Long followUp = random.nextInt(3) == 0 ? null : now + (random.nextInt(11) - 5) * day + random.nextInt(86_400) * 1000L;
+                switch (op) {
+                    case 0:
+                    case 1:
+                        batch.add(LeadStore.Mutation.exec("INSERT INTO leads (id, name, phone_primary, pipeline_stage, value,"
+                                + " next_follow_up_at, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                            nextLead, "Lead " + nextLead, "+91" + (9_000_000_000L + nextLead),
+                            random.nextInt(8) == 0 ? null : stages[random.nextInt(stages.length)],
+                            random.nextInt(4) == 0 ? null : random.nextInt(100_000) / 100.0, followUp, now, now));
+                        leads.add(nextLead++);
+                        break;
+                    case 2:
+                        batch.add(LeadStore.Mutation.exec("UPDATE leads SET pipeline_stage = ? WHERE id = ?",
+                            stages[random.nextInt(stages.length)], lead));
+                        break;
+                    case 3:
+                        batch.add(LeadStore.Mutation.exec("UPDATE leads SET value = ?, next_follow_up_at = ? WHERE id = ?",
+                            random.nextInt(100_000) / 100.0, followUp, lead));
+                        break;
+                    case 4:
+                        batch.add(LeadStore.Mutation.delete(lead));
+                        leads.remove(Long.valueOf(lead));
+                        break;
+                    case 5:
+                    case 6:
+                        batch.add(LeadStore.Mutation.exec("INSERT INTO call_logs (id, lead_id, phone_number, call_type,"
+                                + " duration, started_at, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                            nextCall++, lead, "+91" + (9_000_000_000L + lead), callTypes[random.nextInt(callTypes.length)],
+                            (long) random.nextInt(600), now - random.nextInt(3) * day - random.nextInt(86_400) * 1000L, now));
+                        break;
+                    case 7:
+                        batch.add(LeadStore.Mutation.exec(random.nextBoolean()
+                                ? "UPDATE call_logs SET duration = duration + 30, call_type = 'missed' WHERE id = ?"
+                                : "DELETE FROM call_logs WHERE id = ?",
+                            1 + (long) random.nextInt((int) nextCall)));
+                        break;
+                    case 8:
+                        batch.add(LeadStore.Mutation.exec("INSERT INTO tasks (id, lead_id, title, due_date, completed,"
+                                + " created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                            nextTask++, lead, "Task", followUp, (long) random.nextInt(2), now, now));
+                        break;
+                    default:
+                        long task = 1 + random.nextInt((int) nextTask);
+                        int edit = random.nextInt(3);
+                        batch.add(LeadStore.Mutation.exec(edit == 0 ? "UPDATE tasks SET completed = 1 - completed WHERE id = ?"
+                            : edit == 1 ? "UPDATE tasks SET due_date = due_date + 86400000 WHERE id = ?"
+                            : "DELETE FROM tasks WHERE id = ?", task));
+                        break;
+                }
+            }
+            store.apply(batch);
+            done += size;
+            assertEquals("summary rows differing from a recompute after " + done + " writes",
+                0, LeadAggregates.verify(store.database()));
+        }
+
+
+        int reads = 200;
+        long start = System.nanoTime();
+        for (int i = 0; i < reads; i++) {
+            LeadAggregates.read(store.database());
+        }
+        Log.i(TAG, "read() " + (System.nanoTime() - start) / 1000 / reads + "us after " + steps + " writes");
+    }
+}
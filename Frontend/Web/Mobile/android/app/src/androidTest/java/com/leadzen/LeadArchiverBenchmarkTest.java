@@ -0,0 +1,112 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertEquals;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+// A scratch store of ROWS rows (a quarter leads, three call logs per lead) exported, restored into
+// a second scratch store and compared table by table (row count and sum of ids) plus
+// LeadAggregates.verify on the restored store. Logs rows/s both ways, the archive size and the
+// largest rise in used heap seen at the progress ticks.
+@RunWith(AndroidJUnit4.class)
+public class LeadArchiverBenchmarkTest {
+    private static final String TAG = "LeadArchiverBench";
+    private static final String SOURCE = "leadzen_test_archive.db";
+    private static final String RESTORED = "leadzen_test_archive_restore.db";
+    private static final int ROWS = 200_000;
+
+    private Context context;
+    private LeadStore store;
+    private LeadStore restored;
+    private File progressFile;
+
+    @Before
+    public void setUp() throws Exception {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(SOURCE);
+        context.deleteDatabase(RESTORED);
+        progressFile = new File(context.getCacheDir(), "archive_test.progress");
+        progressFile.delete();
+        store = new LeadStore(context, SOURCE);
+        restored = new LeadStore(context, RESTORED);
+
+        BenchmarkLeads.seed(store, ROWS / 4);
+        List<LeadStore.Mutation> calls = new ArrayList<>();
+        for (int k = 0; k < 3; k++) {
+            calls.add(LeadStore.Mutation.exec("INSERT INTO call_logs (lead_id, phone_number, call_type, duration,"
+                + " started_at, notes, created_at) SELECT id, phone_primary, CASE (id + ?) % 3 WHEN 0 THEN 'incoming'"
+                + " WHEN 1 THEN 'outgoing' ELSE 'missed' END, (id * 7 + ?) % 600, created_at + ? * 3600000,"
+                + " CASE WHEN id % 10 = 0 THEN 'Asked for \"pricing\", call back\nafter 5' END, created_at FROM leads",
+                (long) k, (long) k, (long) k));
+        }
+        store.apply(calls);
+    }
+
+    @After
+    public void tearDown() {
+        store.close();
+        restored.close();
+        context.deleteDatabase(SOURCE);
+        context.deleteDatabase(RESTORED);
+        progressFile.delete();
+    }
+
+    @Test
+    public void gzipRoundTrip() throws Exception {
+        roundTrip(true);
+    }
+
+    @Test
+    public void plainRoundTrip() throws Exception {
+        roundTrip(false);
+    }
+
+    private void roundTrip(boolean gzip) throws Exception {
+        File file = new File(context.getCacheDir(), gzip ? "archive_test.ndjson.gz" : "archive_test.ndjson");
+        try {
+            Runtime runtime = Runtime.getRuntime();
+            runtime.gc();
+            long baseline = runtime.totalMemory() - runtime.freeMemory();
+            long[] peak = {baseline};
+            LeadArchive.ProgressListener sample = progress ->
+                peak[0] = Math.max(peak[0], runtime.totalMemory() - runtime.freeMemory());
+
+            LeadArchive.Result exported = LeadArchiver.export(store.database(), file, gzip, sample);
+            LeadArchive.Result imported = LeadArchiver.importFrom(restored, file, progressFile, sample);
+            Log.i(TAG, (gzip ? "gzip" : "plain") + ": " + exported.rows + " rows, " + exported.bytes / 1024 + "KB, export "
+                + exported.elapsedMs + "ms (" + Math.round(exported.rowsPerSec()) + " rows/s), import "
+                + imported.elapsedMs + "ms (" + Math.round(imported.rowsPerSec()) + " rows/s), heap growth "
+                + (peak[0] - baseline) / 1024 + "KB");
+
+            assertEquals(exported.rows, imported.rows);
+            for (String table : LeadArchive.TABLES) {
+                String sql = "SELECT COUNT(*) || ':' || TOTAL(rowid) FROM " + table;
+                assertEquals(table, single(store, sql), single(restored, sql));
+            }
+            assertEquals(0, LeadAggregates.verify(restored.database()));
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static String single(LeadStore store, String sql) {
+        Cursor cursor = store.database().rawQuery(sql, null);
+        try {
+            cursor.moveToFirst();
+            return cursor.getString(0);
+        } finally {
+            cursor.close();
+        }
+    }
+}
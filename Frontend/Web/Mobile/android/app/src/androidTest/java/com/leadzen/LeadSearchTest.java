@@ -0,0 +1,77 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+// Ranking across more matches than the old 256-row candidate window, and the FTS4 cap
+@RunWith(AndroidJUnit4.class)
+public class LeadSearchTest {
+    private static final String DATABASE = "leadzen_test_lead_search.db";
+
+    private Context context;
+    private LeadStore store;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DATABASE);
+        store = new LeadStore(context, DATABASE);
+    }
+
+    @After
+    public void tearDown() {
+        store.close();
+        context.deleteDatabase(DATABASE);
+    }
+
+    // Lead 1 named Ravi, then `count` newer leads that only mention Ravi in their notes
+    private void seed(int count) throws Exception {
+        long now = System.currentTimeMillis();
+        List<LeadStore.Mutation> batch = new ArrayList<>();
+        batch.add(LeadStore.Mutation.exec("INSERT INTO leads (id, name, phone_primary, created_at, updated_at)"
+            + " VALUES (1, 'Ravi Shankar', '+919000000001', ?, ?)", now, now));
+        for (int i = 0; i < count; i++) {
+            batch.add(LeadStore.Mutation.exec("INSERT INTO leads (id, name, phone_primary, notes, created_at, updated_at)"
+                + " VALUES (?, ?, ?, 'Referred by Ravi after the expo, wants a quote for the renewal', ?, ?)",
+                i + 2L, "Lead " + i, Long.toString(9_100_000_000L + i), now, now));
+        }
+        store.apply(batch);
+    }
+
+    private boolean ranksFirst(long leadId) {
+        List<LeadSearch.Hit> hits = store.search("ravi", 5);
+        assertFalse(hits.isEmpty());
+        return hits.get(0).type == LeadSearch.TYPE_LEAD && hits.get(0).leadId == leadId;
+    }
+
+    @Test
+    public void nameMatchBeatsManyNewerNoteMatches() throws Exception {
+        seed(1_000);
+        assertTrue(ranksFirst(1L));
+        assertEquals(5, store.search("ravi", 5).size());
+    }
+
+    // FTS5 ranks every match; FTS4 only the newest FTS4_CANDIDATES, so the name match drops out
+    // once that many newer leads match
+    @Test
+    public void fts4RanksTheNewestCandidatesOnly() throws Exception {
+        seed(LeadSearch.FTS4_CANDIDATES);
+        boolean fts5 = LeadSearch.open(store.database()).usesFts5();
+        assertEquals(fts5, ranksFirst(1L));
+        // A narrower query is back under the cap
+        List<LeadSearch.Hit> narrowed = store.search("ravi shan", 5);
+        assertEquals(1, narrowed.size());
+        assertEquals(1L, narrowed.get(0).leadId);
+    }
+}
@@ -0,0 +1,107 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertEquals;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import java.io.File;
+import java.util.Arrays;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+// Cold lookup of one caller at 10k/50k/100k leads: opening the mapped snapshot and reading the
+// record, against parsing the same leads from the one-string JSON that AsyncStorageService keeps
+// and scanning it. Logs the median of RUNS cold runs of each.
+@RunWith(AndroidJUnit4.class)
+public class LeadSnapshotBenchmarkTest {
+    private static final String TAG = "LeadSnapshotBench";
+    private static final int[] SIZES = {10_000, 50_000, 100_000};
+    private static final int RUNS = 5;
+
+    private File dir;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        dir = new File(context.getCacheDir(), "snapshot_bench");
+        dir.mkdirs();
+    }
+
+    @After
+    public void tearDown() {
+        LeadSnapshot.invalidateShared();
+        new File(dir, LeadSnapshot.FILE_NAME).delete();
+        dir.delete();
+    }
+
+    @Test
+    public void coldLookupAgainstJsonParse() throws Exception {
+        StringBuilder report = new StringBuilder("cold lookup:");
+        for (int size : SIZES) {
+            String[] phones = new String[size];
+            int[] ids = new int[size];
+            String[] names = new String[size];
+            String[] companies = new String[size];
+            String[] stages = new String[size];
+            long[] lastContacts = new long[size];
+            JSONArray leads = new JSONArray();
+            for (int i = 0; i < size; i++) {
+                phones[i] = Long.toString(9_000_000_000L + i);
+                ids[i] = i + 1;
+                names[i] = "Lead " + i;
+                companies[i] = "Company " + (i % 500);
+                stages[i] = BenchmarkLeads.STAGES[i % BenchmarkLeads.STAGES.length];
+                lastContacts[i] = 1_700_000_000_000L + i;
+                leads.put(new JSONObject().put("id", ids[i]).put("name", names[i]).put("phone", phones[i])
+                    .put("company", companies[i]).put("status", stages[i]).put("lastContactAt", lastContacts[i]));
+            }
+            String json = leads.toString();
+            LeadSnapshot.write(dir, phones, ids, names, companies, stages, lastContacts);
+            File file = new File(dir, LeadSnapshot.FILE_NAME);
+            // Near the end of the list: the worst case for the scan, not for the binary search
+            String caller = "+91 " + phones[size - 7];
+
+            long[] snapshotUs = new long[RUNS];
+            long[] jsonUs = new long[RUNS];
+            for (int run = 0; run < RUNS; run++) {
+                long start = System.nanoTime();
+                LeadSnapshot snapshot = LeadSnapshot.open(file);
+                int record = snapshot.findByPhone(caller);
+                String name = snapshot.readString(record, LeadSnapshot.FIELD_NAME);
+                snapshotUs[run] = (System.nanoTime() - start) / 1_000;
+                assertEquals(size - 6, snapshot.leadId(record));
+                assertEquals(names[size - 7], name);
+
+                start = System.nanoTime();
+                JSONObject match = findInJson(json, caller);
+                jsonUs[run] = (System.nanoTime() - start) / 1_000;
+                assertEquals(size - 6, match.getInt("id"));
+            }
+            Arrays.sort(snapshotUs);
+            Arrays.sort(jsonUs);
+            report.append(' ').append(size).append(" leads snapshot ").append(snapshotUs[RUNS / 2])
+                .append("us / json ").append(jsonUs[RUNS / 2]).append("us (")
+                .append(file.length() / 1024).append(" KiB vs ").append(json.length() * 2 / 1024).append(" KiB),");
+        }
+        Log.i(TAG, report.toString());
+    }
+
+    // What the JS path did per call: parse the whole list, then normalize and compare every phone
+    private static JSONObject findInJson(String json, String caller) throws Exception {
+        long key = CallerIdIndex.packPhone(caller);
+        JSONArray leads = new JSONArray(json);
+        for (int i = 0; i < leads.length(); i++) {
+            JSONObject lead = leads.getJSONObject(i);
+            if (CallerIdIndex.packPhone(lead.optString("phone")) == key) {
+                return lead;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,341 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+// Lead store write, ranking, paging and search timings on a scratch database of generated leads,
+// writes also against the JSON blob that AsyncStorageService kept.
+// Each run checks the rows it timed (final stages, unique ranks, keyset pages equal to OFFSET
+// pages, search hits) and logs the numbers.
+@RunWith(AndroidJUnit4.class)
+public class LeadStoreBenchmarkTest {
+    private static final String TAG = "LeadStoreBench";
+    private static final String DATABASE = "leadzen_test_lead_store_bench.db";
+    private static final String BLOB_DATABASE = "leadzen_test_json_blob_bench.db";
+    private static final String BLOB_KEY = "@leadzen_leads";
+    private static final int SEARCH_BUDGET_MS = 20;
+
+    private Context context;
+    private LeadStore store;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DATABASE);
+        store = new LeadStore(context, DATABASE);
+    }
+
+    @After
+    public void tearDown() {
+        store.close();
+        context.deleteDatabase(DATABASE);
+    }
+
+    // Single-lead status updates at 50k leads: each awaited before the next (one transaction per
+    // write) versus submitted back to back (group commit), against the JSON-blob path the store
+    // replaces (see jsonBlobWrites)
+    @Test
+    public void writes() throws Exception {
+        int leadCount = 50_000;
+        int updateCount = 500;
+        int blobUpdateCount = 10;
+        BenchmarkLeads.seed(store, leadCount);
+        double blobPerSec = jsonBlobWrites(leadCount, blobUpdateCount);
+
+        int statusColumn = LeadStoreSchema.columnIndex("status");
+        String[] stages = {"won", "lost"};
+
+        List<List<LeadStore.Mutation>> sequential = updates(updateCount, leadCount, statusColumn, stages[0]);
+        long start = System.nanoTime();
+        for (List<LeadStore.Mutation> update : sequential) {
+            store.apply(update);
+        }
+        double sequentialPerSec = updateCount / ((System.nanoTime() - start) / 1e9);
+        assertEquals(updateCount, countStage(stages[0]));
+
+        List<List<LeadStore.Mutation>> grouped = updates(updateCount, leadCount, statusColumn, stages[1]);
+        start = System.nanoTime();
+        BenchmarkLeads.submitAll(store, grouped);
+        double groupedPerSec = updateCount / ((System.nanoTime() - start) / 1e9);
+        assertEquals(0, countStage(stages[0]));
+        assertEquals(updateCount, countStage(stages[1]));
+
+        Log.i(TAG, "writes at " + leadCount + " leads: json blob " + String.format("%.2f", blobPerSec)
+            + "/s, sequential " + Math.round(sequentialPerSec) + "/s, grouped " + Math.round(groupedPerSec)
+            + "/s, transactions " + store.transactionCount());
+    }
+
+    // AsyncStorageService.updateLead before the store: read the whole leads value, parse it, change
+    // one lead, serialize it all and write it back. AsyncStorage on Android keeps each value as one
+    // row of catalystLocalStorage in its own SQLite database, so the blob is read and written there.
+    // The blob holds the seeded leads; returns updates/sec.
+    private double jsonBlobWrites(int leadCount, int updateCount) throws Exception {
+        int statusColumn = LeadStoreSchema.columnIndex("status");
+        JSONArray leads = new JSONArray();
+        for (Object[] row : store.getLeads(leadCount, 0)) {
+            JSONObject lead = new JSONObject().put("id", String.valueOf(row[LeadStoreSchema.LEAD_COLUMNS.length]));
+            for (int i = 0; i < LeadStoreSchema.LEAD_COLUMNS.length; i++) {
+                if (row[i] != null) {
+                    lead.put(LeadStoreSchema.LEAD_COLUMNS[i].key, row[i]);
+                }
+            }
+            leads.put(lead);
+        }
+        context.deleteDatabase(BLOB_DATABASE);
+        SQLiteDatabase blobs = context.openOrCreateDatabase(BLOB_DATABASE, Context.MODE_PRIVATE, null);
+        try {
+            blobs.execSQL("CREATE TABLE catalystLocalStorage (key TEXT PRIMARY KEY, value TEXT NOT NULL)");
+            blobs.execSQL("INSERT INTO catalystLocalStorage VALUES (?, ?)", new Object[] {BLOB_KEY, leads.toString()});
+            leads = null;
+
+            long start = System.nanoTime();
+            for (int i = 0; i < updateCount; i++) {
+                String id = Long.toString(1 + (i * 7919L) % leadCount);
+                JSONArray stored = new JSONArray(DatabaseUtils.stringForQuery(blobs,
+                    "SELECT value FROM catalystLocalStorage WHERE key = ?", new String[] {BLOB_KEY}));
+                for (int index = 0; index < stored.length(); index++) {
+                    JSONObject lead = stored.getJSONObject(index);
+                    if (id.equals(lead.getString("id"))) {
+                        lead.put(LeadStoreSchema.LEAD_COLUMNS[statusColumn].key, "won");
+                        lead.put("updatedAt", System.currentTimeMillis());
+                        break;
+                    }
+                }
+                blobs.execSQL("INSERT OR REPLACE INTO catalystLocalStorage VALUES (?, ?)",
+                    new Object[] {BLOB_KEY, stored.toString()});
+            }
+            double perSec = updateCount / ((System.nanoTime() - start) / 1e9);
+
+            JSONArray stored = new JSONArray(DatabaseUtils.stringForQuery(blobs,
+                "SELECT value FROM catalystLocalStorage WHERE key = ?", new String[] {BLOB_KEY}));
+            int won = 0;
+            for (int index = 0; index < stored.length(); index++) {
+                won += "won".equals(stored.getJSONObject(index).optString("status")) ? 1 : 0;
+            }
+            assertEquals(updateCount, won);
+            return perSec;
+        } finally {
+            blobs.close();
+            context.deleteDatabase(BLOB_DATABASE);
+        }
+    }
+
+    private static List<List<LeadStore.Mutation>> updates(int count, int leadCount, int statusColumn, String stage) {
+        List<List<LeadStore.Mutation>> updates = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Object[] values = new Object[LeadStoreSchema.LEAD_COLUMNS.length];
+            values[statusColumn] = stage;
+            updates.add(Collections.singletonList(new LeadStore.Mutation(LeadStore.Mutation.UPDATE,
+                1 + (i * 7919L) % leadCount, values, LeadStore.bit(statusColumn))));
+        }
+        return updates;
+    }
+
+    private long countStage(String stage) {
+        return DatabaseUtils.longForQuery(store.database(), "SELECT COUNT(*) FROM leads WHERE pipeline_stage = ?",
+            new String[] {stage});
+    }
+
+    // Manual reordering inside one column of 10k cards, each move its own transaction; half drop a
+    // random card at a random place, half right after the same card, which keeps eating one gap.
+    // Rank moves (one row plus the occasional rebalance) versus renumbering the whole column.
+    @Test
+    public void ranking() throws Exception {
+        int cardsPerStage = 10_000;
+        int moveCount = 2_000;
+        BenchmarkLeads.seed(store, cardsPerStage * BenchmarkLeads.STAGES.length);
+        // Lead i + 1 is in stage STAGES[i % 4]
+        String stage = BenchmarkLeads.STAGES[0];
+        Random random = new Random(5);
+        long hot = 1 + 4L * (cardsPerStage / 2);
+
+        LeadRanks ranks = store.ranks();
+        long rowsBefore = ranks.rebalancedRows();
+        long start = System.nanoTime();
+        int moves = 0;
+        for (int i = 0; i < moveCount; i++) {
+            long card = 1 + 4L * random.nextInt(cardsPerStage);
+            long after = i % 2 == 1 ? hot : random.nextInt(10) == 0 ? 0 : 1 + 4L * random.nextInt(cardsPerStage);
+            if (after == card) {
+                continue;
+            }
+            store.apply(Collections.singletonList(LeadStore.Mutation.rank(card, stage, after)));
+            moves++;
+        }
+        double rankUs = (System.nanoTime() - start) / 1e3 / Math.max(1, moves);
+        double rankRows = (moves + ranks.rebalancedRows() - rowsBefore) / (double) Math.max(1, moves);
+        // Let the last queued rebalance finish before checking and the baseline
+        store.apply(new ArrayList<>());
+        assertEquals(cardsPerStage, DatabaseUtils.longForQuery(store.database(),
+            "SELECT COUNT(DISTINCT stage_rank) FROM leads WHERE pipeline_stage = ?", new String[] {stage}));
+
+        ArrayList<Long> column = new ArrayList<>(cardsPerStage);
+        Cursor cursor = store.database().rawQuery(
+            "SELECT id FROM leads WHERE pipeline_stage = ? ORDER BY stage_rank, id", new String[] {stage});
+        try {
+            while (cursor.moveToNext()) {
+                column.add(cursor.getLong(0));
+            }
+        } finally {
+            cursor.close();
+        }
+        int renumberMoves = 20;
+        long renumberRows = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < renumberMoves; i++) {
+            Long card = column.remove(random.nextInt(column.size()));
+            column.add(random.nextInt(column.size() + 1), card);
+            ArrayList<LeadStore.Mutation> renumber = new ArrayList<>(column.size());
+            for (int position = 0; position < column.size(); position++) {
+                renumber.add(LeadStore.Mutation.exec("UPDATE leads SET stage_rank = ? WHERE id = ?",
+                    (long) position, column.get(position)));
+            }
+            store.apply(renumber);
+            renumberRows += renumber.size();
+        }
+        double renumberUs = (System.nanoTime() - start) / 1e3 / renumberMoves;
+
+        Log.i(TAG, "ranking in a column of " + cardsPerStage + ": rank move " + Math.round(rankUs) + "us, "
+            + String.format("%.2f", rankRows) + " rows/move, " + ranks.rebalances() + " rebalances; renumber "
+            + Math.round(renumberUs) + "us, " + renumberRows / renumberMoves + " rows/move");
+    }
+
+    // Median ms to read one page at increasing depths of the newest-first list, keyset cursor
+    // versus LIMIT/OFFSET; both must return the same rows
+    @Test
+    public void paging() throws Exception {
+        int leadCount = 100_000;
+        int pageSize = 50;
+        int[] depths = {0, 1_000, 10_000, 50_000, 99_000};
+        BenchmarkLeads.seed(store, leadCount);
+        SQLiteDatabase db = store.database();
+        StringBuilder report = new StringBuilder("paging at " + leadCount + " leads:");
+        for (int depth : depths) {
+            depth = Math.min(depth, leadCount - pageSize);
+            // Cursor of the row just above the depth, as the previous page would have returned it
+            String token = null;
+            if (depth > 0) {
+                Cursor at = db.rawQuery("SELECT created_at, id FROM leads ORDER BY created_at DESC, id DESC LIMIT 1 OFFSET "
+                    + (depth - 1), null);
+                try {
+                    if (at.moveToFirst()) {
+                        token = LeadPageQuery.ORDER_CREATED + ":" + at.getLong(0) + ":" + at.getLong(1);
+                    }
+                } finally {
+                    at.close();
+                }
+            }
+            // Same select list and page size both ways; only the way to the depth differs
+            LeadPageQuery keyset = new LeadPageQuery(LeadPageQuery.ORDER_CREATED, null, pageSize, token);
+            String offsetSql = new LeadPageQuery(LeadPageQuery.ORDER_CREATED, null, pageSize, null).sql()
+                + " OFFSET " + depth;
+            assertEquals("page at " + depth, ids(db.rawQuery(offsetSql, null)),
+                ids(db.rawQuery(keyset.sql(), keyset.args())));
+
+            double keysetMs = medianMillis(() -> ids(db.rawQuery(keyset.sql(), keyset.args())));
+            double offsetMs = medianMillis(() -> ids(db.rawQuery(offsetSql, null)));
+            report.append(String.format(" [%d: keyset %.2fms, offset %.2fms]", depth, keysetMs, offsetMs));
+        }
+        Log.i(TAG, report.toString());
+    }
+
+    // Median ms per search, keystroke by keystroke, over 100k leads, 500k notes and a call log with
+    // notes on every tenth lead; each must stay under the 20ms keystroke budget
+    @Test
+    public void search() throws Exception {
+        int leadCount = 100_000;
+        int noteCount = 500_000;
+        int limit = 20;
+        String[] queries = {"r", "ra", "rav", "ravi", "ravi s", "ravi sha", "acme", "pric", "renewal contr", "90000"};
+        BenchmarkLeads.seed(store, leadCount);
+        Random random = new Random(42);
+        long now = System.currentTimeMillis();
+        ArrayList<LeadStore.Mutation> chunk = new ArrayList<>();
+        for (int i = 0; i < noteCount; i++) {
+            chunk.add(LeadStore.Mutation.exec(
+                "INSERT INTO notes (lead_id, content, note_type, created_at, updated_at) VALUES (?, ?, 'general', ?, ?)",
+                1L + i % leadCount, BenchmarkLeads.sentence(random), now, now));
+            if (chunk.size() == 10_000 || i == noteCount - 1) {
+                store.apply(chunk);
+                chunk = new ArrayList<>();
+            }
+        }
+        for (int i = 0; i < leadCount; i += 10) {
+            chunk.add(LeadStore.Mutation.exec(
+                "INSERT INTO call_logs (lead_id, phone_number, call_type, started_at, notes, created_at) VALUES (?, ?, 'outgoing', ?, ?, ?)",
+                i + 1L, Long.toString(9_000_000_000L + i), now, BenchmarkLeads.sentence(random), now));
+        }
+        store.apply(chunk);
+
+        // A lead name, a company and a note word
+        for (String query : new String[] {"ravi sha", "acme", "pric"}) {
+            assertFalse(query, store.search(query, limit).isEmpty());
+        }
+        // The leads behind the hits: each once, in hit order, read in one query
+        List<Long> hitLeads = new ArrayList<>();
+        for (LeadSearch.Hit hit : store.search("pric", limit)) {
+            if (hit.leadId > 0 && !hitLeads.contains(hit.leadId)) {
+                hitLeads.add(hit.leadId);
+            }
+        }
+        List<Long> leadIds = new ArrayList<>();
+        for (Object[] row : store.searchLeads("pric", limit)) {
+            leadIds.add((Long) row[LeadStoreSchema.LEAD_COLUMNS.length]);
+        }
+        assertEquals(hitLeads, leadIds);
+        StringBuilder report = new StringBuilder("search over " + leadCount + " leads and " + noteCount + " notes:");
+        List<String> slow = new ArrayList<>();
+        for (String query : queries) {
+            double ms = medianMillis(() -> store.search(query, limit));
+            report.append(String.format(" [%s: %.2fms]", query, ms));
+            if (ms >= SEARCH_BUDGET_MS) {
+                slow.add(query);
+            }
+        }
+        Log.i(TAG, report.toString());
+        assertTrue("over " + SEARCH_BUDGET_MS + "ms: " + slow + " in " + report, slow.isEmpty());
+    }
+
+    private static List<Long> ids(Cursor cursor) {
+        List<Long> ids = new ArrayList<>();
+        try {
+            while (cursor.moveToNext()) {
+                ids.add(cursor.getLong(0));
+            }
+        } finally {
+            cursor.close();
+        }
+        return ids;
+    }
+
+    private static double medianMillis(Runnable read) {
+        double[] samples = new double[7];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            read.run();
+            samples[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2];
+    }
+}
@@ -0,0 +1,142 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.app.Instrumentation;
+import android.content.Context;
+import android.graphics.Color;
+import android.os.SystemClock;
+import android.view.View;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+// Running animators and delivered frame callbacks across the service's show / expand / hide / trim
+// cycle. The test has no overlay window to attach the rings to, so it makes the same setActive /
+// unregister calls the PulseView window callbacks and FloatingOverlayService make.
+@RunWith(AndroidJUnit4.class)
+public class OverlayAnimationControllerTest {
+    private static final int CYCLES = 20;
+    private static final long SETTLE_MS = 250;
+
+    private Instrumentation instrumentation;
+    private Context context;
+    private OverlayAnimationController controller;
+
+    @Before
+    public void setUp() {
+        instrumentation = InstrumentationRegistry.getInstrumentation();
+        context = instrumentation.getTargetContext();
+        instrumentation.runOnMainSync(() -> controller = new OverlayAnimationController(context));
+    }
+
+    @After
+    public void tearDown() {
+        instrumentation.runOnMainSync(() -> controller.release());
+    }
+
+    private PulseView newPulse() {
+        PulseView[] pulse = new PulseView[1];
+        instrumentation.runOnMainSync(() -> pulse[0] = new PulseView(context, controller, Color.RED));
+        return pulse[0];
+    }
+
+    private void onMain(Runnable action) {
+        instrumentation.runOnMainSync(action);
+    }
+
+    // Frames delivered to the controller while the main thread idles for SETTLE_MS
+    private long framesWhileIdle() {
+        long[] before = new long[1];
+        onMain(() -> before[0] = controller.frames());
+        SystemClock.sleep(SETTLE_MS);
+        long[] after = new long[1];
+        onMain(() -> after[0] = controller.frames());
+        return after[0] - before[0];
+    }
+
+    @Test
+    public void oneSharedClockWhileShownNoneAfterHide() {
+        PulseView bubblePulse = newPulse();
+        assertEquals(0, framesWhileIdle());
+
+        for (int cycle = 0; cycle < CYCLES; cycle++) {
+            // Bubble shown
+            onMain(() -> controller.setActive(bubblePulse, true));
+            onMain(() -> assertEquals(1, controller.activeAnimators()));
+
+            // Expanded: a fresh overlay ring and the slide-in, still one pulse clock
+            PulseView overlayPulse = newPulse();
+            onMain(() -> {
+                controller.setActive(overlayPulse, true);
+                controller.slideIn(new View(context), 300f, 400);
+                assertEquals(2, controller.activePulses());
+                assertEquals(2, controller.activeAnimators());
+            });
+
+            // Collapsed, then the expanded tree thrown away as on a trim
+            onMain(() -> {
+                controller.cancelSlide();
+                controller.setActive(overlayPulse, false);
+                controller.unregister(overlayPulse);
+                assertEquals(1, controller.activeAnimators());
+                assertEquals(1, controller.registeredPulses());
+            });
+
+            // Bubble hidden
+            onMain(() -> {
+                controller.setActive(bubblePulse, false);
+                assertEquals(0, controller.activeAnimators());
+            });
+        }
+
+        // Shown: the one clock delivers frames; hidden: none at all
+        onMain(() -> controller.setActive(bubblePulse, true));
+        assertTrue(framesWhileIdle() > 0);
+        onMain(() -> controller.setActive(bubblePulse, false));
+        assertEquals(0, framesWhileIdle());
+        onMain(() -> {
+            assertEquals(0, controller.activeAnimators());
+            assertEquals(CYCLES + 1, controller.resumes());
+            assertEquals(CYCLES + 1, controller.pauses());
+        });
+    }
+
+    @Test
+    public void trimWhileShownStopsTheClock() {
+        PulseView bubblePulse = newPulse();
+        onMain(() -> controller.setActive(bubblePulse, true));
+        assertTrue(framesWhileIdle() > 0);
+
+        onMain(() -> {
+            controller.unregister(bubblePulse);
+            assertEquals(0, controller.registeredPulses());
+            assertEquals(0, controller.activeAnimators());
+            // A callback from the discarded view no longer counts
+            controller.setActive(bubblePulse, true);
+            assertEquals(0, controller.activeAnimators());
+        });
+        assertEquals(0, framesWhileIdle());
+    }
+
+    @Test
+    public void screenOffPausesAndScreenOnResumes() {
+        PulseView bubblePulse = newPulse();
+        onMain(() -> {
+            controller.setActive(bubblePulse, true);
+            controller.setScreenOn(false);
+            assertEquals(0, controller.activeAnimators());
+        });
+        assertEquals(0, framesWhileIdle());
+
+        onMain(() -> {
+            controller.setScreenOn(true);
+            assertEquals(1, controller.activeAnimators());
+        });
+        assertTrue(framesWhileIdle() > 0);
+    }
+}
@@ -0,0 +1,135 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import android.app.Instrumentation;
+import android.content.Context;
+import android.graphics.PixelFormat;
+import android.os.Debug;
+import android.view.Display;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.WindowManager;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class OverlayDragControllerTest {
+    private static final int MOVES = 200;
+
+    // Counts layout updates instead of touching a real window
+    private static final class RecordingWindowManager implements WindowManager {
+        int updates;
+
+        @Override public void addView(View view, ViewGroup.LayoutParams params) {}
+        @Override public void updateViewLayout(View view, ViewGroup.LayoutParams params) { updates++; }
+        @Override public void removeView(View view) {}
+        @Override public void removeViewImmediate(View view) {}
+        @Override public Display getDefaultDisplay() { return null; }
+    }
+
+    private static final class AttachedView extends View {
+        AttachedView(Context context) {
+            super(context);
+        }
+
+        @Override
+        public boolean isAttachedToWindow() {
+            return true;
+        }
+    }
+
+    private static WindowManager.LayoutParams params() {
+        WindowManager.LayoutParams params = new WindowManager.LayoutParams(
+            100, 100, WindowManager.LayoutParams.TYPE_APPLICATION_OVERLAY, 0, PixelFormat.TRANSLUCENT);
+        params.x = 0;
+        params.y = 0;
+        return params;
+    }
+
+    @Test
+    public void replayedDragCoalescesAndDoesNotAllocate() {
+        Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        Context context = instrumentation.getTargetContext();
+        instrumentation.runOnMainSync(() -> {
+            RecordingWindowManager windowManager = new RecordingWindowManager();
+            WindowManager.LayoutParams params = params();
+            View view = new AttachedView(context);
+            int[] clicks = new int[1];
+            OverlayDragController controller = new OverlayDragController(windowManager, view, params, () -> clicks[0]++);
+
+            // Recorded shape of a slow drag: 1px right and down per 8ms, then a pause so
+            // the release carries no fling
+            long downTime = 1_000L;
+            MotionEvent down = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, 100f, 100f, 0);
+            MotionEvent[] moves = new MotionEvent[MOVES];
+            for (int i = 0; i < MOVES; i++) {
+                float offset = Math.min(i + 1, MOVES - 20);
+                moves[i] = MotionEvent.obtain(downTime, downTime + (i + 1) * 8L, MotionEvent.ACTION_MOVE,
+                    100f + offset, 100f + offset, 0);
+            }
+            MotionEvent up = MotionEvent.obtain(downTime, downTime + (MOVES + 1) * 8L, MotionEvent.ACTION_UP,
+                100f + MOVES - 20, 100f + MOVES - 20, 0);
+
+            controller.onTouch(view, down);
+            // The first moves cross the drag threshold and post the frame callback
+            for (int i = 0; i < 30; i++) {
+                controller.onTouch(view, moves[i]);
+            }
+            Debug.resetThreadAllocCount();
+            Debug.startAllocCounting();
+            for (int i = 30; i < MOVES; i++) {
+                controller.onTouch(view, moves[i]);
+            }
+            Debug.stopAllocCounting();
+            int allocations = Debug.getThreadAllocCount();
+            int updatesBeforeRelease = windowManager.updates;
+            controller.onTouch(view, up);
+            controller.release();
+
+            assertEquals("allocations on the move path", 0, allocations);
+            assertEquals(MOVES, controller.moveEventCount());
+            // No frame ran inside this block, so every move folded into the release's single update
+            assertEquals(0, updatesBeforeRelease);
+            assertEquals(1, windowManager.updates);
+            assertEquals(1, controller.layoutUpdateCount());
+            assertEquals(MOVES - 20, params.x);
+            assertEquals(MOVES - 20, params.y);
+            assertEquals(0, clicks[0]);
+
+            down.recycle();
+            up.recycle();
+            for (MotionEvent move : moves) {
+                move.recycle();
+            }
+        });
+    }
+
+    @Test
+    public void moveAndUpWithoutDownAreIgnored() {
+        Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        Context context = instrumentation.getTargetContext();
+        instrumentation.runOnMainSync(() -> {
+            RecordingWindowManager windowManager = new RecordingWindowManager();
+            WindowManager.LayoutParams params = params();
+            View view = new AttachedView(context);
+            OverlayDragController controller = new OverlayDragController(windowManager, view, params, () -> {});
+
+            MotionEvent move = MotionEvent.obtain(0L, 8L, MotionEvent.ACTION_MOVE, 300f, 300f, 0);
+            MotionEvent up = MotionEvent.obtain(0L, 16L, MotionEvent.ACTION_UP, 300f, 300f, 0);
+            assertFalse(controller.onTouch(view, move));
+            assertFalse(controller.onTouch(view, up));
+            controller.release();
+
+            assertEquals(0, controller.moveEventCount());
+            assertEquals(0, windowManager.updates);
+            assertEquals(0, params.x);
+            move.recycle();
+            up.recycle();
+        });
+    }
+}
@@ -0,0 +1,77 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import android.util.Log;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+// Numbers/s for the phone normalizer on the device: pack (the allocation-free key path), bulk cold
+// (fresh memo) and bulk warm (the same batch again, answered from the memo).
+@RunWith(AndroidJUnit4.class)
+public class PhoneNormalizerBenchmarkTest {
+    private static final String TAG = "PhoneNormalizerBench";
+    private static final int COUNT = 200_000;
+
+    @Test
+    public void packAndBulkThroughput() {
+        String[] numbers = sampleNumbers(COUNT);
+        PhoneNormalizer normalizer = new PhoneNormalizer(PhoneNormalizer.current().region());
+        long[] keys = new long[COUNT];
+        long[] bulkKeys = new long[COUNT];
+        String[] normalized = new String[COUNT];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < COUNT; i++) {
+            keys[i] = normalizer.pack(numbers[i]);
+        }
+        double packPerSec = COUNT / ((System.nanoTime() - start) / 1e9);
+
+        start = System.nanoTime();
+        normalizer.normalizeAll(numbers, bulkKeys, normalized);
+        double coldPerSec = COUNT / ((System.nanoTime() - start) / 1e9);
+
+        start = System.nanoTime();
+        normalizer.normalizeAll(numbers, bulkKeys, normalized);
+        double warmPerSec = COUNT / ((System.nanoTime() - start) / 1e9);
+
+        assertArrayEquals(keys, bulkKeys);
+        // Six spellings of 500 numbers, all in region IN: 500 distinct keys
+        assertEquals(PhoneNormalizer.format(keys[0]), normalized[500]);
+        assertEquals(2L * COUNT, normalizer.memoHits() + normalizer.memoMisses());
+        Log.i(TAG, "pack " + Math.round(packPerSec) + "/s, bulk cold " + Math.round(coldPerSec)
+            + "/s, bulk warm " + Math.round(warmPerSec) + "/s, memo hits " + normalizer.memoHits());
+    }
+
+    // 500 distinct mobile numbers, each written six ways
+    private static String[] sampleNumbers(int count) {
+        String[] numbers = new String[count];
+        for (int i = 0; i < count; i++) {
+            long national = 9_800_000_000L + (i % 500) * 7_919L;
+            String digits = Long.toString(national);
+            switch ((i / 500) % 6) {
+                case 0:
+                    numbers[i] = digits;
+                    break;
+                case 1:
+                    numbers[i] = "+91" + digits;
+                    break;
+                case 2:
+                    numbers[i] = "+91 " + digits.substring(0, 5) + " " + digits.substring(5);
+                    break;
+                case 3:
+                    numbers[i] = "0" + digits;
+                    break;
+                case 4:
+                    numbers[i] = "(" + digits.substring(0, 3) + ") " + digits.substring(3, 6) + "-" + digits.substring(6);
+                    break;
+                default:
+                    numbers[i] = "+91-" + digits + " ext. 12";
+                    break;
+            }
+        }
+        return numbers;
+    }
+}
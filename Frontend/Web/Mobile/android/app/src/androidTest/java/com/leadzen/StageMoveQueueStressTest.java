@@ -0,0 +1,143 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+// Replays MOVES drags on a scratch database of LEADS leads (mostly bursts on a few cards, like a
+// rep working down a column), "kills the process" after 90% of them by dropping every commit from
+// then on, recovers a fresh queue from the journal and compares every lead's stage and updated_at
+// with the last move acknowledged for it. Ack times are the native side of moveLeadStage.
+@RunWith(AndroidJUnit4.class)
+public class StageMoveQueueStressTest {
+    private static final String TAG = "StageMoveQueueStress";
+    private static final String DATABASE = "leadzen_test_stage_moves.db";
+    private static final int LEADS = 500;
+    private static final int MOVES = 10_000;
+
+    private Context context;
+    private File dir;
+    private LeadStore store;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DATABASE);
+        dir = new File(context.getCacheDir(), "stage_moves_test");
+        clear(dir);
+        store = new LeadStore(context, DATABASE);
+    }
+
+    @After
+    public void tearDown() {
+        store.close();
+        context.deleteDatabase(DATABASE);
+        clear(dir);
+    }
+
+    @Test
+    public void acknowledgedMovesSurviveACrash() throws Exception {
+        BenchmarkLeads.seed(store, LEADS);
+        String[] stages = {"new", "contacted", "qualified", "proposal", "won", "lost"};
+        HashMap<Long, StageMoveQueue.Move> expected = new HashMap<>();
+        long[] ackNanos = new long[MOVES];
+        Random random = new Random(17);
+        int crashAt = MOVES - MOVES / 10;
+        AtomicBoolean crashed = new AtomicBoolean();
+        StageMoveQueue.Committer live = StageMoveQueue.into(store);
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        StageMoveJournal journal = new StageMoveJournal(dir);
+        StageMoveQueue queue = new StageMoveQueue(journal, (moves, done, failed) -> {
+            if (!crashed.get()) {
+                live.commit(moves, done, failed);
+            }
+        }, scheduler);
+        queue.recover();
+
+        int maxDepth = 0;
+        long base = System.currentTimeMillis();
+        long leadId = 1;
+        for (int i = 0; i < MOVES; i++) {
+            if (i == crashAt) {
+                crashed.set(true);
+            }
+            if (random.nextInt(4) == 0) {
+                leadId = 1 + random.nextInt(LEADS);
+            }
+            String stage = stages[random.nextInt(stages.length)];
+            long movedAt = base + i;
+            long ackStart = System.nanoTime();
+            queue.move(leadId, stage, movedAt);
+            ackNanos[i] = System.nanoTime() - ackStart;
+            expected.put(leadId, new StageMoveQueue.Move(leadId, stage, movedAt, 0));
+            maxDepth = Math.max(maxDepth, queue.depth());
+        }
+        int pendingAtCrash = queue.depth() + queue.inFlight();
+        scheduler.shutdownNow();
+        store.apply(new ArrayList<>()); // commits handed over before the crash have completed
+        journal.close();
+
+        StageMoveJournal reopened = new StageMoveJournal(dir);
+        ScheduledExecutorService recoveryScheduler = Executors.newSingleThreadScheduledExecutor();
+        StageMoveQueue recovered = new StageMoveQueue(reopened, live, recoveryScheduler);
+        try {
+            recovered.recover();
+            recovered.awaitFlushed();
+        } finally {
+            recoveryScheduler.shutdownNow();
+            reopened.close();
+        }
+
+        int mismatches = 0;
+        Cursor cursor = store.database().rawQuery("SELECT id, pipeline_stage, updated_at FROM leads", null);
+        try {
+            while (cursor.moveToNext()) {
+                StageMoveQueue.Move move = expected.get(cursor.getLong(0));
+                if (move != null && (!move.stage.equals(cursor.getString(1)) || move.movedAt != cursor.getLong(2))) {
+                    mismatches++;
+                }
+            }
+        } finally {
+            cursor.close();
+        }
+
+        Arrays.sort(ackNanos);
+        Log.i(TAG, "moves " + MOVES + ", coalesced " + queue.coalesced()
+            + ", flushes " + (queue.flushes() + recovered.flushes())
+            + ", ack p50 " + ackNanos[MOVES / 2] / 1000 + "us, p99 " + ackNanos[MOVES * 99 / 100] / 1000
+            + "us, max " + ackNanos[MOVES - 1] / 1000 + "us, max depth " + maxDepth
+            + ", flush avg " + queue.averageFlushMs() + "ms, max " + queue.maxFlushMs()
+            + "ms, pending at crash " + pendingAtCrash + ", recovered " + recovered.recovered());
+
+        assertEquals("leads whose stage differs from their last acknowledged move", 0, mismatches);
+        assertTrue(pendingAtCrash == 0 || recovered.recovered() > 0);
+    }
+
+    private static void clear(File dir) {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.mkdirs();
+    }
+}
@@ -0,0 +1,145 @@
+package com.leadzen;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import java.util.ArrayList;
+import java.util.List;
+
+// One call_logs row per call, whichever source sees it first (version 8).
+//
+// The device sync (CallLogSync) and the JS call logs mirrored by LeadStoreModule.indexCallLogs
+// both see most calls. A row from one source claims the unclaimed row of the other source with
+// the same number (phone_key, CallerIdIndex.packPhone) that started within MATCH_WINDOW_MS, so the
+// call is stored once and agg_call_day counts it once. On a merged row the device call log owns
+// the number, type, status and timing; JS adds its client_id, notes and, if the device had none,
+// the lead.
+final class CallLogMerge {
+    // JS stamps started_at when it sees the call, the device when the call starts; the gap is
+    // seconds, but JS can log a call it only learned about after the app woke
+    static final long MATCH_WINDOW_MS = 120_000L;
+
+    static final String PHONE_KEY_INDEX =
+        "CREATE INDEX IF NOT EXISTS idx_call_logs_phone_key ON call_logs(phone_key, started_at)";
+
+    // The nearest row of the other source: ?1 phone_key, ?2 started_at
+    private static final String NEAREST_CLIENT_ROW = "SELECT id FROM call_logs"
+        + " WHERE phone_key = ?1 AND device_call_id IS NULL AND client_id IS NOT NULL"
+        + " AND started_at BETWEEN ?2 - " + MATCH_WINDOW_MS + " AND ?2 + " + MATCH_WINDOW_MS
+        + " ORDER BY ABS(started_at - ?2) LIMIT 1";
+    private static final String NEAREST_DEVICE_ROW = "SELECT id FROM call_logs"
+        + " WHERE phone_key = ?1 AND client_id IS NULL AND device_call_id IS NOT NULL"
+        + " AND started_at BETWEEN ?2 - " + MATCH_WINDOW_MS + " AND ?2 + " + MATCH_WINDOW_MS
+        + " ORDER BY ABS(started_at - ?2) LIMIT 1";
+
+    // Device row: takes over a JS row, moving it to the device's started_at so that the insert
+    // after it hits idx_call_logs_device and is ignored. A row already synced (a repeated batch)
+    // claims nothing.
+    private static final String DEVICE_CLAIM_SQL = "UPDATE call_logs SET device_call_id = ?3, phone_number = ?4,"
+        + " call_type = ?5, call_status = ?6, duration = ?7, started_at = ?2, ended_at = ?8,"
+        + " lead_id = IFNULL(lead_id, ?9)"
+        + " WHERE id = (" + NEAREST_CLIENT_ROW + ")"
+        + " AND NOT EXISTS (SELECT 1 FROM call_logs WHERE device_call_id = ?3 AND started_at = ?2)";
+    private static final String DEVICE_INSERT_SQL = "INSERT OR IGNORE INTO call_logs (device_call_id, lead_id,"
+        + " phone_number, call_type, call_status, duration, started_at, ended_at, created_at, phone_key)"
+        + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // JS row, on every re-mirror: its notes and lead, and its timing while no device row backs it
+    private static final String CLIENT_UPDATE_SQL = "UPDATE call_logs SET notes = ?,"
+        + " lead_id = IFNULL((SELECT id FROM leads WHERE id = ?), lead_id) WHERE client_id = ?";
+    private static final String CLIENT_UPDATE_TIMING_SQL = "UPDATE call_logs SET phone_number = ?, phone_key = ?,"
+        + " call_type = ?, call_status = ?, duration = ?, started_at = ?, ended_at = ?"
+        + " WHERE client_id = ? AND device_call_id IS NULL";
+    // First mirror: takes over a device row, unless the JS row is already stored
+    private static final String CLIENT_CLAIM_SQL = "UPDATE call_logs SET client_id = ?3, notes = ?4,"
+        + " lead_id = IFNULL(lead_id, (SELECT id FROM leads WHERE id = ?5))"
+        + " WHERE id = (" + NEAREST_DEVICE_ROW + ")"
+        + " AND NOT EXISTS (SELECT 1 FROM call_logs WHERE client_id = ?3)";
+    private static final String CLIENT_INSERT_SQL = "INSERT OR IGNORE INTO call_logs (client_id, lead_id, phone_number,"
+        + " call_type, call_status, duration, started_at, ended_at, notes, created_at, phone_key)"
+        + " VALUES (?, (SELECT id FROM leads WHERE id = ?), ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private CallLogMerge() {
+    }
+
+    // A device call-log row; phoneKey is the packed number, leadId null when none matched
+    static void addDeviceRow(List<LeadStore.Mutation> mutations, long deviceId, Long leadId, String number,
+                             long phoneKey, String callType, String callStatus, long duration, long startedAt,
+                             long endedAt, long now) {
+        mutations.add(LeadStore.Mutation.exec(DEVICE_CLAIM_SQL,
+            phoneKey, startedAt, deviceId, number, callType, callStatus, duration, endedAt, leadId));
+        mutations.add(LeadStore.Mutation.exec(DEVICE_INSERT_SQL,
+            deviceId, leadId, number, callType, callStatus, duration, startedAt, endedAt, now, phoneKey));
+    }
+
+    // A JS call log under its own id; a leadId that doesn't exist (deleted lead) is stored as null
+    static void addClientRow(List<LeadStore.Mutation> mutations, String clientId, Long leadId, String number,
+                             String callType, String callStatus, long duration, long startedAt, Long endedAt,
+                             String notes, long now) {
+        long packed = CallerIdIndex.packPhone(number);
+        Long phoneKey = packed != 0L ? packed : null;
+        mutations.add(LeadStore.Mutation.exec(CLIENT_UPDATE_SQL, notes, leadId, clientId));
+        mutations.add(LeadStore.Mutation.exec(CLIENT_UPDATE_TIMING_SQL,
+            number, phoneKey, callType, callStatus, duration, startedAt, endedAt, clientId));
+        if (phoneKey != null) {
+            mutations.add(LeadStore.Mutation.exec(CLIENT_CLAIM_SQL, phoneKey, startedAt, clientId, notes, leadId));
+        }
+        mutations.add(LeadStore.Mutation.exec(CLIENT_INSERT_SQL,
+            clientId, leadId, number, callType, callStatus, duration, startedAt, endedAt, notes, now, phoneKey));
+    }
+
+    // Upgrade to version 8: keys the existing rows, then folds each JS row into the device row of
+    // the same call, as addClientRow would have. Reads each pass in full before writing.
+    static void backfill(SQLiteDatabase db) {
+        long[] ids;
+        long[] keys;
+        Cursor cursor = db.rawQuery("SELECT id, phone_number FROM call_logs", null);
+        try {
+            ids = new long[cursor.getCount()];
+            keys = new long[ids.length];
+            for (int i = 0; cursor.moveToNext(); i++) {
+                ids[i] = cursor.getLong(0);
+                keys[i] = cursor.isNull(1) ? 0L : CallerIdIndex.packPhone(cursor.getString(1));
+            }
+        } finally {
+            cursor.close();
+        }
+        for (int i = 0; i < ids.length; i++) {
+            if (keys[i] != 0L) {
+                db.execSQL("UPDATE call_logs SET phone_key = ? WHERE id = ?", new Object[] {keys[i], ids[i]});
+            }
+        }
+
+        List<Object[]> clientRows = new ArrayList<>();
+        cursor = db.rawQuery("SELECT id, client_id, phone_key, started_at, notes, lead_id FROM call_logs"
+            + " WHERE client_id IS NOT NULL AND device_call_id IS NULL AND phone_key IS NOT NULL", null);
+        try {
+            while (cursor.moveToNext()) {
+                clientRows.add(new Object[] {cursor.getLong(0), cursor.getString(1), cursor.getLong(2), cursor.getLong(3),
+                    cursor.isNull(4) ? null : cursor.getString(4), cursor.isNull(5) ? null : cursor.getLong(5)});
+            }
+        } finally {
+            cursor.close();
+        }
+        int merged = 0;
+        for (Object[] row : clientRows) {
+            long deviceRow;
+            cursor = db.rawQuery(NEAREST_DEVICE_ROW, new String[] {row[2].toString(), row[3].toString()});
+            try {
+                deviceRow = cursor.moveToFirst() ? cursor.getLong(0) : 0L;
+            } finally {
+                cursor.close();
+            }
+            if (deviceRow == 0L) {
+                continue;
+            }
+            // The JS row goes first: client_id is unique
+            db.execSQL("DELETE FROM call_logs WHERE id = ?", new Object[] {row[0]});
+            db.execSQL("UPDATE call_logs SET client_id = ?, notes = ?, lead_id = IFNULL(lead_id, ?) WHERE id = ?",
+                new Object[] {row[1], row[4], row[5], deviceRow});
+            merged++;
+        }
+        if (merged > 0) {
+            OverlayLog.i("📒 Merged {} call logs seen by both the device and the app", merged);
+        }
+    }
+}
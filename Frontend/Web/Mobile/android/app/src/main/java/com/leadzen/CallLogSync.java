@@ -0,0 +1,230 @@
+package com.leadzen;
+
+import android.Manifest;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.pm.PackageManager;
+import android.database.ContentObserver;
+import android.database.Cursor;
+import android.os.Handler;
+import android.os.Looper;
+import android.provider.CallLog;
+import androidx.core.content.ContextCompat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Keeps call_logs in step with the device call log. A ContentObserver on CallLog.Calls schedules a
+// sync DEBOUNCE_MS after the last change (the dialer writes several rows per call), and each sync
+// runs CallLogSyncEngine on a background thread from the persisted watermark.
+// Started with the call monitor by FloatingOverlayService, so it keeps working while JS is not
+// running; LeadStoreModule.syncCallLog() triggers a sync directly.
+final class CallLogSync {
+    private static final String PREFS = "leadzen_call_log_sync";
+    private static final String KEY_WATERMARK_ID = "watermark_id";
+    private static final String KEY_WATERMARK_DATE = "watermark_date";
+    private static final String KEY_LAST_SYNC_AT = "last_sync_at";
+    private static final String KEY_TOTAL_WRITTEN = "total_written";
+    private static final long DEBOUNCE_MS = 2000;
+
+    private static final String[] PROJECTION = {
+        CallLog.Calls._ID, CallLog.Calls.NUMBER, CallLog.Calls.TYPE, CallLog.Calls.DATE, CallLog.Calls.DURATION,
+    };
+
+    private static final String TOUCH_LEAD_SQL = "UPDATE leads SET last_contact_at = ?"
+        + " WHERE id = ? AND (last_contact_at IS NULL OR last_contact_at < ?)";
+
+    private static volatile CallLogSync shared;
+
+    private final Context context;
+    private final SharedPreferences prefs;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService worker = Executors.newSingleThreadExecutor();
+    private final Runnable debouncedSync = () -> requestSync();
+    private ContentObserver observer;
+    private volatile CallLogSyncEngine.Result lastResult;
+    private volatile String lastError;
+
+    static CallLogSync shared(Context context) {
+        CallLogSync sync = shared;
+        if (sync == null) {
+            synchronized (CallLogSync.class) {
+                sync = shared;
+                if (sync == null) {
+                    sync = new CallLogSync(context.getApplicationContext());
+                    shared = sync;
+                }
+            }
+        }
+        return sync;
+    }
+
+    private CallLogSync(Context context) {
+        this.context = context;
+        this.prefs = context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+    }
+
+    boolean hasPermission() {
+        return ContextCompat.checkSelfPermission(context, Manifest.permission.READ_CALL_LOG) == PackageManager.PERMISSION_GRANTED;
+    }
+
+    // Main thread. Observes the call log and catches up once right away.
+    void startObserving() {
+        if (observer != null || !hasPermission()) {
+            return;
+        }
+        observer = new ContentObserver(mainHandler) {
+            @Override
+            public void onChange(boolean selfChange) {
+                mainHandler.removeCallbacks(debouncedSync);
+                mainHandler.postDelayed(debouncedSync, DEBOUNCE_MS);
+            }
+        };
+        context.getContentResolver().registerContentObserver(CallLog.Calls.CONTENT_URI, true, observer);
+        requestSync();
+    }
+
+    void stopObserving() {
+        mainHandler.removeCallbacks(debouncedSync);
+        if (observer != null) {
+            context.getContentResolver().unregisterContentObserver(observer);
+            observer = null;
+        }
+    }
+
+    boolean isObserving() {
+        return observer != null;
+    }
+
+    // Queues a sync; one runs at a time and a queued one finds nothing new if the previous caught up.
+    // The result is null when the sync could not run.
+    Future<CallLogSyncEngine.Result> requestSync() {
+        return worker.submit(this::syncNow);
+    }
+
+    // Worker thread
+    CallLogSyncEngine.Result syncNow() {
+        if (!hasPermission()) {
+            lastError = "READ_CALL_LOG not granted";
+            return null;
+        }
+        long watermarkId = prefs.getLong(KEY_WATERMARK_ID, 0L);
+        long watermarkDate = prefs.getLong(KEY_WATERMARK_DATE, 0L);
+        LeadStore store = LeadStore.shared(context);
+        try {
+            LongIntMap leadsByPhone = store.leadIdsByPhone(0);
+            CallLogSyncEngine.Result result;
+            // _ID > watermark finds new rows; DATE > watermark also finds them after the provider
+            // was cleared and restarted its _IDs
+            Cursor cursor = context.getContentResolver().query(CallLog.Calls.CONTENT_URI, PROJECTION,
+                CallLog.Calls._ID + " > ? OR " + CallLog.Calls.DATE + " > ?",
+                new String[] {Long.toString(watermarkId), Long.toString(watermarkDate)},
+                CallLog.Calls._ID + " ASC");
+            if (cursor == null) {
+                lastError = "call log unavailable";
+                return null;
+            }
+            try {
+                result = new CallLogSyncEngine(CallLogSyncEngine.DEFAULT_BATCH_SIZE).run(
+                    new CursorRows(cursor),
+                    watermarkId,
+                    watermarkDate,
+                    packed -> leadsByPhone.get(packed, 0),
+                    batch -> store.apply(toMutations(batch)),
+                    (id, date) -> prefs.edit().putLong(KEY_WATERMARK_ID, id).putLong(KEY_WATERMARK_DATE, date).apply());
+            } finally {
+                cursor.close();
+            }
+            prefs.edit()
+                .putLong(KEY_LAST_SYNC_AT, System.currentTimeMillis())
+                .putLong(KEY_TOTAL_WRITTEN, prefs.getLong(KEY_TOTAL_WRITTEN, 0L) + result.rowsWritten)
+                .apply();
+            lastResult = result;
+            lastError = null;
+            if (result.rowsRead > 0) {
+                OverlayLog.i("📒 Call log sync: {} rows read, {} written", result.rowsRead, result.rowsWritten);
+            }
+            return result;
+        } catch (Exception e) {
+            lastError = e.getMessage();
+            OverlayLog.e("❌ Call log sync failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // One atomic batch: the rows (merged into the app's own log of the same call, see
+    // CallLogMerge), plus last_contact_at for the leads they belong to
+    static List<LeadStore.Mutation> toMutations(CallLogSyncEngine.Batch batch) {
+        List<LeadStore.Mutation> mutations = new ArrayList<>(batch.size * 3);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < batch.size; i++) {
+            Long leadId = batch.leadIds[i] > 0 ? batch.leadIds[i] : null;
+            CallLogMerge.addDeviceRow(mutations, batch.deviceIds[i], leadId, batch.numbers[i], batch.phoneKeys[i],
+                batch.callTypes[i], batch.callStatuses[i], batch.durations[i], batch.startedAt[i], batch.endedAt[i], now);
+            if (leadId != null) {
+                mutations.add(LeadStore.Mutation.exec(TOUCH_LEAD_SQL, batch.startedAt[i], leadId, batch.startedAt[i]));
+            }
+        }
+        return mutations;
+    }
+
+    long watermarkId() {
+        return prefs.getLong(KEY_WATERMARK_ID, 0L);
+    }
+
+    long lastSyncAt() {
+        return prefs.getLong(KEY_LAST_SYNC_AT, 0L);
+    }
+
+    long totalWritten() {
+        return prefs.getLong(KEY_TOTAL_WRITTEN, 0L);
+    }
+
+    CallLogSyncEngine.Result lastResult() {
+        return lastResult;
+    }
+
+    String lastError() {
+        return lastError;
+    }
+
+    private static final class CursorRows implements CallLogSyncEngine.Rows {
+        private final Cursor cursor;
+
+        CursorRows(Cursor cursor) {
+            this.cursor = cursor;
+        }
+
+        @Override
+        public boolean next() {
+            return cursor.moveToNext();
+        }
+
+        @Override
+        public long id() {
+            return cursor.getLong(0);
+        }
+
+        @Override
+        public String number() {
+            return cursor.isNull(1) ? null : cursor.getString(1);
+        }
+
+        @Override
+        public int type() {
+            return cursor.getInt(2);
+        }
+
+        @Override
+        public long date() {
+            return cursor.getLong(3);
+        }
+
+        @Override
+        public long durationSeconds() {
+            return cursor.getLong(4);
+        }
+    }
+}
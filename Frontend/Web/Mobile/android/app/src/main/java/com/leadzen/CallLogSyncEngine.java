@@ -0,0 +1,185 @@
+package com.leadzen;
+
+// Incremental copy of the device call log (CallLog.Calls) into call_logs.
+//
+// Rows are read in _ID order past a watermark, normalized, matched to a lead and handed to the
+// sink in fixed-size batches whose arrays are reused, so memory stays flat however many rows the
+// device holds. The watermark moves only after the sink has committed a batch, which makes a sync
+// resumable: a crash or a revoked permission mid-way repeats at most one batch, and the sink
+// dedupes on (device_call_id, started_at).
+//
+// No Android types here; CallLogSync adapts a Cursor and LeadStore.
+final class CallLogSyncEngine {
+    // Device call types (CallLog.Calls.*_TYPE)
+    static final int DEVICE_INCOMING = 1;
+    static final int DEVICE_OUTGOING = 2;
+    static final int DEVICE_MISSED = 3;
+    static final int DEVICE_VOICEMAIL = 4;
+    static final int DEVICE_REJECTED = 5;
+    static final int DEVICE_BLOCKED = 6;
+    static final int DEVICE_ANSWERED_EXTERNALLY = 7;
+
+    static final int DEFAULT_BATCH_SIZE = 500;
+
+    interface Rows {
+        boolean next();
+
+        long id();
+
+        String number();
+
+        int type();
+
+        long date();
+
+        long durationSeconds();
+    }
+
+    interface LeadResolver {
+        // Lead id for the packed number (CallerIdIndex.packPhone), or <= 0
+        long leadId(long packedNumber);
+    }
+
+    interface Sink {
+        // Persist rows [0, batch.size) atomically; throw to stop the sync without moving the watermark
+        void write(Batch batch) throws Exception;
+    }
+
+    interface WatermarkStore {
+        void save(long id, long date);
+    }
+
+    // Column arrays reused for every batch
+    static final class Batch {
+        final long[] deviceIds;
+        final long[] leadIds;        // 0 when no lead matched
+        final String[] numbers;      // PhoneNormalizer.format
+        final long[] phoneKeys;      // CallerIdIndex.packPhone
+        final String[] callTypes;    // 'incoming' | 'outgoing' | 'missed'
+        final String[] callStatuses; // 'completed' | 'no_answer' | 'busy'
+        final long[] durations;      // seconds
+        final long[] startedAt;
+        final long[] endedAt;
+        int size;
+
+        Batch(int capacity) {
+            deviceIds = new long[capacity];
+            leadIds = new long[capacity];
+            numbers = new String[capacity];
+            phoneKeys = new long[capacity];
+            callTypes = new String[capacity];
+            callStatuses = new String[capacity];
+            durations = new long[capacity];
+            startedAt = new long[capacity];
+            endedAt = new long[capacity];
+        }
+
+        int capacity() {
+            return deviceIds.length;
+        }
+    }
+
+    static final class Result {
+        long rowsRead;
+        long rowsWritten;
+        long rowsMatched;
+        int batches;
+        long watermarkId;
+        long watermarkDate;
+        long elapsedMs;
+    }
+
+    private final Batch batch;
+
+    CallLogSyncEngine(int batchSize) {
+        this.batch = new Batch(Math.max(1, batchSize));
+    }
+
+    // Drains rows (expected in ascending _ID order, already past the watermark) into the sink
+    Result run(Rows rows, long watermarkId, long watermarkDate, LeadResolver resolver, Sink sink,
+               WatermarkStore watermarks) throws Exception {
+        long start = System.nanoTime();
+        Result result = new Result();
+        result.watermarkId = watermarkId;
+        result.watermarkDate = watermarkDate;
+
+        long batchLastId = watermarkId;
+        long batchMaxDate = watermarkDate;
+        batch.size = 0;
+        while (rows.next()) {
+            result.rowsRead++;
+            long id = rows.id();
+            long date = rows.date();
+            batchLastId = id;
+            batchMaxDate = Math.max(batchMaxDate, date);
+
+            String callType = callType(rows.type());
+            long packed = CallerIdIndex.packPhone(rows.number());
+            if (callType == null || packed == 0L) {
+                // Voicemail and unknown types, or private / withheld numbers
+                continue;
+            }
+
+            int i = batch.size++;
+            long duration = Math.max(0L, rows.durationSeconds());
+            long leadId = resolver.leadId(packed);
+            batch.deviceIds[i] = id;
+            batch.leadIds[i] = leadId > 0 ? leadId : 0L;
+            batch.numbers[i] = PhoneNormalizer.format(packed);
+            batch.phoneKeys[i] = packed;
+            batch.callTypes[i] = callType;
+            batch.callStatuses[i] = callStatus(rows.type(), duration);
+            batch.durations[i] = duration;
+            batch.startedAt[i] = date;
+            batch.endedAt[i] = date + duration * 1000L;
+            if (leadId > 0) {
+                result.rowsMatched++;
+            }
+
+            if (batch.size == batch.capacity()) {
+                flush(sink, watermarks, result, batchLastId, batchMaxDate);
+            }
+        }
+        flush(sink, watermarks, result, batchLastId, batchMaxDate);
+        result.elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+        return result;
+    }
+
+    private void flush(Sink sink, WatermarkStore watermarks, Result result, long lastId, long maxDate) throws Exception {
+        if (batch.size > 0) {
+            sink.write(batch);
+            result.rowsWritten += batch.size;
+            result.batches++;
+        }
+        // Rows skipped above still advance the watermark
+        if (lastId != result.watermarkId || maxDate != result.watermarkDate) {
+            result.watermarkId = lastId;
+            result.watermarkDate = maxDate;
+            watermarks.save(lastId, maxDate);
+        }
+        batch.size = 0;
+    }
+
+    static String callType(int deviceType) {
+        switch (deviceType) {
+            case DEVICE_INCOMING:
+            case DEVICE_ANSWERED_EXTERNALLY:
+                return "incoming";
+            case DEVICE_OUTGOING:
+                return "outgoing";
+            case DEVICE_MISSED:
+            case DEVICE_REJECTED:
+            case DEVICE_BLOCKED:
+                return "missed";
+            default:
+                return null;
+        }
+    }
+
+    static String callStatus(int deviceType, long durationSeconds) {
+        if (deviceType == DEVICE_REJECTED || deviceType == DEVICE_BLOCKED) {
+            return "busy";
+        }
+        return durationSeconds > 0 ? "completed" : "no_answer";
+    }
+}
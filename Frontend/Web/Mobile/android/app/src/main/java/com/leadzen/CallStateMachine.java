@@ -0,0 +1,120 @@
+package com.leadzen;
+
+// Maps raw telephony call states (IDLE / RINGING / OFFHOOK) to overlay transitions.
+// Pure Java with no Android types so the call lifecycle can be unit tested on the JVM.
+//
+//   IDLE    -> RINGING   Incoming      overlay DURING
+//   IDLE    -> OFFHOOK   Outgoing      overlay DURING
+//   RINGING -> OFFHOOK   Offhook       overlay DURING
+//   OFFHOOK -> IDLE      Disconnected  overlay AFTER (bubble hidden, JS shows the post-call tray)
+//   RINGING -> IDLE      Missed        overlay ENDED (bubble hidden)
+//
+// Event names match react-native-call-detection. A state delivered again (TelephonyCallback and
+// the PHONE_STATE broadcast both report it) is not a transition; if it brings the number, the
+// result is a number update for the current call. A second call ringing while one is active
+// (call waiting) does not replace the active call.
+final class CallStateMachine {
+    // Same values as TelephonyManager.CALL_STATE_*
+    static final int STATE_IDLE = 0;
+    static final int STATE_RINGING = 1;
+    static final int STATE_OFFHOOK = 2;
+
+    static final String EVENT_INCOMING = "Incoming";
+    static final String EVENT_OUTGOING = "Outgoing";
+    static final String EVENT_OFFHOOK = "Offhook";
+    static final String EVENT_DISCONNECTED = "Disconnected";
+    static final String EVENT_MISSED = "Missed";
+
+    static final String OVERLAY_DURING = "DURING";
+    static final String OVERLAY_AFTER = "AFTER";
+    static final String OVERLAY_ENDED = "ENDED";
+
+    static final class Transition {
+        final String event;
+        final String overlayState;
+        final String phoneNumber;
+        // Same state, only the number arrived: the call already on the overlay gets its caller
+        final boolean numberUpdate;
+
+        Transition(String event, String overlayState, String phoneNumber, boolean numberUpdate) {
+            this.event = event;
+            this.overlayState = overlayState;
+            this.phoneNumber = phoneNumber;
+            this.numberUpdate = numberUpdate;
+        }
+
+        // Only a live call keeps the bubble up; the post-call tray is drawn by JS, as before the native monitor
+        boolean showsOverlay() {
+            return OVERLAY_DURING.equals(overlayState);
+        }
+    }
+
+    private int state = STATE_IDLE;
+    private boolean answered;
+    private boolean callWaiting;
+    private String phoneNumber;
+
+    int state() {
+        return state;
+    }
+
+    String phoneNumber() {
+        return phoneNumber;
+    }
+
+    // Feeds one callback. phoneNumber may be null or empty: TelephonyCallback never carries it and
+    // the PHONE_STATE broadcast only does on its second delivery. Returns null when nothing changes.
+    Transition onCallState(int newState, String newNumber) {
+        // Numbers reported with IDLE belong to the call that just ended, and a waiting call's
+        // number must not replace the active one
+        boolean numberArrived = phoneNumber == null && newNumber != null && !newNumber.isEmpty()
+            && newState != STATE_IDLE && !callWaiting && !(state == STATE_OFFHOOK && newState == STATE_RINGING);
+        if (numberArrived) {
+            phoneNumber = newNumber;
+        }
+
+        if (newState == state) {
+            // Same state, number now known: no new transition, but the overlay can resolve the caller
+            if (numberArrived && state != STATE_IDLE) {
+                String event = state == STATE_RINGING ? EVENT_INCOMING : answered ? EVENT_OFFHOOK : EVENT_OUTGOING;
+                return new Transition(event, OVERLAY_DURING, phoneNumber, true);
+            }
+            return null;
+        }
+
+        switch (newState) {
+            case STATE_RINGING:
+                if (state == STATE_OFFHOOK) {
+                    // Call waiting: keep the active call on the overlay
+                    callWaiting = true;
+                    return null;
+                }
+                state = STATE_RINGING;
+                answered = false;
+                return new Transition(EVENT_INCOMING, OVERLAY_DURING, phoneNumber, false);
+
+            case STATE_OFFHOOK:
+                boolean wasRinging = state == STATE_RINGING;
+                state = STATE_OFFHOOK;
+                answered = wasRinging;
+                return new Transition(wasRinging ? EVENT_OFFHOOK : EVENT_OUTGOING, OVERLAY_DURING, phoneNumber, false);
+
+            case STATE_IDLE:
+                Transition ended = state == STATE_OFFHOOK
+                    ? new Transition(EVENT_DISCONNECTED, OVERLAY_AFTER, phoneNumber, false)
+                    : new Transition(EVENT_MISSED, OVERLAY_ENDED, phoneNumber, false);
+                reset();
+                return ended;
+
+            default:
+                return null;
+        }
+    }
+
+    void reset() {
+        state = STATE_IDLE;
+        answered = false;
+        callWaiting = false;
+        phoneNumber = null;
+    }
+}
@@ -0,0 +1,150 @@
+package com.leadzen;
+
+import android.Manifest;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.pm.PackageManager;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.telephony.PhoneStateListener;
+import android.telephony.TelephonyCallback;
+import android.telephony.TelephonyManager;
+import androidx.core.content.ContextCompat;
+import java.util.concurrent.Executor;
+
+// Native call-state listener owned by FloatingOverlayService.
+// Callbacks run on the main thread and feed CallStateMachine directly, so the overlay reacts to
+// RINGING without waiting for the JS runtime. On Android 12+ TelephonyCallback reports the state
+// without a number; the PHONE_STATE broadcast (READ_CALL_LOG) supplies the number when allowed.
+final class CallStateMonitor {
+    interface Listener {
+        void onCallTransition(CallStateMachine.Transition transition);
+    }
+
+    private final Context context;
+    private final Listener listener;
+    private final TelephonyManager telephonyManager;
+    private final CallStateMachine machine = new CallStateMachine();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Executor mainExecutor = mainHandler::post;
+
+    private TelephonyCallback telephonyCallback;
+    private PhoneStateListener phoneStateListener;
+    private BroadcastReceiver numberReceiver;
+    private boolean running;
+
+    CallStateMonitor(Context context, Listener listener) {
+        this.context = context;
+        this.listener = listener;
+        this.telephonyManager = (TelephonyManager) context.getSystemService(Context.TELEPHONY_SERVICE);
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    // Returns false when READ_PHONE_STATE is missing or telephony is unavailable
+    boolean start() {
+        if (running) {
+            return true;
+        }
+        if (telephonyManager == null
+            || ContextCompat.checkSelfPermission(context, Manifest.permission.READ_PHONE_STATE) != PackageManager.PERMISSION_GRANTED) {
+            OverlayLog.w("📵 Call monitor not started: READ_PHONE_STATE not granted");
+            return false;
+        }
+        try {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
+                telephonyCallback = new StateCallback();
+                telephonyManager.registerTelephonyCallback(mainExecutor, telephonyCallback);
+                registerNumberReceiver();
+            } else {
+                phoneStateListener = new PhoneStateListener() {
+                    @Override
+                    public void onCallStateChanged(int state, String phoneNumber) {
+                        dispatch(state, phoneNumber);
+                    }
+                };
+                telephonyManager.listen(phoneStateListener, PhoneStateListener.LISTEN_CALL_STATE);
+            }
+            running = true;
+            OverlayLog.i("📞 Native call monitor started");
+            return true;
+        } catch (SecurityException e) {
+            OverlayLog.e("❌ Call monitor registration rejected", e);
+            stop();
+            return false;
+        }
+    }
+
+    void stop() {
+        if (telephonyCallback != null) {
+            telephonyManager.unregisterTelephonyCallback(telephonyCallback);
+            telephonyCallback = null;
+        }
+        if (phoneStateListener != null) {
+            telephonyManager.listen(phoneStateListener, PhoneStateListener.LISTEN_NONE);
+            phoneStateListener = null;
+        }
+        if (numberReceiver != null) {
+            try {
+                context.unregisterReceiver(numberReceiver);
+            } catch (Exception e) {
+                // Already unregistered
+            }
+            numberReceiver = null;
+        }
+        machine.reset();
+        running = false;
+    }
+
+    private void registerNumberReceiver() {
+        if (ContextCompat.checkSelfPermission(context, Manifest.permission.READ_CALL_LOG) != PackageManager.PERMISSION_GRANTED) {
+            return;
+        }
+        numberReceiver = new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context receiverContext, Intent intent) {
+                String number = intent.getStringExtra(TelephonyManager.EXTRA_INCOMING_NUMBER);
+                if (number != null) {
+                    dispatch(parseState(intent.getStringExtra(TelephonyManager.EXTRA_STATE)), number);
+                }
+            }
+        };
+        IntentFilter filter = new IntentFilter(TelephonyManager.ACTION_PHONE_STATE_CHANGED);
+        // Sent by the system, so the receiver has to be exported
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
+            context.registerReceiver(numberReceiver, filter, Context.RECEIVER_EXPORTED);
+        } else {
+            context.registerReceiver(numberReceiver, filter);
+        }
+    }
+
+    private static int parseState(String state) {
+        if (TelephonyManager.EXTRA_STATE_RINGING.equals(state)) {
+            return CallStateMachine.STATE_RINGING;
+        }
+        if (TelephonyManager.EXTRA_STATE_OFFHOOK.equals(state)) {
+            return CallStateMachine.STATE_OFFHOOK;
+        }
+        return CallStateMachine.STATE_IDLE;
+    }
+
+    private void dispatch(int state, String phoneNumber) {
+        CallStateMachine.Transition transition = machine.onCallState(state, phoneNumber);
+        if (transition != null) {
+            OverlayLog.d("📞 Call transition {} -> overlay {}", transition.event, transition.overlayState);
+            listener.onCallTransition(transition);
+        }
+    }
+
+    private final class StateCallback extends TelephonyCallback implements TelephonyCallback.CallStateListener {
+        @Override
+        public void onCallStateChanged(int state) {
+            dispatch(state, null);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.leadzen;
+
+import android.content.Context;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Keeps the overlay's caller-ID index and the lead snapshot in step with the leads table. Every
+// committed group that wrote leads (LeadStore.CommitListener) queues one rebuild from
+// LeadStore.callerBook() on a worker thread; commits that land while one is queued share it, so
+// an import or a burst of edits costs a rebuild or two, never one per write.
+// Started with the store (LeadStore.shared); LeadStoreModule.syncCallerIndex() requests a rebuild.
+final class CallerBookSync {
+    private static volatile CallerBookSync shared;
+
+    private final LeadStore store;
+    private final File filesDir;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private final LeadStore.CommitListener listener = leadsChanged -> {
+        if (leadsChanged && rebuildQueued.compareAndSet(false, true)) {
+            worker.execute(() -> {
+                rebuildQueued.set(false);
+                try {
+                    rebuild();
+                } catch (Exception e) {
+                    OverlayLog.e("❌ Caller index rebuild failed", e);
+                }
+            });
+        }
+    };
+
+    static CallerBookSync shared(Context context) {
+        CallerBookSync sync = shared;
+        if (sync == null) {
+            synchronized (CallerBookSync.class) {
+                sync = shared;
+                if (sync == null) {
+                    sync = new CallerBookSync(LeadStore.shared(context), context.getApplicationContext().getFilesDir());
+                    shared = sync;
+                    sync.start();
+                }
+            }
+        }
+        return sync;
+    }
+
+    CallerBookSync(LeadStore store, File filesDir) {
+        this.store = store;
+        this.filesDir = filesDir;
+    }
+
+    void start() {
+        store.addCommitListener(listener);
+    }
+
+    void stop() {
+        store.removeCommitListener(listener);
+        worker.shutdown();
+    }
+
+    // Resolves once every rebuild queued before the call has run
+    Future<?> flush() {
+        return worker.submit(() -> { });
+    }
+
+    // Rebuilds on the worker, after whatever is queued; resolves the number of indexed numbers
+    Future<Integer> requestRebuild() {
+        return worker.submit(this::rebuild);
+    }
+
+    // Worker thread
+    private int rebuild() throws IOException {
+        long startMs = System.currentTimeMillis();
+        LeadStore.CallerBook book = store.callerBook();
+        CallerIdIndex index = CallerIdIndex.build(book.phones, book.ids, book.names);
+        CallerIdIndex.install(index);
+        LeadSnapshot.write(filesDir, book.phones, book.ids, book.names,
+            book.companies, book.stages, book.lastContacts);
+        OverlayLog.i("📇 Caller index and snapshot rebuilt from the store: {} numbers in {}ms",
+            index.size(), System.currentTimeMillis() - startMs);
+        return index.size();
+    }
+}
@@ -0,0 +1,78 @@
+package com.leadzen;
+
+import java.util.Arrays;
+
+// In-process caller-ID index: normalized phone number -> lead id / lead name.
+// JS pushes the lead book once (columnar arrays) and FloatingOverlayService resolves
+// the caller directly in onStartCommand instead of waiting for PhoneMatchingService.
+// The index is immutable once built; updates swap in a new instance atomically. With the native
+// store, CallerBookSync swaps in a rebuilt index after every commit that writes leads.
+public final class CallerIdIndex {
+    private static final int NOT_FOUND = -1;
+
+    private static volatile CallerIdIndex current = new CallerIdIndex(new LongIntMap(0), new int[0], new String[0]);
+
+    private final LongIntMap slots;
+    private final int[] leadIds;
+    private final String[] leadNames;
+
+    private CallerIdIndex(LongIntMap slots, int[] leadIds, String[] leadNames) {
+        this.slots = slots;
+        this.leadIds = leadIds;
+        this.leadNames = leadNames;
+    }
+
+    public static CallerIdIndex get() {
+        return current;
+    }
+
+    public static void install(CallerIdIndex index) {
+        if (index != null) {
+            current = index;
+        }
+    }
+
+    // Builds an index from parallel arrays. The first lead wins when two leads share a number,
+    // matching PhoneMatchingService which shows matchedLeads[0].
+    public static CallerIdIndex build(String[] phones, int[] ids, String[] names) {
+        int count = phones.length;
+        LongIntMap slots = new LongIntMap(count);
+        int[] leadIds = new int[count];
+        String[] leadNames = new String[count];
+        int used = 0;
+        for (int i = 0; i < count; i++) {
+            long key = packPhone(phones[i]);
+            if (key != 0L && slots.putIfAbsent(key, used)) {
+                leadIds[used] = ids[i];
+                leadNames[used] = names[i];
+                used++;
+            }
+        }
+        if (used < count) {
+            leadIds = Arrays.copyOf(leadIds, used);
+            leadNames = Arrays.copyOf(leadNames, used);
+        }
+        return new CallerIdIndex(slots, leadIds, leadNames);
+    }
+
+    public int size() {
+        return leadIds.length;
+    }
+
+    public int lookupLeadId(String phoneNumber) {
+        int slot = slots.get(packPhone(phoneNumber), NOT_FOUND);
+        return slot == NOT_FOUND ? NOT_FOUND : leadIds[slot];
+    }
+
+    public String lookupName(String phoneNumber) {
+        int slot = slots.get(packPhone(phoneNumber), NOT_FOUND);
+        return slot == NOT_FOUND ? null : leadNames[slot];
+    }
+
+    // Packs a phone number into a long key in the current PhoneNormalizer region:
+    // +91XXXXXXXXXX, 91XXXXXXXXXX, 0XXXXXXXXXX and XXXXXXXXXX all map to the same key.
+    // Does not allocate, so the lookup path stays allocation-free. Returns 0 for unusable input.
+    static long packPhone(CharSequence phoneNumber) {
+        return PhoneNormalizer.current().pack(phoneNumber);
+    }
+}
@@ -0,0 +1,280 @@
+package com.leadzen;
+
+// Bulk import of the device address book into leads.
+//
+// Rows are ContactsContract.Data rows (phone, email and organization) sorted by contact id; each
+// contact is assembled from its rows, deduped on its packed phone numbers (CallerIdIndex keys in a
+// LongIntMap, seeded with the numbers already on leads) and handed to the sink in fixed-size
+// batches whose arrays are reused. Memory stays flat however many contacts the device holds; only
+// the dedup map grows, by one primitive slot per imported number.
+//
+// A contact whose number already belongs to a lead fills that lead's blank email / company /
+// position instead of creating a second lead. Contacts without a usable number are skipped.
+//
+// No Android types here; ContactsImporter adapts a Cursor and LeadStore.
+final class ContactImportEngine {
+    static final int KIND_OTHER = 0;
+    static final int KIND_PHONE = 1;
+    static final int KIND_EMAIL = 2;
+    static final int KIND_ORGANIZATION = 3;
+
+    static final int DEFAULT_BATCH_SIZE = 500;
+    static final long DEFAULT_PROGRESS_INTERVAL_MS = 250;
+
+    // Dedup map value for numbers claimed earlier in this import (lead ids are > 0)
+    private static final int IMPORTED = -1;
+    private static final int UNKNOWN = 0;
+
+    interface Rows {
+        boolean next();
+
+        long contactId();
+
+        int kind();
+
+        String displayName();
+
+        // Phone: number, email: address, organization: company
+        String value();
+
+        // Organization: job title; null otherwise
+        String title();
+    }
+
+    interface Sink {
+        // Persist rows [0, batch.size) atomically; throw to stop the import
+        void write(Batch batch) throws Exception;
+    }
+
+    interface ProgressListener {
+        // Called at most once per progress interval, and once at the end
+        void onProgress(Result progress);
+    }
+
+    // Column arrays reused for every batch. leadIds[i] > 0: fill the blanks of that lead;
+    // otherwise insert a new one.
+    static final class Batch {
+        final long[] leadIds;
+        final String[] names;
+        final String[] phones;           // normalized
+        final String[] secondaryPhones;  // normalized, or null
+        final String[] emails;
+        final String[] companies;
+        final String[] positions;
+        int size;
+
+        Batch(int capacity) {
+            leadIds = new long[capacity];
+            names = new String[capacity];
+            phones = new String[capacity];
+            secondaryPhones = new String[capacity];
+            emails = new String[capacity];
+            companies = new String[capacity];
+            positions = new String[capacity];
+        }
+
+        int capacity() {
+            return leadIds.length;
+        }
+    }
+
+    static final class Result {
+        long rowsRead;
+        long rowsTotal;       // -1 when unknown
+        long contactsRead;
+        long inserted;
+        long matched;         // number already on a lead; blank fields filled in
+        long duplicates;      // every number already imported from an earlier contact
+        long withoutPhone;
+        int batches;
+        boolean cancelled;
+        long elapsedMs;
+    }
+
+    private final Batch batch;
+    private final long progressIntervalNanos;
+    private volatile boolean cancelled;
+
+    // The contact being assembled; fields are overwritten, never reallocated
+    private long contactId = -1L;
+    private String name;
+    private final long[] packed = new long[2];
+    private int phoneCount;
+    private String email;
+    private String company;
+    private String position;
+
+    ContactImportEngine(int batchSize, long progressIntervalMs) {
+        this.batch = new Batch(Math.max(1, batchSize));
+        this.progressIntervalNanos = Math.max(0L, progressIntervalMs) * 1_000_000L;
+    }
+
+    // Any thread. The import stops at the next row after writing the contacts assembled so far;
+    // the contact being read is left out.
+    void cancel() {
+        cancelled = true;
+    }
+
+    // known: packed number -> lead id for every lead number; numbers imported here are added to it
+    Result run(Rows rows, long rowsTotal, LongIntMap known, Sink sink, ProgressListener progress) throws Exception {
+        long start = System.nanoTime();
+        long nextProgress = start + progressIntervalNanos;
+        Result result = new Result();
+        result.rowsTotal = rowsTotal;
+        batch.size = 0;
+        resetContact(-1L);
+
+        while (rows.next()) {
+            if (cancelled) {
+                result.cancelled = true;
+                break;
+            }
+            result.rowsRead++;
+            long id = rows.contactId();
+            if (id != contactId) {
+                finishContact(known, sink, result);
+                resetContact(id);
+            }
+            if (name == null) {
+                name = trimmed(rows.displayName());
+            }
+            switch (rows.kind()) {
+                case KIND_PHONE:
+                    addPhone(rows.value());
+                    break;
+                case KIND_EMAIL:
+                    if (email == null) {
+                        email = trimmed(rows.value());
+                    }
+                    break;
+                case KIND_ORGANIZATION:
+                    if (company == null) {
+                        company = trimmed(rows.value());
+                    }
+                    if (position == null) {
+                        position = trimmed(rows.title());
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+            if (progress != null && (result.rowsRead & 63) == 0) {
+                long now = System.nanoTime();
+                if (now >= nextProgress) {
+                    nextProgress = now + progressIntervalNanos;
+                    result.elapsedMs = (now - start) / 1_000_000L;
+                    progress.onProgress(result);
+                }
+            }
+        }
+        if (!result.cancelled) {
+            finishContact(known, sink, result);
+        }
+        flush(sink, result);
+        result.elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+        if (progress != null) {
+            progress.onProgress(result);
+        }
+        return result;
+    }
+
+    private void resetContact(long id) {
+        contactId = id;
+        name = null;
+        phoneCount = 0;
+        email = null;
+        company = null;
+        position = null;
+    }
+
+    // Keeps the first two distinct usable numbers of the contact
+    private void addPhone(String number) {
+        long key = CallerIdIndex.packPhone(number);
+        if (key == 0L || phoneCount == packed.length || (phoneCount == 1 && packed[0] == key)) {
+            return;
+        }
+        packed[phoneCount] = key;
+        phoneCount++;
+    }
+
+    private void finishContact(LongIntMap known, Sink sink, Result result) throws Exception {
+        if (contactId < 0) {
+            return;
+        }
+        result.contactsRead++;
+        if (phoneCount == 0) {
+            result.withoutPhone++;
+            return;
+        }
+
+        // A number on an existing lead: enrich that lead
+        for (int p = 0; p < phoneCount; p++) {
+            int owner = known.get(packed[p], UNKNOWN);
+            if (owner > 0) {
+                if (email != null || company != null || position != null) {
+                    add(sink, result, owner, null, null, null);
+                }
+                result.matched++;
+                return;
+            }
+        }
+
+        // Numbers claimed by an earlier contact of this import are dropped; a lead needs at least one
+        int first = -1;
+        int second = -1;
+        for (int p = 0; p < phoneCount; p++) {
+            if (known.get(packed[p], UNKNOWN) == UNKNOWN) {
+                if (first < 0) {
+                    first = p;
+                } else {
+                    second = p;
+                }
+            }
+        }
+        if (first < 0) {
+            result.duplicates++;
+            return;
+        }
+        String phone = PhoneNormalizer.format(packed[first]);
+        known.putIfAbsent(packed[first], IMPORTED);
+        String secondary = null;
+        if (second >= 0) {
+            secondary = PhoneNormalizer.format(packed[second]);
+            known.putIfAbsent(packed[second], IMPORTED);
+        }
+        add(sink, result, 0L, name != null ? name : phone, phone, secondary);
+        result.inserted++;
+    }
+
+    private void add(Sink sink, Result result, long leadId, String leadName, String phone, String secondary)
+        throws Exception {
+        int i = batch.size++;
+        batch.leadIds[i] = leadId;
+        batch.names[i] = leadName;
+        batch.phones[i] = phone;
+        batch.secondaryPhones[i] = secondary;
+        batch.emails[i] = email;
+        batch.companies[i] = company;
+        batch.positions[i] = position;
+        if (batch.size == batch.capacity()) {
+            flush(sink, result);
+        }
+    }
+
+    private void flush(Sink sink, Result result) throws Exception {
+        if (batch.size > 0) {
+            sink.write(batch);
+            result.batches++;
+        }
+        batch.size = 0;
+    }
+
+    private static String trimmed(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
@@ -0,0 +1,132 @@
+package com.leadzen;
+
+import android.Manifest;
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.database.Cursor;
+import android.provider.ContactsContract;
+import androidx.core.content.ContextCompat;
+import java.util.ArrayList;
+import java.util.List;
+
+// Imports the device address book into leads with ContactImportEngine. Reads only the phone,
+// email and organization rows of ContactsContract.Data, five columns each, in contact order, and
+// writes each batch as one LeadStore transaction. Runs on the caller's (background) thread.
+final class ContactsImporter {
+    static final String SOURCE = "other";
+    static final String STAGE = "new";
+
+    private static final String[] PROJECTION = {
+        ContactsContract.Data.CONTACT_ID,
+        ContactsContract.Data.MIMETYPE,
+        ContactsContract.Data.DISPLAY_NAME_PRIMARY,
+        ContactsContract.Data.DATA1,
+        ContactsContract.Data.DATA4,
+    };
+
+    private static final String SELECTION = ContactsContract.Data.MIMETYPE + " IN (?, ?, ?)";
+    private static final String[] SELECTION_ARGS = {
+        ContactsContract.CommonDataKinds.Phone.CONTENT_ITEM_TYPE,
+        ContactsContract.CommonDataKinds.Email.CONTENT_ITEM_TYPE,
+        ContactsContract.CommonDataKinds.Organization.CONTENT_ITEM_TYPE,
+    };
+
+    // OR IGNORE: a number stored on a lead in a form packPhone can't read still can't abort the batch
+    private static final String INSERT_SQL = "INSERT OR IGNORE INTO leads (name, phone_primary, phone_secondary,"
+        + " email, company, position, source, pipeline_stage, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // Fills blank fields only; a lead with nothing to fill keeps its updated_at
+    private static final String FILL_SQL = "UPDATE leads SET email = COALESCE(NULLIF(email, ''), ?),"
+        + " company = COALESCE(NULLIF(company, ''), ?), position = COALESCE(NULLIF(position, ''), ?), updated_at = ?"
+        + " WHERE id = ? AND ((? IS NOT NULL AND IFNULL(email, '') = '') OR (? IS NOT NULL AND IFNULL(company, '') = '')"
+        + " OR (? IS NOT NULL AND IFNULL(position, '') = ''))";
+
+    private ContactsImporter() {
+    }
+
+    static boolean hasPermission(Context context) {
+        return ContextCompat.checkSelfPermission(context, Manifest.permission.READ_CONTACTS) == PackageManager.PERMISSION_GRANTED;
+    }
+
+    static ContactImportEngine.Result importAll(Context context, LeadStore store, ContactImportEngine engine,
+                                                ContactImportEngine.ProgressListener progress) throws Exception {
+        Cursor cursor = context.getContentResolver().query(ContactsContract.Data.CONTENT_URI, PROJECTION,
+            SELECTION, SELECTION_ARGS, ContactsContract.Data.CONTACT_ID + " ASC");
+        if (cursor == null) {
+            throw new IllegalStateException("contacts provider unavailable");
+        }
+        try {
+            ContactImportEngine.Result result = engine.run(new CursorRows(cursor), cursor.getCount(),
+                store.leadIdsByPhone(cursor.getCount()), batch -> store.apply(toMutations(batch)), progress);
+            OverlayLog.i("📇 Contact import: {} contacts, {} new leads", result.contactsRead, result.inserted);
+            return result;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    static List<LeadStore.Mutation> toMutations(ContactImportEngine.Batch batch) {
+        List<LeadStore.Mutation> mutations = new ArrayList<>(batch.size);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < batch.size; i++) {
+            String email = batch.emails[i];
+            String company = batch.companies[i];
+            String position = batch.positions[i];
+            if (batch.leadIds[i] > 0) {
+                mutations.add(LeadStore.Mutation.exec(FILL_SQL, email, company, position, now, batch.leadIds[i],
+                    email, company, position));
+            } else {
+                mutations.add(LeadStore.Mutation.exec(INSERT_SQL, batch.names[i], batch.phones[i],
+                    batch.secondaryPhones[i], email, company, position, SOURCE, STAGE, now, now));
+            }
+        }
+        return mutations;
+    }
+
+    private static final class CursorRows implements ContactImportEngine.Rows {
+        private final Cursor cursor;
+
+        CursorRows(Cursor cursor) {
+            this.cursor = cursor;
+        }
+
+        @Override
+        public boolean next() {
+            return cursor.moveToNext();
+        }
+
+        @Override
+        public long contactId() {
+            return cursor.getLong(0);
+        }
+
+        @Override
+        public int kind() {
+            String mimeType = cursor.getString(1);
+            if (SELECTION_ARGS[0].equals(mimeType)) {
+                return ContactImportEngine.KIND_PHONE;
+            }
+            if (SELECTION_ARGS[1].equals(mimeType)) {
+                return ContactImportEngine.KIND_EMAIL;
+            }
+            if (SELECTION_ARGS[2].equals(mimeType)) {
+                return ContactImportEngine.KIND_ORGANIZATION;
+            }
+            return ContactImportEngine.KIND_OTHER;
+        }
+
+        @Override
+        public String displayName() {
+            return cursor.isNull(2) ? null : cursor.getString(2);
+        }
+
+        @Override
+        public String value() {
+            return cursor.isNull(3) ? null : cursor.getString(3);
+        }
+
+        @Override
+        public String title() {
+            return cursor.isNull(4) ? null : cursor.getString(4);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.leadzen;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+// Collects events between flushes. Events with a coalesce key replace the pending event with the
+// same key in place (only the latest position / call state matters), so the batch keeps the order
+// in which each key first appeared; events without a key are never dropped and keep their order.
+// Pure Java so the ordering rules do not depend on the bridge.
+final class EventBatcher<T> {
+    private final ArrayList<T> events = new ArrayList<>();
+    private final HashMap<String, Integer> indexByKey = new HashMap<>();
+
+    private long added;
+    private long coalesced;
+    private long flushed;
+    private long batches;
+
+    synchronized void add(String coalesceKey, T event) {
+        added++;
+        if (coalesceKey != null) {
+            Integer previous = indexByKey.get(coalesceKey);
+            if (previous != null) {
+                events.set(previous, event);
+                coalesced++;
+                return;
+            }
+            indexByKey.put(coalesceKey, events.size());
+        }
+        events.add(event);
+    }
+
+    synchronized boolean isEmpty() {
+        return events.isEmpty();
+    }
+
+    // Returns the pending batch in delivery order and starts a new one
+    synchronized List<T> drain() {
+        List<T> batch = new ArrayList<>(events);
+        events.clear();
+        indexByKey.clear();
+        if (!batch.isEmpty()) {
+            flushed += batch.size();
+            batches++;
+        }
+        return batch;
+    }
+
+    synchronized long addedCount() {
+        return added;
+    }
+
+    synchronized long coalescedCount() {
+        return coalesced;
+    }
+
+    synchronized long flushedCount() {
+        return flushed;
+    }
+
+    synchronized long batchCount() {
+        return batches;
+    }
+}
@@ -0,0 +1,169 @@
+package com.leadzen;
+
+import android.content.Context;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.os.Bundle;
+import android.view.KeyEvent;
+import android.view.MotionEvent;
+import android.view.SoundEffectConstants;
+import android.view.View;
+import android.view.accessibility.AccessibilityEvent;
+import android.widget.Button;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.view.ViewCompat;
+import androidx.core.view.accessibility.AccessibilityNodeInfoCompat;
+import androidx.customview.widget.ExploreByTouchHelper;
+import java.util.List;
+
+// One section of the expanded overlay as a single View: the subclass draws text, pills and icons
+// on the Canvas from the shared OverlayDrawables and places its tap targets, where the section
+// used to be a LinearLayout tree of TextViews with a GradientDrawable per pill or button.
+//
+// Targets are rects in view coordinates, set by the subclass when it lays out; an empty rect
+// can't be tapped. A tap is a down and an up on the same target.
+//
+// Accessibility services see each non-empty target as a virtual view (ExploreByTouchHelper) with
+// its label and a click action, so TalkBack focuses and activates the buttons one by one instead
+// of reading the section as a single node.
+abstract class FlatOverlayView extends View {
+    interface OnTargetClickListener {
+        void onTargetClick(int target, String label);
+    }
+
+    final OverlayDrawables drawables;
+    final RectF[] targets;
+    private final String[] targetLabels;
+    private final TargetAccessibility accessibility;
+    private OnTargetClickListener listener;
+    private int downTarget = -1;
+
+    FlatOverlayView(Context context, OverlayDrawables drawables, String[] targetLabels) {
+        super(context);
+        this.drawables = drawables;
+        this.targetLabels = targetLabels;
+        targets = new RectF[targetLabels.length];
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = new RectF();
+        }
+        accessibility = new TargetAccessibility();
+        ViewCompat.setAccessibilityDelegate(this, accessibility);
+    }
+
+    void setOnTargetClickListener(OnTargetClickListener listener) {
+        this.listener = listener;
+    }
+
+    private int targetAt(float x, float y) {
+        for (int i = 0; i < targets.length; i++) {
+            if (targets[i].contains(x, y)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                downTarget = targetAt(event.getX(), event.getY());
+                return downTarget >= 0;
+            case MotionEvent.ACTION_UP:
+                int target = downTarget;
+                downTarget = -1;
+                if (target >= 0 && target == targetAt(event.getX(), event.getY())) {
+                    playSoundEffect(SoundEffectConstants.CLICK);
+                    clickTarget(target);
+                }
+                return true;
+            case MotionEvent.ACTION_CANCEL:
+                downTarget = -1;
+                return true;
+            default:
+                return downTarget >= 0;
+        }
+    }
+
+    private void clickTarget(int target) {
+        accessibility.sendEventForVirtualView(target, AccessibilityEvent.TYPE_VIEW_CLICKED);
+        if (listener != null) {
+            listener.onTargetClick(target, targetLabels[target]);
+        }
+    }
+
+    // Subclasses place their targets in onSizeChanged or onLayout, both inside layout()
+    @Override
+    public void layout(int l, int t, int r, int b) {
+        super.layout(l, t, r, b);
+        accessibility.invalidateRoot();
+    }
+
+    @Override
+    protected boolean dispatchHoverEvent(MotionEvent event) {
+        return accessibility.dispatchHoverEvent(event) || super.dispatchHoverEvent(event);
+    }
+
+    @Override
+    public boolean dispatchKeyEvent(KeyEvent event) {
+        return accessibility.dispatchKeyEvent(event) || super.dispatchKeyEvent(event);
+    }
+
+    @Override
+    protected void onFocusChanged(boolean gainFocus, int direction, @Nullable Rect previouslyFocusedRect) {
+        super.onFocusChanged(gainFocus, direction, previouslyFocusedRect);
+        accessibility.onFocusChanged(gainFocus, direction, previouslyFocusedRect);
+    }
+
+    // Virtual view ids are target indexes
+    private final class TargetAccessibility extends ExploreByTouchHelper {
+        private final Rect bounds = new Rect();
+
+        TargetAccessibility() {
+            super(FlatOverlayView.this);
+        }
+
+        @Override
+        protected int getVirtualViewAt(float x, float y) {
+            int target = targetAt(x, y);
+            return target >= 0 ? target : HOST_ID;
+        }
+
+        @Override
+        protected void getVisibleVirtualViews(List<Integer> virtualViewIds) {
+            for (int i = 0; i < targets.length; i++) {
+                if (!targets[i].isEmpty()) {
+                    virtualViewIds.add(i);
+                }
+            }
+        }
+
+        @Override
+        @SuppressWarnings("deprecation") // ExploreByTouchHelper requires parent bounds
+        protected void onPopulateNodeForVirtualView(int virtualViewId, @NonNull AccessibilityNodeInfoCompat node) {
+            node.setContentDescription(targetLabels[virtualViewId]);
+            node.setClassName(Button.class.getName());
+            RectF target = targets[virtualViewId];
+            if (target.isEmpty()) {
+                // Hidden since the last invalidateRoot(); the helper rejects empty bounds
+                bounds.set(0, 0, 1, 1);
+                node.setBoundsInParent(bounds);
+                return;
+            }
+            target.roundOut(bounds);
+            node.setBoundsInParent(bounds);
+            node.setClickable(true);
+            node.addAction(AccessibilityNodeInfoCompat.ACTION_CLICK);
+        }
+
+        @Override
+        protected boolean onPerformActionForVirtualView(int virtualViewId, int action, @Nullable Bundle arguments) {
+            if (action != AccessibilityNodeInfoCompat.ACTION_CLICK || targets[virtualViewId].isEmpty()) {
+                return false;
+            }
+            clickTarget(virtualViewId);
+            return true;
+        }
+    }
+}
@@ -4,105 +4,209 @@ import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
-import android.util.Log;
+import android.content.pm.PackageManager;
+import android.Manifest;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
 import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableType;
+import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.LifecycleEventListener;
 import com.facebook.react.modules.core.DeviceEventManagerModule;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.Choreographer;
 import androidx.annotation.NonNull;
+import androidx.core.content.ContextCompat;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
-public class FloatingOverlayModule extends ReactContextBaseJavaModule {
-    private static final String[] SUPPORTED_EVENTS = {"FloatingOverlayClicked"};
+public class FloatingOverlayModule extends ReactContextBaseJavaModule
+    implements OverlayEventBus.Listener, LifecycleEventListener {
+    private static final String[] SUPPORTED_EVENTS = {"FloatingOverlayEvents"};
+    private static final String LATENCY_PROBE_ACTION = "com.leadzen.OVERLAY_LATENCY_PROBE";
     private ReactApplicationContext reactContext;
-    private BroadcastReceiver overlayReceiver;
+
+    // Overlay events are shipped to JS as one array per flush instead of one bridge call each
+    private final EventBatcher<WritableMap> eventBatcher = new EventBatcher<>();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private volatile int batchWindowMs = 0; // 0 = flush on the next frame
+    private final Choreographer.FrameCallback frameFlush = frameTimeNanos -> flushEvents();
+    // testBroadcast in flight: the same "test" click goes through the bus, then as a broadcast,
+    // each timed on the main thread from send until its batch is emitted to JS
+    private static final int PROBE_BUS = 1;
+    private static final int PROBE_BROADCAST = 2;
+    private final AtomicReference<Promise> latencyProbe = new AtomicReference<>();
+    private int probePhase;
+    private long probeStartNanos;
+    private long probeBusNanos;
+    private long probeSequence;
+    private BroadcastReceiver probeReceiver;
+    private final Runnable scheduleFlush = () -> {
+        if (batchWindowMs <= 0) {
+            Choreographer.getInstance().postFrameCallback(frameFlush);
+        } else {
+            mainHandler.postDelayed(this::flushEvents, batchWindowMs);
+        }
+    };
 
     public FloatingOverlayModule(ReactApplicationContext reactContext) {
         super(reactContext);
         this.reactContext = reactContext;
-        Log.d("FloatingOverlay", "🚀 FLOATINGOVERLAYMODULE CONSTRUCTOR CALLED!");
-        Log.d("FloatingOverlay", "🚀 React context: " + (reactContext != null ? "OK" : "NULL"));
-        
-        try {
-            setupBroadcastReceiver();
-            Log.d("FloatingOverlay", "✅ FloatingOverlayModule initialization complete");
-        } catch (Exception e) {
-            Log.e("FloatingOverlay", "❌ ERROR in constructor: " + e.getMessage());
-            e.printStackTrace();
-        }
+        OverlayLog.d("🚀 FloatingOverlayModule created");
     }
 
     @NonNull
     @Override
     public String getName() {
-        Log.d("FloatingOverlay", "getName() called - returning FloatingOverlayModule");
         return "FloatingOverlayModule";
     }
 
-    private void setupBroadcastReceiver() {
-        try {
-            Log.d("FloatingOverlay", "🔧 Setting up broadcast receiver...");
-            overlayReceiver = new BroadcastReceiver() {
-                @Override
-                public void onReceive(Context context, Intent intent) {
-                    Log.d("FloatingOverlay", "🎯 ========================================");
-                    Log.d("FloatingOverlay", "🎯 BROADCAST RECEIVED IN REACT NATIVE MODULE!");
-                    Log.d("FloatingOverlay", "🎯 This means the floating icon click was detected!");
-                    Log.d("FloatingOverlay", "🎯 ========================================");
-                    Log.d("FloatingOverlay", "📻 Action: " + intent.getAction());
-                    Log.d("FloatingOverlay", "📻 Context: " + context.getClass().getSimpleName());
-                    Log.d("FloatingOverlay", "📻 Intent details: " + intent.toString());
-                    Log.d("FloatingOverlay", "📻 Intent package: " + intent.getPackage());
-                    Log.d("FloatingOverlay", "📻 React context available: " + (reactContext != null));
-                    Log.d("FloatingOverlay", "📻 React context active: " + (reactContext != null && reactContext.hasActiveCatalystInstance()));
-                    
-                    if ("FLOATING_OVERLAY_CLICKED".equals(intent.getAction())) {
-                        Log.d("FloatingOverlay", "🚀 CORRECT ACTION RECEIVED! Now sending to React Native...");
-                        Log.d("FloatingOverlay", "🚀 This should trigger the overlay expansion...");
-                        try {
-                            sendEvent("FloatingOverlayClicked", null);
-                            Log.d("FloatingOverlay", "✅ ✅ ✅ Event sent to React Native: FloatingOverlayClicked");
-                            Log.d("FloatingOverlay", "✅ React Native should now show the expanded overlay!");
-                        } catch (Exception e) {
-                            Log.e("FloatingOverlay", "❌ ERROR sending event to React Native: " + e.getMessage());
-                            e.printStackTrace();
-                        }
-                    } else {
-                        Log.d("FloatingOverlay", "❌ Unknown broadcast action: " + intent.getAction());
-                    }
-                }
-            };
-
-            IntentFilter filter = new IntentFilter("FLOATING_OVERLAY_CLICKED");
-            filter.setPriority(IntentFilter.SYSTEM_HIGH_PRIORITY);
-            
-            // Android 14+ requires explicit export flag for broadcast receivers
-            if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.TIRAMISU) {
-                reactContext.registerReceiver(overlayReceiver, filter, android.content.Context.RECEIVER_NOT_EXPORTED);
-                Log.d("FloatingOverlay", "✅ Broadcast receiver registered with RECEIVER_NOT_EXPORTED flag");
-            } else {
-                reactContext.registerReceiver(overlayReceiver, filter);
-                Log.d("FloatingOverlay", "✅ Broadcast receiver registered (legacy method)");
-            }
-            Log.d("FloatingOverlay", "✅ Broadcast receiver registered successfully for action: FLOATING_OVERLAY_CLICKED");
-            Log.d("FloatingOverlay", "✅ Filter priority set to HIGH for better reception");
-        } catch (Exception e) {
-            Log.e("FloatingOverlay", "❌ Error setting up broadcast receiver: " + e.getMessage());
-            e.printStackTrace();
+    // Catalyst is up: start receiving overlay events, replaying anything buffered meanwhile
+    @Override
+    public void initialize() {
+        super.initialize();
+        OverlayEventBus.attach(this);
+        reactContext.addLifecycleEventListener(this);
+    }
+
+    // Events refused while Catalyst was inactive are still buffered in the bus, and a batch held
+    // back by flushEvents is still in the batcher; retry both
+    @Override
+    public void onHostResume() {
+        OverlayEventBus.drain();
+        if (!eventBatcher.isEmpty()) {
+            requestFlush();
+        }
+    }
+
+    @Override
+    public void onHostPause() {
+    }
+
+    @Override
+    public void onHostDestroy() {
+    }
+
+    @Override
+    public boolean deliver(OverlayEventBus.Event event) {
+        if (!reactContext.hasActiveCatalystInstance()) {
+            return false;
+        }
+        eventBatcher.add(coalesceKey(event.type), payload(event.type, event.sequence, event.name, event.value));
+        requestFlush();
+        return true;
+    }
+
+    private static WritableMap payload(int type, long sequence, String name, String value) {
+        WritableMap payload = Arguments.createMap();
+        payload.putString("type", OverlayEventBus.Event.typeName(type));
+        payload.putDouble("sequence", sequence);
+        payload.putString("name", name);
+        payload.putString("value", value);
+        return payload;
+    }
+
+    private void requestFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            mainHandler.post(scheduleFlush);
+        }
+    }
+
+    // Superseded call states and tab selections collapse to the latest one; clicks and actions never do
+    private static String coalesceKey(int type) {
+        switch (type) {
+            case OverlayEventBus.TYPE_CALL_STATE:
+                return "callState";
+            case OverlayEventBus.TYPE_TAB_CHANGED:
+                return "tab";
+            default:
+                return null;
+        }
+    }
+
+    private void flushEvents() {
+        flushScheduled.set(false);
+        if (eventBatcher.isEmpty()) {
+            return;
+        }
+        if (!reactContext.hasActiveCatalystInstance()) {
+            // Keep the batch; onHostResume or the next delivered event flushes it once JS is back
+            return;
+        }
+        WritableArray batch = Arguments.createArray();
+        int events = 0;
+        boolean probed = false;
+        for (WritableMap event : eventBatcher.drain()) {
+            probed |= latencyProbe.get() != null && "test".equals(event.getString("name"));
+            batch.pushMap(event);
+            events++;
+        }
+        MetricsRegistry.add(MetricsRegistry.BRIDGE_EVENTS, events);
+        MetricsRegistry.set(MetricsRegistry.BRIDGE_BATCH_EVENTS, events);
+        sendEvent("FloatingOverlayEvents", batch);
+        if (probed) {
+            onProbeEmitted(System.nanoTime());
         }
     }
 
+    // Batching window in ms for overlay events; 0 flushes once per frame
+    @ReactMethod
+    public void setEventBatchWindow(int windowMs) {
+        batchWindowMs = Math.max(0, windowMs);
+    }
+
+    @ReactMethod
+    public void getBridgeStats(Promise promise) {
+        WritableMap stats = Arguments.createMap();
+        stats.putDouble("eventsQueued", eventBatcher.addedCount());
+        stats.putDouble("eventsCoalesced", eventBatcher.coalescedCount());
+        stats.putDouble("eventsEmitted", eventBatcher.flushedCount());
+        stats.putDouble("batchesEmitted", eventBatcher.batchCount());
+        stats.putInt("batchWindowMs", batchWindowMs);
+        promise.resolve(stats);
+    }
+
     private void sendEvent(String eventName, Object data) {
         try {
             if (reactContext.hasActiveCatalystInstance()) {
+                long startUs = MetricsRegistry.nowUs();
                 reactContext
                     .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
                     .emit(eventName, data);
+                MetricsRegistry.recordSince(MetricsRegistry.BRIDGE_EMIT, startUs);
+                MetricsRegistry.increment(MetricsRegistry.BRIDGE_EMITS);
             }
         } catch (Exception e) {
-            Log.e("FloatingOverlay", "Error sending event: " + e.getMessage());
+            OverlayLog.e("Error sending event", e);
+        }
+    }
+
+    // Delivers a command to FloatingOverlayService. A running service is already in the foreground,
+    // so it gets the command through startService; only a cold start goes through
+    // startForegroundService, which on API 31+ is refused while the app is in the background.
+    // Returns false when the command was not delivered.
+    private boolean sendToService(Intent serviceIntent, boolean startIfStopped) {
+        try {
+            if (FloatingOverlayService.isRunning()) {
+                reactContext.startService(serviceIntent);
+            } else if (startIfStopped) {
+                ContextCompat.startForegroundService(reactContext, serviceIntent);
+            } else {
+                return false;
+            }
+            return true;
+        } catch (IllegalStateException e) {
+            // ForegroundServiceStartNotAllowedException, or a background startService racing the service's stop
+            OverlayLog.e("⚠️ Overlay service refused the command", e);
+            return false;
         }
     }
 
@@ -113,8 +217,12 @@ public class FloatingOverlayModule extends ReactContextBaseJavaModule {
             serviceIntent.putExtra("action", "SHOW_OVERLAY");
             serviceIntent.putExtra("phoneNumber", phoneNumber);
             serviceIntent.putExtra("leadName", leadName);
+            serviceIntent.putExtra("requestedAtMs", SystemClock.uptimeMillis());
             
-            reactContext.startService(serviceIntent);
+            if (!sendToService(serviceIntent, true)) {
+                promise.reject("ERROR", "Failed to show overlay: overlay service could not be started");
+                return;
+            }
             promise.resolve("Overlay shown successfully");
         } catch (Exception e) {
             promise.reject("ERROR", "Failed to show overlay: " + e.getMessage());
@@ -127,13 +235,62 @@ public class FloatingOverlayModule extends ReactContextBaseJavaModule {
             Intent serviceIntent = new Intent(reactContext, FloatingOverlayService.class);
             serviceIntent.putExtra("action", "HIDE_OVERLAY");
             
-            reactContext.startService(serviceIntent);
+            // A stopped service has no bubble to hide
+            sendToService(serviceIntent, false);
             promise.resolve("Overlay hidden successfully");
         } catch (Exception e) {
             promise.reject("ERROR", "Failed to hide overlay: " + e.getMessage());
         }
     }
 
+    // Brings the overlay service up in foreground standby (bubble built but not shown) so the
+    // next show skips the cold service start and view inflation
+    @ReactMethod
+    public void startOverlayStandby(Promise promise) {
+        try {
+            Intent serviceIntent = new Intent(reactContext, FloatingOverlayService.class);
+            serviceIntent.putExtra("action", "STANDBY");
+            promise.resolve(sendToService(serviceIntent, true));
+        } catch (Exception e) {
+            promise.reject("ERROR", "Failed to start overlay standby: " + e.getMessage());
+        }
+    }
+
+    // Overlay animations of the running service; all zero when it isn't running
+    @ReactMethod
+    public void getOverlayAnimationStats(Promise promise) {
+        mainHandler.post(() -> {
+            OverlayAnimationController animations = OverlayAnimationController.current();
+            WritableMap stats = Arguments.createMap();
+            stats.putInt("activeAnimators", animations != null ? animations.activeAnimators() : 0);
+            stats.putInt("pulseViews", animations != null ? animations.registeredPulses() : 0);
+            stats.putInt("visiblePulseViews", animations != null ? animations.activePulses() : 0);
+            stats.putBoolean("screenOn", animations == null || animations.screenOn());
+            stats.putDouble("frames", animations != null ? animations.frames() : 0);
+            stats.putDouble("pauses", animations != null ? animations.pauses() : 0);
+            stats.putDouble("resumes", animations != null ? animations.resumes() : 0);
+            stats.putDouble("slides", animations != null ? animations.slides() : 0);
+            promise.resolve(stats);
+        });
+    }
+
+    @ReactMethod
+    public void getOverlayShowStats(Promise promise) {
+        WritableMap stats = Arguments.createMap();
+        stats.putDouble("coldShows", OverlayShowStats.coldCount());
+        stats.putDouble("coldAverageMs", OverlayShowStats.coldAverageMs());
+        stats.putDouble("coldMaxMs", OverlayShowStats.coldMaxMs());
+        stats.putDouble("warmShows", OverlayShowStats.warmCount());
+        stats.putDouble("warmAverageMs", OverlayShowStats.warmAverageMs());
+        stats.putDouble("warmMaxMs", OverlayShowStats.warmMaxMs());
+        stats.putDouble("lastShowMs", OverlayShowStats.lastMs());
+        stats.putBoolean("lastShowCold", OverlayShowStats.lastCold());
+        stats.putDouble("memoryTrims", OverlayShowStats.trimCount());
+        stats.putInt("expandedViews", OverlayShowStats.expandedViews());
+        promise.resolve(stats);
+    }
+
+    // Stops the service completely, including standby and the call monitor
     @ReactMethod
     public void stopFloatingOverlay(Promise promise) {
         try {
@@ -145,6 +302,99 @@ public class FloatingOverlayModule extends ReactContextBaseJavaModule {
         }
     }
     
+    // Starts the native call-state listener in FloatingOverlayService. The overlay then follows
+    // RINGING/OFFHOOK/IDLE on its own; JS keeps its own call detection for its call logs.
+    // Resolves false when READ_PHONE_STATE is not granted.
+    @ReactMethod
+    public void startCallMonitor(Promise promise) {
+        try {
+            if (ContextCompat.checkSelfPermission(reactContext, Manifest.permission.READ_PHONE_STATE)
+                != PackageManager.PERMISSION_GRANTED) {
+                promise.resolve(false);
+                return;
+            }
+            Intent serviceIntent = new Intent(reactContext, FloatingOverlayService.class);
+            serviceIntent.putExtra("action", "START_CALL_MONITOR");
+            promise.resolve(sendToService(serviceIntent, true));
+        } catch (Exception e) {
+            promise.reject("ERROR", "Failed to start call monitor: " + e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    public void stopCallMonitor(Promise promise) {
+        try {
+            Intent serviceIntent = new Intent(reactContext, FloatingOverlayService.class);
+            serviceIntent.putExtra("action", "STOP_CALL_MONITOR");
+            // A stopped service has no monitor running
+            sendToService(serviceIntent, false);
+            promise.resolve(true);
+        } catch (Exception e) {
+            promise.reject("ERROR", "Failed to stop call monitor: " + e.getMessage());
+        }
+    }
+
+    // Replaces the native caller-ID index used by FloatingOverlayService.
+    // Arrays are parallel (phones[i], leadIds[i], names[i]) to keep bridge marshalling flat.
+    @ReactMethod
+    public void updateCallerIdIndex(ReadableArray phones, ReadableArray leadIds, ReadableArray names, Promise promise) {
+        try {
+            int count = phones.size();
+            if (leadIds.size() != count || names.size() != count) {
+                promise.reject("ERROR", "Caller ID arrays must have the same length");
+                return;
+            }
+            String[] phoneArray = new String[count];
+            int[] idArray = new int[count];
+            String[] nameArray = new String[count];
+            for (int i = 0; i < count; i++) {
+                phoneArray[i] = phones.isNull(i) ? null : phones.getString(i);
+                idArray[i] = readLeadId(leadIds, i);
+                nameArray[i] = names.isNull(i) ? null : names.getString(i);
+            }
+
+            long startNanos = System.nanoTime();
+            CallerIdIndex index = CallerIdIndex.build(phoneArray, idArray, nameArray);
+            CallerIdIndex.install(index);
+            if (OverlayLog.DEBUG) {
+                OverlayLog.d("✅ Caller ID index built: {} numbers in {}us", index.size(),
+                    (System.nanoTime() - startNanos) / 1000);
+            }
+            promise.resolve(index.size());
+        } catch (Exception e) {
+            promise.reject("ERROR", "Failed to update caller ID index: " + e.getMessage());
+        }
+    }
+
+    // Lead ids are strings in AsyncStorage ("31") and numbers in SQLite
+    private static int readLeadId(ReadableArray leadIds, int i) {
+        if (leadIds.isNull(i)) {
+            return -1;
+        }
+        if (leadIds.getType(i) == ReadableType.Number) {
+            return leadIds.getInt(i);
+        }
+        try {
+            return Integer.parseInt(leadIds.getString(i));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    // Recent native overlay log lines (info and above, oldest first) for field debugging
+    @ReactMethod
+    public void dumpNativeLog(Promise promise) {
+        try {
+            WritableArray lines = Arguments.createArray();
+            for (String line : OverlayLog.dump()) {
+                lines.pushString(line);
+            }
+            promise.resolve(lines);
+        } catch (Exception e) {
+            promise.reject("ERROR", "Failed to dump native log: " + e.getMessage());
+        }
+    }
+
     @ReactMethod
     public void addListener(String eventName) {
         // Required for NativeEventEmitter - iOS only, but Android needs this to avoid warnings
@@ -155,57 +405,124 @@ public class FloatingOverlayModule extends ReactContextBaseJavaModule {
         // Required for NativeEventEmitter - iOS only, but Android needs this to avoid warnings
     }
     
+    // Compares the event bus with the broadcast it replaced, like for like: the same "test" click
+    // payload is sent from the main thread, first through the bus (the path a bubble tap takes),
+    // then as a package-local broadcast whose receiver queues it the way deliver() does. Each is
+    // timed until its batch is emitted to JS, so both include the same batching and frame wait.
     @ReactMethod
     public void testBroadcast(Promise promise) {
+        if (!latencyProbe.compareAndSet(null, promise)) {
+            promise.reject("ERROR", "Test broadcast already running");
+            return;
+        }
+        mainHandler.post(() -> {
+            try {
+                registerProbeReceiver();
+            } catch (Exception e) {
+                failProbe(e);
+                return;
+            }
+            probePhase = PROBE_BUS;
+            probeStartNanos = System.nanoTime();
+            probeSequence = OverlayEventBus.post(OverlayEventBus.TYPE_CLICK, "test", null);
+        });
+    }
+
+    // Main thread; registered before either timing starts
+    private void registerProbeReceiver() {
+        probeReceiver = new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                int type = intent.getIntExtra("type", OverlayEventBus.TYPE_CLICK);
+                eventBatcher.add(coalesceKey(type), payload(type, intent.getLongExtra("sequence", 0L),
+                    intent.getStringExtra("name"), intent.getStringExtra("value")));
+                requestFlush();
+            }
+        };
+        IntentFilter filter = new IntentFilter(LATENCY_PROBE_ACTION);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
+            reactContext.registerReceiver(probeReceiver, filter, Context.RECEIVER_NOT_EXPORTED);
+        } else {
+            reactContext.registerReceiver(probeReceiver, filter);
+        }
+    }
+
+    // Main thread, right after the batch holding the probe click went to JS
+    private void onProbeEmitted(long emittedNanos) {
+        Promise promise = latencyProbe.get();
+        if (promise == null) {
+            return;
+        }
+        long nanos = emittedNanos - probeStartNanos;
+        if (probePhase == PROBE_BUS) {
+            probeBusNanos = nanos;
+            probePhase = PROBE_BROADCAST;
+            Intent intent = new Intent(LATENCY_PROBE_ACTION);
+            intent.setPackage(reactContext.getPackageName());
+            intent.putExtra("type", OverlayEventBus.TYPE_CLICK);
+            intent.putExtra("sequence", probeSequence);
+            intent.putExtra("name", "test");
+            intent.putExtra("value", (String) null);
+            try {
+                probeStartNanos = System.nanoTime();
+                reactContext.sendBroadcast(intent);
+            } catch (Exception e) {
+                failProbe(e);
+            }
+            return;
+        }
+        unregisterProbeReceiver();
+        if (latencyProbe.compareAndSet(promise, null)) {
+            WritableMap result = Arguments.createMap();
+            result.putDouble("eventBusLatencyMs", probeBusNanos / 1e6);
+            result.putDouble("broadcastLatencyMs", nanos / 1e6);
+            OverlayLog.i("🧪 Dispatch latency: event bus {}us, broadcast {}us", probeBusNanos / 1000, nanos / 1000);
+            promise.resolve(result);
+        }
+    }
+
+    private void failProbe(Exception e) {
+        OverlayLog.e("🧪 Test broadcast failed", e);
+        unregisterProbeReceiver();
+        Promise promise = latencyProbe.getAndSet(null);
+        if (promise != null) {
+            promise.reject("ERROR", "Test broadcast failed: " + e.getMessage());
+        }
+    }
+
+    private void unregisterProbeReceiver() {
+        if (probeReceiver == null) {
+            return;
+        }
         try {
-            Log.d("FloatingOverlay", "🧪 ========================================");
-            Log.d("FloatingOverlay", "🧪 MANUAL TEST BROADCAST TRIGGERED");
-            Log.d("FloatingOverlay", "🧪 This should trigger the same flow as clicking floating icon");
-            Log.d("FloatingOverlay", "🧪 ========================================");
-            
-            Log.d("FloatingOverlay", "🧪 Checking broadcast receiver setup:");
-            Log.d("FloatingOverlay", "🧪 - Receiver object: " + (overlayReceiver != null ? "EXISTS" : "NULL"));
-            Log.d("FloatingOverlay", "🧪 - React context: " + (reactContext != null ? "EXISTS" : "NULL"));
-            Log.d("FloatingOverlay", "🧪 - Context active: " + (reactContext != null && reactContext.hasActiveCatalystInstance()));
-            
-            Log.d("FloatingOverlay", "🧪 Sending broadcast with action: FLOATING_OVERLAY_CLICKED");
-            Intent intent = new Intent("FLOATING_OVERLAY_CLICKED");
-            intent.addFlags(Intent.FLAG_INCLUDE_STOPPED_PACKAGES);
-            reactContext.sendBroadcast(intent);
-            Log.d("FloatingOverlay", "🧪 Test broadcast sent successfully - now waiting for receiver...");
-            
-            // Add a small delay and try again with different approach
-            new android.os.Handler().postDelayed(new Runnable() {
-                @Override
-                public void run() {
-                    try {
-                        Log.d("FloatingOverlay", "🧪 Sending retry broadcast with package targeting...");
-                        Intent retryIntent = new Intent("FLOATING_OVERLAY_CLICKED");
-                        retryIntent.setPackage(reactContext.getPackageName());
-                        reactContext.sendBroadcast(retryIntent);
-                        Log.d("FloatingOverlay", "🧪 Retry broadcast sent");
-                    } catch (Exception e) {
-                        Log.e("FloatingOverlay", "🧪 Retry broadcast failed: " + e.getMessage());
-                    }
-                }
-            }, 100);
-            
-            promise.resolve("Test broadcast sent");
+            reactContext.unregisterReceiver(probeReceiver);
         } catch (Exception e) {
-            Log.e("FloatingOverlay", "🧪 Test broadcast failed: " + e.getMessage());
-            promise.reject("ERROR", "Test broadcast failed: " + e.getMessage());
+            // Already unregistered
         }
+        probeReceiver = null;
+    }
+
+    @ReactMethod
+    public void getEventBusStats(Promise promise) {
+        WritableMap stats = Arguments.createMap();
+        stats.putDouble("delivered", OverlayEventBus.deliveredCount());
+        stats.putDouble("dropped", OverlayEventBus.droppedCount());
+        stats.putInt("pending", OverlayEventBus.pendingCount());
+        stats.putDouble("averageLatencyMs", OverlayEventBus.averageLatencyNanos() / 1e6);
+        stats.putDouble("maxLatencyMs", OverlayEventBus.maxLatencyNanos() / 1e6);
+        promise.resolve(stats);
     }
 
     @Override
     public void onCatalystInstanceDestroy() {
         super.onCatalystInstanceDestroy();
-        if (overlayReceiver != null) {
-            try {
-                reactContext.unregisterReceiver(overlayReceiver);
-            } catch (Exception e) {
-                // Receiver already unregistered
-            }
+        // Events posted until the next module attaches stay buffered in the bus
+        OverlayEventBus.detach(this);
+        reactContext.removeLifecycleEventListener(this);
+        Promise probe = latencyProbe.getAndSet(null);
+        if (probe != null) {
+            mainHandler.post(this::unregisterProbeReceiver);
+            probe.reject("ERROR", "Test broadcast failed: React instance destroyed");
         }
     }
 }
\ No newline at end of file
@@ -1,16 +1,30 @@
 package com.leadzen;
 
-import android.util.Log;
-import com.facebook.react.ReactPackage;
+import com.facebook.react.TurboReactPackage;
 import com.facebook.react.bridge.NativeModule;
 import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.module.model.ReactModuleInfo;
+import com.facebook.react.module.model.ReactModuleInfoProvider;
 import com.facebook.react.uimanager.ViewManager;
 
-import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
-public class FloatingOverlayPackage implements ReactPackage {
+// Modules are described up front and constructed when JS first uses them, not while the React
+// context is created. StartupTrace records each construction; with eager modules switched on
+// (StartupTrace.eagerModules) the bridge constructs them all at context creation as before.
+public class FloatingOverlayPackage extends TurboReactPackage {
+    private static final String[][] MODULES = {
+        {"SimpleFloatingModule", SimpleFloatingModule.class.getName()},
+        {"FloatingOverlayModule", FloatingOverlayModule.class.getName()},
+        {"LeadSnapshotModule", LeadSnapshotModule.class.getName()},
+        {"T9SearchModule", T9SearchModule.class.getName()},
+        {"LeadStoreModule", LeadStoreModule.class.getName()},
+        {"PhoneNormalizerModule", PhoneNormalizerModule.class.getName()},
+        {"PerformanceModule", PerformanceModule.class.getName()},
+    };
 
     @Override
     public List<ViewManager> createViewManagers(ReactApplicationContext reactContext) {
@@ -18,28 +32,56 @@ public class FloatingOverlayPackage implements ReactPackage {
     }
 
     @Override
-    public List<NativeModule> createNativeModules(ReactApplicationContext reactContext) {
-        Log.d("FloatingOverlay", "🏭 CREATE_NATIVE_MODULES CALLED");
-        Log.d("FloatingOverlay", "🏭 React context: " + (reactContext != null ? "OK" : "NULL"));
-        List<NativeModule> modules = new ArrayList<>();
-        
+    public NativeModule getModule(String name, ReactApplicationContext reactContext) {
+        long began = StartupTrace.begin();
+        NativeModule module;
         try {
-            // Add simple test module first
-            Log.d("FloatingOverlay", "🏭 Creating SimpleFloatingModule...");
-            modules.add(new SimpleFloatingModule(reactContext));
-            Log.d("FloatingOverlay", "✅ SimpleFloatingModule added successfully");
-            
-            // Add main floating overlay module
-            Log.d("FloatingOverlay", "🏭 Creating FloatingOverlayModule...");
-            modules.add(new FloatingOverlayModule(reactContext));
-            Log.d("FloatingOverlay", "✅ FloatingOverlayModule added successfully");
-            
-            Log.d("FloatingOverlay", "🏭 Total modules created: " + modules.size());
+            switch (name) {
+                case "SimpleFloatingModule":
+                    module = new SimpleFloatingModule(reactContext);
+                    break;
+                case "FloatingOverlayModule":
+                    module = new FloatingOverlayModule(reactContext);
+                    break;
+                case "LeadSnapshotModule":
+                    module = new LeadSnapshotModule(reactContext);
+                    break;
+                case "T9SearchModule":
+                    module = new T9SearchModule(reactContext);
+                    break;
+                case "LeadStoreModule":
+                    module = new LeadStoreModule(reactContext);
+                    break;
+                case "PhoneNormalizerModule":
+                    module = new PhoneNormalizerModule(reactContext);
+                    break;
+                case "PerformanceModule":
+                    module = new PerformanceModule(reactContext);
+                    break;
+                default:
+                    return null;
+            }
         } catch (Exception e) {
-            Log.e("FloatingOverlay", "❌ ERROR creating modules: " + e.getMessage());
-            e.printStackTrace();
+            OverlayLog.e("❌ ERROR creating module " + name, e);
+            return null;
         }
-        
-        return modules;
+        StartupTrace.end("module:" + name, began);
+        OverlayLog.d("🏭 Native module created: {}", name);
+        return module;
     }
-}
\ No newline at end of file
+
+    @Override
+    public ReactModuleInfoProvider getReactModuleInfoProvider() {
+        boolean eager = StartupTrace.eagerModules();
+        Map<String, ReactModuleInfo> infos = new HashMap<>();
+        for (String[] module : MODULES) {
+            infos.put(module[0], new ReactModuleInfo(module[0], module[1],
+                false, // canOverrideExistingModule
+                eager, // needsEagerInit
+                false, // hasConstants
+                false, // isCxxModule
+                false)); // isTurboModule: these are bridge modules
+        }
+        return () -> infos;
+    }
+}
@@ -1,25 +1,42 @@
 package com.leadzen;
 
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
 import android.app.Service;
+import android.content.Context;
 import android.content.Intent;
+import android.content.SharedPreferences;
+import android.content.pm.ServiceInfo;
 import android.graphics.Color;
 import android.graphics.PixelFormat;
 import android.graphics.drawable.GradientDrawable;
 import android.os.Build;
 import android.os.IBinder;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.view.Gravity;
-import android.view.MotionEvent;
 import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
 import android.view.WindowManager;
 import android.widget.LinearLayout;
 import android.widget.TextView;
 import android.widget.FrameLayout;
-import android.animation.ObjectAnimator;
-import android.animation.AnimatorSet;
-import android.animation.ValueAnimator;
 import androidx.annotation.Nullable;
 
 public class FloatingOverlayService extends Service {
+    private static final int STANDBY_NOTIFICATION_ID = 4201;
+    private static final String STANDBY_CHANNEL_ID = "overlay_standby";
+    // showForCaller reason for JS show requests; telephony-triggered shows pass the call event
+    private static final String SHOW_REQUEST = "show request";
+    private static final String PREFS = "leadzen_overlay_service";
+    private static final String KEY_CALL_MONITOR_STOPPED = "call_monitor_stopped";
+
+    // Between onCreate and onDestroy; FloatingOverlayModule sends commands to a running service
+    // with startService and keeps startForegroundService for the cold start
+    private static volatile boolean running;
+
     private WindowManager windowManager;
     private View floatingView;
     private View expandedView;
@@ -29,14 +46,54 @@ public class FloatingOverlayService extends Service {
     private boolean isExpanded = false;
     private String currentPhoneNumber;
     private String currentLeadName;
+    private String currentLeadCompany;
     private String currentCallState = "DURING"; // DURING, AFTER, ENDED
     private int selectedTabIndex = 0; // 0=Action, 1=Activity, 2=Insight
 
+    // Sections of the expanded overlay that change per call; the tree itself is built once
+    private OverlayHeaderView headerView;
+    private OverlayActionListView quickActionsView;
+    private OverlayTabStripView tabStripView;
+    private OverlayLabelRowView labelRowView;
+    private OverlayDrawables overlayDrawables;
+    private OverlayAnimationController animations;
+    private PulseView overlayPulse;
+    private long expandedBuildMs = -1;
+    private OverlayDragController dragController;
+    private CallStateMonitor callStateMonitor;
+    // Set by STOP_CALL_MONITOR, cleared by START_CALL_MONITOR; every other command (re)starts the
+    // monitors. Persisted, so a sticky restart comes back in the state JS last asked for.
+    private SharedPreferences prefs;
+
+    // Warm standby: the service runs in the foreground with the bubble built but detached,
+    // so a show only attaches the window and binds data
+    private PulseView bubblePulse;
+    private boolean bubbleAttached;
+    private boolean warmedUp;
+    private boolean inForeground;
+    private Notification standbyNotification;
+
     @Override
     public void onCreate() {
         super.onCreate();
+        running = true;
         windowManager = (WindowManager) getSystemService(WINDOW_SERVICE);
-        createFloatingView();
+        prefs = getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        animations = new OverlayAnimationController(this);
+        animations.start();
+        overlayDrawables = new OverlayDrawables(this);
+        createFloatingView(); // built detached; attachBubble() puts it on screen
+        
+        // Pre-warm the expanded overlay once the main thread goes idle so the first tap only binds data
+        Looper.myQueue().addIdleHandler(() -> {
+            if (expandedView == null) {
+                long startMs = SystemClock.uptimeMillis();
+                createExpandedOverlay();
+                expandedBuildMs = SystemClock.uptimeMillis() - startMs;
+                OverlayLog.d("🔥 Expanded overlay pre-warmed in {}ms", expandedBuildMs);
+            }
+            return false;
+        });
     }
 
     private void createFloatingView() {
@@ -44,17 +101,10 @@ public class FloatingOverlayService extends Service {
         FrameLayout container = new FrameLayout(this);
         container.setClickable(true);
         container.setFocusable(true);
-        android.util.Log.d("FloatingOverlay", "Creating beautiful circular floating icon...");
+        OverlayLog.d("Creating beautiful circular floating icon...");
         
-        // Outer pulse ring (blinking effect)
-        TextView pulseRing = new TextView(this);
-        GradientDrawable pulseBackground = new GradientDrawable();
-        pulseBackground.setShape(GradientDrawable.OVAL);
-        pulseBackground.setColor(Color.parseColor("#4014B8A6")); // 25% opacity teal
-        pulseRing.setBackground(pulseBackground);
-        FrameLayout.LayoutParams pulseParams = new FrameLayout.LayoutParams(dpToPx(70), dpToPx(70));
-        pulseParams.gravity = Gravity.CENTER;
-        pulseRing.setLayoutParams(pulseParams);
+        // Outer pulse ring (blinking effect); it pulses while the bubble is on screen
+        bubblePulse = createPulseRing();
         
         // Main circular icon background
         TextView iconBackground = new TextView(this);
@@ -129,40 +179,28 @@ public class FloatingOverlayService extends Service {
         leadNameView.setLayoutParams(nameParams);
         
         // Assemble the floating icon
-        container.addView(pulseRing);      // Pulse background
+        container.addView(bubblePulse);    // Pulse background
         container.addView(iconBackground); // Main circular background
         container.addView(phoneIcon);      // Phone icon
         container.addView(callTypeIndicator); // Call type indicator
         container.addView(leadNameView);   // Lead name
         
         floatingView = container;
+        setUpBubbleWindow();
         
-        // Start pulse animation
-        startPulseAnimation(pulseRing);
-        
-        android.util.Log.d("FloatingOverlay", "✅ Beautiful circular floating icon created successfully!");
+        OverlayLog.d("✅ Beautiful circular floating icon created successfully!");
     }
     
-    // Pulse animation for the blinking outer ring
-    private void startPulseAnimation(View pulseRing) {
-        android.animation.ObjectAnimator scaleXAnimator = android.animation.ObjectAnimator.ofFloat(pulseRing, "scaleX", 1f, 1.3f, 1f);
-        android.animation.ObjectAnimator scaleYAnimator = android.animation.ObjectAnimator.ofFloat(pulseRing, "scaleY", 1f, 1.3f, 1f);
-        android.animation.ObjectAnimator alphaAnimator = android.animation.ObjectAnimator.ofFloat(pulseRing, "alpha", 0.7f, 0.3f, 0.7f);
-        
-        android.animation.AnimatorSet pulseSet = new android.animation.AnimatorSet();
-        pulseSet.playTogether(scaleXAnimator, scaleYAnimator, alphaAnimator);
-        pulseSet.setDuration(1200); // 1.2 second pulse
-        // AnimatorSet doesn't have repeat methods, so we'll use individual animators
-        scaleXAnimator.setRepeatCount(ObjectAnimator.INFINITE);
-        scaleXAnimator.setRepeatMode(ObjectAnimator.RESTART);
-        scaleYAnimator.setRepeatCount(ObjectAnimator.INFINITE);
-        scaleYAnimator.setRepeatMode(ObjectAnimator.RESTART);
-        alphaAnimator.setRepeatCount(ObjectAnimator.INFINITE);
-        alphaAnimator.setRepeatMode(ObjectAnimator.RESTART);
-        
-        pulseSet.start();
-        android.util.Log.d("FloatingOverlay", "✅ Pulse animation started - outer ring should be blinking!");
+    // Blinking outer ring: 25% opacity teal, drawn and clocked by the animation controller
+    private PulseView createPulseRing() {
+        PulseView pulseRing = new PulseView(this, animations, Color.parseColor("#4014B8A6"));
+        FrameLayout.LayoutParams pulseParams = new FrameLayout.LayoutParams(dpToPx(70), dpToPx(70));
+        pulseParams.gravity = Gravity.CENTER;
+        pulseRing.setLayoutParams(pulseParams);
+        return pulseRing;
+    }
 
+    private void setUpBubbleWindow() {
         // Set up window parameters
         int layoutType;
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
@@ -186,91 +224,15 @@ public class FloatingOverlayService extends Service {
         params.x = 300; // Absolute position from left
         params.y = 400; // Absolute position from top
 
-        // Add view to window manager
-        windowManager.addView(floatingView, params);
-        android.util.Log.d("FloatingOverlay", "Floating view added to WindowManager successfully");
-
-        // Enhanced touch listener for smooth dragging and reliable click detection
-        floatingView.setOnTouchListener(new View.OnTouchListener() {
-            private int initialX, initialY;
-            private float initialTouchX, initialTouchY;
-            private long touchStartTime;
-            private boolean isDragging = false;
-
-            @Override
-            public boolean onTouch(View v, MotionEvent event) {
-                switch (event.getAction()) {
-                    case MotionEvent.ACTION_DOWN:
-                        // Store initial positions
-                        initialX = params.x;
-                        initialY = params.y;
-                        initialTouchX = event.getRawX();
-                        initialTouchY = event.getRawY();
-                        touchStartTime = System.currentTimeMillis();
-                        isDragging = false;
-                        
-                        // Add visual feedback - slightly scale down
-                        floatingView.animate().scaleX(0.95f).scaleY(0.95f).setDuration(100).start();
-                        
-                        android.util.Log.d("FloatingOverlay", "👆 TOUCH DOWN DETECTED! Touch working properly!");
-                        android.util.Log.d("FloatingOverlay", "👆 Position: x=" + event.getRawX() + ", y=" + event.getRawY());
-                        return true;
-
-                    case MotionEvent.ACTION_MOVE:
-                        float deltaX = event.getRawX() - initialTouchX;
-                        float deltaY = event.getRawY() - initialTouchY;
-                        float moveDistance = (float) Math.sqrt(deltaX * deltaX + deltaY * deltaY);
-                        
-                        // Start dragging if moved more than threshold
-                        if (moveDistance > 15 && !isDragging) {
-                            isDragging = true;
-                            android.util.Log.d("FloatingOverlay", "🚀 Started dragging - smooth movement enabled");
-                        }
-                        
-                        if (isDragging) {
-                            // Completely free dragging with NO_GRAVITY - direct absolute positioning
-                            params.x = initialX + (int) deltaX; // Add deltaX for absolute positioning
-                            params.y = initialY + (int) deltaY; // Add deltaY for absolute positioning
-                            
-                            windowManager.updateViewLayout(floatingView, params);
-                            android.util.Log.d("FloatingOverlay", "📍 Free dragging to: x=" + params.x + ", y=" + params.y);
-                        }
-                        return true;
-
-                    case MotionEvent.ACTION_UP:
-                        // Restore visual feedback
-                        floatingView.animate().scaleX(1.0f).scaleY(1.0f).setDuration(100).start();
-                        
-                        long touchDuration = System.currentTimeMillis() - touchStartTime;
-                        float finalMoveDistance = (float) Math.sqrt(
-                            Math.pow(event.getRawX() - initialTouchX, 2) + 
-                            Math.pow(event.getRawY() - initialTouchY, 2)
-                        );
-                        
-                        android.util.Log.d("FloatingOverlay", "👆 Touch UP - Duration: " + touchDuration + "ms, Distance: " + finalMoveDistance + "px");
-                        
-                        if (!isDragging && touchDuration < 500 && finalMoveDistance < 20) {
-                            // This is a click, not a drag
-                            android.util.Log.d("FloatingOverlay", "🎯 CLICK CONFIRMED! Duration: " + touchDuration + "ms, Distance: " + finalMoveDistance + "px");
-                            android.util.Log.d("FloatingOverlay", "🎯 Calling handleOverlayClick() now...");
-                            handleOverlayClick();
-                        } else {
-                            android.util.Log.d("FloatingOverlay", "❌ Not a click - isDragging: " + isDragging + ", duration: " + touchDuration + "ms, distance: " + finalMoveDistance + "px");
-                        }
-                        // Removed snap to edge - free dragging everywhere!
-                        
-                        isDragging = false;
-                        return true;
-                }
-                return false;
-            }
-        });
+        // Frame-coalesced dragging with fling, plus reliable click detection
+        dragController = new OverlayDragController(windowManager, floatingView, params, this::handleOverlayClick);
+        floatingView.setOnTouchListener(dragController);
         
         // Backup click listener for additional reliability
         floatingView.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
-                android.util.Log.d("FloatingOverlay", "🎯 Backup click listener triggered!");
+                OverlayLog.d("🎯 Backup click listener triggered!");
                 handleOverlayClick();
             }
         });
@@ -279,24 +241,28 @@ public class FloatingOverlayService extends Service {
         floatingView.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
-                android.util.Log.d("FloatingOverlay", "✅ SIMPLE CLICK LISTENER TRIGGERED!");
-                android.util.Log.d("FloatingOverlay", "View clicked: " + v.toString());
-                android.util.Log.d("FloatingOverlay", "View clickable: " + v.isClickable());
-                android.util.Log.d("FloatingOverlay", "View enabled: " + v.isEnabled());
+                OverlayLog.d("✅ SIMPLE CLICK LISTENER TRIGGERED!");
+                if (OverlayLog.DEBUG) {
+                    OverlayLog.d("View clickable: {}, enabled: {}", v.isClickable(), v.isEnabled());
+                }
                 handleOverlayClick();
             }
         });
         
-        android.util.Log.d("FloatingOverlay", "✅ Enhanced floating icon with dragging and click detection setup complete");
+        OverlayLog.d("✅ Enhanced floating icon with dragging and click detection setup complete");
     }
     
     // Removed snapToEdge method - now allows completely free dragging
 
+    // Builds the expanded overlay view tree. Called once; later shows only re-bind data via bindExpandedOverlay()
     private void createExpandedOverlay() {
-        android.util.Log.d("FloatingOverlay", "Creating professional overlay with proper transparency and icon connection...");
+        if (expandedView != null) {
+            return;
+        }
+        OverlayLog.d("Creating professional overlay with proper transparency and icon connection...");
         
-        // Main container with semi-transparent background (like reference image)
-        FrameLayout mainContainer = new FrameLayout(this);
+        // Main container with semi-transparent background (like reference image); times the tree's frames
+        FrameLayout mainContainer = new OverlayRootLayout(this);
         mainContainer.setClickable(true);
         mainContainer.setFocusable(true);
         // Semi-transparent dark overlay background (50% opacity)
@@ -321,26 +287,38 @@ public class FloatingOverlayService extends Service {
             overlayCard.setElevation(dpToPx(16));
         }
         
+        // Each section is one flat view drawing on the Canvas (FlatOverlayView)
+        
         // PHASE 1: Professional Header with Contact Info
-        LinearLayout headerSection = createProfessionalHeader();
+        headerView = new OverlayHeaderView(this, overlayDrawables);
+        headerView.setOnTargetClickListener((target, label) -> hideExpandedOverlay());
         
-        // PHASE 2 & 4: Quick Action Buttons (Move to..., Create Meeting, SMS)
-        LinearLayout quickActionsSection = createQuickActionButtons();
+        // PHASE 2 & 4: Quick Action Buttons (SMS, Move to..., Create Meeting)
+        quickActionsView = new OverlayActionListView(this, overlayDrawables);
+        quickActionsView.setOnTargetClickListener((target, label) ->
+            OverlayEventBus.post(OverlayEventBus.TYPE_ACTION, label, currentPhoneNumber));
         
         // PHASE 2: Tab Navigation (Action, Activity, Insight)
-        LinearLayout tabNavigationSection = createTabNavigation();
+        tabStripView = new OverlayTabStripView(this, overlayDrawables);
+        tabStripView.setOnTargetClickListener((target, label) -> {
+            selectedTabIndex = target;
+            tabStripView.setSelectedTab(target);
+            OverlayEventBus.post(OverlayEventBus.TYPE_TAB_CHANGED, label, String.valueOf(target));
+        });
         
         // PHASE 3: Label Management Section
-        LinearLayout labelSection = createLabelManagementSection();
+        labelRowView = new OverlayLabelRowView(this, overlayDrawables);
         
         // PHASE 5: Bottom Action Bar (Labels, Note, Reminder, Task)
-        LinearLayout bottomActionBar = createBottomActionBar();
+        OverlayActionBarView bottomActionBar = new OverlayActionBarView(this, overlayDrawables);
+        bottomActionBar.setOnTargetClickListener((target, label) ->
+            OverlayEventBus.post(OverlayEventBus.TYPE_ACTION, label, currentPhoneNumber));
         
         // Assemble all sections
-        overlayCard.addView(headerSection);
-        overlayCard.addView(quickActionsSection);
-        overlayCard.addView(tabNavigationSection);
-        overlayCard.addView(labelSection);
+        overlayCard.addView(headerView);
+        overlayCard.addView(quickActionsView);
+        overlayCard.addView(tabStripView);
+        overlayCard.addView(labelRowView);
         overlayCard.addView(bottomActionBar);
         
         // Position the overlay card (takes 93% of screen width, ~50% of screen height)
@@ -362,6 +340,7 @@ public class FloatingOverlayService extends Service {
         mainContainer.addView(overlayIcon);
         
         expandedView = mainContainer;
+        OverlayShowStats.recordExpandedViews(countViews(mainContainer));
         
         // Set up window parameters
         int layoutType;
@@ -385,354 +364,40 @@ public class FloatingOverlayService extends Service {
         expandedParams.x = 0;
         expandedParams.y = 0;
         
-        android.util.Log.d("FloatingOverlay", "Professional expanded overlay created successfully");
+        OverlayLog.d("Professional expanded overlay created successfully");
     }
     
-    // PHASE 1: Professional Header with Contact Info
-    private LinearLayout createProfessionalHeader() {
-        LinearLayout headerContainer = new LinearLayout(this);
-        headerContainer.setOrientation(LinearLayout.VERTICAL);
-        headerContainer.setPadding(0, 0, 0, dpToPx(20));
-        
-        // Contact Info Section
-        LinearLayout contactHeader = new LinearLayout(this);
-        contactHeader.setOrientation(LinearLayout.HORIZONTAL);
-        contactHeader.setGravity(Gravity.CENTER_VERTICAL);
-        contactHeader.setPadding(0, 0, 0, dpToPx(16));
-        
-        // Profile Picture with purple ring (like reference)
-        LinearLayout profileContainer = new LinearLayout(this);
-        profileContainer.setGravity(Gravity.CENTER);
-        profileContainer.setPadding(dpToPx(8), dpToPx(8), dpToPx(8), dpToPx(8));
-        
-        // Purple ring around profile
-        GradientDrawable profileRing = new GradientDrawable();
-        profileRing.setShape(GradientDrawable.OVAL);
-        profileRing.setStroke(dpToPx(3), Color.parseColor("#8B5CF6")); // Purple ring
-        profileRing.setColor(Color.parseColor("#F3F4F6")); // Light background
-        profileContainer.setBackground(profileRing);
-        
-        // Profile picture placeholder
-        TextView profilePic = new TextView(this);
-        profilePic.setText("👤");
-        profilePic.setTextSize(24);
-        profilePic.setGravity(Gravity.CENTER);
-        
-        LinearLayout.LayoutParams profileParams = new LinearLayout.LayoutParams(dpToPx(60), dpToPx(60));
-        profileContainer.setLayoutParams(profileParams);
-        profileContainer.addView(profilePic);
-        
-        // Contact Details
-        LinearLayout contactDetails = new LinearLayout(this);
-        contactDetails.setOrientation(LinearLayout.VERTICAL);
-        contactDetails.setPadding(dpToPx(16), 0, 0, 0);
-        LinearLayout.LayoutParams detailsParams = new LinearLayout.LayoutParams(0, LinearLayout.LayoutParams.WRAP_CONTENT, 1.0f);
-        contactDetails.setLayoutParams(detailsParams);
-        
-        // Contact Name (like "Brianna Harper")
-        TextView contactName = new TextView(this);
-        contactName.setText(currentLeadName != null ? currentLeadName : "Unknown Contact");
-        contactName.setTextColor(Color.parseColor("#111827"));
-        contactName.setTextSize(18);
-        contactName.setTypeface(null, android.graphics.Typeface.BOLD);
-        
-        // Contact Role (like "Nurse")
-        TextView contactRole = new TextView(this);
-        contactRole.setText("Contact"); // Could be enhanced with actual role data
-        contactRole.setTextColor(Color.parseColor("#6B7280"));
-        contactRole.setTextSize(14);
-        contactRole.setPadding(0, dpToPx(2), 0, dpToPx(4));
-        
-        // Phone Number
-        TextView phoneNumber = new TextView(this);
-        phoneNumber.setText(currentPhoneNumber != null ? currentPhoneNumber : "(000) 000-0000");
-        phoneNumber.setTextColor(Color.parseColor("#374151"));
-        phoneNumber.setTextSize(14);
-        
-        contactDetails.addView(contactName);
-        contactDetails.addView(contactRole);
-        contactDetails.addView(phoneNumber);
-        
-        // Close button
-        TextView closeButton = new TextView(this);
-        closeButton.setText("✕");
-        closeButton.setTextColor(Color.parseColor("#9CA3AF"));
-        closeButton.setTextSize(20);
-        closeButton.setPadding(dpToPx(12), dpToPx(12), dpToPx(12), dpToPx(12));
-        closeButton.setClickable(true);
-        closeButton.setOnClickListener(v -> hideExpandedOverlay());
-        
-        contactHeader.addView(profileContainer);
-        contactHeader.addView(contactDetails);
-        contactHeader.addView(closeButton);
-        
-        headerContainer.addView(contactHeader);
-        
-        return headerContainer;
-    }
-    
-    // PHASE 2 & 4: Quick Action Buttons
-    private LinearLayout createQuickActionButtons() {
-        LinearLayout actionButtonsContainer = new LinearLayout(this);
-        actionButtonsContainer.setOrientation(LinearLayout.VERTICAL);
-        actionButtonsContainer.setPadding(0, 0, 0, dpToPx(20));
-        
-        // Move to... button
-        LinearLayout moveToButton = createQuickActionButton("🔗", "Move to...", false);
-        
-        // Create Meeting button  
-        LinearLayout meetingButton = createQuickActionButton("📅", "Create Meeting", false);
+    // Pushes the current call data into the already-built expanded overlay
+    private void bindExpandedOverlay() {
+        headerView.setContact(currentLeadName != null ? currentLeadName : "Unknown Contact",
+            currentLeadCompany != null && !currentLeadCompany.isEmpty() ? currentLeadCompany : "Contact",
+            currentPhoneNumber != null ? currentPhoneNumber : "(000) 000-0000");
+        labelRowView.setHeader("Label " + (currentLeadName != null ? currentLeadName : "Contact"));
         
         // SMS button (only show for AFTER call state)
-        if ("AFTER".equals(currentCallState)) {
-            LinearLayout smsButton = createQuickActionButton("💬", "Send SMS", false);
-            actionButtonsContainer.addView(smsButton);
-        }
-        
-        actionButtonsContainer.addView(moveToButton);
-        actionButtonsContainer.addView(meetingButton);
-        
-        return actionButtonsContainer;
-    }
-    
-    private LinearLayout createQuickActionButton(String icon, String text, boolean hasChevron) {
-        LinearLayout buttonContainer = new LinearLayout(this);
-        buttonContainer.setOrientation(LinearLayout.HORIZONTAL);
-        buttonContainer.setGravity(Gravity.CENTER_VERTICAL);
-        buttonContainer.setPadding(dpToPx(16), dpToPx(12), dpToPx(16), dpToPx(12));
-        buttonContainer.setClickable(true);
-        
-        // Button background
-        GradientDrawable buttonBg = new GradientDrawable();
-        buttonBg.setShape(GradientDrawable.RECTANGLE);
-        buttonBg.setColor(Color.parseColor("#F9FAFB"));
-        buttonBg.setCornerRadius(dpToPx(8));
-        buttonBg.setStroke(dpToPx(1), Color.parseColor("#E5E7EB"));
-        buttonContainer.setBackground(buttonBg);
-        
-        LinearLayout.LayoutParams buttonParams = new LinearLayout.LayoutParams(
-            LinearLayout.LayoutParams.MATCH_PARENT, LinearLayout.LayoutParams.WRAP_CONTENT);
-        buttonParams.setMargins(0, 0, 0, dpToPx(8));
-        buttonContainer.setLayoutParams(buttonParams);
-        
-        // Icon
-        TextView iconView = new TextView(this);
-        iconView.setText(icon);
-        iconView.setTextSize(16);
-        iconView.setPadding(0, 0, dpToPx(12), 0);
-        
-        // Text
-        TextView textView = new TextView(this);
-        textView.setText(text);
-        textView.setTextColor(Color.parseColor("#374151"));
-        textView.setTextSize(14);
-        LinearLayout.LayoutParams textParams = new LinearLayout.LayoutParams(0, LinearLayout.LayoutParams.WRAP_CONTENT, 1.0f);
-        textView.setLayoutParams(textParams);
-        
-        buttonContainer.addView(iconView);
-        buttonContainer.addView(textView);
-        
-        if (hasChevron) {
-            TextView chevron = new TextView(this);
-            chevron.setText(">");
-            chevron.setTextColor(Color.parseColor("#9CA3AF"));
-            chevron.setTextSize(14);
-            buttonContainer.addView(chevron);
-        }
-        
-        return buttonContainer;
-    }
-    
-    // PHASE 2: Tab Navigation System
-    private LinearLayout createTabNavigation() {
-        LinearLayout tabContainer = new LinearLayout(this);
-        tabContainer.setOrientation(LinearLayout.HORIZONTAL);
-        tabContainer.setPadding(0, dpToPx(16), 0, dpToPx(16));
-        
-        // Tab buttons
-        TextView actionTab = createTabButton("Action", 0);
-        TextView activityTab = createTabButton("Activity", 1);
-        TextView insightTab = createTabButton("Insight", 2);
+        quickActionsView.setSmsVisible("AFTER".equals(currentCallState));
         
-        LinearLayout.LayoutParams tabParams = new LinearLayout.LayoutParams(0, LinearLayout.LayoutParams.WRAP_CONTENT, 1.0f);
-        
-        tabContainer.addView(actionTab, tabParams);
-        tabContainer.addView(activityTab, tabParams);
-        tabContainer.addView(insightTab, tabParams);
-        
-        return tabContainer;
+        tabStripView.setSelectedTab(selectedTabIndex);
     }
     
-    private TextView createTabButton(String title, int tabIndex) {
-        TextView tabButton = new TextView(this);
-        tabButton.setText(title);
-        tabButton.setTextSize(14);
-        tabButton.setGravity(Gravity.CENTER);
-        tabButton.setPadding(dpToPx(16), dpToPx(12), dpToPx(16), dpToPx(12));
-        tabButton.setClickable(true);
-        
-        if (selectedTabIndex == tabIndex) {
-            // Selected tab styling
-            tabButton.setTextColor(Color.parseColor("#8B5CF6")); // Purple
-            tabButton.setTypeface(null, android.graphics.Typeface.BOLD);
-            
-            // Add purple underline
-            GradientDrawable selectedBg = new GradientDrawable();
-            selectedBg.setShape(GradientDrawable.RECTANGLE);
-            selectedBg.setColor(Color.parseColor("#F9FAFB"));
-            selectedBg.setStroke(0, 0, 0, dpToPx(2)); // Bottom border
-            selectedBg.setStroke(dpToPx(2), Color.parseColor("#8B5CF6")); // Purple underline
-            tabButton.setBackground(selectedBg);
-        } else {
-            // Unselected tab styling
-            tabButton.setTextColor(Color.parseColor("#9CA3AF"));
-            tabButton.setTypeface(null, android.graphics.Typeface.NORMAL);
-        }
-        
-        tabButton.setOnClickListener(v -> {
-            selectedTabIndex = tabIndex;
-            // Recreate tab navigation to update selected state
-            // For now, just log the selection
-            android.util.Log.d("FloatingOverlay", "Tab selected: " + title + " (index: " + tabIndex + ")");
-        });
-        
-        return tabButton;
-    }
-    
-    // PHASE 3: Label Management System
-    private LinearLayout createLabelManagementSection() {
-        LinearLayout labelContainer = new LinearLayout(this);
-        labelContainer.setOrientation(LinearLayout.VERTICAL);
-        labelContainer.setPadding(0, 0, 0, dpToPx(20));
-        
-        // Label section header
-        TextView labelHeader = new TextView(this);
-        labelHeader.setText("Label " + (currentLeadName != null ? currentLeadName : "Contact"));
-        labelHeader.setTextColor(Color.parseColor("#6B7280"));
-        labelHeader.setTextSize(14);
-        labelHeader.setTypeface(null, android.graphics.Typeface.BOLD);
-        labelHeader.setPadding(0, 0, 0, dpToPx(12));
-        
-        // Label pills container (horizontal scrollable)
-        LinearLayout labelsRow = new LinearLayout(this);
-        labelsRow.setOrientation(LinearLayout.HORIZONTAL);
-        labelsRow.setPadding(0, 0, 0, 0);
-        
-        // Create label pills matching reference design
-        labelsRow.addView(createLabelPill("Warm Leads", "#F59E0B", "#FEF3C7")); // Orange/Yellow
-        labelsRow.addView(createLabelPill("Customer", "#EF4444", "#FEE2E2")); // Red
-        labelsRow.addView(createLabelPill("Budge $", "#8B5CF6", "#F3E8FF")); // Purple
-        labelsRow.addView(createLabelPill("Project A", "#3B82F6", "#DBEAFE")); // Blue
-        labelsRow.addView(createLabelPill("Project B", "#10B981", "#D1FAE5")); // Green
-        
-        labelContainer.addView(labelHeader);
-        labelContainer.addView(labelsRow);
-        
-        return labelContainer;
-    }
-    
-    private TextView createLabelPill(String text, String textColor, String bgColor) {
-        TextView labelPill = new TextView(this);
-        labelPill.setText(text);
-        labelPill.setTextColor(Color.parseColor(textColor));
-        labelPill.setTextSize(12);
-        labelPill.setTypeface(null, android.graphics.Typeface.BOLD);
-        labelPill.setPadding(dpToPx(12), dpToPx(6), dpToPx(12), dpToPx(6));
-        labelPill.setClickable(true);
-        
-        // Pill background
-        GradientDrawable pillBg = new GradientDrawable();
-        pillBg.setShape(GradientDrawable.RECTANGLE);
-        pillBg.setColor(Color.parseColor(bgColor));
-        pillBg.setCornerRadius(dpToPx(16)); // Full rounded corners
-        labelPill.setBackground(pillBg);
-        
-        LinearLayout.LayoutParams pillParams = new LinearLayout.LayoutParams(
-            LinearLayout.LayoutParams.WRAP_CONTENT, LinearLayout.LayoutParams.WRAP_CONTENT);
-        pillParams.setMargins(0, 0, dpToPx(8), 0);
-        labelPill.setLayoutParams(pillParams);
-        
-        return labelPill;
-    }
-    
-    // PHASE 5: Bottom Action Bar
-    private LinearLayout createBottomActionBar() {
-        LinearLayout bottomContainer = new LinearLayout(this);
-        bottomContainer.setOrientation(LinearLayout.HORIZONTAL);
-        bottomContainer.setGravity(Gravity.CENTER);
-        bottomContainer.setPadding(dpToPx(8), dpToPx(16), dpToPx(8), dpToPx(8));
-        
-        // Bottom action buttons
-        bottomContainer.addView(createBottomActionButton("🏷️", "Labels", true));
-        bottomContainer.addView(createBottomActionButton("📝", "Note", false));
-        bottomContainer.addView(createBottomActionButton("⏰", "Reminder", false));
-        bottomContainer.addView(createBottomActionButton("✅", "Task", false));
-        
-        return bottomContainer;
-    }
-    
-    private LinearLayout createBottomActionButton(String icon, String label, boolean isSelected) {
-        LinearLayout buttonContainer = new LinearLayout(this);
-        buttonContainer.setOrientation(LinearLayout.VERTICAL);
-        buttonContainer.setGravity(Gravity.CENTER);
-        buttonContainer.setPadding(dpToPx(16), dpToPx(8), dpToPx(16), dpToPx(8));
-        buttonContainer.setClickable(true);
-        
-        LinearLayout.LayoutParams buttonParams = new LinearLayout.LayoutParams(0, LinearLayout.LayoutParams.WRAP_CONTENT, 1.0f);
-        buttonContainer.setLayoutParams(buttonParams);
-        
-        // Icon
-        TextView iconView = new TextView(this);
-        iconView.setText(icon);
-        iconView.setTextSize(20);
-        iconView.setGravity(Gravity.CENTER);
-        iconView.setPadding(0, 0, 0, dpToPx(4));
-        
-        // Label
-        TextView labelView = new TextView(this);
-        labelView.setText(label);
-        labelView.setTextSize(12);
-        labelView.setGravity(Gravity.CENTER);
-        
-        if (isSelected) {
-            iconView.setTextColor(Color.parseColor("#8B5CF6")); // Purple for selected
-            labelView.setTextColor(Color.parseColor("#8B5CF6"));
-            labelView.setTypeface(null, android.graphics.Typeface.BOLD);
-            
-            // Add purple underline
-            View underline = new View(this);
-            underline.setBackgroundColor(Color.parseColor("#8B5CF6"));
-            LinearLayout.LayoutParams underlineParams = new LinearLayout.LayoutParams(dpToPx(24), dpToPx(2));
-            underlineParams.setMargins(0, dpToPx(4), 0, 0);
-            underline.setLayoutParams(underlineParams);
-            
-            buttonContainer.addView(iconView);
-            buttonContainer.addView(labelView);
-            buttonContainer.addView(underline);
-        } else {
-            iconView.setTextColor(Color.parseColor("#9CA3AF")); // Gray for unselected
-            labelView.setTextColor(Color.parseColor("#9CA3AF"));
-            
-            buttonContainer.addView(iconView);
-            buttonContainer.addView(labelView);
+    // Views in a tree, the root included
+    private static int countViews(View view) {
+        int count = 1;
+        if (view instanceof ViewGroup) {
+            ViewGroup group = (ViewGroup) view;
+            for (int i = 0; i < group.getChildCount(); i++) {
+                count += countViews(group.getChildAt(i));
+            }
         }
-        
-        return buttonContainer;
+        return count;
     }
     
     // Create the circular icon that appears at top of overlay (connected to main card)
     private View createOverlayTopIcon() {
         FrameLayout container = new FrameLayout(this);
         
-        // Outer pulse ring (same as floating icon)
-        TextView pulseRing = new TextView(this);
-        GradientDrawable pulseBackground = new GradientDrawable();
-        pulseBackground.setShape(GradientDrawable.OVAL);
-        pulseBackground.setColor(Color.parseColor("#4014B8A6")); // 25% opacity teal
-        pulseRing.setBackground(pulseBackground);
-        FrameLayout.LayoutParams pulseParams = new FrameLayout.LayoutParams(dpToPx(70), dpToPx(70));
-        pulseParams.gravity = Gravity.CENTER;
-        pulseRing.setLayoutParams(pulseParams);
+        // Outer pulse ring (same as floating icon); it pulses while the overlay is attached
+        overlayPulse = createPulseRing();
         
         // Main circular icon background
         TextView iconBackground = new TextView(this);
@@ -760,104 +425,13 @@ public class FloatingOverlayService extends Service {
         phoneIcon.setLayoutParams(phoneParams);
         
         // Assemble the icon
-        container.addView(pulseRing);
+        container.addView(overlayPulse);
         container.addView(iconBackground);
         container.addView(phoneIcon);
         
-        // Start pulse animation (but don't add to window manager since it's part of overlay)
-        startPulseAnimationForOverlay(pulseRing);
-        
         return container;
     }
     
-    // Pulse animation for overlay icon (doesn't interfere with WindowManager)
-    private void startPulseAnimationForOverlay(View pulseRing) {
-        android.animation.ObjectAnimator scaleXAnimator = android.animation.ObjectAnimator.ofFloat(pulseRing, "scaleX", 1f, 1.3f, 1f);
-        android.animation.ObjectAnimator scaleYAnimator = android.animation.ObjectAnimator.ofFloat(pulseRing, "scaleY", 1f, 1.3f, 1f);
-        android.animation.ObjectAnimator alphaAnimator = android.animation.ObjectAnimator.ofFloat(pulseRing, "alpha", 0.7f, 0.3f, 0.7f);
-        
-        android.animation.AnimatorSet pulseSet = new android.animation.AnimatorSet();
-        pulseSet.playTogether(scaleXAnimator, scaleYAnimator, alphaAnimator);
-        pulseSet.setDuration(1200); // 1.2 second pulse
-        scaleXAnimator.setRepeatCount(ObjectAnimator.INFINITE);
-        scaleXAnimator.setRepeatMode(ObjectAnimator.RESTART);
-        scaleYAnimator.setRepeatCount(ObjectAnimator.INFINITE);
-        scaleYAnimator.setRepeatMode(ObjectAnimator.RESTART);
-        alphaAnimator.setRepeatCount(ObjectAnimator.INFINITE);
-        alphaAnimator.setRepeatMode(ObjectAnimator.RESTART);
-        
-        pulseSet.start();
-        android.util.Log.d("FloatingOverlay", "✅ Overlay icon pulse animation started (no WindowManager conflicts)");
-    }
-    
-    private TextView createModernActionButton(String icon, String label, String colorHex) {
-        LinearLayout buttonContainer = new LinearLayout(this);
-        buttonContainer.setOrientation(LinearLayout.VERTICAL);
-        buttonContainer.setGravity(Gravity.CENTER);
-        buttonContainer.setPadding(dpToPx(12), dpToPx(12), dpToPx(12), dpToPx(12));
-        buttonContainer.setClickable(true);
-        
-        // Modern button background with rounded corners
-        GradientDrawable buttonBg = new GradientDrawable();
-        buttonBg.setShape(GradientDrawable.RECTANGLE);
-        buttonBg.setColor(Color.parseColor(colorHex + "15")); // 15% opacity background
-        buttonBg.setCornerRadius(dpToPx(12));
-        buttonBg.setStroke(dpToPx(1), Color.parseColor(colorHex + "30")); // 30% opacity border
-        buttonContainer.setBackground(buttonBg);
-        
-        // Icon container
-        LinearLayout iconContainer = new LinearLayout(this);
-        iconContainer.setGravity(Gravity.CENTER);
-        iconContainer.setPadding(dpToPx(8), dpToPx(8), dpToPx(8), dpToPx(8));
-        
-        GradientDrawable iconBg = new GradientDrawable();
-        iconBg.setShape(GradientDrawable.OVAL);
-        iconBg.setColor(Color.parseColor(colorHex));
-        iconContainer.setBackground(iconBg);
-        
-        TextView iconText = new TextView(this);
-        iconText.setText(icon);
-        iconText.setTextSize(16);
-        iconContainer.addView(iconText);
-        
-        // Label text
-        TextView labelText = new TextView(this);
-        labelText.setText(label);
-        labelText.setTextColor(Color.parseColor(colorHex));
-        labelText.setTextSize(11);
-        labelText.setTypeface(null, android.graphics.Typeface.BOLD);
-        labelText.setGravity(Gravity.CENTER);
-        labelText.setPadding(0, dpToPx(6), 0, 0);
-        
-        buttonContainer.addView(iconContainer);
-        buttonContainer.addView(labelText);
-        
-        // Create wrapper TextView to return (keeping interface consistent)
-        TextView wrapper = new TextView(this);
-        wrapper.setClickable(true);
-        
-        // Since we can't return LinearLayout as TextView, we'll create a compound drawable effect
-        // For now, return a simplified modern button
-        TextView modernButton = new TextView(this);
-        modernButton.setText(icon + "\n" + label);
-        modernButton.setTextColor(Color.parseColor(colorHex));
-        modernButton.setTextSize(11);
-        modernButton.setTypeface(null, android.graphics.Typeface.BOLD);
-        modernButton.setGravity(Gravity.CENTER);
-        modernButton.setPadding(dpToPx(16), dpToPx(12), dpToPx(16), dpToPx(12));
-        modernButton.setClickable(true);
-        
-        // Modern button styling
-        GradientDrawable modernBg = new GradientDrawable();
-        modernBg.setShape(GradientDrawable.RECTANGLE);
-        modernBg.setColor(Color.parseColor(colorHex + "10")); // Light background
-        modernBg.setCornerRadius(dpToPx(12));
-        modernBg.setStroke(dpToPx(2), Color.parseColor(colorHex + "40"));
-        modernButton.setBackground(modernBg);
-        
-        return modernButton;
-    }
-    
     // Utility method to convert dp to pixels
     private int dpToPx(int dp) {
         float density = getResources().getDisplayMetrics().density;
@@ -865,12 +439,10 @@ public class FloatingOverlayService extends Service {
     }
 
     private void handleOverlayClick() {
-        android.util.Log.d("FloatingOverlay", "🎯 FLOATING ICON CLICKED! User tapped the floating icon!");
-        android.util.Log.d("FloatingOverlay", "🎯 ==========================================");
-        android.util.Log.d("FloatingOverlay", "🎯 CLICK DETECTION WORKING PERFECTLY!");
-        android.util.Log.d("FloatingOverlay", "🎯 Now showing professional overlay with icon animation...");
-        android.util.Log.d("FloatingOverlay", "🎯 isExpanded current state: " + isExpanded);
-        android.util.Log.d("FloatingOverlay", "🎯 ==========================================");
+        if (OverlayLog.DEBUG) {
+            OverlayLog.d("🎯 Floating icon clicked, expanded: {}", isExpanded ? 1 : 0);
+        }
+        OverlayEventBus.post(OverlayEventBus.TYPE_CLICK, "bubble", currentPhoneNumber);
         
         // Show native expanded overlay with proper icon positioning
         showExpandedOverlay();
@@ -878,81 +450,84 @@ public class FloatingOverlayService extends Service {
     
     private void showExpandedOverlay() {
         try {
-            android.util.Log.d("FloatingOverlay", "🚀 SHOWING PROFESSIONAL OVERLAY WITH ICON ANIMATION");
-            android.util.Log.d("FloatingOverlay", "==============================================");
-            
             if (isExpanded) {
-                android.util.Log.d("FloatingOverlay", "⚠️ Expanded overlay already visible");
+                OverlayLog.d("⚠️ Expanded overlay already visible");
                 return;
             }
             
-            // Create expanded overlay fresh each time to ensure it works
-            android.util.Log.d("FloatingOverlay", "📋 Creating expanded overlay...");
-            createExpandedOverlay();
+            // Built once (normally pre-warmed on idle); every show re-binds and re-attaches the same tree
+            long showStartMs = SystemClock.uptimeMillis();
+            long showStartUs = MetricsRegistry.nowUs();
+            boolean warm = expandedView != null;
+            if (!warm) {
+                OverlayLog.d("📋 Creating expanded overlay (not pre-warmed)");
+                createExpandedOverlay();
+            }
             
             if (expandedView == null) {
-                android.util.Log.e("FloatingOverlay", "❌ CRITICAL ERROR: expandedView is null after creation!");
+                OverlayLog.e("❌ CRITICAL ERROR: expandedView is null after creation!");
                 return;
             }
             
             if (expandedParams == null) {
-                android.util.Log.e("FloatingOverlay", "❌ CRITICAL ERROR: expandedParams is null!");
+                OverlayLog.e("❌ CRITICAL ERROR: expandedParams is null!");
                 return;
             }
             
-            android.util.Log.d("FloatingOverlay", "📱 Adding overlay to WindowManager...");
+            bindExpandedOverlay();
             
             // Show the expanded overlay
+            logFirstFrame(expandedView, showStartMs, warm);
             windowManager.addView(expandedView, expandedParams);
             isExpanded = true;
             
-            android.util.Log.d("FloatingOverlay", "✅ Overlay added to WindowManager successfully!");
-            
             // PHASE 6: Professional slide-up animation
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
-                android.util.Log.d("FloatingOverlay", "🎬 Starting slide-up animation...");
-                expandedView.setAlpha(0f);
-                expandedView.setTranslationY(dpToPx(300)); // Start from bottom
-                expandedView.animate()
-                    .alpha(1f)
-                    .translationY(0f)
-                    .setDuration(400) // Smooth 400ms animation
-                    .setInterpolator(new android.view.animation.DecelerateInterpolator())
-                    .start();
-            }
+            animations.slideIn(expandedView, dpToPx(300), 400); // From the bottom, 400ms
             
-            android.util.Log.d("FloatingOverlay", "✅ PROFESSIONAL OVERLAY SHOULD NOW BE VISIBLE!");
-            android.util.Log.d("FloatingOverlay", "✅ Icon should appear at top, overlay below with transparency!");
-            android.util.Log.d("FloatingOverlay", "==============================================");
+            MetricsRegistry.recordSince(MetricsRegistry.EXPANDED_SHOW, showStartUs);
+            OverlayLog.d("✅ Expanded overlay attached");
             
         } catch (Exception e) {
-            android.util.Log.e("FloatingOverlay", "❌ CRITICAL ERROR showing expanded overlay: " + e.getMessage());
-            android.util.Log.e("FloatingOverlay", "❌ Stack trace:");
-            e.printStackTrace();
+            OverlayLog.e("❌ CRITICAL ERROR showing expanded overlay", e);
         }
     }
     
+    // Logs time from the show request to the first frame of the expanded overlay
+    private void logFirstFrame(View view, long showStartMs, boolean warm) {
+        view.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                view.getViewTreeObserver().removeOnPreDrawListener(this);
+                long elapsedMs = SystemClock.uptimeMillis() - showStartMs;
+                MetricsRegistry.record(MetricsRegistry.EXPANDED_FIRST_FRAME, elapsedMs * 1000);
+                OverlayLog.i(warm ? "⏱️ Expanded overlay first frame in {}ms (warm, pre-built in {}ms)"
+                    : "⏱️ Expanded overlay first frame in {}ms (cold build)", elapsedMs, expandedBuildMs);
+                return true;
+            }
+        });
+    }
+    
     private void hideExpandedOverlay() {
         try {
-            android.util.Log.d("FloatingOverlay", "🔄 HIDING NATIVE EXPANDED OVERLAY");
+            OverlayLog.d("🔄 HIDING NATIVE EXPANDED OVERLAY");
             
             if (!isExpanded || expandedView == null) {
-                android.util.Log.d("FloatingOverlay", "⚠️ Expanded overlay not visible");
+                OverlayLog.d("⚠️ Expanded overlay not visible");
                 return;
             }
             
-            // Remove expanded overlay from window manager
+            // Detach the expanded overlay; the view tree is kept for the next show
+            animations.cancelSlide();
             windowManager.removeView(expandedView);
             isExpanded = false;
             
             // Original floating icon stays visible - no need to restore
-            android.util.Log.d("FloatingOverlay", "✅ Original floating icon remains visible");
+            OverlayLog.d("✅ Original floating icon remains visible");
             
-            android.util.Log.d("FloatingOverlay", "✅ NATIVE EXPANDED OVERLAY HIDDEN SUCCESSFULLY!");
+            OverlayLog.d("✅ NATIVE EXPANDED OVERLAY HIDDEN SUCCESSFULLY!");
             
         } catch (Exception e) {
-            android.util.Log.e("FloatingOverlay", "❌ Error hiding expanded overlay: " + e.getMessage());
-            e.printStackTrace();
+            OverlayLog.e("❌ Error hiding expanded overlay", e);
         }
     }
 
@@ -961,6 +536,10 @@ public class FloatingOverlayService extends Service {
     }
     
     public void updateOverlayData(String phoneNumber, String leadName, String callState) {
+        if (callState != null && !callState.equals(currentCallState)) {
+            OverlayEventBus.post(OverlayEventBus.TYPE_CALL_STATE, callState, phoneNumber);
+        }
+        
         // Store current call data
         this.currentPhoneNumber = phoneNumber;
         this.currentLeadName = leadName;
@@ -971,62 +550,274 @@ public class FloatingOverlayService extends Service {
             leadNameView.setText(leadName != null ? leadName : "Unknown");
         }
         
-        // If overlay is currently expanded, recreate it to reflect new state
+        // If overlay is currently expanded, re-bind it in place to reflect the new state
         if (isExpanded && expandedView != null) {
             try {
-                windowManager.removeView(expandedView);
-                expandedView = null;
-                createExpandedOverlay();
-                windowManager.addView(expandedView, expandedParams);
-                
-                // PHASE 6: Add slide-up animation
-                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
-                    expandedView.setAlpha(0f);
-                    expandedView.setTranslationY(dpToPx(200));
-                    expandedView.animate()
-                        .alpha(1f)
-                        .translationY(0f)
-                        .setDuration(300)
-                        .start();
-                }
-                
+                long rebindStartUs = MetricsRegistry.nowUs();
+                bindExpandedOverlay();
+                MetricsRegistry.recordSince(MetricsRegistry.OVERLAY_REBIND, rebindStartUs);
+                MetricsRegistry.increment(MetricsRegistry.OVERLAY_REBINDS);
             } catch (Exception e) {
-                android.util.Log.e("FloatingOverlay", "Error updating expanded overlay: " + e.getMessage());
+                OverlayLog.e("Error updating expanded overlay", e);
             }
         }
         
-        android.util.Log.d("FloatingOverlay", "✅ Updated overlay data - Phone: " + phoneNumber + ", Lead: " + leadName + ", State: " + callState);
+        // Phone number and name stay out of the log
+        if (OverlayLog.DEBUG) {
+            OverlayLog.d("✅ Updated overlay data - State: {}, known lead: {}", callState, leadName != null);
+        }
     }
 
     @Override
     public int onStartCommand(Intent intent, int flags, int startId) {
+        // The cold start came through startForegroundService and must promote, and so must a sticky
+        // restart; later commands arrive through startService on a service already in the foreground
+        if (!inForeground) {
+            enterForeground();
+        }
+        
         if (intent != null) {
             String action = intent.getStringExtra("action");
             
             if ("SHOW_OVERLAY".equals(action)) {
-                String phoneNumber = intent.getStringExtra("phoneNumber");
-                String leadName = intent.getStringExtra("leadName");
-                updateOverlayData(phoneNumber, leadName);
-                
-                if (floatingView.getVisibility() != View.VISIBLE) {
-                    floatingView.setVisibility(View.VISIBLE);
-                }
+                long requestedAtMs = intent.getLongExtra("requestedAtMs", SystemClock.uptimeMillis());
+                showForCaller(intent.getStringExtra("phoneNumber"), intent.getStringExtra("leadName"), "DURING",
+                    SHOW_REQUEST, requestedAtMs);
             } else if ("HIDE_OVERLAY".equals(action)) {
-                if (floatingView != null) {
-                    floatingView.setVisibility(View.GONE);
+                // Back to standby: the service and the views stay alive
+                detachBubble();
+            } else if ("START_CALL_MONITOR".equals(action)) {
+                prefs.edit().putBoolean(KEY_CALL_MONITOR_STOPPED, false).apply();
+            } else if ("STOP_CALL_MONITOR".equals(action)) {
+                prefs.edit().putBoolean(KEY_CALL_MONITOR_STOPPED, true).apply();
+                if (callStateMonitor != null) {
+                    callStateMonitor.stop();
                 }
+                CallLogSync.shared(this).stopObserving();
             }
+            // "STANDBY" needs nothing beyond the foreground promotion above
         }
         
+        // Also on a sticky restart (null intent), which then ends up as a cold start would: in the
+        // foreground, warm, and monitoring unless JS stopped it
+        if (!prefs.getBoolean(KEY_CALL_MONITOR_STOPPED, false)) {
+            startCallMonitoring();
+        }
+        warmedUp = true;
         return START_STICKY;
     }
 
+    // Both are no-ops when already running or when their permission is missing
+    private void startCallMonitoring() {
+        if (callStateMonitor == null) {
+            callStateMonitor = new CallStateMonitor(this, this::onCallTransition);
+        }
+        callStateMonitor.start();
+        CallLogSync.shared(this).startObserving();
+    }
+
+    private void enterForeground() {
+        if (standbyNotification == null) {
+            standbyNotification = buildStandbyNotification();
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.UPSIDE_DOWN_CAKE) {
+            startForeground(STANDBY_NOTIFICATION_ID, standbyNotification, ServiceInfo.FOREGROUND_SERVICE_TYPE_SPECIAL_USE);
+        } else {
+            startForeground(STANDBY_NOTIFICATION_ID, standbyNotification);
+        }
+        inForeground = true;
+    }
+
+    static boolean isRunning() {
+        return running;
+    }
+
+    // Minimum-importance channel: no sound, no status bar icon, collapsed in the shade
+    private Notification buildStandbyNotification() {
+        Notification.Builder builder;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(STANDBY_CHANNEL_ID, "Caller ID overlay",
+                NotificationManager.IMPORTANCE_MIN);
+            channel.setDescription("Keeps the caller ID overlay ready for incoming calls");
+            channel.setShowBadge(false);
+            ((NotificationManager) getSystemService(NOTIFICATION_SERVICE)).createNotificationChannel(channel);
+            builder = new Notification.Builder(this, STANDBY_CHANNEL_ID);
+        } else {
+            builder = new Notification.Builder(this).setPriority(Notification.PRIORITY_MIN);
+        }
+        return builder
+            .setContentTitle("LeadZen caller ID")
+            .setContentText("Ready to identify incoming calls")
+            .setSmallIcon(getApplicationInfo().icon)
+            .setCategory(Notification.CATEGORY_SERVICE)
+            .setShowWhen(false)
+            .setOngoing(true)
+            .build();
+    }
+
+    // Puts the bubble on screen. Returns true when the bubble had to be built first (cold)
+    private boolean attachBubble() {
+        boolean built = false;
+        if (floatingView == null) {
+            createFloatingView();
+            built = true;
+        }
+        if (!bubbleAttached) {
+            windowManager.addView(floatingView, params);
+            bubbleAttached = true;
+        }
+        return built;
+    }
+
+    // Takes the bubble (and the expanded overlay) off screen but keeps the views for the next show
+    private void detachBubble() {
+        if (isExpanded) {
+            hideExpandedOverlay();
+        }
+        if (!bubbleAttached) {
+            return;
+        }
+        dragController.release();
+        try {
+            windowManager.removeView(floatingView);
+        } catch (Exception e) {
+            // View already removed
+        }
+        bubbleAttached = false;
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        boolean critical = level == TRIM_MEMORY_RUNNING_CRITICAL || level >= TRIM_MEMORY_COMPLETE;
+        boolean low = critical || level == TRIM_MEMORY_RUNNING_LOW || level >= TRIM_MEMORY_BACKGROUND;
+        if (!low) {
+            return;
+        }
+        OverlayShowStats.recordTrim();
+        // The expanded overlay is the large tree; rebuild it lazily on the next tap
+        if (!isExpanded && expandedView != null) {
+            releaseExpandedOverlay();
+            OverlayLog.i("🧹 Trim level {}: released expanded overlay", level);
+        }
+        // Under real pressure also drop the detached bubble; the next show builds it cold
+        if (critical && !bubbleAttached && floatingView != null) {
+            dragController.release();
+            animations.unregister(bubblePulse);
+            floatingView = null;
+            leadNameView = null;
+            dragController = null;
+            bubblePulse = null;
+            OverlayLog.i("🧹 Trim level {}: released standby bubble", level);
+        }
+    }
+
+    private void releaseExpandedOverlay() {
+        if (overlayPulse != null) {
+            animations.unregister(overlayPulse);
+            overlayPulse = null;
+        }
+        expandedView = null;
+        headerView = null;
+        quickActionsView = null;
+        tabStripView = null;
+        labelRowView = null;
+        expandedBuildMs = -1;
+    }
+
+    // Resolves the caller natively and shows the bubble, so the name is there before JS finishes matching
+    private void showForCaller(String phoneNumber, String leadName, String callState, String reason, long startMs) {
+        boolean wasAttached = bubbleAttached;
+        // Cold: a fresh service instance or a bubble that was dropped under memory pressure
+        boolean cold = !warmedUp;
+        if (floatingView == null) {
+            createFloatingView();
+            cold = true;
+        }
+        
+        if (isUnresolvedLeadName(leadName)) {
+            String indexedName = CallerIdIndex.get().lookupName(phoneNumber);
+            if (indexedName != null) {
+                leadName = indexedName;
+            }
+        }
+        
+        // The mapped snapshot survives process death, so it covers cold starts before JS syncs the index
+        currentLeadCompany = null;
+        LeadSnapshot snapshot = LeadSnapshot.shared(getFilesDir());
+        int record = snapshot != null ? snapshot.findByPhone(phoneNumber) : -1;
+        if (record >= 0) {
+            if (isUnresolvedLeadName(leadName)) {
+                leadName = snapshot.readString(record, LeadSnapshot.FIELD_NAME);
+            }
+            currentLeadCompany = snapshot.readString(record, LeadSnapshot.FIELD_COMPANY);
+        }
+        updateOverlayData(phoneNumber, leadName, callState);
+        
+        if (!wasAttached) {
+            logBubbleFrame(reason, startMs, cold);
+            attachBubble();
+        }
+    }
+
+    // Runs on the main thread straight from the telephony callback. JS keeps its own call
+    // detection, so nothing is posted to it from here.
+    private void onCallTransition(CallStateMachine.Transition transition) {
+        long startMs = SystemClock.uptimeMillis();
+        if (transition.showsOverlay()) {
+            // A number update rebinds the caller of a call already counted
+            if (!transition.numberUpdate) {
+                MetricsRegistry.increment(MetricsRegistry.CALLS_DETECTED);
+            }
+            showForCaller(transition.phoneNumber, null, transition.overlayState, transition.event, startMs);
+        } else {
+            detachBubble();
+            currentCallState = transition.overlayState;
+        }
+    }
+
+    // Records time from the show trigger (request or telephony callback) to the first frame of the bubble
+    private void logBubbleFrame(String reason, long startMs, boolean cold) {
+        View view = floatingView;
+        view.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                view.getViewTreeObserver().removeOnPreDrawListener(this);
+                long elapsedMs = SystemClock.uptimeMillis() - startMs;
+                OverlayShowStats.record(cold, elapsedMs);
+                MetricsRegistry.increment(MetricsRegistry.OVERLAY_SHOWS);
+                MetricsRegistry.record(SHOW_REQUEST.equals(reason) ? MetricsRegistry.SHOW_TO_OVERLAY
+                    : MetricsRegistry.CALL_TO_OVERLAY, elapsedMs * 1000);
+                OverlayLog.i(cold ? "⏱️ Bubble first frame {}ms after {} (cold)" : "⏱️ Bubble first frame {}ms after {} (warm)",
+                    elapsedMs, reason);
+                return true;
+            }
+        });
+    }
+
+    private static boolean isUnresolvedLeadName(String leadName) {
+        return leadName == null || leadName.isEmpty()
+            || "Unknown".equals(leadName) || "Unknown Contact".equals(leadName);
+    }
+
     @Override
     public void onDestroy() {
         super.onDestroy();
+        running = false;
+        
+        if (callStateMonitor != null) {
+            callStateMonitor.stop();
+        }
+        CallLogSync.shared(this).stopObserving();
         
         // Clean up floating icon
-        if (floatingView != null && windowManager != null) {
+        if (dragController != null) {
+            dragController.release();
+        }
+        if (animations != null) {
+            animations.release();
+        }
+        if (floatingView != null && windowManager != null && bubbleAttached) {
             try {
                 windowManager.removeView(floatingView);
             } catch (Exception e) {
@@ -1043,7 +834,7 @@ public class FloatingOverlayService extends Service {
             }
         }
         
-        android.util.Log.d("FloatingOverlay", "✅ FloatingOverlayService destroyed and cleaned up");
+        OverlayLog.d("✅ FloatingOverlayService destroyed and cleaned up");
     }
 
     @Nullable
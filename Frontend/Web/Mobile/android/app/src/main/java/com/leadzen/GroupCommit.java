@@ -0,0 +1,48 @@
+package com.leadzen;
+
+import java.util.Collections;
+import java.util.List;
+
+// LeadStore's commit policy for a group of batches: one shared transaction, and when it rolls
+// back, every batch again in a transaction of its own. A bad batch then fails alone; the batches
+// that only rolled back with it commit on the retry.
+//
+// No Android types here, so the policy is tested on the JVM.
+final class GroupCommit {
+    interface Transaction<B> {
+        // Runs the batches in one transaction: null once committed, else the failure that rolled it back
+        RuntimeException run(List<B> batches);
+    }
+
+    interface Outcome<B> {
+        void committed(List<B> batches);
+
+        void failed(B batch, RuntimeException error);
+    }
+
+    private GroupCommit() {
+    }
+
+    // True when the group failed and its batches were retried one by one
+    static <B> boolean commit(List<B> group, Transaction<B> transaction, Outcome<B> outcome) {
+        RuntimeException failure = transaction.run(group);
+        if (failure == null) {
+            outcome.committed(group);
+            return false;
+        }
+        if (group.size() == 1) {
+            outcome.failed(group.get(0), failure);
+            return false;
+        }
+        for (B batch : group) {
+            List<B> single = Collections.singletonList(batch);
+            RuntimeException error = transaction.run(single);
+            if (error == null) {
+                outcome.committed(single);
+            } else {
+                outcome.failed(batch, error);
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,246 @@
+package com.leadzen;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+
+// Summary tables for the dashboard and the pipeline headers, kept current by triggers inside the
+// same transaction as the write that changes them (version 6):
+//   agg_stage     - leads and total value per pipeline stage
+//   agg_call_day  - calls, missed calls and talk time per local day
+//   agg_due_day   - open follow-ups (leads.next_follow_up_at) and open tasks per local due day
+// read() answers everything in one statement over these tables; its cost depends on the number
+// of stages and of days with open items, not on the number of leads, calls or tasks.
+//
+// Days are counted in the UTC offset stored in agg_meta, so triggers never depend on the native
+// time zone. When the device offset changes (travel, DST) read() reports it and the caller runs
+// rebuild(), which recomputes every table from the base tables; verify() compares the tables
+// with that recompute without changing anything.
+final class LeadAggregates {
+    static final String KIND_FOLLOW_UP = "follow_up";
+    static final String KIND_TASK = "task";
+
+    static final int SECTION_STAGE = 0;
+    static final int SECTION_CALLS = 1;
+    static final int SECTION_DUE = 2;
+
+    private static final String OFFSET = "(SELECT offset_minutes FROM agg_meta WHERE id = 1)";
+    private static final String TODAY = "((CAST(strftime('%s', 'now') AS INTEGER) / 60 + " + OFFSET + ") / 1440)";
+
+    private static final String[] TABLES = {
+        "CREATE TABLE IF NOT EXISTS agg_meta (id INTEGER PRIMARY KEY CHECK (id = 1), offset_minutes INTEGER NOT NULL)",
+        "CREATE TABLE IF NOT EXISTS agg_stage (stage TEXT PRIMARY KEY NOT NULL,"
+            + " lead_count INTEGER NOT NULL DEFAULT 0, total_value REAL NOT NULL DEFAULT 0)",
+        "CREATE TABLE IF NOT EXISTS agg_call_day (day INTEGER PRIMARY KEY, calls INTEGER NOT NULL DEFAULT 0,"
+            + " missed INTEGER NOT NULL DEFAULT 0, duration INTEGER NOT NULL DEFAULT 0)",
+        "CREATE TABLE IF NOT EXISTS agg_due_day (kind TEXT NOT NULL, day INTEGER NOT NULL,"
+            + " pending INTEGER NOT NULL DEFAULT 0, PRIMARY KEY (kind, day))",
+    };
+
+    private static final String[] TRIGGERS = {
+        "CREATE TRIGGER IF NOT EXISTS agg_leads_ai AFTER INSERT ON leads BEGIN "
+            + addLead("new") + " END",
+        "CREATE TRIGGER IF NOT EXISTS agg_leads_ad AFTER DELETE ON leads BEGIN "
+            + removeLead("old") + " END",
+        "CREATE TRIGGER IF NOT EXISTS agg_leads_au AFTER UPDATE OF pipeline_stage, value, next_follow_up_at ON leads BEGIN "
+            + removeLead("old") + " " + addLead("new") + " END",
+        "CREATE TRIGGER IF NOT EXISTS agg_call_logs_ai AFTER INSERT ON call_logs BEGIN "
+            + addCall("new") + " END",
+        "CREATE TRIGGER IF NOT EXISTS agg_call_logs_ad AFTER DELETE ON call_logs BEGIN "
+            + removeCall("old") + " END",
+        "CREATE TRIGGER IF NOT EXISTS agg_call_logs_au AFTER UPDATE OF started_at, duration, call_type ON call_logs BEGIN "
+            + removeCall("old") + " " + addCall("new") + " END",
+        "CREATE TRIGGER IF NOT EXISTS agg_tasks_ai AFTER INSERT ON tasks BEGIN "
+            + addDue(KIND_TASK, "new.due_date", taskOpen("new")) + " END",
+        "CREATE TRIGGER IF NOT EXISTS agg_tasks_ad AFTER DELETE ON tasks BEGIN "
+            + removeDue(KIND_TASK, "old.due_date", taskOpen("old")) + " END",
+        "CREATE TRIGGER IF NOT EXISTS agg_tasks_au AFTER UPDATE OF due_date, completed ON tasks BEGIN "
+            + removeDue(KIND_TASK, "old.due_date", taskOpen("old")) + " "
+            + addDue(KIND_TASK, "new.due_date", taskOpen("new")) + " END",
+    };
+
+    // Recomputed from the base tables, in the column order of the summary tables
+    private static final String STAGE_SQL =
+        "SELECT IFNULL(pipeline_stage, ''), COUNT(*), TOTAL(value) FROM leads GROUP BY 1";
+    private static final String CALL_DAY_SQL = "SELECT " + day("started_at") + ", COUNT(*),"
+        + " SUM(call_type = 'missed'), SUM(IFNULL(duration, 0)) FROM call_logs GROUP BY 1";
+    private static final String DUE_DAY_SQL =
+        "SELECT '" + KIND_FOLLOW_UP + "', " + day("next_follow_up_at") + ", COUNT(*) FROM leads"
+            + " WHERE next_follow_up_at IS NOT NULL GROUP BY 2"
+            + " UNION ALL SELECT '" + KIND_TASK + "', " + day("due_date") + ", COUNT(*) FROM tasks"
+            + " WHERE " + taskOpen("tasks") + " GROUP BY 2";
+
+    // Rows: section, key, a, b, c
+    //   stage: stage, leads, total value
+    //   calls: today's calls, talk time (s), missed
+    //   due:   kind, overdue, due today
+    // plus a last row (-1, NULL, offset minutes) so the caller can check the offset.
+    private static final String READ_SQL =
+        "SELECT " + SECTION_STAGE + ", stage, lead_count, total_value, 0 FROM agg_stage"
+            + " UNION ALL SELECT " + SECTION_CALLS + ", NULL, calls, duration, missed FROM agg_call_day WHERE day = " + TODAY
+            + " UNION ALL SELECT " + SECTION_DUE + ", kind, TOTAL(CASE WHEN day < " + TODAY + " THEN pending END),"
+            + " TOTAL(CASE WHEN day = " + TODAY + " THEN pending END), 0 FROM agg_due_day GROUP BY kind"
+            + " UNION ALL SELECT -1, NULL, offset_minutes, 0, 0 FROM agg_meta";
+
+    static final class Snapshot {
+        final List<String> stages = new ArrayList<>();
+        final List<Long> stageCounts = new ArrayList<>();
+        final List<Double> stageValues = new ArrayList<>();
+        long callsToday;
+        long missedToday;
+        long talkSecondsToday;
+        long followUpsOverdue;
+        long followUpsToday;
+        long tasksOverdue;
+        long tasksToday;
+        int offsetMinutes = Integer.MIN_VALUE;
+    }
+
+    private LeadAggregates() {
+    }
+
+    // Local day number of an epoch-ms column, in the stored offset
+    private static String day(String millis) {
+        return "((" + millis + ") / 60000 + " + OFFSET + ") / 1440";
+    }
+
+    private static String taskOpen(String row) {
+        return row + ".due_date IS NOT NULL AND IFNULL(" + row + ".completed, 0) = 0";
+    }
+
+    private static String addLead(String row) {
+        String stage = "IFNULL(" + row + ".pipeline_stage, '')";
+        return "INSERT OR IGNORE INTO agg_stage (stage) VALUES (" + stage + ");"
+            + " UPDATE agg_stage SET lead_count = lead_count + 1, total_value = total_value + IFNULL(" + row + ".value, 0)"
+            + " WHERE stage = " + stage + ";"
+            + " " + addDue(KIND_FOLLOW_UP, row + ".next_follow_up_at", row + ".next_follow_up_at IS NOT NULL");
+    }
+
+    private static String removeLead(String row) {
+        String stage = "IFNULL(" + row + ".pipeline_stage, '')";
+        return "UPDATE agg_stage SET lead_count = lead_count - 1, total_value = total_value - IFNULL(" + row + ".value, 0)"
+            + " WHERE stage = " + stage + ";"
+            + " DELETE FROM agg_stage WHERE stage = " + stage + " AND lead_count <= 0;"
+            + " " + removeDue(KIND_FOLLOW_UP, row + ".next_follow_up_at", row + ".next_follow_up_at IS NOT NULL");
+    }
+
+    private static String addCall(String row) {
+        String day = day(row + ".started_at");
+        return "INSERT OR IGNORE INTO agg_call_day (day) VALUES (" + day + ");"
+            + " UPDATE agg_call_day SET calls = calls + 1, missed = missed + (" + row + ".call_type = 'missed'),"
+            + " duration = duration + IFNULL(" + row + ".duration, 0) WHERE day = " + day + ";";
+    }
+
+    private static String removeCall(String row) {
+        String day = day(row + ".started_at");
+        return "UPDATE agg_call_day SET calls = calls - 1, missed = missed - (" + row + ".call_type = 'missed'),"
+            + " duration = duration - IFNULL(" + row + ".duration, 0) WHERE day = " + day + ";"
+            + " DELETE FROM agg_call_day WHERE day = " + day + " AND calls <= 0;";
+    }
+
+    private static String addDue(String kind, String millis, String open) {
+        String day = day(millis);
+        return "INSERT OR IGNORE INTO agg_due_day (kind, day) SELECT '" + kind + "', " + day + " WHERE " + open + ";"
+            + " UPDATE agg_due_day SET pending = pending + 1 WHERE kind = '" + kind + "' AND day = " + day
+            + " AND " + open + ";";
+    }
+
+    private static String removeDue(String kind, String millis, String open) {
+        String day = day(millis);
+        return "UPDATE agg_due_day SET pending = pending - 1 WHERE kind = '" + kind + "' AND day = " + day
+            + " AND " + open + ";"
+            + " DELETE FROM agg_due_day WHERE kind = '" + kind + "' AND day = " + day + " AND pending <= 0;";
+    }
+
+    static int currentOffsetMinutes() {
+        return TimeZone.getDefault().getOffset(System.currentTimeMillis()) / 60000;
+    }
+
+    static void create(SQLiteDatabase db) {
+        for (String statement : TABLES) {
+            db.execSQL(statement);
+        }
+        for (String statement : TRIGGERS) {
+            db.execSQL(statement);
+        }
+        for (LeadStore.Mutation mutation : rebuild(currentOffsetMinutes())) {
+            db.execSQL(mutation.sql, mutation.values);
+        }
+    }
+
+    // Recomputes every summary table in `offsetMinutes`; submit as one batch so it is atomic
+    static List<LeadStore.Mutation> rebuild(int offsetMinutes) {
+        List<LeadStore.Mutation> mutations = new ArrayList<>();
+        mutations.add(LeadStore.Mutation.exec("DELETE FROM agg_meta"));
+        mutations.add(LeadStore.Mutation.exec("INSERT INTO agg_meta (id, offset_minutes) VALUES (1, ?)", (long) offsetMinutes));
+        mutations.add(LeadStore.Mutation.exec("DELETE FROM agg_stage"));
+        mutations.add(LeadStore.Mutation.exec("INSERT INTO agg_stage (stage, lead_count, total_value) " + STAGE_SQL));
+        mutations.add(LeadStore.Mutation.exec("DELETE FROM agg_call_day"));
+        mutations.add(LeadStore.Mutation.exec("INSERT INTO agg_call_day (day, calls, missed, duration) " + CALL_DAY_SQL));
+        mutations.add(LeadStore.Mutation.exec("DELETE FROM agg_due_day"));
+        mutations.add(LeadStore.Mutation.exec("INSERT INTO agg_due_day (kind, day, pending) " + DUE_DAY_SQL));
+        return mutations;
+    }
+
+    // Rows that differ between the summary tables and a recompute, both directions; 0 when
+    // consistent. One statement, so it sees one snapshot. Values compare to the cent: the running
+    // total_value picks up rounding from repeated add / subtract.
+    static long verify(SQLiteDatabase db) {
+        String stages = "SELECT stage, lead_count, ROUND(total_value, 2) FROM agg_stage";
+        String stagesFresh = "SELECT IFNULL(pipeline_stage, ''), COUNT(*), ROUND(TOTAL(value), 2) FROM leads GROUP BY 1";
+        String calls = "SELECT day, calls, missed, duration FROM agg_call_day";
+        String dues = "SELECT kind, day, pending FROM agg_due_day";
+        String sql = "SELECT " + differences(stages, stagesFresh) + " + " + differences(stagesFresh, stages)
+            + " + " + differences(calls, CALL_DAY_SQL) + " + " + differences(CALL_DAY_SQL, calls)
+            + " + " + differences(dues, DUE_DAY_SQL) + " + " + differences(DUE_DAY_SQL, dues);
+        Cursor cursor = db.rawQuery(sql, null);
+        try {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0L;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // Rows of `a` missing from `b`; the subqueries keep a compound `b` from absorbing the EXCEPT
+    private static String differences(String a, String b) {
+        return "(SELECT COUNT(*) FROM (SELECT * FROM (" + a + ") EXCEPT SELECT * FROM (" + b + ")))";
+    }
+
+    static Snapshot read(SQLiteDatabase db) {
+        Snapshot snapshot = new Snapshot();
+        Cursor cursor = db.rawQuery(READ_SQL, null);
+        try {
+            while (cursor.moveToNext()) {
+                switch (cursor.getInt(0)) {
+                    case SECTION_STAGE:
+                        snapshot.stages.add(cursor.getString(1));
+                        snapshot.stageCounts.add(cursor.getLong(2));
+                        snapshot.stageValues.add(cursor.getDouble(3));
+                        break;
+                    case SECTION_CALLS:
+                        snapshot.callsToday = cursor.getLong(2);
+                        snapshot.talkSecondsToday = cursor.getLong(3);
+                        snapshot.missedToday = cursor.getLong(4);
+                        break;
+                    case SECTION_DUE:
+                        if (KIND_TASK.equals(cursor.getString(1))) {
+                            snapshot.tasksOverdue = cursor.getLong(2);
+                            snapshot.tasksToday = cursor.getLong(3);
+                        } else {
+                            snapshot.followUpsOverdue = cursor.getLong(2);
+                            snapshot.followUpsToday = cursor.getLong(3);
+                        }
+                        break;
+                    default:
+                        snapshot.offsetMinutes = cursor.getInt(2);
+                        break;
+                }
+            }
+        } finally {
+            cursor.close();
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,671 @@
+package com.leadzen;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+// Streaming archive of the CRM tables for backups and migrations: NDJSON, gzipped or not.
+//
+//   {"format":"leadzen-archive","version":1,"schema":6,"chunkRows":1000,"exportedAt":...}
+//   {"table":"leads","columns":["id","name",...]}
+//   [1,"Ravi Sharma",...]                  one line per row, at most chunkRows per chunk
+//   {"chunk":0,"rows":1000,"crc32":...}    CRC32 of the chunk's row lines, newlines included
+//   ...                                    more chunks, then the next table
+//   {"end":true,"chunks":12,"rows":11500}
+//
+// Chunks are numbered across the whole archive; the reader hands the sink one verified chunk
+// at a time, so an import commits chunk by chunk and can resume after the last one committed.
+// Tables come parents first (TABLES). Columns are named, so an archive imports into a schema
+// that has gained or lost columns since. Integers are written without a decimal point and
+// reals with one, so each value keeps its SQLite type.
+//
+// The writer holds one line and a fixed buffer, the reader one chunk of rows: memory does not
+// depend on the size of the archive. No Android types here; LeadArchiver adapts Cursors and
+// LeadStore.
+final class LeadArchive {
+    static final String FORMAT = "leadzen-archive";
+    static final int VERSION = 1;
+    static final int DEFAULT_CHUNK_ROWS = 1000;
+    static final int MAX_CHUNK_ROWS = 10_000;
+    static final String[] TABLES = {"leads", "labels", "lead_labels", "notes", "call_logs", "tasks"};
+
+    // Value types, numbered like android.database.Cursor.FIELD_TYPE_*
+    static final int TYPE_NULL = 0;
+    static final int TYPE_INTEGER = 1;
+    static final int TYPE_FLOAT = 2;
+    static final int TYPE_STRING = 3;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    interface Rows {
+        // Advances to the next row of the table being written
+        boolean next() throws Exception;
+
+        int type(int column);
+
+        long getLong(int column);
+
+        double getDouble(int column);
+
+        String getString(int column);
+    }
+
+    interface Sink {
+        // Persists rows [0, count) of one chunk atomically; throw to stop the import
+        void write(String table, String[] columns, Object[][] rows, int count, long chunk) throws Exception;
+    }
+
+    interface ProgressListener {
+        // After every chunk written or committed
+        void onProgress(Result progress);
+    }
+
+    static final class Result {
+        int schema;             // schema version of the exporting store (import)
+        long rows;
+        long chunks;
+        long skippedChunks;     // import: chunks committed by an earlier, interrupted run
+        long bytes;             // export: archive size, set by the caller
+        long elapsedMs;
+
+        double rowsPerSec() {
+            return rows / Math.max(1e-3, elapsedMs / 1000.0);
+        }
+    }
+
+    private LeadArchive() {
+    }
+
+    // Writes an archive to a channel. Call header() once, table() per table, then finish().
+    static final class Writer {
+        private final WritableByteChannel channel;
+        private final GZIPOutputStream compressed;    // null: write to the channel directly
+        private final int chunkRows;
+        private final ByteBuffer out = ByteBuffer.allocate(BUFFER_SIZE);
+        private final CharsetEncoder encoder = UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final StringBuilder line = new StringBuilder(512);
+        private ByteBuffer lineBytes = ByteBuffer.allocate(1024);
+        private final CRC32 crc = new CRC32();
+        private final Result result = new Result();
+        private final long start = System.nanoTime();
+        private int chunkSize;
+
+        // compressed: a GZIPOutputStream over the same channel, or null for plain NDJSON
+        Writer(WritableByteChannel channel, GZIPOutputStream compressed, int chunkRows) {
+            this.channel = channel;
+            this.compressed = compressed;
+            this.chunkRows = Math.max(1, Math.min(MAX_CHUNK_ROWS, chunkRows));
+        }
+
+        void header(int schema, long exportedAt) throws IOException {
+            line.setLength(0);
+            line.append("{\"format\":");
+            appendString(line, FORMAT);
+            line.append(",\"version\":").append(VERSION)
+                .append(",\"schema\":").append(schema)
+                .append(",\"chunkRows\":").append(chunkRows)
+                .append(",\"exportedAt\":").append(exportedAt).append('}');
+            writeLine(false);
+        }
+
+        // Writes every row of one table, in chunks
+        void table(String table, String[] columns, Rows rows, ProgressListener progress) throws Exception {
+            line.setLength(0);
+            line.append("{\"table\":");
+            appendString(line, table);
+            line.append(",\"columns\":[");
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                appendString(line, columns[i]);
+            }
+            line.append("]}");
+            writeLine(false);
+
+            while (rows.next()) {
+                line.setLength(0);
+                line.append('[');
+                for (int i = 0; i < columns.length; i++) {
+                    if (i > 0) {
+                        line.append(',');
+                    }
+                    appendValue(rows, i);
+                }
+                line.append(']');
+                writeLine(true);
+                result.rows++;
+                if (++chunkSize == chunkRows) {
+                    endChunk(progress);
+                }
+            }
+            endChunk(progress);
+        }
+
+        Result finish() throws IOException {
+            line.setLength(0);
+            line.append("{\"end\":true,\"chunks\":").append(result.chunks)
+                .append(",\"rows\":").append(result.rows).append('}');
+            writeLine(false);
+            drain();
+            if (compressed != null) {
+                // Trailer only; the caller syncs and closes the channel
+                compressed.finish();
+                compressed.flush();
+            }
+            result.elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+            return result;
+        }
+
+        private void appendValue(Rows rows, int column) {
+            switch (rows.type(column)) {
+                case TYPE_NULL:
+                    line.append("null");
+                    break;
+                case TYPE_INTEGER:
+                    line.append(rows.getLong(column));
+                    break;
+                case TYPE_FLOAT:
+                    double value = rows.getDouble(column);
+                    if (Double.isNaN(value) || Double.isInfinite(value)) {
+                        line.append("null");
+                    } else {
+                        // Double.toString always has a '.' (or an exponent), so it reads back as REAL
+                        line.append(value);
+                    }
+                    break;
+                default:
+                    appendString(line, rows.getString(column));
+                    break;
+            }
+        }
+
+        private void endChunk(ProgressListener progress) throws IOException {
+            if (chunkSize == 0) {
+                return;
+            }
+            line.setLength(0);
+            line.append("{\"chunk\":").append(result.chunks)
+                .append(",\"rows\":").append(chunkSize)
+                .append(",\"crc32\":").append(crc.getValue()).append('}');
+            writeLine(false);
+            crc.reset();
+            chunkSize = 0;
+            result.chunks++;
+            if (progress != null) {
+                result.elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+                progress.onProgress(result);
+            }
+        }
+
+        // Encodes `line` plus a newline; row lines go into the chunk CRC
+        private void writeLine(boolean row) throws IOException {
+            line.append('\n');
+            lineBytes.clear();
+            CharBuffer chars = CharBuffer.wrap(line);
+            encoder.reset();
+            while (true) {
+                CoderResult coded = encoder.encode(chars, lineBytes, true);
+                if (coded.isOverflow()) {
+                    lineBytes = grow(lineBytes);
+                    continue;
+                }
+                if (encoder.flush(lineBytes).isOverflow()) {
+                    lineBytes = grow(lineBytes);
+                    continue;
+                }
+                break;
+            }
+            byte[] bytes = lineBytes.array();
+            int length = lineBytes.position();
+            if (row) {
+                crc.update(bytes, 0, length);
+            }
+            if (length > out.remaining()) {
+                drain();
+            }
+            if (length > out.remaining()) {
+                // Longer than the buffer (a huge note): pass it straight through
+                write(ByteBuffer.wrap(bytes, 0, length));
+            } else {
+                out.put(bytes, 0, length);
+            }
+        }
+
+        private void drain() throws IOException {
+            out.flip();
+            write(out);
+            out.clear();
+        }
+
+        private void write(ByteBuffer bytes) throws IOException {
+            if (compressed != null) {
+                compressed.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+                bytes.position(bytes.limit());
+                return;
+            }
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+
+        private static ByteBuffer grow(ByteBuffer buffer) {
+            ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+            buffer.flip();
+            larger.put(buffer);
+            return larger;
+        }
+    }
+
+    static void appendString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                    break;
+            }
+        }
+        out.append('"');
+    }
+
+    // Reads an archive from a (decompressed) stream, verifying each chunk before the sink sees it
+    static final class Reader {
+        private final InputStream in;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int bufferPos;
+        private int bufferEnd;
+        private byte[] line = new byte[1024];
+        private int lineLength;
+        private long lineNumber;
+        private final CRC32 crc = new CRC32();
+
+        Reader(InputStream in) {
+            this.in = in;
+        }
+
+        // Chunks numbered below skipChunks are verified but not written (resume)
+        Result read(Sink sink, long skipChunks, ProgressListener progress) throws Exception {
+            long start = System.nanoTime();
+            Result result = new Result();
+            if (!nextLine()) {
+                throw new IOException("Empty archive");
+            }
+            Map<String, Object> header = control();
+            if (!FORMAT.equals(header.get("format"))) {
+                throw new IOException("Not a LeadZen archive");
+            }
+            long version = number(header, "version");
+            if (version != VERSION) {
+                throw new IOException("Unsupported archive version " + version);
+            }
+            result.schema = (int) number(header, "schema");
+            long chunkRows = number(header, "chunkRows");
+            if (chunkRows < 1 || chunkRows > MAX_CHUNK_ROWS) {
+                throw new IOException("Bad chunk size " + chunkRows);
+            }
+
+            String table = null;
+            String[] columns = null;
+            Object[][] rows = new Object[(int) chunkRows][];
+            int count = 0;
+            while (nextLine()) {
+                if (line[0] == '[') {
+                    if (columns == null) {
+                        throw error("row before any table");
+                    }
+                    if (count == rows.length) {
+                        throw error("chunk longer than " + rows.length + " rows");
+                    }
+                    crc.update(line, 0, lineLength);
+                    if (rows[count] == null || rows[count].length != columns.length) {
+                        rows[count] = new Object[columns.length];
+                    }
+                    new Parser(text()).row(rows[count]);
+                    count++;
+                    continue;
+                }
+
+                Map<String, Object> control = control();
+                if (control.containsKey("table")) {
+                    if (count > 0) {
+                        throw error("rows without a chunk trailer");
+                    }
+                    table = (String) control.get("table");
+                    List<?> names = (List<?>) control.get("columns");
+                    columns = names.toArray(new String[0]);
+                } else if (control.containsKey("chunk")) {
+                    long chunk = number(control, "chunk");
+                    if (chunk != result.chunks || number(control, "rows") != count
+                        || number(control, "crc32") != crc.getValue()) {
+                        throw error("chunk " + chunk + " is corrupt (count, order or checksum)");
+                    }
+                    if (chunk >= skipChunks) {
+                        sink.write(table, columns, rows, count, chunk);
+                        result.rows += count;
+                    } else {
+                        result.skippedChunks++;
+                    }
+                    result.chunks++;
+                    crc.reset();
+                    count = 0;
+                    if (progress != null) {
+                        result.elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+                        progress.onProgress(result);
+                    }
+                } else if (control.containsKey("end")) {
+                    if (count > 0 || number(control, "chunks") != result.chunks) {
+                        throw error("archive ends mid-chunk");
+                    }
+                    result.elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+                    return result;
+                } else {
+                    throw error("unknown control line");
+                }
+            }
+            throw new IOException("Archive truncated after chunk " + (result.chunks - 1));
+        }
+
+        private Map<String, Object> control() throws IOException {
+            Object value = new Parser(text()).value();
+            if (!(value instanceof Map)) {
+                throw error("expected an object");
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> map = (Map<String, Object>) value;
+            return map;
+        }
+
+        private long number(Map<String, Object> control, String key) throws IOException {
+            Object value = control.get(key);
+            if (!(value instanceof Long)) {
+                throw error("missing " + key);
+            }
+            return (Long) value;
+        }
+
+        private String text() {
+            return new String(line, 0, lineLength, UTF_8);
+        }
+
+        private IOException error(String message) {
+            return new IOException("Archive line " + lineNumber + ": " + message);
+        }
+
+        // Next non-empty line into `line`, newline included (it is part of the row CRC)
+        private boolean nextLine() throws IOException {
+            while (true) {
+                lineLength = 0;
+                boolean ended = false;
+                while (!ended) {
+                    if (bufferPos == bufferEnd) {
+                        bufferEnd = in.read(buffer, 0, buffer.length);
+                        bufferPos = 0;
+                        if (bufferEnd <= 0) {
+                            bufferEnd = 0;
+                            break;
+                        }
+                    }
+                    int end = bufferPos;
+                    while (end < bufferEnd && buffer[end] != '\n') {
+                        end++;
+                    }
+                    ended = end < bufferEnd;
+                    if (ended) {
+                        end++;
+                    }
+                    append(buffer, bufferPos, end - bufferPos);
+                    bufferPos = end;
+                }
+                if (lineLength == 0) {
+                    return false;
+                }
+                lineNumber++;
+                if (!ended) {
+                    // The last line lost its newline: the archive was cut off mid-line
+                    throw error("truncated line");
+                }
+                if (lineLength > 1) {
+                    return true;
+                }
+            }
+        }
+
+        private void append(byte[] bytes, int offset, int length) {
+            if (lineLength + length > line.length) {
+                byte[] larger = new byte[Math.max(line.length * 2, lineLength + length)];
+                System.arraycopy(line, 0, larger, 0, lineLength);
+                line = larger;
+            }
+            System.arraycopy(bytes, offset, line, lineLength, length);
+            lineLength += length;
+        }
+    }
+
+    // JSON for one line: rows are flat arrays of scalars, control lines small objects
+    static final class Parser {
+        private final String text;
+        private int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        // A row array into `values`; its length must match
+        void row(Object[] values) throws IOException {
+            expect('[');
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    expect(',');
+                }
+                values[i] = scalar();
+            }
+            expect(']');
+        }
+
+        Object value() throws IOException {
+            skipSpace();
+            char c = peek();
+            if (c == '{') {
+                pos++;
+                LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+                skipSpace();
+                if (peek() == '}') {
+                    pos++;
+                    return map;
+                }
+                while (true) {
+                    skipSpace();
+                    String key = string();
+                    expect(':');
+                    map.put(key, value());
+                    skipSpace();
+                    if (peek() == '}') {
+                        pos++;
+                        return map;
+                    }
+                    expect(',');
+                }
+            }
+            if (c == '[') {
+                pos++;
+                ArrayList<Object> list = new ArrayList<>();
+                skipSpace();
+                if (peek() == ']') {
+                    pos++;
+                    return list;
+                }
+                while (true) {
+                    list.add(value());
+                    skipSpace();
+                    if (peek() == ']') {
+                        pos++;
+                        return list;
+                    }
+                    expect(',');
+                }
+            }
+            return scalar();
+        }
+
+        private Object scalar() throws IOException {
+            skipSpace();
+            char c = peek();
+            if (c == '"') {
+                return string();
+            }
+            if (text.startsWith("null", pos)) {
+                pos += 4;
+                return null;
+            }
+            if (text.startsWith("true", pos)) {
+                pos += 4;
+                return Boolean.TRUE;
+            }
+            if (text.startsWith("false", pos)) {
+                pos += 5;
+                return Boolean.FALSE;
+            }
+            int start = pos;
+            boolean real = false;
+            while (pos < text.length()) {
+                char d = text.charAt(pos);
+                if (d == '.' || d == 'e' || d == 'E') {
+                    real = true;
+                } else if (!(d == '-' || d == '+' || (d >= '0' && d <= '9'))) {
+                    break;
+                }
+                pos++;
+            }
+            if (start == pos) {
+                throw new IOException("Unexpected '" + c + "' at column " + pos);
+            }
+            String number = text.substring(start, pos);
+            try {
+                return real ? (Object) Double.parseDouble(number) : (Object) Long.parseLong(number);
+            } catch (NumberFormatException e) {
+                throw new IOException("Bad number " + number);
+            }
+        }
+
+        private String string() throws IOException {
+            expect('"');
+            int start = pos;
+            // Fast path: no escapes
+            while (pos < text.length()) {
+                char c = text.charAt(pos);
+                if (c == '"') {
+                    return text.substring(start, pos++);
+                }
+                if (c == '\\') {
+                    break;
+                }
+                pos++;
+            }
+            StringBuilder out = new StringBuilder(text.length() - start);
+            out.append(text, start, pos);
+            while (pos < text.length()) {
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return out.toString();
+                }
+                if (c != '\\') {
+                    out.append(c);
+                    continue;
+                }
+                if (pos >= text.length()) {
+                    break;
+                }
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case 'n':
+                        out.append('\n');
+                        break;
+                    case 'r':
+                        out.append('\r');
+                        break;
+                    case 't':
+                        out.append('\t');
+                        break;
+                    case 'b':
+                        out.append('\b');
+                        break;
+                    case 'f':
+                        out.append('\f');
+                        break;
+                    case 'u':
+                        if (pos + 4 > text.length()) {
+                            throw new IOException("Bad escape at column " + pos);
+                        }
+                        try {
+                            out.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw new IOException("Bad escape at column " + pos);
+                        }
+                        pos += 4;
+                        break;
+                    default:
+                        out.append(escaped);
+                        break;
+                }
+            }
+            throw new IOException("Unterminated string");
+        }
+
+        private void expect(char c) throws IOException {
+            skipSpace();
+            if (peek() != c) {
+                throw new IOException("Expected '" + c + "' at column " + pos);
+            }
+            pos++;
+        }
+
+        private char peek() throws IOException {
+            if (pos >= text.length()) {
+                throw new IOException("Unexpected end of line");
+            }
+            return text.charAt(pos);
+        }
+
+        private void skipSpace() {
+            while (pos < text.length() && text.charAt(pos) <= ' ') {
+                pos++;
+            }
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package com.leadzen;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Exports the native store to a LeadArchive file and restores one.
+//
+// Export reads each table in rowid order through keyset pages (a single cursor over a big table
+// re-runs its query from the start to refill every window) and writes "<file>.tmp" through a
+// FileChannel, then syncs it and renames it into place, so a failed export never leaves a
+// partial archive under the final name. It is not one read transaction (that would hold off the
+// writer for the whole export); instead every table stops at the rowid it had when the export
+// started and child rows must point at a parent inside those bounds, so the archive is always
+// consistent to restore. Rows written during the export may or may not be in it.
+//
+// Import replaces the CRM tables with the archive. Each chunk commits as one LeadStore batch (the
+// first also clears the tables) and is then recorded in a progress file; importing the same file
+// again resumes after the last chunk recorded. Inserts are OR IGNORE: the only chunk that can be
+// replayed is one that committed before it was recorded, its rows are already there, and the
+// triggers (search, ranks, aggregates) still see each row once.
+final class LeadArchiver {
+    static final String PROGRESS_FILE = "archive_import.progress";
+    static final int PAGE_ROWS = 2000;
+
+    // Parents of each table in LeadArchive.TABLES: child column, parent table
+    private static final String[][] PARENTS = {
+        {},
+        {},
+        {"lead_id", "leads", "label_id", "labels"},
+        {"lead_id", "leads"},
+        {"lead_id", "leads"},
+        {"lead_id", "leads"},
+    };
+
+    private LeadArchiver() {
+    }
+
+    // Backups live in app-specific external storage (no permission needed) when it is mounted
+    static File backupDir(Context context) {
+        File dir = context.getExternalFilesDir("backups");
+        if (dir == null) {
+            dir = new File(context.getFilesDir(), "backups");
+        }
+        dir.mkdirs();
+        return dir;
+    }
+
+    static LeadArchive.Result export(SQLiteDatabase db, File file, boolean gzip,
+                                     LeadArchive.ProgressListener progress) throws Exception {
+        File temp = new File(file.getPath() + ".tmp");
+        FileOutputStream stream = new FileOutputStream(temp);
+        FileChannel channel = stream.getChannel();
+        boolean done = false;
+        try {
+            HashMap<String, Long> bounds = new HashMap<>();
+            for (String table : LeadArchive.TABLES) {
+                bounds.put(table, queryLong(db, "SELECT IFNULL(MAX(rowid), 0) FROM " + table));
+            }
+            GZIPOutputStream compressed = gzip ? new GZIPOutputStream(Channels.newOutputStream(channel), 64 * 1024) : null;
+            LeadArchive.Writer writer = new LeadArchive.Writer(channel, compressed, LeadArchive.DEFAULT_CHUNK_ROWS);
+            writer.header(LeadStoreSchema.VERSION, System.currentTimeMillis());
+            for (int t = 0; t < LeadArchive.TABLES.length; t++) {
+                String table = LeadArchive.TABLES[t];
+                StringBuilder where = new StringBuilder("rowid > ? AND rowid <= ").append(bounds.get(table));
+                for (int p = 0; p < PARENTS[t].length; p += 2) {
+                    where.append(" AND (").append(PARENTS[t][p]).append(" IS NULL OR ")
+                        .append(PARENTS[t][p]).append(" <= ").append(bounds.get(PARENTS[t][p + 1])).append(')');
+                }
+                PagedRows rows = new PagedRows(db, table, where.toString());
+                try {
+                    writer.table(table, rows.columns, rows, progress);
+                } finally {
+                    rows.close();
+                }
+            }
+            LeadArchive.Result result = writer.finish();
+            channel.force(true);
+            result.bytes = channel.size();
+            stream.close();
+            if (!temp.renameTo(file)) {
+                throw new IOException("Could not move the archive to " + file);
+            }
+            done = true;
+            OverlayLog.i("📦 Archive exported: {} rows", result.rows);
+            return result;
+        } finally {
+            if (!done) {
+                stream.close();
+                temp.delete();
+            }
+        }
+    }
+
+    // Restores `file` into the store; `progressFile` records committed chunks for resuming
+    static LeadArchive.Result importFrom(LeadStore store, File file, File progressFile,
+                                         LeadArchive.ProgressListener progress) throws Exception {
+        String identity = file.getCanonicalPath() + "\n" + file.length() + "\n" + file.lastModified();
+        long resumeAt = readProgress(progressFile, identity);
+        InputStream in = open(file);
+        try {
+            ImportSink sink = new ImportSink(store, progressFile, identity, resumeAt == 0);
+            LeadArchive.Result result = new LeadArchive.Reader(in).read(sink, resumeAt, progress);
+            sink.clearIfNothingWritten();
+            progressFile.delete();
+            OverlayLog.i("📦 Archive imported: {} rows", result.rows);
+            if (result.skippedChunks > 0) {
+                OverlayLog.i("📦 Resumed after chunk {}", result.skippedChunks - 1);
+            }
+            if (sink.ignored > 0) {
+                OverlayLog.w("📦 Archive rows already present, kept as they were: {}", sink.ignored);
+            }
+            return result;
+        } finally {
+            in.close();
+        }
+    }
+
+    // Gzip is detected from the magic bytes, whatever the file is called
+    private static InputStream open(File file) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(Channels.newInputStream(new FileInputStream(file).getChannel()), 64 * 1024);
+        in.mark(2);
+        int first = in.read();
+        int second = in.read();
+        in.reset();
+        if (first == 0x1f && second == 0x8b) {
+            return new GZIPInputStream(in, 64 * 1024);
+        }
+        return in;
+    }
+
+    // Chunks already committed from this exact file, 0 to start over
+    private static long readProgress(File progressFile, String identity) {
+        if (!progressFile.exists()) {
+            return 0;
+        }
+        try {
+            InputStream in = new FileInputStream(progressFile);
+            try {
+                byte[] bytes = new byte[(int) Math.min(progressFile.length(), 8192)];
+                int length = 0;
+                while (length < bytes.length) {
+                    int read = in.read(bytes, length, bytes.length - length);
+                    if (read < 0) {
+                        break;
+                    }
+                    length += read;
+                }
+                String text = new String(bytes, 0, length, "UTF-8");
+                int split = text.lastIndexOf('\n');
+                if (split < 0 || !text.substring(0, split).equals(identity)) {
+                    return 0;
+                }
+                return Long.parseLong(text.substring(split + 1).trim());
+            } finally {
+                in.close();
+            }
+        } catch (IOException | NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static void writeProgress(File progressFile, String identity, long chunks) throws IOException {
+        File temp = new File(progressFile.getPath() + ".tmp");
+        FileOutputStream stream = new FileOutputStream(temp);
+        try {
+            Writer writer = new OutputStreamWriter(stream, "UTF-8");
+            writer.write(identity + "\n" + chunks);
+            writer.flush();
+            stream.getFD().sync();
+        } finally {
+            stream.close();
+        }
+        if (!temp.renameTo(progressFile)) {
+            throw new IOException("Could not record import progress");
+        }
+    }
+
+    private static long queryLong(SQLiteDatabase db, String sql) {
+        Cursor cursor = db.rawQuery(sql, null);
+        try {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0L;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private static String[] columnsOf(SQLiteDatabase db, String table) {
+        Cursor cursor = db.rawQuery("SELECT * FROM " + table + " LIMIT 0", null);
+        try {
+            return cursor.getColumnNames();
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // One table in rowid order, PAGE_ROWS rows per query
+    private static final class PagedRows implements LeadArchive.Rows {
+        final String[] columns;
+        private final SQLiteDatabase db;
+        private final String sql;
+        private Cursor cursor;
+        private int pageRows;
+        private long lastRowid;
+
+        PagedRows(SQLiteDatabase db, String table, String where) {
+            this.db = db;
+            this.columns = columnsOf(db, table);
+            this.sql = "SELECT rowid, * FROM " + table + " WHERE " + where + " ORDER BY rowid LIMIT " + PAGE_ROWS;
+        }
+
+        @Override
+        public boolean next() {
+            while (true) {
+                if (cursor != null && cursor.moveToNext()) {
+                    pageRows++;
+                    lastRowid = cursor.getLong(0);
+                    return true;
+                }
+                boolean lastPage = cursor != null && pageRows < PAGE_ROWS;
+                close();
+                if (lastPage) {
+                    return false;
+                }
+                cursor = db.rawQuery(sql, new String[] {Long.toString(lastRowid)});
+                pageRows = 0;
+                if (cursor.getCount() == 0) {
+                    close();
+                    return false;
+                }
+            }
+        }
+
+        // Columns are shifted by the rowid in front
+        @Override
+        public int type(int column) {
+            return cursor.getType(column + 1);
+        }
+
+        @Override
+        public long getLong(int column) {
+            return cursor.getLong(column + 1);
+        }
+
+        @Override
+        public double getDouble(int column) {
+            return cursor.getDouble(column + 1);
+        }
+
+        @Override
+        public String getString(int column) {
+            return cursor.getString(column + 1);
+        }
+
+        void close() {
+            if (cursor != null) {
+                cursor.close();
+                cursor = null;
+            }
+        }
+    }
+
+    private static final class ImportSink implements LeadArchive.Sink {
+        private final LeadStore store;
+        private final File progressFile;
+        private final String identity;
+        private boolean clear;
+        private final HashMap<String, String> insertSql = new HashMap<>();
+        private final HashMap<String, int[]> projections = new HashMap<>();
+        long ignored;
+
+        ImportSink(LeadStore store, File progressFile, String identity, boolean clear) {
+            this.store = store;
+            this.progressFile = progressFile;
+            this.identity = identity;
+            this.clear = clear;
+        }
+
+        @Override
+        public void write(String table, String[] columns, Object[][] rows, int count, long chunk) throws Exception {
+            List<LeadStore.Mutation> batch = new ArrayList<>(count + LeadArchive.TABLES.length);
+            if (clear) {
+                // The first chunk's transaction also removes the old data
+                addClear(batch);
+            }
+            int cleared = batch.size();
+
+            String sql = insertSql(table, columns);
+            if (sql != null) {
+                int[] projection = projections.get(table);
+                for (int i = 0; i < count; i++) {
+                    Object[] values = rows[i];
+                    if (projection != null) {
+                        values = new Object[projection.length];
+                        for (int c = 0; c < projection.length; c++) {
+                            values[c] = rows[i][projection[c]];
+                        }
+                    }
+                    // apply() blocks until the commit, so the reader can't reuse `rows` under it
+                    batch.add(LeadStore.Mutation.exec(sql, values));
+                }
+            }
+
+            long[] results = store.apply(batch);
+            for (int i = cleared; i < results.length; i++) {
+                if (results[i] == -1) {
+                    ignored++;
+                }
+            }
+            clear = false;
+            writeProgress(progressFile, identity, chunk + 1);
+        }
+
+        // An archive without rows still replaces the old data
+        void clearIfNothingWritten() throws Exception {
+            if (clear) {
+                List<LeadStore.Mutation> batch = new ArrayList<>(LeadArchive.TABLES.length);
+                addClear(batch);
+                store.apply(batch);
+                clear = false;
+            }
+        }
+
+        // Children first
+        private static void addClear(List<LeadStore.Mutation> batch) {
+            for (int t = LeadArchive.TABLES.length - 1; t >= 0; t--) {
+                batch.add(LeadStore.Mutation.exec("DELETE FROM " + LeadArchive.TABLES[t]));
+            }
+        }
+
+        // INSERT for the archive's columns that still exist here; null for an unknown table
+        private String insertSql(String table, String[] columns) {
+            if (insertSql.containsKey(table)) {
+                return insertSql.get(table);
+            }
+            String sql = null;
+            boolean known = false;
+            for (String name : LeadArchive.TABLES) {
+                known |= name.equals(table);
+            }
+            if (known) {
+                List<String> existing = Arrays.asList(columnsOf(store.database(), table));
+                ArrayList<Integer> kept = new ArrayList<>(columns.length);
+                for (int c = 0; c < columns.length; c++) {
+                    if (existing.contains(columns[c])) {
+                        kept.add(c);
+                    }
+                }
+                if (!kept.isEmpty()) {
+                    StringBuilder names = new StringBuilder();
+                    StringBuilder marks = new StringBuilder();
+                    int[] projection = new int[kept.size()];
+                    for (int k = 0; k < kept.size(); k++) {
+                        projection[k] = kept.get(k);
+                        names.append(k > 0 ? ", " : "").append(columns[projection[k]]);
+                        marks.append(k > 0 ? ", ?" : "?");
+                    }
+                    if (projection.length < columns.length) {
+                        projections.put(table, projection);
+                    }
+                    sql = "INSERT OR IGNORE INTO " + table + " (" + names + ") VALUES (" + marks + ")";
+                }
+            }
+            if (sql == null) {
+                OverlayLog.w("📦 Archive table skipped: {}", table);
+            }
+            insertSql.put(table, sql);
+            return sql;
+        }
+    }
+}
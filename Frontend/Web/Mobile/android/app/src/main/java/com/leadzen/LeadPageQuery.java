@@ -0,0 +1,136 @@
+package com.leadzen;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Keyset pagination over the leads indexes. A page continues from the (sort key, id) of the last
+// row of the previous page, so every page is an index range seek of `limit` rows no matter how
+// deep the list has been scrolled (OFFSET walks and discards every skipped row).
+//
+// Orders:
+//   created  - created_at DESC, id DESC                     (idx_leads_created_at)
+//   stage    - updated_at DESC, id DESC within one stage   (idx_leads_stage_updated)
+//   followUp - next_follow_up_at ASC, id ASC, scheduled only (idx_leads_next_follow_up)
+//   rank     - stage_rank ASC, id ASC within one stage: the manual column order (idx_leads_stage_rank)
+// The indexes end in the implicit rowid, which is the id, so the id tie-break needs no sort.
+//
+// Cursor tokens are opaque to JS: "<order>:<sortKey>:<id>".
+final class LeadPageQuery {
+    static final String ORDER_CREATED = "created";
+    static final String ORDER_STAGE = "stage";
+    static final String ORDER_FOLLOW_UP = "followUp";
+    static final String ORDER_RANK = "rank";
+
+    static final int MAX_LIMIT = 500;
+
+    // Lead fields shipped per page, one array each; enough to render a lead card
+    static final String[] PAGE_KEYS = {
+        "name", "company", "phone", "email", "position", "source", "status", "priority",
+        "value", "nextFollowUpAt", "createdAt", "updatedAt",
+    };
+
+    final String order;
+    final String stage;
+    final int limit;
+    final boolean hasCursor;
+    final long cursorKey;
+    final long cursorId;
+
+    LeadPageQuery(String order, String stage, int limit, String cursor) {
+        if (!ORDER_CREATED.equals(order) && !ORDER_STAGE.equals(order) && !ORDER_FOLLOW_UP.equals(order)
+            && !ORDER_RANK.equals(order)) {
+            throw new IllegalArgumentException("unknown order " + order);
+        }
+        if (byStage(order) && stage == null) {
+            throw new IllegalArgumentException(order + " order needs a stage");
+        }
+        this.order = order;
+        this.stage = stage;
+        this.limit = Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        if (cursor == null || cursor.isEmpty()) {
+            hasCursor = false;
+            cursorKey = 0L;
+            cursorId = 0L;
+            return;
+        }
+        String[] parts = cursor.split(":");
+        if (parts.length != 3 || !order.equals(parts[0])) {
+            throw new IllegalArgumentException("cursor does not belong to order " + order);
+        }
+        hasCursor = true;
+        cursorKey = Long.parseLong(parts[1]);
+        cursorId = Long.parseLong(parts[2]);
+    }
+
+    private static boolean byStage(String order) {
+        return ORDER_STAGE.equals(order) || ORDER_RANK.equals(order);
+    }
+
+    String sortColumn() {
+        switch (order) {
+            case ORDER_STAGE:
+                return "updated_at";
+            case ORDER_RANK:
+                return "stage_rank";
+            case ORDER_FOLLOW_UP:
+                return "next_follow_up_at";
+            default:
+                return "created_at";
+        }
+    }
+
+    boolean ascending() {
+        return ORDER_FOLLOW_UP.equals(order) || ORDER_RANK.equals(order);
+    }
+
+    // SELECT id, <sort column>, <PAGE_KEYS columns> ... LIMIT limit + 1; the extra row tells
+    // whether another page exists. The keyset predicate is spelled out instead of a row-value
+    // comparison, which needs SQLite 3.15 (API 26).
+    String sql() {
+        String column = sortColumn();
+        String compare = ascending() ? ">" : "<";
+        String direction = ascending() ? "" : " DESC";
+
+        StringBuilder sql = new StringBuilder("SELECT id, ").append(column);
+        for (String key : PAGE_KEYS) {
+            sql.append(", ").append(LeadStoreSchema.LEAD_COLUMNS[LeadStoreSchema.columnIndex(key)].name);
+        }
+        sql.append(" FROM leads");
+
+        List<String> where = new ArrayList<>();
+        if (byStage(order)) {
+            where.add("pipeline_stage = ?");
+        }
+        if (ORDER_FOLLOW_UP.equals(order)) {
+            where.add(column + " IS NOT NULL");
+        }
+        if (hasCursor) {
+            where.add(column + " " + compare + "= ?");
+            where.add("(" + column + " " + compare + " ? OR id " + compare + " ?)");
+        }
+        for (int i = 0; i < where.size(); i++) {
+            sql.append(i == 0 ? " WHERE " : " AND ").append(where.get(i));
+        }
+        sql.append(" ORDER BY ").append(column).append(direction).append(", id").append(direction);
+        sql.append(" LIMIT ").append(limit + 1);
+        return sql.toString();
+    }
+
+    String[] args() {
+        List<String> args = new ArrayList<>();
+        if (byStage(order)) {
+            args.add(stage);
+        }
+        if (hasCursor) {
+            args.add(Long.toString(cursorKey));
+            args.add(Long.toString(cursorKey));
+            args.add(Long.toString(cursorId));
+        }
+        return args.toArray(new String[0]);
+    }
+
+    String cursorAfter(long sortKey, long id) {
+        return order + ":" + sortKey + ":" + id;
+    }
+}
@@ -0,0 +1,260 @@
+package com.leadzen;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteDoneException;
+import android.database.sqlite.SQLiteStatement;
+import java.util.ArrayList;
+import java.util.HashSet;
+
+// Manual card order inside a pipeline column: leads.stage_rank, a 64-bit rank with gaps between
+// neighbours, read through idx_leads_stage_rank (pipeline_stage, stage_rank) in rank order.
+//
+// Moving a card writes only that card: it takes the midpoint between the card it is dropped
+// after and that card's successor (or GAP beyond the end of the column). Gaps start at 2^32, so
+// a spot takes ~24 drops before it gets tight; once a midpoint gap falls under MIN_GAP a
+// rebalance of that neighbourhood is queued as its own writer batch. The rebalance rewrites the
+// smallest window around the spot (16 cards each side, doubling) whose span gives SPREAD_GAP per
+// card, or runs into an end of the column, where the ranks are free to grow. Only a move that
+// finds no gap at all rebalances inline first.
+//
+// New leads and leads moved to another stage without a position go to the top of the column:
+// an insert trigger covers inserts, TOP_ON_STAGE_CHANGE_SQL the stage updates.
+final class LeadRanks {
+    static final long GAP = 1L << 32;
+    static final long MIN_GAP = 1L << 8;
+    static final long SPREAD_GAP = 1L << 20;
+    private static final int FIRST_WINDOW = 16;
+
+    // Version 5
+    static final String STAGE_RANK_INDEX =
+        "CREATE INDEX IF NOT EXISTS idx_leads_stage_rank ON leads(pipeline_stage, stage_rank)";
+    private static final String INSERT_TRIGGER =
+        "CREATE TRIGGER IF NOT EXISTS leads_rank_ai AFTER INSERT ON leads WHEN new.stage_rank IS NULL BEGIN"
+            + " UPDATE leads SET stage_rank = " + top("new.pipeline_stage") + " WHERE id = new.id; END";
+
+    // SET clause for an UPDATE that writes pipeline_stage: binds the new stage twice. SET reads
+    // the old row, so a lead already in that stage keeps its place.
+    static final String TOP_ON_STAGE_CHANGE_SQL =
+        "stage_rank = CASE WHEN pipeline_stage IS ? THEN stage_rank ELSE " + top("?") + " END";
+
+    private static final String RANK_SQL =
+        "SELECT stage_rank FROM leads WHERE id = ? AND pipeline_stage = ? AND stage_rank IS NOT NULL";
+    private static final String FIRST_SQL = "SELECT stage_rank FROM leads WHERE pipeline_stage = ?"
+        + " AND stage_rank IS NOT NULL AND id <> ? ORDER BY stage_rank LIMIT 1";
+    private static final String NEXT_SQL = "SELECT stage_rank FROM leads WHERE pipeline_stage = ?"
+        + " AND stage_rank > ? AND id <> ? ORDER BY stage_rank LIMIT 1";
+    private static final String MOVE_SQL =
+        "UPDATE leads SET pipeline_stage = ?, stage_rank = ?, updated_at = ? WHERE id = ?";
+    private static final String SET_RANK_SQL = "UPDATE leads SET stage_rank = ? WHERE id = ?";
+
+    interface Statements {
+        // Compiled and cached by the caller, bindings cleared
+        SQLiteStatement get(String sql);
+    }
+
+    interface Rebalancer {
+        // Queues rebalance(stage, around) to run after the current writes
+        void schedule(String stage, long around);
+    }
+
+    private final Statements statements;
+    private final Rebalancer rebalancer;
+
+    // Writer-thread state
+    private final HashSet<String> queued = new HashSet<>();
+
+    // Stats, written by the writer thread
+    private volatile long moves;
+    private volatile long rebalances;
+    private volatile long inlineRebalances;
+    private volatile long rebalancedRows;
+
+    LeadRanks(Statements statements, Rebalancer rebalancer) {
+        this.statements = statements;
+        this.rebalancer = rebalancer;
+    }
+
+    // Smallest rank in the stage minus GAP, 0 for an empty stage
+    private static String top(String stage) {
+        return "IFNULL((SELECT stage_rank FROM leads WHERE pipeline_stage = " + stage
+            + " AND stage_rank IS NOT NULL ORDER BY stage_rank LIMIT 1), " + GAP + ") - " + GAP;
+    }
+
+    static void create(SQLiteDatabase db) {
+        db.execSQL(STAGE_RANK_INDEX);
+        db.execSQL(INSERT_TRIGGER);
+    }
+
+    // Upgrade to version 5: ranks every column in its current order (most recently updated first)
+    static void backfill(SQLiteDatabase db) {
+        Cursor cursor = db.rawQuery("SELECT id, pipeline_stage FROM leads ORDER BY pipeline_stage, updated_at DESC, id DESC", null);
+        SQLiteStatement update = db.compileStatement(SET_RANK_SQL);
+        try {
+            String stage = null;
+            long rank = 0;
+            boolean first = true;
+            while (cursor.moveToNext()) {
+                String rowStage = cursor.isNull(1) ? null : cursor.getString(1);
+                if (first || (rowStage == null ? stage != null : !rowStage.equals(stage))) {
+                    stage = rowStage;
+                    rank = 0;
+                    first = false;
+                }
+                update.bindLong(1, rank);
+                update.bindLong(2, cursor.getLong(0));
+                update.executeUpdateDelete();
+                rank += GAP;
+            }
+        } finally {
+            update.close();
+            cursor.close();
+        }
+    }
+
+    // Puts the lead in `stage` right after afterId (<= 0: at the top). Writer thread, inside the
+    // batch transaction. Returns rows changed.
+    long move(SQLiteDatabase db, long id, String stage, long afterId, long now) {
+        if (afterId == id) {
+            throw new IllegalArgumentException("lead " + id + " can't follow itself");
+        }
+        long rank;
+        if (afterId <= 0) {
+            long first = queryLong(FIRST_SQL, Long.MAX_VALUE, stage, id);
+            rank = first == Long.MAX_VALUE ? 0 : first - GAP;
+        } else {
+            long above = rankOf(afterId, stage);
+            long below = queryLong(NEXT_SQL, Long.MAX_VALUE, stage, above, id);
+            if (below != Long.MAX_VALUE && below - above < 2) {
+                inlineRebalances++;
+                rebalance(db, stage, above);
+                above = rankOf(afterId, stage);
+                below = queryLong(NEXT_SQL, Long.MAX_VALUE, stage, above, id);
+            }
+            if (below == Long.MAX_VALUE) {
+                rank = above + GAP;
+            } else {
+                rank = above + (below - above) / 2;
+                if (below - above < MIN_GAP && queued.add(stage)) {
+                    rebalancer.schedule(stage, rank);
+                }
+            }
+        }
+
+        SQLiteStatement statement = statements.get(MOVE_SQL);
+        statement.bindString(1, stage);
+        statement.bindLong(2, rank);
+        statement.bindLong(3, now);
+        statement.bindLong(4, id);
+        moves++;
+        return statement.executeUpdateDelete();
+    }
+
+    // Spreads the ranks around `around`; returns rows rewritten
+    long rebalance(SQLiteDatabase db, String stage, long around) {
+        queued.remove(stage);
+        String[] args = {stage, Long.toString(around)};
+        for (int window = FIRST_WINDOW; ; window *= 2) {
+            // One extra row on each side tells whether the window reaches the end of the column
+            ArrayList<long[]> above = rows(db, "SELECT id, stage_rank FROM leads WHERE pipeline_stage = ? AND stage_rank <= ?"
+                + " ORDER BY stage_rank DESC, id DESC LIMIT " + (window + 1), args);
+            ArrayList<long[]> below = rows(db, "SELECT id, stage_rank FROM leads WHERE pipeline_stage = ? AND stage_rank > ?"
+                + " ORDER BY stage_rank, id LIMIT " + (window + 1), args);
+            boolean topOpen = above.size() <= window;
+            boolean bottomOpen = below.size() <= window;
+
+            ArrayList<long[]> cards = new ArrayList<>(2 * window);
+            for (int i = Math.min(above.size(), window) - 1; i >= 0; i--) {
+                cards.add(above.get(i));
+            }
+            for (int i = 0; i < Math.min(below.size(), window); i++) {
+                cards.add(below.get(i));
+            }
+            int n = cards.size();
+            if (n < 2) {
+                return 0;
+            }
+            long lo = cards.get(0)[1];
+            long hi = cards.get(n - 1)[1];
+            if (topOpen) {
+                lo = Math.min(lo, hi - (n - 1) * SPREAD_GAP);
+            }
+            if (bottomOpen) {
+                hi = Math.max(hi, lo + (n - 1) * SPREAD_GAP);
+            }
+            long step = (hi - lo) / (n - 1);
+            if (step < SPREAD_GAP) {
+                continue;
+            }
+
+            SQLiteStatement statement = statements.get(SET_RANK_SQL);
+            long rewritten = 0;
+            for (int i = 0; i < n; i++) {
+                long rank = lo + i * step;
+                if (rank != cards.get(i)[1]) {
+                    statement.clearBindings();
+                    statement.bindLong(1, rank);
+                    statement.bindLong(2, cards.get(i)[0]);
+                    rewritten += statement.executeUpdateDelete();
+                }
+            }
+            rebalances++;
+            rebalancedRows += rewritten;
+            return rewritten;
+        }
+    }
+
+    private long rankOf(long id, String stage) {
+        long rank = queryLong(RANK_SQL, Long.MIN_VALUE, id, stage);
+        if (rank == Long.MIN_VALUE) {
+            throw new IllegalArgumentException("lead " + id + " is not in stage " + stage);
+        }
+        return rank;
+    }
+
+    // First column of the first row, or `missing` when there is no row
+    private long queryLong(String sql, long missing, Object... args) {
+        SQLiteStatement statement = statements.get(sql);
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof Long) {
+                statement.bindLong(i + 1, (Long) args[i]);
+            } else {
+                statement.bindString(i + 1, (String) args[i]);
+            }
+        }
+        try {
+            return statement.simpleQueryForLong();
+        } catch (SQLiteDoneException e) {
+            return missing;
+        }
+    }
+
+    private static ArrayList<long[]> rows(SQLiteDatabase db, String sql, String[] args) {
+        Cursor cursor = db.rawQuery(sql, args);
+        try {
+            ArrayList<long[]> rows = new ArrayList<>(cursor.getCount());
+            while (cursor.moveToNext()) {
+                rows.add(new long[] {cursor.getLong(0), cursor.getLong(1)});
+            }
+            return rows;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    long moves() {
+        return moves;
+    }
+
+    long rebalances() {
+        return rebalances;
+    }
+
+    long inlineRebalances() {
+        return inlineRebalances;
+    }
+
+    long rebalancedRows() {
+        return rebalancedRows;
+    }
+}
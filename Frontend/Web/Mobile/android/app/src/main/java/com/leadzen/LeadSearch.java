@@ -0,0 +1,419 @@
+package com.leadzen;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Full-text search over leads, notes and call-log notes.
+//
+// Each entity has an external-content FTS table (the text stays in the base table only) kept in
+// sync by triggers, so every write path - LeadStore, cascades, imports - updates the index in the
+// same transaction. Lead triggers fire only when a searchable column changes; stage moves and
+// follow-up edits don't touch the index.
+//
+// FTS5 is used when the SQLite build has it. The framework SQLite on Android doesn't, so the
+// tables fall back to FTS4, where bm25 is computed here from matchinfo() (same formula as FTS5).
+// FTS5 ranks every match inside the query and returns the best `limit`. FTS4 has no ranking in
+// SQL, so every match would cross into Java as a matchinfo blob; there only the newest
+// FTS4_CANDIDATES matches of each entity are ranked. That covers any term short of a few percent
+// of 100k leads or 500k notes, keeps a generic prefix ("pr", "re") under the 20ms keystroke
+// budget, and the next keystroke narrows the match set back under the cap.
+final class LeadSearch {
+    static final int TYPE_LEAD = 0;
+    static final int TYPE_NOTE = 1;
+    static final int TYPE_CALL_LOG = 2;
+
+    static final int FTS4_CANDIDATES = 2048;
+    private static final int MAX_TERMS = 8;
+    private static final double BM25_K1 = 1.2;
+    private static final double BM25_B = 0.75;
+
+    // Snippet markers; JS splits on them to highlight the matched terms
+    static final String MARK_START = "\u0002";
+    static final String MARK_END = "\u0003";
+
+    private static final class Source {
+        final int type;
+        final String table;
+        final String fts;
+        final String[] columns;
+        final double[] weights;
+
+        Source(int type, String table, String[] columns, double[] weights) {
+            this.type = type;
+            this.table = table;
+            this.fts = table + "_fts";
+            this.columns = columns;
+            this.weights = weights;
+        }
+    }
+
+    private static final Source[] SOURCES = {
+        new Source(TYPE_LEAD, "leads",
+            new String[] {"name", "company", "email", "phone_primary", "notes"},
+            new double[] {10.0, 5.0, 2.0, 2.0, 1.0}),
+        new Source(TYPE_NOTE, "notes", new String[] {"content"}, new double[] {1.0}),
+        new Source(TYPE_CALL_LOG, "call_logs", new String[] {"notes"}, new double[] {1.0}),
+    };
+
+    static final class Hit {
+        final int type;
+        final long rowId;
+        final double score;      // higher is better
+        String snippet;
+        String key;              // client id (NotesService / AsyncStorage call log), else the row id
+        long leadId;             // 0 when the row has no lead
+        String leadName;
+
+        Hit(int type, long rowId, double score) {
+            this.type = type;
+            this.rowId = rowId;
+            this.score = score;
+        }
+    }
+
+    private final boolean fts5;
+
+    private LeadSearch(boolean fts5) {
+        this.fts5 = fts5;
+    }
+
+    boolean usesFts5() {
+        return fts5;
+    }
+
+    // Creates the FTS tables and triggers and indexes existing rows. Runs inside the
+    // create/upgrade transaction of LeadStoreSchema.
+    static void create(SQLiteDatabase db) {
+        boolean fts5 = createTables(db);
+        for (Source source : SOURCES) {
+            for (String trigger : fts5 ? fts5Triggers(source) : fts4Triggers(source)) {
+                db.execSQL(trigger);
+            }
+            db.execSQL("INSERT INTO " + source.fts + "(" + source.fts + ") VALUES ('rebuild')");
+            if (fts5 && source.type == TYPE_LEAD) {
+                db.execSQL("INSERT INTO " + source.fts + "(" + source.fts + ", rank) VALUES ('rank', 'bm25("
+                    + join(source.weights) + ")')");
+            }
+        }
+    }
+
+    // FTS5, else FTS4 with the unicode61 tokenizer, else FTS4 with the default one
+    private static boolean createTables(SQLiteDatabase db) {
+        try {
+            for (Source source : SOURCES) {
+                db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS " + source.fts + " USING fts5("
+                    + prefixed("", source.columns)
+                    + ", content='" + source.table + "', content_rowid='id', tokenize='unicode61', prefix='2 3')");
+            }
+            return true;
+        } catch (SQLiteException e) {
+            OverlayLog.i("LeadSearch: FTS5 unavailable, using FTS4 ({})", e.getMessage());
+        }
+        try {
+            createFts4(db, "tokenize=unicode61, ");
+        } catch (SQLiteException e) {
+            createFts4(db, "");
+        }
+        return false;
+    }
+
+    private static void createFts4(SQLiteDatabase db, String tokenizer) {
+        for (Source source : SOURCES) {
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS " + source.fts + " USING fts4("
+                + "content=\"" + source.table + "\", " + tokenizer + "prefix=\"2,3\", "
+                + prefixed("", source.columns) + ")");
+        }
+    }
+
+    private static String[] fts5Triggers(Source source) {
+        String columns = prefixed("", source.columns);
+        String remove = "INSERT INTO " + source.fts + "(" + source.fts + ", rowid, " + columns + ") VALUES ('delete', old.id, "
+            + prefixed("old.", source.columns) + ");";
+        String add = "INSERT INTO " + source.fts + "(rowid, " + columns + ") VALUES (new.id, " + prefixed("new.", source.columns) + ");";
+        return new String[] {
+            "CREATE TRIGGER IF NOT EXISTS " + source.fts + "_ai AFTER INSERT ON " + source.table + " BEGIN " + add + " END",
+            "CREATE TRIGGER IF NOT EXISTS " + source.fts + "_ad AFTER DELETE ON " + source.table + " BEGIN " + remove + " END",
+            "CREATE TRIGGER IF NOT EXISTS " + source.fts + "_au AFTER UPDATE OF " + columns + " ON " + source.table
+                + " BEGIN " + remove + " " + add + " END",
+        };
+    }
+
+    // FTS4 external content reads the old terms from the base table, so removal runs BEFORE the change
+    private static String[] fts4Triggers(Source source) {
+        String columns = prefixed("", source.columns);
+        String remove = "DELETE FROM " + source.fts + " WHERE docid = old.id;";
+        String add = "INSERT INTO " + source.fts + "(docid, " + columns + ") VALUES (new.id, " + prefixed("new.", source.columns) + ");";
+        return new String[] {
+            "CREATE TRIGGER IF NOT EXISTS " + source.fts + "_ai AFTER INSERT ON " + source.table + " BEGIN " + add + " END",
+            "CREATE TRIGGER IF NOT EXISTS " + source.fts + "_bd BEFORE DELETE ON " + source.table + " BEGIN " + remove + " END",
+            "CREATE TRIGGER IF NOT EXISTS " + source.fts + "_bu BEFORE UPDATE OF " + columns + " ON " + source.table
+                + " BEGIN " + remove + " END",
+            "CREATE TRIGGER IF NOT EXISTS " + source.fts + "_au AFTER UPDATE OF " + columns + " ON " + source.table
+                + " BEGIN " + add + " END",
+        };
+    }
+
+    static LeadSearch open(SQLiteDatabase db) {
+        Cursor cursor = db.rawQuery("SELECT sql FROM sqlite_master WHERE name = 'leads_fts'", null);
+        try {
+            String sql = cursor.moveToFirst() ? cursor.getString(0) : "";
+            return new LeadSearch(sql != null && sql.toLowerCase().contains("fts5"));
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // "Ravi Ku" -> "ravi* ku*": every term must match, each as a prefix (type-ahead). Single
+    // characters match whole tokens only; the prefix indexes start at two. Only letters and digits
+    // survive, lowercased, so no FTS syntax (quotes, AND/OR/NOT, column filters) leaks in.
+    static String matchExpression(String query) {
+        StringBuilder match = new StringBuilder();
+        StringBuilder term = new StringBuilder();
+        int terms = 0;
+        for (int i = 0; i <= query.length() && terms < MAX_TERMS; i++) {
+            char c = i < query.length() ? query.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                term.append(Character.toLowerCase(c));
+            } else if (term.length() > 0) {
+                if (match.length() > 0) {
+                    match.append(' ');
+                }
+                match.append(term);
+                if (term.length() > 1) {
+                    match.append('*');
+                }
+                term.setLength(0);
+                terms++;
+            }
+        }
+        return match.toString();
+    }
+
+    // Best `limit` hits across leads, notes and call logs, ranked by bm25 with snippets
+    List<Hit> search(SQLiteDatabase db, String query, int limit) {
+        String match = matchExpression(query);
+        List<Hit> hits = new ArrayList<>();
+        if (match.isEmpty() || limit <= 0) {
+            return hits;
+        }
+        for (Source source : SOURCES) {
+            hits.addAll(fts5 ? searchFts5(db, source, match, limit) : searchFts4(db, source, match, limit));
+        }
+        Collections.sort(hits, (a, b) -> Double.compare(b.score, a.score));
+        if (hits.size() > limit) {
+            hits = new ArrayList<>(hits.subList(0, limit));
+        }
+        resolveOwners(db, hits);
+        return hits;
+    }
+
+    private List<Hit> searchFts5(SQLiteDatabase db, Source source, String match, int limit) {
+        // rank is bm25 with the per-column weights configured in create()
+        Cursor cursor = db.rawQuery(
+            "SELECT rowid, rank, snippet(" + source.fts + ", -1, '" + MARK_START + "', '" + MARK_END + "', '...', 10)"
+                + " FROM " + source.fts + " WHERE " + source.fts + " MATCH ? ORDER BY rank LIMIT " + limit,
+            new String[] {match});
+        try {
+            List<Hit> hits = new ArrayList<>(cursor.getCount());
+            while (cursor.moveToNext()) {
+                Hit hit = new Hit(source.type, cursor.getLong(0), -cursor.getDouble(1));
+                hit.snippet = cursor.getString(2);
+                hits.add(hit);
+            }
+            return hits;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private List<Hit> searchFts4(SQLiteDatabase db, Source source, String match, int limit) {
+        List<Hit> hits = new ArrayList<>();
+        Cursor cursor = db.rawQuery(
+            "SELECT docid, matchinfo(" + source.fts + ", 'pcnalx') FROM " + source.fts + " WHERE " + source.fts
+                + " MATCH ? ORDER BY docid DESC LIMIT " + FTS4_CANDIDATES,
+            new String[] {match});
+        try {
+            while (cursor.moveToNext()) {
+                hits.add(new Hit(source.type, cursor.getLong(0), bm25(cursor.getBlob(1), source.weights)));
+            }
+        } finally {
+            cursor.close();
+        }
+        Collections.sort(hits, (a, b) -> Double.compare(b.score, a.score));
+        if (hits.size() > limit) {
+            hits = new ArrayList<>(hits.subList(0, limit));
+        }
+        if (hits.isEmpty()) {
+            return hits;
+        }
+
+        // Snippets only for the hits that made the cut
+        Map<Long, Hit> byId = new HashMap<>();
+        for (Hit hit : hits) {
+            byId.put(hit.rowId, hit);
+        }
+        cursor = db.rawQuery(
+            "SELECT docid, snippet(" + source.fts + ", '" + MARK_START + "', '" + MARK_END + "', '...', -1, 10) FROM "
+                + source.fts + " WHERE " + source.fts + " MATCH ? AND docid IN (" + idList(byId.keySet()) + ")",
+            new String[] {match});
+        try {
+            while (cursor.moveToNext()) {
+                Hit hit = byId.get(cursor.getLong(0));
+                if (hit != null) {
+                    hit.snippet = cursor.getString(1);
+                }
+            }
+        } finally {
+            cursor.close();
+        }
+        return hits;
+    }
+
+    // Okapi BM25 from matchinfo 'pcnalx' (32-bit native-endian ints):
+    // p phrases, c columns, n rows, a[c] average tokens, l[c] tokens in this row,
+    // x[p][c] = {hits in this row, hits in all rows, rows with a hit}
+    static double bm25(byte[] matchinfo, double[] weights) {
+        ByteBuffer info = ByteBuffer.wrap(matchinfo).order(ByteOrder.nativeOrder());
+        int phrases = info.getInt(0);
+        int columns = info.getInt(4);
+        long rows = info.getInt(8) & 0xffffffffL;
+        int averageAt = 3;
+        int lengthAt = averageAt + columns;
+        int hitsAt = lengthAt + columns;
+
+        double score = 0;
+        for (int p = 0; p < phrases; p++) {
+            for (int c = 0; c < columns; c++) {
+                int x = hitsAt + 3 * (p * columns + c);
+                int frequency = info.getInt(4 * x);
+                if (frequency == 0) {
+                    continue;
+                }
+                int rowsWithHit = info.getInt(4 * (x + 2));
+                double idf = Math.max(1e-6, Math.log((rows - rowsWithHit + 0.5) / (rowsWithHit + 0.5)));
+                double average = Math.max(1, info.getInt(4 * (averageAt + c)));
+                double length = info.getInt(4 * (lengthAt + c));
+                double weight = c < weights.length ? weights[c] : 1.0;
+                score += weight * idf * (frequency * (BM25_K1 + 1))
+                    / (frequency + BM25_K1 * (1 - BM25_B + BM25_B * length / average));
+            }
+        }
+        return score;
+    }
+
+    // Fills in the lead (and client id) behind each hit
+    private static void resolveOwners(SQLiteDatabase db, List<Hit> hits) {
+        Map<Long, List<Hit>> notes = new HashMap<>();
+        Map<Long, List<Hit>> callLogs = new HashMap<>();
+        for (Hit hit : hits) {
+            hit.key = Long.toString(hit.rowId);
+            if (hit.type == TYPE_LEAD) {
+                hit.leadId = hit.rowId;
+            } else {
+                add(hit.type == TYPE_NOTE ? notes : callLogs, hit.rowId, hit);
+            }
+        }
+        if (!notes.isEmpty()) {
+            Cursor cursor = db.rawQuery(
+                "SELECT id, lead_id, client_id FROM notes WHERE id IN (" + idList(notes.keySet()) + ")", null);
+            try {
+                while (cursor.moveToNext()) {
+                    for (Hit hit : notes.get(cursor.getLong(0))) {
+                        hit.leadId = cursor.isNull(1) ? 0L : cursor.getLong(1);
+                        if (!cursor.isNull(2)) {
+                            hit.key = cursor.getString(2);
+                        }
+                    }
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+        if (!callLogs.isEmpty()) {
+            Cursor cursor = db.rawQuery(
+                "SELECT id, lead_id, client_id FROM call_logs WHERE id IN (" + idList(callLogs.keySet()) + ")", null);
+            try {
+                while (cursor.moveToNext()) {
+                    for (Hit hit : callLogs.get(cursor.getLong(0))) {
+                        hit.leadId = cursor.isNull(1) ? 0L : cursor.getLong(1);
+                        if (!cursor.isNull(2)) {
+                            hit.key = cursor.getString(2);
+                        }
+                    }
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+
+        Map<Long, List<Hit>> leads = new HashMap<>();
+        for (Hit hit : hits) {
+            if (hit.leadId > 0) {
+                add(leads, hit.leadId, hit);
+            }
+        }
+        if (leads.isEmpty()) {
+            return;
+        }
+        Cursor cursor = db.rawQuery("SELECT id, name FROM leads WHERE id IN (" + idList(leads.keySet()) + ")", null);
+        try {
+            while (cursor.moveToNext()) {
+                for (Hit hit : leads.get(cursor.getLong(0))) {
+                    hit.leadName = cursor.getString(1);
+                }
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private static void add(Map<Long, List<Hit>> map, long id, Hit hit) {
+        List<Hit> list = map.get(id);
+        if (list == null) {
+            list = new ArrayList<>(1);
+            map.put(id, list);
+        }
+        list.add(hit);
+    }
+
+    private static String idList(Iterable<Long> ids) {
+        StringBuilder list = new StringBuilder();
+        for (long id : ids) {
+            if (list.length() > 0) {
+                list.append(',');
+            }
+            list.append(id);
+        }
+        return list.toString();
+    }
+
+    private static String prefixed(String prefix, String[] columns) {
+        StringBuilder list = new StringBuilder();
+        for (String column : columns) {
+            if (list.length() > 0) {
+                list.append(", ");
+            }
+            list.append(prefix).append(column);
+        }
+        return list.toString();
+    }
+
+    private static String join(double[] values) {
+        StringBuilder list = new StringBuilder();
+        for (double value : values) {
+            if (list.length() > 0) {
+                list.append(", ");
+            }
+            list.append(value);
+        }
+        return list.toString();
+    }
+}
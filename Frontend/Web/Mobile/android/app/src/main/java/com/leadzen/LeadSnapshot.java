@@ -0,0 +1,270 @@
+package com.leadzen;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+
+// Compact, memory-mapped lead snapshot for the native layer.
+//
+// Layout (little endian):
+//   header  : magic, version, recordCount, recordSize, poolOffset, poolChars, writtenAt (long)
+//   records : recordCount fixed-width records sorted by packed phone key
+//             phoneKey (long), leadId (int), nameRef, companyRef, stageRef (int), lastContactAt (long)
+//   pool    : UTF-16 string pool, each entry is [length char][chars...]; refs are char offsets, -1 = null
+//
+// Lookups binary-search the mapped records directly, so reading a lead never parses or allocates.
+public final class LeadSnapshot {
+    public static final String FILE_NAME = "lead_snapshot.bin";
+
+    public static final int FIELD_NAME = 12;
+    public static final int FIELD_COMPANY = 16;
+    public static final int FIELD_STAGE = 20;
+
+    static final int MAGIC = 0x4E535A4C; // "LZSN"
+    static final int VERSION = 2; // 2: keys from PhoneNormalizer
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_SIZE = 32;
+    private static final int OFFSET_LEAD_ID = 8;
+    private static final int OFFSET_LAST_CONTACT = 24;
+    private static final int NULL_REF = -1;
+
+    private static final Object sharedLock = new Object();
+    private static LeadSnapshot shared;
+    private static long sharedModified;
+
+    private final ByteBuffer buffer;
+    private final int recordCount;
+    private final int poolOffset;
+    private final long writtenAt;
+
+    private LeadSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a lead snapshot");
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported lead snapshot version " + version);
+        }
+        recordCount = buffer.getInt(8);
+        int recordSize = buffer.getInt(12);
+        poolOffset = buffer.getInt(16);
+        int poolChars = buffer.getInt(20);
+        writtenAt = buffer.getLong(24);
+        if (recordSize != RECORD_SIZE
+            || poolOffset != HEADER_SIZE + recordCount * RECORD_SIZE
+            || (long) poolOffset + poolChars * 2L > buffer.capacity()) {
+            throw new IOException("Corrupt lead snapshot header");
+        }
+    }
+
+    public static LeadSnapshot open(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new LeadSnapshot(mapped);
+        }
+    }
+
+    // Cached reader for the app's snapshot file; reopened only when the file was replaced.
+    // Returns null when no snapshot has been written yet.
+    public static LeadSnapshot shared(File filesDir) {
+        File file = new File(filesDir, FILE_NAME);
+        synchronized (sharedLock) {
+            long modified = file.lastModified();
+            if (modified == 0L) {
+                shared = null;
+                return null;
+            }
+            if (shared == null || modified != sharedModified) {
+                try {
+                    shared = open(file);
+                    sharedModified = modified;
+                } catch (IOException e) {
+                    OverlayLog.e("❌ Failed to open lead snapshot", e);
+                    shared = null;
+                }
+            }
+            return shared;
+        }
+    }
+
+    static void invalidateShared() {
+        synchronized (sharedLock) {
+            shared = null;
+            sharedModified = 0L;
+        }
+    }
+
+    public int size() {
+        return recordCount;
+    }
+
+    public long writtenAt() {
+        return writtenAt;
+    }
+
+    // Binary search over the mapped records. Returns the record index or -1.
+    public int find(long phoneKey) {
+        int low = 0;
+        int high = recordCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long key = buffer.getLong(HEADER_SIZE + mid * RECORD_SIZE);
+            if (key < phoneKey) {
+                low = mid + 1;
+            } else if (key > phoneKey) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    public int findByPhone(String phoneNumber) {
+        long key = CallerIdIndex.packPhone(phoneNumber);
+        return key == 0L ? -1 : find(key);
+    }
+
+    public int leadId(int record) {
+        return buffer.getInt(HEADER_SIZE + record * RECORD_SIZE + OFFSET_LEAD_ID);
+    }
+
+    public long lastContactAt(int record) {
+        return buffer.getLong(HEADER_SIZE + record * RECORD_SIZE + OFFSET_LAST_CONTACT);
+    }
+
+    // Length of a string field in chars, or -1 when the field is null
+    public int stringLength(int record, int field) {
+        int ref = buffer.getInt(HEADER_SIZE + record * RECORD_SIZE + field);
+        return ref == NULL_REF ? -1 : buffer.getChar(poolOffset + ref * 2);
+    }
+
+    // Copies a string field into dst without allocating. Returns the number of chars copied or -1 for null.
+    public int copyString(int record, int field, char[] dst) {
+        int ref = buffer.getInt(HEADER_SIZE + record * RECORD_SIZE + field);
+        if (ref == NULL_REF) {
+            return -1;
+        }
+        int position = poolOffset + ref * 2;
+        int length = Math.min(buffer.getChar(position), dst.length);
+        for (int i = 0; i < length; i++) {
+            dst[i] = buffer.getChar(position + 2 + i * 2);
+        }
+        return length;
+    }
+
+    public String readString(int record, int field) {
+        int length = stringLength(record, field);
+        if (length < 0) {
+            return null;
+        }
+        char[] chars = new char[length];
+        copyString(record, field, chars);
+        return new String(chars);
+    }
+
+    // Writes a snapshot from parallel arrays. The file is written to a temp file, synced,
+    // and renamed over the old snapshot so readers never see a partial file.
+    public static int write(File filesDir, String[] phones, int[] leadIds, String[] names,
+                            String[] companies, String[] stages, long[] lastContacts) throws IOException {
+        int count = phones.length;
+        long[] keys = new long[count];
+        LongIntMap sourceByKey = new LongIntMap(count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            long key = CallerIdIndex.packPhone(phones[i]);
+            if (key != 0L && sourceByKey.putIfAbsent(key, i)) {
+                keys[unique++] = key;
+            }
+        }
+        keys = Arrays.copyOf(keys, unique);
+        Arrays.sort(keys);
+
+        StringPool pool = new StringPool();
+        int[] nameRefs = new int[unique];
+        int[] companyRefs = new int[unique];
+        int[] stageRefs = new int[unique];
+        for (int r = 0; r < unique; r++) {
+            int source = sourceByKey.get(keys[r], -1);
+            nameRefs[r] = pool.add(names[source]);
+            companyRefs[r] = pool.add(companies[source]);
+            stageRefs[r] = pool.add(stages[source]);
+        }
+
+        int poolOffset = HEADER_SIZE + unique * RECORD_SIZE;
+        ByteBuffer out = ByteBuffer.allocate(poolOffset + pool.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putInt(VERSION).putInt(unique).putInt(RECORD_SIZE)
+            .putInt(poolOffset).putInt(pool.length).putLong(System.currentTimeMillis());
+        for (int r = 0; r < unique; r++) {
+            int source = sourceByKey.get(keys[r], -1);
+            out.putLong(keys[r]);
+            out.putInt(leadIds[source]);
+            out.putInt(nameRefs[r]);
+            out.putInt(companyRefs[r]);
+            out.putInt(stageRefs[r]);
+            out.putLong(lastContacts[source]);
+        }
+        for (int i = 0; i < pool.length; i++) {
+            out.putChar(pool.chars[i]);
+        }
+        out.flip();
+
+        File target = new File(filesDir, FILE_NAME);
+        File temp = new File(filesDir, FILE_NAME + ".tmp");
+        try (RandomAccessFile raf = new RandomAccessFile(temp, "rw");
+             FileChannel channel = raf.getChannel()) {
+            raf.setLength(0);
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            channel.force(true);
+        }
+        if (!temp.renameTo(target)) {
+            temp.delete();
+            throw new IOException("Failed to replace lead snapshot");
+        }
+        invalidateShared();
+        return unique;
+    }
+
+    // Deduplicating UTF-16 pool; pipeline stages and companies repeat heavily across leads
+    private static final class StringPool {
+        char[] chars = new char[1024];
+        int length;
+        private final HashMap<String, Integer> refs = new HashMap<>();
+
+        int add(String value) {
+            if (value == null) {
+                return NULL_REF;
+            }
+            if (value.length() > Character.MAX_VALUE) {
+                value = value.substring(0, Character.MAX_VALUE);
+            }
+            Integer existing = refs.get(value);
+            if (existing != null) {
+                return existing;
+            }
+            int ref = length;
+            ensureCapacity(length + 1 + value.length());
+            chars[length++] = (char) value.length();
+            value.getChars(0, value.length(), chars, length);
+            length += value.length();
+            refs.put(value, ref);
+            return ref;
+        }
+
+        private void ensureCapacity(int needed) {
+            if (needed > chars.length) {
+                chars = Arrays.copyOf(chars, Math.max(needed, chars.length * 2));
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.leadzen;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableType;
+import com.facebook.react.bridge.WritableMap;
+import androidx.annotation.NonNull;
+import java.io.File;
+
+public class LeadSnapshotModule extends ReactContextBaseJavaModule {
+    private final ReactApplicationContext reactContext;
+
+    public LeadSnapshotModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+        this.reactContext = reactContext;
+    }
+
+    @NonNull
+    @Override
+    public String getName() {
+        return "LeadSnapshotModule";
+    }
+
+    // Writes the lead snapshot from columnar arrays:
+    // { phones, ids, names, companies, stages, lastContacts } - all the same length
+    @ReactMethod
+    public void writeSnapshot(ReadableMap columns, Promise promise) {
+        try {
+            ReadableArray phones = columns.getArray("phones");
+            int count = phones.size();
+            String[] phoneArray = readStrings(phones, count);
+            int[] idArray = readIds(columns.getArray("ids"), count);
+            String[] nameArray = readStrings(columns.getArray("names"), count);
+            String[] companyArray = readStrings(columns.getArray("companies"), count);
+            String[] stageArray = readStrings(columns.getArray("stages"), count);
+            long[] lastContactArray = readTimestamps(columns.getArray("lastContacts"), count);
+
+            long startNanos = System.nanoTime();
+            int written = LeadSnapshot.write(reactContext.getFilesDir(), phoneArray, idArray, nameArray,
+                companyArray, stageArray, lastContactArray);
+            if (OverlayLog.DEBUG) {
+                OverlayLog.d("✅ Lead snapshot written: {} leads in {}ms", written,
+                    (System.nanoTime() - startNanos) / 1000000);
+            }
+            promise.resolve(written);
+        } catch (Exception e) {
+            promise.reject("ERROR", "Failed to write lead snapshot: " + e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    public void lookupLead(String phoneNumber, Promise promise) {
+        try {
+            LeadSnapshot snapshot = LeadSnapshot.shared(reactContext.getFilesDir());
+            int record = snapshot != null ? snapshot.findByPhone(phoneNumber) : -1;
+            if (record < 0) {
+                promise.resolve(null);
+                return;
+            }
+            WritableMap lead = Arguments.createMap();
+            lead.putString("id", String.valueOf(snapshot.leadId(record)));
+            lead.putString("name", snapshot.readString(record, LeadSnapshot.FIELD_NAME));
+            lead.putString("company", snapshot.readString(record, LeadSnapshot.FIELD_COMPANY));
+            lead.putString("stage", snapshot.readString(record, LeadSnapshot.FIELD_STAGE));
+            long lastContact = snapshot.lastContactAt(record);
+            if (lastContact > 0) {
+                lead.putDouble("lastContactAt", lastContact);
+            } else {
+                lead.putNull("lastContactAt");
+            }
+            promise.resolve(lead);
+        } catch (Exception e) {
+            promise.reject("ERROR", "Failed to look up lead: " + e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    public void getSnapshotInfo(Promise promise) {
+        try {
+            File file = new File(reactContext.getFilesDir(), LeadSnapshot.FILE_NAME);
+            LeadSnapshot snapshot = LeadSnapshot.shared(reactContext.getFilesDir());
+            WritableMap info = Arguments.createMap();
+            info.putBoolean("exists", snapshot != null);
+            info.putInt("version", LeadSnapshot.VERSION);
+            info.putInt("leadCount", snapshot != null ? snapshot.size() : 0);
+            info.putDouble("sizeBytes", file.length());
+            info.putDouble("writtenAt", snapshot != null ? snapshot.writtenAt() : 0);
+            promise.resolve(info);
+        } catch (Exception e) {
+            promise.reject("ERROR", "Failed to read snapshot info: " + e.getMessage());
+        }
+    }
+
+    private static String[] readStrings(ReadableArray array, int count) {
+        String[] values = new String[count];
+        if (array == null) {
+            return values;
+        }
+        for (int i = 0; i < count && i < array.size(); i++) {
+            values[i] = array.isNull(i) ? null : array.getString(i);
+        }
+        return values;
+    }
+
+    private static int[] readIds(ReadableArray array, int count) {
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = -1;
+            if (array == null || i >= array.size() || array.isNull(i)) {
+                continue;
+            }
+            if (array.getType(i) == ReadableType.Number) {
+                values[i] = array.getInt(i);
+            } else {
+                try {
+                    values[i] = Integer.parseInt(array.getString(i));
+                } catch (NumberFormatException e) {
+                    // Non-numeric ids stay -1
+                }
+            }
+        }
+        return values;
+    }
+
+    private static long[] readTimestamps(ReadableArray array, int count) {
+        long[] values = new long[count];
+        if (array == null) {
+            return values;
+        }
+        for (int i = 0; i < count && i < array.size(); i++) {
+            values[i] = array.isNull(i) ? 0L : (long) array.getDouble(i);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,836 @@
+package com.leadzen;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// Native lead store over leadzen_native.db (see LeadStoreSchema).
+//
+// All writes go through one writer thread. Batches that arrive within the group-commit window
+// share a single transaction, so a burst of small updates (e.g. dragging cards in the pipeline)
+// costs one WAL commit instead of one per update. Each batch is atomic on its own: when a shared
+// transaction fails, its batches are retried one transaction each so only the bad batch fails
+// (GroupCommit).
+// Compiled statements are cached per SQL string on the writer thread.
+// Reads may run on any thread; WAL lets them proceed while the writer commits.
+final class LeadStore {
+    private static final String TAG = "LeadStore";
+    private static final int MAX_CACHED_STATEMENTS = 32;
+    private static final int MAX_GROUP_MUTATIONS = 512;
+    private static final long DEFAULT_GROUP_COMMIT_WINDOW_MS = 4;
+    private static final int COL_STAGE = LeadStoreSchema.columnIndex("status");
+
+    // EXEC statements that write the leads table (imports, stage moves, call-log touches, restores)
+    private static final Pattern LEADS_WRITE = Pattern.compile(
+        "\\s*(INSERT(\\s+OR\\s+\\w+)?\\s+INTO|UPDATE(\\s+OR\\s+\\w+)?|DELETE\\s+FROM)\\s+leads\\b",
+        Pattern.CASE_INSENSITIVE);
+
+    static final class Mutation {
+        static final int INSERT = 1;
+        static final int UPDATE = 2;
+        static final int DELETE = 3;
+        static final int EXEC = 4;
+        static final int RANK = 5;
+        static final int REBALANCE = 6;
+
+        final int kind;
+        final long id;             // <= 0 on insert lets SQLite assign one
+        final Object[] values;     // indexed like LeadStoreSchema.LEAD_COLUMNS; EXEC: the bind args
+        final long presentMask;    // bit i set when values[i] was supplied (null clears the column)
+        final String sql;          // EXEC only
+
+        Mutation(int kind, long id, Object[] values, long presentMask) {
+            this(kind, id, values, presentMask, null);
+        }
+
+        private Mutation(int kind, long id, Object[] values, long presentMask, String sql) {
+            this.kind = kind;
+            this.id = id;
+            this.values = values;
+            this.presentMask = presentMask;
+            this.sql = sql;
+        }
+
+        static Mutation delete(long id) {
+            return new Mutation(DELETE, id, null, 0L);
+        }
+
+        // A statement on another table (notes, call_logs) committed with the lead writes.
+        // Result: the row id for INSERTs, rows changed otherwise.
+        static Mutation exec(String sql, Object... args) {
+            return new Mutation(EXEC, 0L, args, 0L, sql);
+        }
+
+        // Moves the lead into `stage` right after afterId (<= 0: at the top), see LeadRanks.
+        // Result: rows changed.
+        static Mutation rank(long id, String stage, long afterId) {
+            return new Mutation(RANK, id, new Object[] {stage, afterId}, 0L);
+        }
+
+        static Mutation rebalance(String stage, long around) {
+            return new Mutation(REBALANCE, 0L, new Object[] {stage, around}, 0L);
+        }
+
+        // A rebalance only respaces ranks
+        boolean writesLeads() {
+            return kind == EXEC ? LEADS_WRITE.matcher(sql).lookingAt() : kind != REBALANCE;
+        }
+    }
+
+    interface CommitListener {
+        // Writer thread, after every committed group; must only hand work off
+        void onCommit(boolean leadsChanged);
+    }
+
+    interface Callback {
+        // Insert: new row id; update / delete: rows changed
+        void onSuccess(long[] results);
+
+        void onError(Exception error);
+    }
+
+    private static final class Batch {
+        final List<Mutation> mutations;
+        final Callback callback;
+        final long queuedAtUs = MetricsRegistry.nowUs();
+        final boolean writesLeads;
+        long[] results;
+
+        Batch(List<Mutation> mutations, Callback callback) {
+            this.mutations = mutations;
+            this.callback = callback;
+            boolean leads = false;
+            for (int i = 0; i < mutations.size() && !leads; i++) {
+                leads = mutations.get(i).writesLeads();
+            }
+            this.writesLeads = leads;
+        }
+    }
+
+    private static final Batch SHUTDOWN = new Batch(new ArrayList<>(), null);
+    private static final Callback REBALANCE_CALLBACK = new Callback() {
+        @Override
+        public void onSuccess(long[] results) {
+        }
+
+        @Override
+        public void onError(Exception error) {
+            // The ranks stay tight; the next move at that spot queues another rebalance
+            OverlayLog.e(TAG + ": rank rebalance failed: {}", error.getMessage());
+        }
+    };
+    private static volatile LeadStore shared;
+
+    private final Helper helper;
+    private final LinkedBlockingQueue<Batch> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private final LeadRanks ranks;
+    private volatile long groupCommitWindowMs = DEFAULT_GROUP_COMMIT_WINDOW_MS;
+    private volatile LeadSearch search;
+    private final List<CommitListener> commitListeners = new CopyOnWriteArrayList<>();
+
+    // Writer-thread state
+    private int lastGroupBatches;
+    private final LinkedHashMap<String, SQLiteStatement> statements =
+        new LinkedHashMap<String, SQLiteStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SQLiteStatement> eldest) {
+                if (size() > MAX_CACHED_STATEMENTS) {
+                    eldest.getValue().close();
+                    return true;
+                }
+                return false;
+            }
+        };
+    private final GroupCommit.Outcome<Batch> groupOutcome = new GroupCommit.Outcome<Batch>() {
+        @Override
+        public void committed(List<Batch> batches) {
+            long endUs = MetricsRegistry.nowUs();
+            int size = 0;
+            boolean leadsChanged = false;
+            for (Batch batch : batches) {
+                size += batch.mutations.size();
+                leadsChanged |= batch.writesLeads;
+            }
+            // Listeners first: once apply() returns, the follow-up work is already queued
+            for (CommitListener listener : commitListeners) {
+                listener.onCommit(leadsChanged);
+            }
+            for (Batch batch : batches) {
+                MetricsRegistry.record(MetricsRegistry.DB_WRITE, endUs - batch.queuedAtUs);
+                batch.callback.onSuccess(batch.results);
+            }
+            MetricsRegistry.add(MetricsRegistry.DB_MUTATIONS, size);
+            MetricsRegistry.set(MetricsRegistry.DB_GROUP_MUTATIONS, size);
+            mutationCount += size;
+            batchCount += batches.size();
+            maxGroupSize = Math.max(maxGroupSize, size);
+        }
+
+        @Override
+        public void failed(Batch batch, RuntimeException error) {
+            batch.callback.onError(error);
+        }
+    };
+
+    // Stats, written by the writer thread
+    private volatile long mutationCount;
+    private volatile long batchCount;
+    private volatile long transactionCount;
+    private volatile long retriedGroups;
+    private volatile long maxGroupSize;
+    private volatile long statementHits;
+    private volatile long statementMisses;
+
+    static LeadStore shared(Context context) {
+        LeadStore store = shared;
+        if (store == null) {
+            boolean created = false;
+            synchronized (LeadStore.class) {
+                store = shared;
+                if (store == null) {
+                    store = new LeadStore(context.getApplicationContext(), LeadStoreSchema.DATABASE_NAME);
+                    shared = store;
+                    created = true;
+                }
+            }
+            if (created) {
+                // Reminders and the caller index follow the store's rows from its first use on; the
+                // scheduler opens the database and loads its wheel on its own thread. Outside the
+                // lock, as both take their own
+                ReminderScheduler.shared(context);
+                CallerBookSync.shared(context);
+            }
+        }
+        return store;
+    }
+
+    LeadStore(Context context, String databaseName) {
+        this.helper = new Helper(context, databaseName);
+        this.ranks = new LeadRanks(this::statement, (stage, around) ->
+            submit(java.util.Collections.singletonList(Mutation.rebalance(stage, around)), REBALANCE_CALLBACK));
+        this.writer = new Thread(this::writerLoop, "LeadStoreWriter");
+        this.writer.start();
+    }
+
+    SQLiteDatabase database() {
+        return helper.getWritableDatabase();
+    }
+
+    void setGroupCommitWindowMs(long windowMs) {
+        groupCommitWindowMs = Math.max(0, windowMs);
+    }
+
+    long groupCommitWindowMs() {
+        return groupCommitWindowMs;
+    }
+
+    void addCommitListener(CommitListener listener) {
+        commitListeners.add(listener);
+    }
+
+    void removeCommitListener(CommitListener listener) {
+        commitListeners.remove(listener);
+    }
+
+    // Queues a batch; it commits atomically, possibly in a transaction shared with other batches
+    void submit(List<Mutation> mutations, Callback callback) {
+        queue.add(new Batch(mutations, callback));
+    }
+
+    // Blocking submit for background threads; throws the batch's error
+    long[] apply(List<Mutation> mutations) throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        long[][] results = new long[1][];
+        Exception[] failure = new Exception[1];
+        submit(mutations, new Callback() {
+            @Override
+            public void onSuccess(long[] batchResults) {
+                results[0] = batchResults;
+                done.countDown();
+            }
+
+            @Override
+            public void onError(Exception error) {
+                failure[0] = error;
+                done.countDown();
+            }
+        });
+        done.await();
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        return results[0];
+    }
+
+    // Stops the writer after the queued batches and closes the database
+    void close() {
+        queue.add(SHUTDOWN);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        helper.close();
+        if (shared == this) {
+            shared = null;
+        }
+    }
+
+    private void writerLoop() {
+        ArrayList<Batch> group = new ArrayList<>();
+        try {
+            while (true) {
+                Batch first = queue.take();
+                if (first == SHUTDOWN) {
+                    break;
+                }
+                group.add(first);
+                int mutations = first.mutations.size();
+                boolean stop = false;
+                // Only hold the commit open during a burst; an isolated write commits right away
+                boolean burst = !queue.isEmpty() || lastGroupBatches > 1;
+                long deadline = System.nanoTime() + (burst ? TimeUnit.MILLISECONDS.toNanos(groupCommitWindowMs) : 0);
+                while (mutations < MAX_GROUP_MUTATIONS) {
+                    long remaining = deadline - System.nanoTime();
+                    Batch next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    if (next == SHUTDOWN) {
+                        stop = true;
+                        break;
+                    }
+                    group.add(next);
+                    mutations += next.mutations.size();
+                }
+                lastGroupBatches = group.size();
+                MetricsRegistry.set(MetricsRegistry.DB_QUEUE_DEPTH, queue.size());
+                commitGroup(group);
+                group.clear();
+                if (stop) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            OverlayLog.w("{}: writer interrupted", TAG);
+        } finally {
+            for (SQLiteStatement statement : statements.values()) {
+                statement.close();
+            }
+            statements.clear();
+        }
+    }
+
+    private void commitGroup(List<Batch> group) {
+        SQLiteDatabase db;
+        try {
+            db = helper.getWritableDatabase();
+        } catch (RuntimeException e) {
+            for (Batch batch : group) {
+                batch.callback.onError(e);
+            }
+            return;
+        }
+        if (GroupCommit.commit(group, batches -> timedTransaction(db, batches), groupOutcome)) {
+            retriedGroups++;
+        }
+    }
+
+    private RuntimeException timedTransaction(SQLiteDatabase db, List<Batch> batches) {
+        long startUs = MetricsRegistry.nowUs();
+        RuntimeException failure = runInTransaction(db, batches);
+        MetricsRegistry.record(MetricsRegistry.DB_COMMIT, MetricsRegistry.nowUs() - startUs);
+        MetricsRegistry.increment(MetricsRegistry.DB_TRANSACTIONS);
+        if (failure != null) {
+            MetricsRegistry.increment(MetricsRegistry.DB_FAILED_TRANSACTIONS);
+        }
+        return failure;
+    }
+
+    private RuntimeException runInTransaction(SQLiteDatabase db, List<Batch> group) {
+        db.beginTransactionNonExclusive();
+        try {
+            for (Batch batch : group) {
+                long[] results = new long[batch.mutations.size()];
+                for (int i = 0; i < results.length; i++) {
+                    results[i] = execute(batch.mutations.get(i));
+                }
+                batch.results = results;
+            }
+            db.setTransactionSuccessful();
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        } finally {
+            db.endTransaction();
+            transactionCount++;
+        }
+    }
+
+    private long execute(Mutation mutation) {
+        long now = System.currentTimeMillis();
+        switch (mutation.kind) {
+            case Mutation.INSERT:
+                return executeInsert(mutation, now);
+            case Mutation.UPDATE:
+                return executeUpdate(mutation, now);
+            case Mutation.DELETE: {
+                SQLiteStatement statement = statement("DELETE FROM leads WHERE id = ?");
+                statement.bindLong(1, mutation.id);
+                return statement.executeUpdateDelete();
+            }
+            case Mutation.EXEC: {
+                SQLiteStatement statement = statement(mutation.sql);
+                for (int i = 0; i < mutation.values.length; i++) {
+                    bind(statement, i + 1, mutation.values[i]);
+                }
+                return mutation.sql.startsWith("INSERT") ? statement.executeInsert() : statement.executeUpdateDelete();
+            }
+            case Mutation.RANK:
+                return ranks.move(helper.getWritableDatabase(), mutation.id, (String) mutation.values[0],
+                    (Long) mutation.values[1], now);
+            case Mutation.REBALANCE:
+                return ranks.rebalance(helper.getWritableDatabase(), (String) mutation.values[0], (Long) mutation.values[1]);
+            default:
+                throw new IllegalArgumentException("Unknown mutation kind " + mutation.kind);
+        }
+    }
+
+    // Missing timestamps default to now; other absent columns take their schema defaults
+    private long executeInsert(Mutation mutation, long now) {
+        long mask = mutation.presentMask | bit(LeadStoreSchema.COL_CREATED_AT) | bit(LeadStoreSchema.COL_UPDATED_AT);
+        StringBuilder sql = new StringBuilder("INSERT INTO leads (");
+        StringBuilder placeholders = new StringBuilder();
+        if (mutation.id > 0) {
+            sql.append("id");
+            placeholders.append('?');
+        }
+        for (int i = 0; i < LeadStoreSchema.LEAD_COLUMNS.length; i++) {
+            if ((mask & bit(i)) != 0) {
+                if (placeholders.length() > 0) {
+                    sql.append(", ");
+                    placeholders.append(", ");
+                }
+                sql.append(LeadStoreSchema.LEAD_COLUMNS[i].name);
+                placeholders.append('?');
+            }
+        }
+        sql.append(") VALUES (").append(placeholders).append(')');
+
+        SQLiteStatement statement = statement(sql.toString());
+        int index = 1;
+        if (mutation.id > 0) {
+            statement.bindLong(index++, mutation.id);
+        }
+        for (int i = 0; i < LeadStoreSchema.LEAD_COLUMNS.length; i++) {
+            if ((mask & bit(i)) != 0) {
+                Object value = (mutation.presentMask & bit(i)) != 0 ? mutation.values[i] : null;
+                if (value == null && (i == LeadStoreSchema.COL_CREATED_AT || i == LeadStoreSchema.COL_UPDATED_AT)) {
+                    value = now;
+                }
+                bind(statement, index++, value);
+            }
+        }
+        return statement.executeInsert();
+    }
+
+    // updated_at is always stamped with the write time, like AsyncStorageService.updateLead.
+    // A lead moved to another stage goes to the top of that column.
+    private long executeUpdate(Mutation mutation, long now) {
+        long mask = mutation.presentMask | bit(LeadStoreSchema.COL_UPDATED_AT);
+        StringBuilder sql = new StringBuilder("UPDATE leads SET ");
+        boolean first = true;
+        for (int i = 0; i < LeadStoreSchema.LEAD_COLUMNS.length; i++) {
+            if ((mask & bit(i)) != 0) {
+                if (!first) {
+                    sql.append(", ");
+                }
+                sql.append(LeadStoreSchema.LEAD_COLUMNS[i].name).append(" = ?");
+                first = false;
+            }
+        }
+        boolean stageChange = (mask & bit(COL_STAGE)) != 0;
+        if (stageChange) {
+            sql.append(", ").append(LeadRanks.TOP_ON_STAGE_CHANGE_SQL);
+        }
+        sql.append(" WHERE id = ?");
+
+        SQLiteStatement statement = statement(sql.toString());
+        int index = 1;
+        for (int i = 0; i < LeadStoreSchema.LEAD_COLUMNS.length; i++) {
+            if ((mask & bit(i)) != 0) {
+                bind(statement, index++, i == LeadStoreSchema.COL_UPDATED_AT ? (Object) now : mutation.values[i]);
+            }
+        }
+        if (stageChange) {
+            bind(statement, index++, mutation.values[COL_STAGE]);
+            bind(statement, index++, mutation.values[COL_STAGE]);
+        }
+        statement.bindLong(index, mutation.id);
+        return statement.executeUpdateDelete();
+    }
+
+    private SQLiteStatement statement(String sql) {
+        SQLiteStatement statement = statements.get(sql);
+        if (statement == null) {
+            statementMisses++;
+            statement = helper.getWritableDatabase().compileStatement(sql);
+            statements.put(sql, statement);
+        } else {
+            statementHits++;
+            statement.clearBindings();
+        }
+        return statement;
+    }
+
+    private static void bind(SQLiteStatement statement, int index, Object value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else if (value instanceof Long || value instanceof Integer) {
+            statement.bindLong(index, ((Number) value).longValue());
+        } else if (value instanceof Number) {
+            statement.bindDouble(index, ((Number) value).doubleValue());
+        } else {
+            statement.bindString(index, value.toString());
+        }
+    }
+
+    static long bit(int column) {
+        return 1L << column;
+    }
+
+    // Reads
+
+    // Ranked hits across leads, notes and call logs; see LeadSearch
+    List<LeadSearch.Hit> search(String query, int limit) {
+        SQLiteDatabase db = helper.getReadableDatabase();
+        LeadSearch current = search;
+        if (current == null) {
+            current = LeadSearch.open(db);
+            search = current;
+        }
+        return current.search(db, query, limit);
+    }
+
+    // The leads behind the best `limit` search hits, each once, in hit order; a lead also matches
+    // through its notes and call notes. One read for all of them, in the getLead row form.
+    List<Object[]> searchLeads(String query, int limit) {
+        LinkedHashMap<Long, Object[]> leads = new LinkedHashMap<>();
+        for (LeadSearch.Hit hit : search(query, limit)) {
+            if (hit.leadId > 0) {
+                leads.put(hit.leadId, null);
+            }
+        }
+        if (leads.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(LeadStoreSchema.LEAD_SELECT_LIST)
+            .append(" FROM leads WHERE id IN (");
+        String[] args = new String[leads.size()];
+        int i = 0;
+        for (Long id : leads.keySet()) {
+            sql.append(i == 0 ? "?" : ", ?");
+            args[i++] = Long.toString(id);
+        }
+        Cursor cursor = helper.getReadableDatabase().rawQuery(sql.append(')').toString(), args);
+        try {
+            while (cursor.moveToNext()) {
+                leads.put(cursor.getLong(0), readLead(cursor));
+            }
+        } finally {
+            cursor.close();
+        }
+        List<Object[]> rows = new ArrayList<>(leads.size());
+        for (Object[] row : leads.values()) {
+            // A hit can outlive its lead until the index catches up
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    // From the per-stage counts the aggregate triggers keep (LeadAggregates), not a scan of leads
+    int count() {
+        Cursor cursor = helper.getReadableDatabase().rawQuery("SELECT IFNULL(SUM(lead_count), 0) FROM agg_stage", null);
+        try {
+            return cursor.moveToFirst() ? cursor.getInt(0) : 0;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // Dashboard totals from the summary tables. If the device's UTC offset moved since the day
+    // buckets were built, rebuilds them first (a writer batch). Background threads only.
+    LeadAggregates.Snapshot aggregates() throws Exception {
+        LeadAggregates.Snapshot snapshot = LeadAggregates.read(helper.getReadableDatabase());
+        int offset = LeadAggregates.currentOffsetMinutes();
+        if (snapshot.offsetMinutes != offset) {
+            OverlayLog.i("📊 UTC offset changed to {} min, rebuilding aggregates", offset);
+            apply(LeadAggregates.rebuild(offset));
+            snapshot = LeadAggregates.read(helper.getReadableDatabase());
+        }
+        return snapshot;
+    }
+
+    // Packed phone (CallerIdIndex.packPhone) -> lead id for every primary and secondary lead number,
+    // sized for `extra` more keys
+    LongIntMap leadIdsByPhone(int extra) {
+        Cursor cursor = helper.getReadableDatabase().rawQuery("SELECT id, phone_primary, phone_secondary FROM leads", null);
+        try {
+            LongIntMap map = new LongIntMap(cursor.getCount() * 2 + Math.max(0, extra));
+            while (cursor.moveToNext()) {
+                int id = (int) cursor.getLong(0);
+                for (int column = 1; column <= 2; column++) {
+                    long packed = cursor.isNull(column) ? 0L : CallerIdIndex.packPhone(cursor.getString(column));
+                    if (packed != 0L) {
+                        map.putIfAbsent(packed, id);
+                    }
+                }
+            }
+            return map;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // Caller-ID columns of every lead with a primary number, as parallel arrays for
+    // CallerIdIndex.build and LeadSnapshot.write. Newest first like getLeads, so the newest lead
+    // wins a shared number as it did when JS pushed the book.
+    static final class CallerBook {
+        final String[] phones;
+        final int[] ids;
+        final String[] names;
+        final String[] companies;
+        final String[] stages;
+        final long[] lastContacts;
+
+        CallerBook(int count) {
+            phones = new String[count];
+            ids = new int[count];
+            names = new String[count];
+            companies = new String[count];
+            stages = new String[count];
+            lastContacts = new long[count];
+        }
+    }
+
+    CallerBook callerBook() {
+        Cursor cursor = helper.getReadableDatabase().rawQuery(
+            "SELECT id, phone_primary, name, company, pipeline_stage, last_contact_at FROM leads"
+                + " WHERE phone_primary IS NOT NULL AND phone_primary != '' ORDER BY created_at DESC, id DESC",
+            null);
+        try {
+            CallerBook book = new CallerBook(cursor.getCount());
+            for (int i = 0; cursor.moveToNext(); i++) {
+                book.ids[i] = (int) cursor.getLong(0);
+                book.phones[i] = cursor.getString(1);
+                book.names[i] = cursor.getString(2);
+                book.companies[i] = cursor.isNull(3) ? null : cursor.getString(3);
+                book.stages[i] = cursor.isNull(4) ? null : cursor.getString(4);
+                book.lastContacts[i] = cursor.isNull(5) ? 0L : cursor.getLong(5);
+            }
+            return book;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // Searchable columns of every lead for T9Index.build: { ids, names, companies, phones }
+    String[][] t9Book() {
+        Cursor cursor = helper.getReadableDatabase().rawQuery(
+            "SELECT id, name, company, phone_primary FROM leads", null);
+        try {
+            int count = cursor.getCount();
+            String[][] columns = {new String[count], new String[count], new String[count], new String[count]};
+            for (int i = 0; cursor.moveToNext(); i++) {
+                columns[0][i] = Long.toString(cursor.getLong(0));
+                for (int column = 1; column < 4; column++) {
+                    columns[column][i] = cursor.isNull(column) ? null : cursor.getString(column);
+                }
+            }
+            return columns;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // Row values for the lead, indexed like LEAD_COLUMNS with the id appended last; null if missing
+    Object[] getLead(long id) {
+        Cursor cursor = helper.getReadableDatabase().rawQuery(
+            "SELECT " + LeadStoreSchema.LEAD_SELECT_LIST + " FROM leads WHERE id = ?",
+            new String[] {Long.toString(id)});
+        try {
+            return cursor.moveToFirst() ? readLead(cursor) : null;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // Newest first, like AsyncStorageService.getLeads
+    List<Object[]> getLeads(int limit, int offset) {
+        Cursor cursor = helper.getReadableDatabase().rawQuery(
+            "SELECT " + LeadStoreSchema.LEAD_SELECT_LIST + " FROM leads ORDER BY created_at DESC, id DESC LIMIT " + limit + " OFFSET " + offset,
+            null);
+        try {
+            List<Object[]> rows = new ArrayList<>(cursor.getCount());
+            while (cursor.moveToNext()) {
+                rows.add(readLead(cursor));
+            }
+            return rows;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // One page in columnar form: ids plus one array per LeadPageQuery.PAGE_KEYS entry, all
+    // `size` long. nextCursor is null on the last page.
+    static final class Page {
+        final long[] ids;
+        final Object[][] columns;
+        final int size;
+        final String nextCursor;
+
+        Page(long[] ids, Object[][] columns, int size, String nextCursor) {
+            this.ids = ids;
+            this.columns = columns;
+            this.size = size;
+            this.nextCursor = nextCursor;
+        }
+    }
+
+    Page queryPage(LeadPageQuery query) {
+        Cursor cursor = helper.getReadableDatabase().rawQuery(query.sql(), query.args());
+        try {
+            int size = Math.min(cursor.getCount(), query.limit);
+            long[] ids = new long[size];
+            Object[][] columns = new Object[LeadPageQuery.PAGE_KEYS.length][size];
+            int[] types = new int[LeadPageQuery.PAGE_KEYS.length];
+            for (int c = 0; c < types.length; c++) {
+                types[c] = LeadStoreSchema.LEAD_COLUMNS[LeadStoreSchema.columnIndex(LeadPageQuery.PAGE_KEYS[c])].type;
+            }
+
+            long lastKey = 0L;
+            int row = 0;
+            while (row < size && cursor.moveToNext()) {
+                ids[row] = cursor.getLong(0);
+                lastKey = cursor.getLong(1);
+                for (int c = 0; c < types.length; c++) {
+                    int column = c + 2;
+                    if (cursor.isNull(column)) {
+                        continue;
+                    }
+                    switch (types[c]) {
+                        case LeadStoreSchema.TYPE_REAL:
+                            columns[c][row] = cursor.getDouble(column);
+                            break;
+                        case LeadStoreSchema.TYPE_TIME:
+                            columns[c][row] = cursor.getLong(column);
+                            break;
+                        default:
+                            columns[c][row] = cursor.getString(column);
+                            break;
+                    }
+                }
+                row++;
+            }
+            boolean more = cursor.getCount() > query.limit;
+            String next = more && size > 0 ? query.cursorAfter(lastKey, ids[size - 1]) : null;
+            return new Page(ids, columns, size, next);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // Expects LEAD_SELECT_LIST column order (id first)
+    static Object[] readLead(Cursor cursor) {
+        int count = LeadStoreSchema.LEAD_COLUMNS.length;
+        Object[] row = new Object[count + 1];
+        for (int i = 0; i < count; i++) {
+            int column = i + 1;
+            if (cursor.isNull(column)) {
+                continue;
+            }
+            switch (LeadStoreSchema.LEAD_COLUMNS[i].type) {
+                case LeadStoreSchema.TYPE_REAL:
+                    row[i] = cursor.getDouble(column);
+                    break;
+                case LeadStoreSchema.TYPE_TIME:
+                    row[i] = cursor.getLong(column);
+                    break;
+                default:
+                    row[i] = cursor.getString(column);
+                    break;
+            }
+        }
+        row[count] = cursor.getLong(0);
+        return row;
+    }
+
+    long mutationCount() {
+        return mutationCount;
+    }
+
+    long batchCount() {
+        return batchCount;
+    }
+
+    long transactionCount() {
+        return transactionCount;
+    }
+
+    long retriedGroupCount() {
+        return retriedGroups;
+    }
+
+    long maxGroupSize() {
+        return maxGroupSize;
+    }
+
+    long statementHits() {
+        return statementHits;
+    }
+
+    long statementMisses() {
+        return statementMisses;
+    }
+
+    LeadRanks ranks() {
+        return ranks;
+    }
+
+    private static final class Helper extends SQLiteOpenHelper {
+        Helper(Context context, String name) {
+            super(context, name, null, LeadStoreSchema.VERSION);
+            setWriteAheadLoggingEnabled(true);
+        }
+
+        @Override
+        public void onConfigure(SQLiteDatabase db) {
+            db.setForeignKeyConstraintsEnabled(true);
+        }
+
+        @Override
+        public void onCreate(SQLiteDatabase db) {
+            LeadStoreSchema.create(db);
+        }
+
+        @Override
+        public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+            LeadStoreSchema.upgrade(db, oldVersion, newVersion);
+        }
+    }
+}
@@ -0,0 +1,765 @@
+package com.leadzen;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableType;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
+import androidx.annotation.NonNull;
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Bridge to LeadStore. Writes are bulk: applyMutations() takes an array of
+// { op: 'insert' | 'update' | 'delete', id?, fields? } and commits it atomically.
+// Field names are the JS Lead keys; dates travel as epoch milliseconds.
+// List screens read through queryLeadPage(): keyset pages as parallel arrays, one per field,
+// instead of one map per row. moveLeadRank() reorders a card within a column.
+// importContacts() reports progress as "LeadStoreImportProgress" events, exportArchive() and
+// importArchive() (backup / restore, see LeadArchiver) as "LeadStoreArchiveProgress" events.
+// moveLeadStage() is write-behind (StageMoveQueue): it resolves once the move is journaled and
+// the queue commits it shortly after. Other writes flush the queue first and reads wait for it,
+// so neither can observe or overwrite a stage older than one already acknowledged.
+// Follow-up and task reminders are scheduled natively (ReminderScheduler) from the store's rows.
+public class LeadStoreModule extends ReactContextBaseJavaModule {
+    static final String IMPORT_PROGRESS_EVENT = "LeadStoreImportProgress";
+    static final String ARCHIVE_PROGRESS_EVENT = "LeadStoreArchiveProgress";
+
+    private final ReactApplicationContext reactContext;
+    private final ExecutorService reader = Executors.newSingleThreadExecutor();
+    // Contact imports and archive export / import run here so reads don't queue behind them
+    private final ExecutorService importer = Executors.newSingleThreadExecutor();
+    private volatile ContactImportEngine activeImport;
+
+    public LeadStoreModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+        this.reactContext = reactContext;
+    }
+
+    @NonNull
+    @Override
+    public String getName() {
+        return "LeadStoreModule";
+    }
+
+    private LeadStore store() {
+        return LeadStore.shared(reactContext);
+    }
+
+    private StageMoveQueue stageMoves() throws IOException {
+        return StageMoveQueue.shared(reactContext);
+    }
+
+    // Reader-thread reads call this first
+    private void awaitStageMoves() throws IOException, InterruptedException {
+        stageMoves().awaitFlushed();
+    }
+
+    // Resolves one number per operation: the new id for inserts, rows changed otherwise
+    @ReactMethod
+    public void applyMutations(ReadableArray operations, Promise promise) {
+        List<LeadStore.Mutation> mutations;
+        try {
+            mutations = new ArrayList<>(operations.size());
+            for (int i = 0; i < operations.size(); i++) {
+                mutations.add(readMutation(operations.getMap(i)));
+            }
+        } catch (Exception e) {
+            promise.reject("ERROR", "Invalid lead mutation: " + e.getMessage());
+            return;
+        }
+        try {
+            stageMoves().flush();
+        } catch (IOException e) {
+            promise.reject("ERROR", "Failed to flush stage moves: " + e.getMessage());
+            return;
+        }
+
+        store().submit(mutations, new LeadStore.Callback() {
+            @Override
+            public void onSuccess(long[] results) {
+                WritableArray resolved = Arguments.createArray();
+                for (long result : results) {
+                    resolved.pushDouble(result);
+                }
+                promise.resolve(resolved);
+            }
+
+            @Override
+            public void onError(Exception error) {
+                promise.reject("ERROR", "Failed to apply lead mutations: " + error.getMessage());
+            }
+        });
+    }
+
+    private static LeadStore.Mutation readMutation(ReadableMap operation) {
+        String op = operation.getString("op");
+        long id = operation.hasKey("id") && !operation.isNull("id") ? readId(operation) : 0L;
+        if ("delete".equals(op)) {
+            return LeadStore.Mutation.delete(id);
+        }
+        int kind;
+        if ("insert".equals(op)) {
+            kind = LeadStore.Mutation.INSERT;
+        } else if ("update".equals(op)) {
+            kind = LeadStore.Mutation.UPDATE;
+        } else {
+            throw new IllegalArgumentException("unknown op " + op);
+        }
+        if (kind == LeadStore.Mutation.UPDATE && id <= 0) {
+            throw new IllegalArgumentException("update needs an id");
+        }
+
+        Object[] values = new Object[LeadStoreSchema.LEAD_COLUMNS.length];
+        long present = 0L;
+        ReadableMap fields = operation.hasKey("fields") ? operation.getMap("fields") : null;
+        if (fields != null) {
+            for (int i = 0; i < values.length; i++) {
+                LeadStoreSchema.Column column = LeadStoreSchema.LEAD_COLUMNS[i];
+                if (!fields.hasKey(column.key)) {
+                    continue;
+                }
+                present |= LeadStore.bit(i);
+                if (fields.isNull(column.key)) {
+                    continue;
+                }
+                switch (column.type) {
+                    case LeadStoreSchema.TYPE_REAL:
+                        values[i] = fields.getDouble(column.key);
+                        break;
+                    case LeadStoreSchema.TYPE_TIME:
+                        values[i] = (long) fields.getDouble(column.key);
+                        break;
+                    default:
+                        values[i] = fields.getType(column.key) == ReadableType.String
+                            ? fields.getString(column.key) : String.valueOf(fields.getDouble(column.key));
+                        break;
+                }
+            }
+        }
+        return new LeadStore.Mutation(kind, id, values, present);
+    }
+
+    // Lead ids are strings in AsyncStorage ("31") and numbers in SQLite
+    private static long readId(ReadableMap operation) {
+        if (operation.getType("id") == ReadableType.Number) {
+            return (long) operation.getDouble("id");
+        }
+        return Long.parseLong(operation.getString("id"));
+    }
+
+    // Pipeline drag and drop. Resolves as soon as the move is journaled, before it is committed;
+    // movedAt (epoch ms) becomes updated_at, which orders the stage column.
+    @ReactMethod
+    public void moveLeadStage(String id, String stage, double movedAt, Promise promise) {
+        try {
+            stageMoves().move(Long.parseLong(id), stage, (long) movedAt);
+            promise.resolve(null);
+        } catch (Exception e) {
+            promise.reject("ERROR", "Failed to move lead: " + e.getMessage());
+        }
+    }
+
+    // Manual order inside a pipeline column: puts the lead in `stage` right after afterId, or at
+    // the top when afterId is null. Writes that one lead (see LeadRanks).
+    @ReactMethod
+    public void moveLeadRank(String id, String stage, String afterId, Promise promise) {
+        List<LeadStore.Mutation> mutations;
+        try {
+            if (stage == null) {
+                throw new IllegalArgumentException("no stage");
+            }
+            mutations = new ArrayList<>(1);
+            mutations.add(LeadStore.Mutation.rank(Long.parseLong(id), stage, afterId != null ? Long.parseLong(afterId) : 0L));
+            stageMoves().flush();
+        } catch (Exception e) {
+            promise.reject("ERROR", "Invalid lead move: " + e.getMessage());
+            return;
+        }
+
+        store().submit(mutations, new LeadStore.Callback() {
+            @Override
+            public void onSuccess(long[] results) {
+                promise.resolve(results[0] > 0);
+            }
+
+            @Override
+            public void onError(Exception error) {
+                promise.reject("ERROR", "Failed to move lead: " + error.getMessage());
+            }
+        });
+    }
+
+    @ReactMethod
+    public void getLead(String id, Promise promise) {
+        reader.execute(() -> {
+            try {
+                awaitStageMoves();
+                Object[] row = store().getLead(Long.parseLong(id));
+                promise.resolve(row != null ? toMap(row) : null);
+            } catch (Exception e) {
+                promise.reject("ERROR", "Failed to read lead: " + e.getMessage());
+            }
+        });
+    }
+
+    @ReactMethod
+    public void getLeads(int limit, int offset, Promise promise) {
+        reader.execute(() -> {
+            try {
+                awaitStageMoves();
+                WritableArray leads = Arguments.createArray();
+                for (Object[] row : store().getLeads(limit, offset)) {
+                    leads.pushMap(toMap(row));
+                }
+                promise.resolve(leads);
+            } catch (Exception e) {
+                promise.reject("ERROR", "Failed to read leads: " + e.getMessage());
+            }
+        });
+    }
+
+    @ReactMethod
+    public void count(Promise promise) {
+        reader.execute(() -> {
+            try {
+                awaitStageMoves();
+                promise.resolve(store().count());
+            } catch (Exception e) {
+                promise.reject("ERROR", "Failed to count leads: " + e.getMessage());
+            }
+        });
+    }
+
+    // Rebuilds the overlay's caller-ID index and the lead snapshot straight from the store, so the
+    // lead book never crosses the bridge; resolves the number of indexed numbers. Lead writes keep
+    // both current afterwards (CallerBookSync).
+    @ReactMethod
+    public void syncCallerIndex(Promise promise) {
+        reader.execute(() -> {
+            try {
+                awaitStageMoves();
+                promise.resolve(CallerBookSync.shared(reactContext).requestRebuild().get());
+            } catch (Exception e) {
+                promise.reject("ERROR", "Failed to sync caller index: " + e.getMessage());
+            }
+        });
+    }
+
+    // options: { order: 'created' | 'stage' | 'followUp' | 'rank', stage?, limit, cursor? }. Resolves
+    // { ids, <one array per LeadPageQuery.PAGE_KEYS entry>, cursor } with cursor null on the last page
+    @ReactMethod
+    public void queryLeadPage(ReadableMap options, Promise promise) {
+        LeadPageQuery query;
+        try {
+            query = new LeadPageQuery(
+                options.getString("order"),
+                options.hasKey("stage") && !options.isNull("stage") ? options.getString("stage") : null,
+                options.hasKey("limit") ? options.getInt("limit") : 50,
+                options.hasKey("cursor") && !options.isNull("cursor") ? options.getString("cursor") : null);
+        } catch (Exception e) {
+            promise.reject("ERROR", "Invalid lead page query: " + e.getMessage());
+            return;
+        }
+
+        reader.execute(() -> {
+            try {
+                awaitStageMoves();
+                LeadStore.Page page = store().queryPage(query);
+                WritableMap result = Arguments.createMap();
+                WritableArray ids = Arguments.createArray();
+                for (int row = 0; row < page.size; row++) {
+                    ids.pushString(String.valueOf(page.ids[row]));
+                }
+                result.putArray("ids", ids);
+                for (int c = 0; c < LeadPageQuery.PAGE_KEYS.length; c++) {
+                    WritableArray column = Arguments.createArray();
+                    for (int row = 0; row < page.size; row++) {
+                        Object value = page.columns[c][row];
+                        if (value == null) {
+                            column.pushNull();
+                        } else if (value instanceof String) {
+                            column.pushString((String) value);
+                        } else {
+                            column.pushDouble(((Number) value).doubleValue());
+                        }
+                    }
+                    result.putArray(LeadPageQuery.PAGE_KEYS[c], column);
+                }
+                result.putString("cursor", page.nextCursor);
+                promise.resolve(result);
+            } catch (Exception e) {
+                promise.reject("ERROR", "Failed to read lead page: " + e.getMessage());
+            }
+        });
+    }
+
+    // Type-ahead search across leads, notes and call-log notes. Resolves up to `limit` hits, best
+    // first: { type: 'lead' | 'note' | 'callLog', id, leadId, leadName, snippet, score }. Snippets mark
+    // matched terms with \u0002 ... \u0003.
+    @ReactMethod
+    public void search(String query, int limit, Promise promise) {
+        reader.execute(() -> {
+            try {
+                awaitStageMoves();
+                WritableArray hits = Arguments.createArray();
+                for (LeadSearch.Hit hit : store().search(query, limit)) {
+                    WritableMap map = Arguments.createMap();
+                    map.putString("type", hit.type == LeadSearch.TYPE_LEAD ? "lead"
+                        : hit.type == LeadSearch.TYPE_NOTE ? "note" : "callLog");
+                    map.putString("id", hit.key);
+                    map.putString("leadId", hit.leadId > 0 ? String.valueOf(hit.leadId) : null);
+                    map.putString("leadName", hit.leadName);
+                    map.putString("snippet", hit.snippet);
+                    map.putDouble("score", hit.score);
+                    hits.pushMap(map);
+                }
+                promise.resolve(hits);
+            } catch (Exception e) {
+                promise.reject("ERROR", "Failed to search: " + e.getMessage());
+            }
+        });
+    }
+
+    // The leads behind the best `limit` search hits, distinct and best first, as getLeads rows
+    @ReactMethod
+    public void searchLeads(String query, int limit, Promise promise) {
+        reader.execute(() -> {
+            try {
+                awaitStageMoves();
+                WritableArray leads = Arguments.createArray();
+                for (Object[] row : store().searchLeads(query, limit)) {
+                    leads.pushMap(toMap(row));
+                }
+                promise.resolve(leads);
+            } catch (Exception e) {
+                promise.reject("ERROR", "Failed to search leads: " + e.getMessage());
+            }
+        });
+    }
+
+    // Dashboard and pipeline header totals in one read of the summary tables (LeadAggregates):
+    // { stages: [{ status, count, value }], callsToday, missedCallsToday, talkSecondsToday,
+    //   followUpsOverdue, followUpsToday, tasksOverdue, tasksToday }
+    @ReactMethod
+    public void getAggregates(Promise promise) {
+        reader.execute(() -> {
+            try {
+                awaitStageMoves();
+                LeadAggregates.Snapshot snapshot = store().aggregates();
+                WritableArray stages = Arguments.createArray();
+                for (int i = 0; i < snapshot.stages.size(); i++) {
+                    WritableMap stage = Arguments.createMap();
+                    stage.putString("status", snapshot.stages.get(i));
+                    stage.putDouble("count", snapshot.stageCounts.get(i));
+                    stage.putDouble("value", snapshot.stageValues.get(i));
+                    stages.pushMap(stage);
+                }
+                WritableMap result = Arguments.createMap();
+                result.putArray("stages", stages);
+                result.putDouble("callsToday", snapshot.callsToday);
+                result.putDouble("missedCallsToday", snapshot.missedToday);
+                result.putDouble("talkSecondsToday", snapshot.talkSecondsToday);
+                result.putDouble("followUpsOverdue", snapshot.followUpsOverdue);
+                result.putDouble("followUpsToday", snapshot.followUpsToday);
+                result.putDouble("tasksOverdue", snapshot.tasksOverdue);
+                result.putDouble("tasksToday", snapshot.tasksToday);
+                promise.resolve(result);
+            } catch (Exception e) {
+                promise.reject("ERROR", "Failed to read aggregates: " + e.getMessage());
+            }
+        });
+    }
+
+    // Consistency check: resolves how many summary rows differ from a full recompute (0 when
+    // consistent). With rebuild, then recomputes the tables from scratch and resolves the count
+    // found before the rebuild.
+    @ReactMethod
+    public void verifyAggregates(boolean rebuild, Promise promise) {
+        reader.execute(() -> {
+            try {
+                awaitStageMoves();
+                long mismatches = LeadAggregates.verify(store().database());
+                if (mismatches > 0) {
+                    OverlayLog.w("📊 Aggregates differ from a recompute in {} rows", mismatches);
+                }
+                if (rebuild) {
+                    store().apply(LeadAggregates.rebuild(LeadAggregates.currentOffsetMinutes()));
+                }
+                promise.resolve((double) mismatches);
+            } catch (Exception e) {
+                promise.reject("ERROR", "Failed to verify aggregates: " + e.getMessage());
+            }
+        });
+    }
+
+    // Mirrors NotesService notes ({ id, leadId, content, tag, createdBy, createdAt }) into the notes
+    // table so they are searchable; an existing note with the same id is replaced. Notes of leads
+    // that no longer exist are skipped rather than failing the batch.
+    @ReactMethod
+    public void indexNotes(ReadableArray notes, Promise promise) {
+        List<LeadStore.Mutation> mutations = new ArrayList<>(notes.size() * 2);
+        try {
+            for (int i = 0; i < notes.size(); i++) {
+                ReadableMap note = notes.getMap(i);
+                String id = note.getString("id");
+                long createdAt = (long) note.getDouble("createdAt");
+                mutations.add(LeadStore.Mutation.exec("DELETE FROM notes WHERE client_id = ?", id));
+                long leadId = Long.parseLong(note.getString("leadId"));
+                mutations.add(LeadStore.Mutation.exec(
+                    "INSERT INTO notes (client_id, lead_id, content, note_type, created_by, created_at, updated_at)"
+                        + " SELECT ?, ?, ?, ?, ?, ?, ? WHERE EXISTS (SELECT 1 FROM leads WHERE id = ?)",
+                    id,
+                    leadId,
+                    note.getString("content"),
+                    note.hasKey("tag") ? note.getString("tag") : null,
+                    note.hasKey("createdBy") && !note.isNull("createdBy") ? note.getString("createdBy") : null,
+                    createdAt,
+                    createdAt,
+                    leadId));
+            }
+        } catch (Exception e) {
+            promise.reject("ERROR", "Invalid note: " + e.getMessage());
+            return;
+        }
+        submitIndexBatch(mutations, promise);
+    }
+
+    @ReactMethod
+    public void removeNotes(ReadableArray noteIds, Promise promise) {
+        List<LeadStore.Mutation> mutations = new ArrayList<>(noteIds.size());
+        for (int i = 0; i < noteIds.size(); i++) {
+            mutations.add(LeadStore.Mutation.exec("DELETE FROM notes WHERE client_id = ?", noteIds.getString(i)));
+        }
+        submitIndexBatch(mutations, promise);
+    }
+
+    // Mirrors AsyncStorageService call logs ({ id, lead_id, phone_number, call_type, call_status,
+    // duration, started_at, ended_at, notes }, dates in epoch ms) so their notes are searchable.
+    // A log of a call the device sync already stored joins that row (see CallLogMerge).
+    // A lead_id that doesn't exist (deleted lead) is stored as null.
+    @ReactMethod
+    public void indexCallLogs(ReadableArray callLogs, Promise promise) {
+        List<LeadStore.Mutation> mutations = new ArrayList<>(callLogs.size() * 4);
+        try {
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < callLogs.size(); i++) {
+                ReadableMap log = callLogs.getMap(i);
+                CallLogMerge.addClientRow(mutations,
+                    Long.toString((long) log.getDouble("id")),
+                    log.hasKey("lead_id") && !log.isNull("lead_id") ? (long) log.getDouble("lead_id") : null,
+                    log.getString("phone_number"),
+                    log.getString("call_type"),
+                    log.hasKey("call_status") && !log.isNull("call_status") ? log.getString("call_status") : "completed",
+                    log.hasKey("duration") ? (long) log.getDouble("duration") : 0L,
+                    (long) log.getDouble("started_at"),
+                    log.hasKey("ended_at") && !log.isNull("ended_at") ? (long) log.getDouble("ended_at") : null,
+                    log.hasKey("notes") && !log.isNull("notes") ? log.getString("notes") : null,
+                    now);
+            }
+        } catch (Exception e) {
+            promise.reject("ERROR", "Invalid call log: " + e.getMessage());
+            return;
+        }
+        submitIndexBatch(mutations, promise);
+    }
+
+    @ReactMethod
+    public void removeCallLogs(ReadableArray callLogIds, Promise promise) {
+        List<LeadStore.Mutation> mutations = new ArrayList<>(callLogIds.size());
+        for (int i = 0; i < callLogIds.size(); i++) {
+            mutations.add(LeadStore.Mutation.exec("DELETE FROM call_logs WHERE client_id = ?",
+                Long.toString((long) callLogIds.getDouble(i))));
+        }
+        submitIndexBatch(mutations, promise);
+    }
+
+    private void submitIndexBatch(List<LeadStore.Mutation> mutations, Promise promise) {
+        store().submit(mutations, new LeadStore.Callback() {
+            @Override
+            public void onSuccess(long[] results) {
+                promise.resolve(true);
+            }
+
+            @Override
+            public void onError(Exception error) {
+                promise.reject("ERROR", "Failed to index: " + error.getMessage());
+            }
+        });
+    }
+
+    private static WritableMap toMap(Object[] row) {
+        WritableMap lead = Arguments.createMap();
+        int count = LeadStoreSchema.LEAD_COLUMNS.length;
+        lead.putString("id", String.valueOf(row[count]));
+        for (int i = 0; i < count; i++) {
+            Object value = row[i];
+            if (value == null) {
+                continue;
+            }
+            String key = LeadStoreSchema.LEAD_COLUMNS[i].key;
+            if (value instanceof String) {
+                lead.putString(key, (String) value);
+            } else {
+                lead.putDouble(key, ((Number) value).doubleValue());
+            }
+        }
+        return lead;
+    }
+
+    // Copies new device call-log rows into call_logs now (the service's observer does this on its
+    // own while the call monitor runs). Resolves { rowsRead, rowsWritten, rowsMatched, elapsedMs },
+    // or null without READ_CALL_LOG.
+    @ReactMethod
+    public void syncCallLog(Promise promise) {
+        reader.execute(() -> {
+            try {
+                CallLogSync sync = CallLogSync.shared(reactContext);
+                CallLogSyncEngine.Result result = sync.requestSync().get();
+                promise.resolve(result != null ? toMap(result) : null);
+            } catch (Exception e) {
+                promise.reject("ERROR", "Call log sync failed: " + e.getMessage());
+            }
+        });
+    }
+
+    @ReactMethod
+    public void getCallLogSyncStatus(Promise promise) {
+        CallLogSync sync = CallLogSync.shared(reactContext);
+        WritableMap status = Arguments.createMap();
+        status.putBoolean("permitted", sync.hasPermission());
+        status.putBoolean("observing", sync.isObserving());
+        status.putDouble("watermarkId", sync.watermarkId());
+        status.putDouble("lastSyncAt", sync.lastSyncAt());
+        status.putDouble("totalWritten", sync.totalWritten());
+        status.putString("lastError", sync.lastError());
+        CallLogSyncEngine.Result last = sync.lastResult();
+        if (last != null) {
+            status.putMap("lastResult", toMap(last));
+        }
+        promise.resolve(status);
+    }
+
+    private static WritableMap toMap(CallLogSyncEngine.Result result) {
+        WritableMap map = Arguments.createMap();
+        map.putDouble("rowsRead", result.rowsRead);
+        map.putDouble("rowsWritten", result.rowsWritten);
+        map.putDouble("rowsMatched", result.rowsMatched);
+        map.putDouble("elapsedMs", result.elapsedMs);
+        return map;
+    }
+
+    // Imports the device address book: new leads for unknown numbers, blank fields filled in on
+    // leads that already have the number. Resolves the final counts; "LeadStoreImportProgress"
+    // events carry the running ones, at most four a second.
+    @ReactMethod
+    public void importContacts(Promise promise) {
+        if (!ContactsImporter.hasPermission(reactContext)) {
+            promise.reject("ERROR", "Contact import failed: READ_CONTACTS not granted");
+            return;
+        }
+        ContactImportEngine engine = new ContactImportEngine(
+            ContactImportEngine.DEFAULT_BATCH_SIZE, ContactImportEngine.DEFAULT_PROGRESS_INTERVAL_MS);
+        synchronized (this) {
+            if (activeImport != null) {
+                promise.reject("ERROR", "Contact import failed: an import is already running");
+                return;
+            }
+            activeImport = engine;
+        }
+        importer.execute(() -> {
+            try {
+                ContactImportEngine.Result result = ContactsImporter.importAll(reactContext, store(), engine,
+                    progress -> sendEvent(IMPORT_PROGRESS_EVENT, toMap(progress)));
+                promise.resolve(toMap(result));
+            } catch (Exception e) {
+                promise.reject("ERROR", "Contact import failed: " + e.getMessage());
+            } finally {
+                activeImport = null;
+            }
+        });
+    }
+
+    // The running import stops after its current batch and resolves with cancelled: true
+    @ReactMethod
+    public void cancelContactImport() {
+        ContactImportEngine engine = activeImport;
+        if (engine != null) {
+            engine.cancel();
+        }
+    }
+
+    private static WritableMap toMap(ContactImportEngine.Result result) {
+        WritableMap map = Arguments.createMap();
+        map.putDouble("rowsRead", result.rowsRead);
+        map.putDouble("rowsTotal", result.rowsTotal);
+        map.putDouble("contactsRead", result.contactsRead);
+        map.putDouble("inserted", result.inserted);
+        map.putDouble("matched", result.matched);
+        map.putDouble("duplicates", result.duplicates);
+        map.putDouble("withoutPhone", result.withoutPhone);
+        map.putBoolean("cancelled", result.cancelled);
+        map.putDouble("elapsedMs", result.elapsedMs);
+        return map;
+    }
+
+    // Streams every CRM table to a new archive in the backups directory (gzipped NDJSON unless
+    // gzip is false). Resolves { path, rows, chunks, bytes, elapsedMs, rowsPerSec }.
+    @ReactMethod
+    public void exportArchive(boolean gzip, Promise promise) {
+        importer.execute(() -> {
+            try {
+                awaitStageMoves();
+                String name = "leadzen-" + new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.US).format(new Date())
+                    + (gzip ? ".ndjson.gz" : ".ndjson");
+                File file = new File(LeadArchiver.backupDir(reactContext), name);
+                LeadArchive.Result result = LeadArchiver.export(store().database(), file, gzip,
+                    progress -> sendEvent(ARCHIVE_PROGRESS_EVENT, toMap(progress)));
+                WritableMap map = toMap(result);
+                map.putString("path", file.getAbsolutePath());
+                promise.resolve(map);
+            } catch (Exception e) {
+                promise.reject("ERROR", "Archive export failed: " + e.getMessage());
+            }
+        });
+    }
+
+    // Replaces the CRM tables with the archive at `path` (plain or gzipped). An import that was
+    // interrupted resumes after its last committed chunk when given the same file again; the
+    // result's skippedChunks says so. Resolves { rows, chunks, skippedChunks, elapsedMs, rowsPerSec }.
+    @ReactMethod
+    public void importArchive(String path, Promise promise) {
+        importer.execute(() -> {
+            try {
+                awaitStageMoves();
+                LeadArchive.Result result = LeadArchiver.importFrom(store(), new File(path),
+                    new File(reactContext.getFilesDir(), LeadArchiver.PROGRESS_FILE),
+                    progress -> sendEvent(ARCHIVE_PROGRESS_EVENT, toMap(progress)));
+                promise.resolve(toMap(result));
+            } catch (Exception e) {
+                promise.reject("ERROR", "Archive import failed: " + e.getMessage());
+            }
+        });
+    }
+
+    private static WritableMap toMap(LeadArchive.Result result) {
+        WritableMap map = Arguments.createMap();
+        map.putDouble("rows", result.rows);
+        map.putDouble("chunks", result.chunks);
+        map.putDouble("skippedChunks", result.skippedChunks);
+        map.putDouble("bytes", result.bytes);
+        map.putDouble("elapsedMs", result.elapsedMs);
+        map.putDouble("rowsPerSec", result.rowsPerSec());
+        return map;
+    }
+
+    private void sendEvent(String eventName, Object data) {
+        if (reactContext.hasActiveCatalystInstance()) {
+            long startUs = MetricsRegistry.nowUs();
+            reactContext.getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class).emit(eventName, data);
+            MetricsRegistry.recordSince(MetricsRegistry.BRIDGE_EMIT, startUs);
+            MetricsRegistry.increment(MetricsRegistry.BRIDGE_EMITS);
+            MetricsRegistry.increment(MetricsRegistry.BRIDGE_EVENTS);
+        }
+    }
+
+    // Required for NativeEventEmitter
+    @ReactMethod
+    public void addListener(String eventName) {
+    }
+
+    @ReactMethod
+    public void removeListeners(Integer count) {
+    }
+
+    @ReactMethod
+    public void setGroupCommitWindow(int windowMs) {
+        store().setGroupCommitWindowMs(windowMs);
+    }
+
+    @ReactMethod
+    public void getStats(Promise promise) {
+        LeadStore store = store();
+        WritableMap stats = Arguments.createMap();
+        stats.putDouble("mutations", store.mutationCount());
+        stats.putDouble("batches", store.batchCount());
+        stats.putDouble("transactions", store.transactionCount());
+        stats.putDouble("retriedGroups", store.retriedGroupCount());
+        stats.putDouble("maxGroupSize", store.maxGroupSize());
+        stats.putDouble("statementCacheHits", store.statementHits());
+        stats.putDouble("statementCacheMisses", store.statementMisses());
+        stats.putDouble("groupCommitWindowMs", store.groupCommitWindowMs());
+        stats.putDouble("rankMoves", store.ranks().moves());
+        stats.putDouble("rankRebalances", store.ranks().rebalances());
+        stats.putDouble("rankInlineRebalances", store.ranks().inlineRebalances());
+        stats.putDouble("rankRebalancedRows", store.ranks().rebalancedRows());
+        promise.resolve(stats);
+    }
+
+    @ReactMethod
+    public void getStageMoveStats(Promise promise) {
+        try {
+            StageMoveQueue queue = stageMoves();
+            WritableMap stats = Arguments.createMap();
+            stats.putInt("depth", queue.depth());
+            stats.putInt("inFlight", queue.inFlight());
+            stats.putDouble("moves", queue.moves());
+            stats.putDouble("coalesced", queue.coalesced());
+            stats.putDouble("flushedMoves", queue.flushedMoves());
+            stats.putDouble("flushes", queue.flushes());
+            stats.putDouble("failedFlushes", queue.failedFlushes());
+            stats.putDouble("recovered", queue.recovered());
+            stats.putDouble("lastFlushMs", queue.lastFlushMs());
+            stats.putDouble("maxFlushMs", queue.maxFlushMs());
+            stats.putDouble("averageFlushMs", queue.averageFlushMs());
+            stats.putDouble("lastLagMs", queue.lastLagMs());
+            stats.putDouble("maxLagMs", queue.maxLagMs());
+            promise.resolve(stats);
+        } catch (Exception e) {
+            promise.reject("ERROR", "Failed to read stage move stats: " + e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    public void getReminderStats(Promise promise) {
+        ReminderScheduler scheduler = ReminderScheduler.shared(reactContext);
+        WritableMap stats = Arguments.createMap();
+        stats.putInt("scheduled", scheduler.scheduled());
+        long armedAt = scheduler.armedAt();
+        if (armedAt == Long.MAX_VALUE) {
+            stats.putNull("armedAt");
+        } else {
+            stats.putDouble("armedAt", armedAt);
+        }
+        stats.putBoolean("exact", scheduler.exact());
+        stats.putInt("loadedItems", scheduler.loadedItems());
+        stats.putDouble("loadMs", scheduler.loadMs());
+        stats.putDouble("outboxApplied", scheduler.outboxApplied());
+        stats.putDouble("rearms", scheduler.rearms());
+        stats.putDouble("alarms", scheduler.alarms());
+        stats.putDouble("announced", scheduler.announced());
+        stats.putDouble("lastFireLagMs", scheduler.lastFireLagMs());
+        stats.putDouble("maxFireLagMs", scheduler.maxFireLagMs());
+        promise.resolve(stats);
+    }
+
+    @Override
+    public void invalidate() {
+        super.invalidate();
+        cancelContactImport();
+        reader.shutdown();
+        importer.shutdown();
+    }
+}
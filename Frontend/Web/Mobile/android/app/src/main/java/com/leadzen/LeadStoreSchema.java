@@ -0,0 +1,230 @@
+package com.leadzen;
+
+import android.database.sqlite.SQLiteDatabase;
+
+// Schema of the native lead store. Mirrors src/data/schema.sql, except that timestamps are
+// stored as epoch milliseconds (INTEGER) so they compare and index numerically, and leads keep
+// their tags as a JSON array (as in the AsyncStorage blob) until labels are normalized.
+// Bump VERSION and add a case to upgrade() for every schema change.
+final class LeadStoreSchema {
+    static final String DATABASE_NAME = "leadzen_native.db";
+    static final int VERSION = 8;
+
+    // Keyset pages of one pipeline stage, most recently updated first (version 2)
+    private static final String STAGE_UPDATED_INDEX =
+        "CREATE INDEX IF NOT EXISTS idx_leads_stage_updated ON leads(pipeline_stage, updated_at)";
+
+    // Notes are written by NotesService under string ids ("note_..."); client_id keeps that id (version 3)
+    private static final String NOTES_CLIENT_ID_INDEX =
+        "CREATE UNIQUE INDEX IF NOT EXISTS idx_notes_client_id ON notes(client_id)";
+
+    // Call logs come from two places (version 4): AsyncStorageService (client_id keeps its numeric id
+    // as text) and the device call log (device_call_id is CallLog.Calls._ID; with started_at it
+    // dedupes re-synced rows, since _IDs restart if the provider is cleared). A call seen by both
+    // is one row, see CallLogMerge.
+    private static final String CALL_LOGS_CLIENT_ID_INDEX =
+        "CREATE UNIQUE INDEX IF NOT EXISTS idx_call_logs_client_id ON call_logs(client_id)";
+    private static final String CALL_LOGS_DEVICE_INDEX =
+        "CREATE UNIQUE INDEX IF NOT EXISTS idx_call_logs_device ON call_logs(device_call_id, started_at)";
+
+    private static final String[] CREATE_STATEMENTS = {
+        "CREATE TABLE IF NOT EXISTS leads ("
+            + "id INTEGER PRIMARY KEY AUTOINCREMENT,"
+            + "name TEXT NOT NULL,"
+            + "company TEXT,"
+            + "phone_primary TEXT UNIQUE NOT NULL,"
+            + "phone_secondary TEXT,"
+            + "email TEXT,"
+            + "position TEXT,"
+            + "source TEXT DEFAULT 'manual',"
+            + "pipeline_stage TEXT DEFAULT 'follow_up',"
+            + "priority TEXT DEFAULT 'medium',"
+            + "value REAL DEFAULT 0,"
+            + "notes TEXT,"
+            + "address TEXT,"
+            + "city TEXT,"
+            + "state TEXT,"
+            + "country TEXT DEFAULT 'USA',"
+            + "created_at INTEGER NOT NULL,"
+            + "updated_at INTEGER NOT NULL,"
+            + "last_contact_at INTEGER,"
+            + "next_follow_up_at INTEGER,"
+            + "tags TEXT,"
+            + "stage_rank INTEGER)",
+        "CREATE TABLE IF NOT EXISTS call_logs ("
+            + "id INTEGER PRIMARY KEY AUTOINCREMENT,"
+            + "lead_id INTEGER REFERENCES leads(id) ON DELETE CASCADE,"
+            + "phone_number TEXT NOT NULL,"
+            + "call_type TEXT NOT NULL,"
+            + "call_status TEXT DEFAULT 'completed',"
+            + "duration INTEGER DEFAULT 0,"
+            + "started_at INTEGER NOT NULL,"
+            + "ended_at INTEGER,"
+            + "recording_url TEXT,"
+            + "notes TEXT,"
+            + "created_at INTEGER NOT NULL,"
+            + "client_id TEXT,"
+            + "device_call_id INTEGER,"
+            + "phone_key INTEGER)",
+        "CREATE TABLE IF NOT EXISTS notes ("
+            + "id INTEGER PRIMARY KEY AUTOINCREMENT,"
+            + "lead_id INTEGER REFERENCES leads(id) ON DELETE CASCADE,"
+            + "content TEXT NOT NULL,"
+            + "note_type TEXT DEFAULT 'general',"
+            + "created_by TEXT,"
+            + "created_at INTEGER NOT NULL,"
+            + "updated_at INTEGER NOT NULL,"
+            + "client_id TEXT)",
+        "CREATE TABLE IF NOT EXISTS labels ("
+            + "id INTEGER PRIMARY KEY AUTOINCREMENT,"
+            + "name TEXT UNIQUE NOT NULL,"
+            + "color TEXT DEFAULT '#14B8A6',"
+            + "created_at INTEGER NOT NULL)",
+        "CREATE TABLE IF NOT EXISTS lead_labels ("
+            + "lead_id INTEGER REFERENCES leads(id) ON DELETE CASCADE,"
+            + "label_id INTEGER REFERENCES labels(id) ON DELETE CASCADE,"
+            + "created_at INTEGER NOT NULL,"
+            + "PRIMARY KEY (lead_id, label_id))",
+        "CREATE TABLE IF NOT EXISTS tasks ("
+            + "id INTEGER PRIMARY KEY AUTOINCREMENT,"
+            + "lead_id INTEGER REFERENCES leads(id) ON DELETE CASCADE,"
+            + "title TEXT NOT NULL,"
+            + "description TEXT,"
+            + "due_date INTEGER,"
+            + "completed INTEGER DEFAULT 0,"
+            + "completed_at INTEGER,"
+            + "priority TEXT DEFAULT 'medium',"
+            + "created_at INTEGER NOT NULL,"
+            + "updated_at INTEGER NOT NULL)",
+        "CREATE INDEX IF NOT EXISTS idx_leads_pipeline_stage ON leads(pipeline_stage)",
+        "CREATE INDEX IF NOT EXISTS idx_leads_priority ON leads(priority)",
+        "CREATE INDEX IF NOT EXISTS idx_leads_company ON leads(company)",
+        "CREATE INDEX IF NOT EXISTS idx_leads_created_at ON leads(created_at)",
+        "CREATE INDEX IF NOT EXISTS idx_leads_next_follow_up ON leads(next_follow_up_at)",
+        "CREATE INDEX IF NOT EXISTS idx_call_logs_lead_id ON call_logs(lead_id)",
+        "CREATE INDEX IF NOT EXISTS idx_call_logs_started_at ON call_logs(started_at)",
+        "CREATE INDEX IF NOT EXISTS idx_notes_lead_id ON notes(lead_id)",
+        "CREATE INDEX IF NOT EXISTS idx_tasks_lead_id ON tasks(lead_id)",
+        "CREATE INDEX IF NOT EXISTS idx_tasks_due_date ON tasks(due_date)",
+        STAGE_UPDATED_INDEX,
+        NOTES_CLIENT_ID_INDEX,
+        CALL_LOGS_CLIENT_ID_INDEX,
+        CALL_LOGS_DEVICE_INDEX,
+        CallLogMerge.PHONE_KEY_INDEX,
+    };
+
+    // Lead columns writable through LeadStore, keyed by the JS Lead field name
+    static final int TYPE_TEXT = 0;
+    static final int TYPE_REAL = 1;
+    static final int TYPE_TIME = 2;
+
+    static final class Column {
+        final String key;
+        final String name;
+        final int type;
+
+        Column(String key, String name, int type) {
+            this.key = key;
+            this.name = name;
+            this.type = type;
+        }
+    }
+
+    static final Column[] LEAD_COLUMNS = {
+        new Column("name", "name", TYPE_TEXT),
+        new Column("company", "company", TYPE_TEXT),
+        new Column("phone", "phone_primary", TYPE_TEXT),
+        new Column("phoneSecondary", "phone_secondary", TYPE_TEXT),
+        new Column("email", "email", TYPE_TEXT),
+        new Column("position", "position", TYPE_TEXT),
+        new Column("source", "source", TYPE_TEXT),
+        new Column("status", "pipeline_stage", TYPE_TEXT),
+        new Column("priority", "priority", TYPE_TEXT),
+        new Column("value", "value", TYPE_REAL),
+        new Column("notes", "notes", TYPE_TEXT),
+        new Column("address", "address", TYPE_TEXT),
+        new Column("city", "city", TYPE_TEXT),
+        new Column("state", "state", TYPE_TEXT),
+        new Column("country", "country", TYPE_TEXT),
+        new Column("createdAt", "created_at", TYPE_TIME),
+        new Column("updatedAt", "updated_at", TYPE_TIME),
+        new Column("lastContactedAt", "last_contact_at", TYPE_TIME),
+        new Column("nextFollowUpAt", "next_follow_up_at", TYPE_TIME),
+        new Column("tags", "tags", TYPE_TEXT),
+    };
+
+    static final int COL_CREATED_AT = columnIndex("createdAt");
+    static final int COL_UPDATED_AT = columnIndex("updatedAt");
+
+    // "id, name, company, ..." in LEAD_COLUMNS order, for SELECTs read by LeadStore.readLead
+    static final String LEAD_SELECT_LIST = buildSelectList();
+
+    private LeadStoreSchema() {
+    }
+
+    static int columnIndex(String key) {
+        for (int i = 0; i < LEAD_COLUMNS.length; i++) {
+            if (LEAD_COLUMNS[i].key.equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String buildSelectList() {
+        StringBuilder sql = new StringBuilder("id");
+        for (Column column : LEAD_COLUMNS) {
+            sql.append(", ").append(column.name);
+        }
+        return sql.toString();
+    }
+
+    static void create(SQLiteDatabase db) {
+        for (String statement : CREATE_STATEMENTS) {
+            db.execSQL(statement);
+        }
+        LeadSearch.create(db);
+        LeadRanks.create(db);
+        LeadAggregates.create(db);
+        ReminderScheduler.create(db);
+    }
+
+    static void upgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        if (oldVersion < 2) {
+            db.execSQL(STAGE_UPDATED_INDEX);
+        }
+        if (oldVersion < 3) {
+            db.execSQL("ALTER TABLE notes ADD COLUMN client_id TEXT");
+            db.execSQL(NOTES_CLIENT_ID_INDEX);
+            LeadSearch.create(db);
+        }
+        if (oldVersion < 4) {
+            db.execSQL("ALTER TABLE call_logs ADD COLUMN client_id TEXT");
+            db.execSQL("ALTER TABLE call_logs ADD COLUMN device_call_id INTEGER");
+            // Rows so far were mirrored from AsyncStorage under their own id
+            db.execSQL("UPDATE call_logs SET client_id = CAST(id AS TEXT)");
+            db.execSQL(CALL_LOGS_CLIENT_ID_INDEX);
+            db.execSQL(CALL_LOGS_DEVICE_INDEX);
+        }
+        if (oldVersion < 5) {
+            // Manual order within a pipeline column, see LeadRanks
+            db.execSQL("ALTER TABLE leads ADD COLUMN stage_rank INTEGER");
+            LeadRanks.backfill(db);
+            LeadRanks.create(db);
+        }
+        if (oldVersion < 6) {
+            // Dashboard and pipeline header totals, see LeadAggregates
+            LeadAggregates.create(db);
+        }
+        if (oldVersion < 7) {
+            // Due-date changes for the reminder wheel, see ReminderScheduler
+            ReminderScheduler.create(db);
+        }
+        if (oldVersion < 8) {
+            // One row per call seen by both sources, see CallLogMerge
+            db.execSQL("ALTER TABLE call_logs ADD COLUMN phone_key INTEGER");
+            db.execSQL(CallLogMerge.PHONE_KEY_INDEX);
+            CallLogMerge.backfill(db);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.leadzen;
+
+import java.util.Arrays;
+
+// Open-addressing long -> int hash map with linear probing.
+// Keys are stored in a primitive long[] so lookups never box or allocate.
+// Key 0 is reserved as the empty-slot marker (0 is never a valid packed phone number).
+public final class LongIntMap {
+    private static final long EMPTY = 0L;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    public LongIntMap(int expectedSize) {
+        int capacity = tableSizeFor(Math.max(4, expectedSize * 2));
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Returns the previous value, or missingValue if the key was not present
+    public int put(long key, int value, int missingValue) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+        if ((size + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        int index = indexFor(key);
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                int previous = values[index];
+                values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        size++;
+        return missingValue;
+    }
+
+    // Inserts only if the key is absent. Returns true when the value was stored.
+    public boolean putIfAbsent(long key, int value) {
+        if (key == EMPTY) {
+            return false;
+        }
+        if ((size + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        int index = indexFor(key);
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        size++;
+        return true;
+    }
+
+    public int get(long key, int missingValue) {
+        if (key == EMPTY) {
+            return missingValue;
+        }
+        int index = indexFor(key);
+        long probe;
+        while ((probe = keys[index]) != EMPTY) {
+            if (probe == key) {
+                return values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return missingValue;
+    }
+
+    public boolean containsKey(long key) {
+        if (key == EMPTY) {
+            return false;
+        }
+        int index = indexFor(key);
+        long probe;
+        while ((probe = keys[index]) != EMPTY) {
+            if (probe == key) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    // Returns the removed value, or missingValue if the key was not present
+    public int remove(long key, int missingValue) {
+        if (key == EMPTY) {
+            return missingValue;
+        }
+        int index = indexFor(key);
+        while (keys[index] != key) {
+            if (keys[index] == EMPTY) {
+                return missingValue;
+            }
+            index = (index + 1) & mask;
+        }
+        int removed = values[index];
+        // Backward-shift deletion: later keys of the probe chain move into the hole, so lookups
+        // never need tombstones
+        int hole = index;
+        int probe = (hole + 1) & mask;
+        while (keys[probe] != EMPTY) {
+            int home = indexFor(keys[probe]);
+            if (((probe - home) & mask) >= ((probe - hole) & mask)) {
+                keys[hole] = keys[probe];
+                values[hole] = values[probe];
+                hole = probe;
+            }
+            probe = (probe + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        size--;
+        return removed;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    private int indexFor(long key) {
+        // Fibonacci hashing spreads sequential phone numbers across the table
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[newCapacity];
+        values = new int[newCapacity];
+        mask = newCapacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != EMPTY) {
+                int index = indexFor(key);
+                while (keys[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private static int tableSizeFor(int n) {
+        int highest = Integer.highestOneBit(n - 1);
+        return highest >= (1 << 30) ? (1 << 30) : Math.max(4, highest << 1);
+    }
+}
@@ -0,0 +1,321 @@
+package com.leadzen;
+
+import android.content.Context;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Process-wide counters, gauges and latency histograms for the native call, overlay, bridge and
+// database paths.
+//
+// Metrics are a fixed set addressed by int constants, so recording is an array index plus one or
+// two atomic adds: no lock, no map lookup, no allocation. Histograms are HDR-style log-linear: a
+// value below SUB_BUCKETS gets its own bucket, above that each power of two is split into
+// SUB_BUCKETS equal buckets, so a bucket is never wider than 1/SUB_BUCKETS (6.25%) of its values.
+// Values are microseconds; percentiles report the bucket's upper bound (capped at the max seen).
+//
+// snapshot() copies everything for PerformanceModule.getMetrics. startDumps() appends a compact
+// line (format on dumpLine) to files/metrics/metrics.log every DUMP_INTERVAL_MS while anything
+// changed, tagged with the app version, so field devices' files can be compared across builds.
+final class MetricsRegistry {
+    // Counters
+    static final int CALLS_DETECTED = 0;
+    static final int OVERLAY_SHOWS = 1;
+    static final int OVERLAY_REBINDS = 2;
+    static final int BRIDGE_EMITS = 3;
+    static final int BRIDGE_EVENTS = 4;
+    static final int DB_TRANSACTIONS = 5;
+    static final int DB_MUTATIONS = 6;
+    static final int DB_FAILED_TRANSACTIONS = 7;
+    static final String[] COUNTER_NAMES = {
+        "calls_detected", "overlay_shows", "overlay_rebinds", "bridge_emits", "bridge_events",
+        "db_transactions", "db_mutations", "db_failed_transactions",
+    };
+
+    // Gauges: last value set
+    static final int DB_QUEUE_DEPTH = 0;
+    static final int DB_GROUP_MUTATIONS = 1;
+    static final int BRIDGE_BATCH_EVENTS = 2;
+    static final String[] GAUGE_NAMES = {"db_queue_depth", "db_group_mutations", "bridge_batch_events"};
+
+    // Histograms, microseconds
+    static final int CALL_TO_OVERLAY = 0;       // telephony callback -> bubble first frame
+    static final int SHOW_TO_OVERLAY = 1;       // JS show request -> bubble first frame
+    static final int EXPANDED_SHOW = 2;         // showExpandedOverlay() on the main thread
+    static final int EXPANDED_FIRST_FRAME = 3;  // showExpandedOverlay() start -> its first frame
+    static final int OVERLAY_REBIND = 4;        // updateOverlayData() re-binding the expanded view
+    static final int BRIDGE_EMIT = 5;           // one RCTDeviceEventEmitter.emit call
+    static final int DB_COMMIT = 6;             // one writer transaction
+    static final int DB_WRITE = 7;              // submit -> committed, per batch
+    static final int EXPANDED_TRAVERSAL = 8;    // measure + layout + draw of the expanded overlay, per frame
+    static final String[] HISTOGRAM_NAMES = {
+        "call_to_overlay", "show_to_overlay", "expanded_show", "expanded_first_frame",
+        "overlay_rebind", "bridge_emit", "db_commit", "db_write", "expanded_traversal",
+    };
+
+    static final int SUB_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 39; // ~12.7 days in µs; larger values land in the last bucket
+    static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB_BUCKETS;
+
+    static final long DUMP_INTERVAL_MS = 15 * 60_000L;
+    private static final long MAX_DUMP_BYTES = 256 * 1024;
+
+    private static final AtomicLongArray counters = new AtomicLongArray(COUNTER_NAMES.length);
+    private static final AtomicLongArray gauges = new AtomicLongArray(GAUGE_NAMES.length);
+    private static final AtomicLongArray buckets = new AtomicLongArray(HISTOGRAM_NAMES.length * BUCKETS);
+    private static final AtomicLongArray counts = new AtomicLongArray(HISTOGRAM_NAMES.length);
+    private static final AtomicLongArray sums = new AtomicLongArray(HISTOGRAM_NAMES.length);
+    private static final AtomicLongArray maxima = new AtomicLongArray(HISTOGRAM_NAMES.length);
+
+    private static ScheduledExecutorService dumper;
+    private static long lastDumpedTotal = -1;
+
+    private MetricsRegistry() {
+    }
+
+    static long nowUs() {
+        return System.nanoTime() / 1000;
+    }
+
+    static void increment(int counter) {
+        counters.incrementAndGet(counter);
+    }
+
+    static void add(int counter, long delta) {
+        counters.addAndGet(counter, delta);
+    }
+
+    static void set(int gauge, long value) {
+        gauges.set(gauge, value);
+    }
+
+    static void record(int histogram, long micros) {
+        long value = Math.max(0, micros);
+        buckets.incrementAndGet(histogram * BUCKETS + bucketOf(value));
+        counts.incrementAndGet(histogram);
+        sums.addAndGet(histogram, value);
+        long max;
+        while (value > (max = maxima.get(histogram)) && !maxima.compareAndSet(histogram, max, value)) {
+            // Lost a race with another max; re-read
+        }
+    }
+
+    // Start time from nowUs()
+    static void recordSince(int histogram, long startUs) {
+        record(histogram, nowUs() - startUs);
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    // Largest value that falls into the bucket
+    static long bucketUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = bucket & (SUB_BUCKETS - 1);
+        int shift = exponent - SUB_BITS;
+        return ((SUB_BUCKETS + sub) << shift) + (1L << shift) - 1;
+    }
+
+    static final class Histogram {
+        final String name;
+        final long count;
+        final long sum;
+        final long max;
+        final long[] buckets;
+
+        Histogram(String name, long count, long sum, long max, long[] buckets) {
+            this.name = name;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+            this.buckets = buckets;
+        }
+
+        double mean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        // q in [0, 1]; 0 when empty
+        long percentile(double q) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(q * count));
+            long seen = 0;
+            for (int b = 0; b < buckets.length; b++) {
+                seen += buckets[b];
+                if (seen >= rank) {
+                    return Math.min(max, bucketUpperBound(b));
+                }
+            }
+            return max;
+        }
+    }
+
+    static final class Snapshot {
+        final long[] counters;
+        final long[] gauges;
+        final Histogram[] histograms;
+
+        Snapshot(long[] counters, long[] gauges, Histogram[] histograms) {
+            this.counters = counters;
+            this.gauges = gauges;
+            this.histograms = histograms;
+        }
+    }
+
+    // Not atomic across metrics: a record racing with the copy may show in a count but not its bucket
+    static Snapshot snapshot() {
+        long[] counterValues = new long[COUNTER_NAMES.length];
+        for (int i = 0; i < counterValues.length; i++) {
+            counterValues[i] = counters.get(i);
+        }
+        long[] gaugeValues = new long[GAUGE_NAMES.length];
+        for (int i = 0; i < gaugeValues.length; i++) {
+            gaugeValues[i] = gauges.get(i);
+        }
+        Histogram[] histograms = new Histogram[HISTOGRAM_NAMES.length];
+        for (int h = 0; h < histograms.length; h++) {
+            long[] copy = new long[BUCKETS];
+            long count = 0;
+            for (int b = 0; b < BUCKETS; b++) {
+                copy[b] = buckets.get(h * BUCKETS + b);
+                count += copy[b];
+            }
+            // The bucket copy is the source of truth for percentiles
+            histograms[h] = new Histogram(HISTOGRAM_NAMES[h], count, sums.get(h), maxima.get(h), copy);
+        }
+        return new Snapshot(counterValues, gaugeValues, histograms);
+    }
+
+    static void reset() {
+        for (int i = 0; i < COUNTER_NAMES.length; i++) {
+            counters.set(i, 0);
+        }
+        for (int i = 0; i < GAUGE_NAMES.length; i++) {
+            gauges.set(i, 0);
+        }
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+        for (int h = 0; h < HISTOGRAM_NAMES.length; h++) {
+            counts.set(h, 0);
+            sums.set(h, 0);
+            maxima.set(h, 0);
+        }
+    }
+
+    // One line per dump, space separated:
+    //   m1 <epoch ms> <version name>/<version code> <process uptime s>
+    //   c:<name>=<value>,...  g:<name>=<value>,...
+    //   h:<name>=<count>/<sum µs>/<max µs>/<bucket>x<n>.<bucket>x<n>...   (non-empty buckets only)
+    // Values are cumulative since the process started (or the last reset()).
+    static String dumpLine(Snapshot snapshot, long nowMs, String version, long uptimeSec) {
+        StringBuilder line = new StringBuilder(256);
+        line.append("m1 ").append(nowMs).append(' ').append(version).append(' ').append(uptimeSec);
+        line.append(" c:");
+        for (int i = 0; i < COUNTER_NAMES.length; i++) {
+            line.append(i > 0 ? "," : "").append(COUNTER_NAMES[i]).append('=').append(snapshot.counters[i]);
+        }
+        line.append(" g:");
+        for (int i = 0; i < GAUGE_NAMES.length; i++) {
+            line.append(i > 0 ? "," : "").append(GAUGE_NAMES[i]).append('=').append(snapshot.gauges[i]);
+        }
+        for (Histogram histogram : snapshot.histograms) {
+            if (histogram.count == 0) {
+                continue;
+            }
+            line.append(" h:").append(histogram.name).append('=').append(histogram.count)
+                .append('/').append(histogram.sum).append('/').append(histogram.max).append('/');
+            boolean first = true;
+            for (int b = 0; b < histogram.buckets.length; b++) {
+                if (histogram.buckets[b] != 0) {
+                    line.append(first ? "" : ".").append(b).append('x').append(histogram.buckets[b]);
+                    first = false;
+                }
+            }
+        }
+        return line.append('\n').toString();
+    }
+
+    static File dumpFile(Context context) {
+        return new File(new File(context.getFilesDir(), "metrics"), "metrics.log");
+    }
+
+    // MainApplication.onCreate; the first dump is one interval after start
+    static synchronized void startDumps(Context context) {
+        if (dumper != null) {
+            return;
+        }
+        Context app = context.getApplicationContext();
+        dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "MetricsDump");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        dumper.scheduleWithFixedDelay(() -> dump(app, false), DUMP_INTERVAL_MS, DUMP_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    // Appends a line unless nothing was recorded since the last one (or `force`); rotates to
+    // metrics.log.1 past MAX_DUMP_BYTES. Returns the file, or null when nothing was written.
+    static synchronized File dump(Context context, boolean force) {
+        long total = 0;
+        for (int i = 0; i < COUNTER_NAMES.length; i++) {
+            total += counters.get(i);
+        }
+        for (int h = 0; h < HISTOGRAM_NAMES.length; h++) {
+            total += counts.get(h);
+        }
+        if (!force && total == lastDumpedTotal) {
+            return null;
+        }
+        File file = dumpFile(context);
+        try {
+            File dir = file.getParentFile();
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Cannot create " + dir);
+            }
+            if (file.length() > MAX_DUMP_BYTES) {
+                File previous = new File(dir, file.getName() + ".1");
+                if (previous.exists() && !previous.delete() || !file.renameTo(previous)) {
+                    throw new IOException("Cannot rotate " + file);
+                }
+            }
+            String line = dumpLine(snapshot(), System.currentTimeMillis(),
+                BuildConfig.VERSION_NAME + "/" + BuildConfig.VERSION_CODE,
+                (android.os.SystemClock.elapsedRealtime() - StartupTrace.processStartMs()) / 1000);
+            Writer writer = new OutputStreamWriter(new FileOutputStream(file, true), Charset.forName("UTF-8"));
+            try {
+                writer.write(line);
+            } finally {
+                writer.close();
+            }
+            lastDumpedTotal = total;
+            return file;
+        } catch (IOException | RuntimeException e) {
+            OverlayLog.w("📈 Metrics dump failed: {}", e.getMessage());
+            return null;
+        }
+    }
+}
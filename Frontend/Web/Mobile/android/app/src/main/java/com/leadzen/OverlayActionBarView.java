@@ -0,0 +1,71 @@
+package com.leadzen;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.text.StaticLayout;
+
+// Bottom action bar of the expanded overlay (Labels, Note, Reminder, Task): equal cells with an
+// icon over a caption; the selected one is purple and underlined.
+final class OverlayActionBarView extends FlatOverlayView {
+    private static final String[] ICONS = {"🏷️", "📝", "⏰", "✅"};
+    private static final String[] LABELS = {"Labels", "Note", "Reminder", "Task"};
+    private static final int SELECTED_INDEX = 0;
+    private static final int SELECTED = Color.parseColor("#8B5CF6");
+    private static final int UNSELECTED = Color.parseColor("#9CA3AF");
+
+    private final StaticLayout[] icons = new StaticLayout[ICONS.length];
+    private final StaticLayout[] labels = new StaticLayout[LABELS.length];
+    private final int cellHeight;
+
+    OverlayActionBarView(Context context, OverlayDrawables drawables) {
+        super(context, drawables, LABELS);
+        for (int i = 0; i < LABELS.length; i++) {
+            icons[i] = drawables.caption(ICONS[i], OverlayDrawables.ICON_LARGE);
+            labels[i] = drawables.caption(LABELS[i], i == SELECTED_INDEX ? OverlayDrawables.SMALL_BOLD : OverlayDrawables.SMALL);
+        }
+        // 8dp padding, icon, 4dp, caption, 4dp + 2dp underline, 8dp padding
+        cellHeight = drawables.dp(26) + drawables.lineHeight(OverlayDrawables.ICON_LARGE)
+            + drawables.lineHeight(OverlayDrawables.SMALL_BOLD);
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        // 16dp above the cells, 8dp under them
+        setMeasuredDimension(MeasureSpec.getSize(widthMeasureSpec),
+            resolveSize(cellHeight + drawables.dp(24), heightMeasureSpec));
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        float left = drawables.dp(8);
+        float cellWidth = (w - 2 * left) / LABELS.length;
+        float top = drawables.dp(16);
+        for (int i = 0; i < LABELS.length; i++) {
+            targets[i].set(left + i * cellWidth, top, left + (i + 1) * cellWidth, top + cellHeight);
+        }
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        for (int i = 0; i < LABELS.length; i++) {
+            boolean isSelected = i == SELECTED_INDEX;
+            int color = isSelected ? SELECTED : UNSELECTED;
+            float centerX = targets[i].centerX();
+            // Unselected cells have no underline; center their content like the taller selected one
+            float contentHeight = icons[i].getHeight() + drawables.dp(4) + labels[i].getHeight()
+                + (isSelected ? drawables.dp(6) : 0);
+            float y = targets[i].centerY() - contentHeight / 2f;
+            drawables.draw(canvas, icons[i], centerX - icons[i].getWidth() / 2f, y, color);
+            y += icons[i].getHeight() + drawables.dp(4);
+            drawables.draw(canvas, labels[i], centerX - labels[i].getWidth() / 2f, y, color);
+            if (isSelected) {
+                y += labels[i].getHeight() + drawables.dp(4);
+                float half = drawables.dp(24) / 2f;
+                drawables.fill.setColor(SELECTED);
+                canvas.drawRect(centerX - half, y, centerX + half, y + drawables.dp(2), drawables.fill);
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.leadzen;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.text.StaticLayout;
+
+// Quick action rows of the expanded overlay (Send SMS, Move to..., Create Meeting): rounded
+// outlined rows with an icon and a label. Send SMS is only shown after the call.
+final class OverlayActionListView extends FlatOverlayView {
+    static final int SMS = 0;
+
+    private static final String[] ICONS = {"💬", "🔗", "📅"};
+    private static final String[] LABELS = {"Send SMS", "Move to...", "Create Meeting"};
+    private static final int ROW_BG = Color.parseColor("#F9FAFB");
+    private static final int ROW_BORDER = Color.parseColor("#E5E7EB");
+    private static final int TEXT = Color.parseColor("#374151");
+
+    private final StaticLayout[] icons = new StaticLayout[ICONS.length];
+    private final StaticLayout[] labels = new StaticLayout[LABELS.length];
+    private final int rowHeight;
+    private boolean smsVisible;
+
+    OverlayActionListView(Context context, OverlayDrawables drawables) {
+        super(context, drawables, LABELS);
+        for (int i = 0; i < LABELS.length; i++) {
+            icons[i] = drawables.caption(ICONS[i], OverlayDrawables.ICON);
+            labels[i] = drawables.caption(LABELS[i], OverlayDrawables.BODY);
+        }
+        rowHeight = drawables.dp(24) + Math.max(drawables.lineHeight(OverlayDrawables.ICON),
+            drawables.lineHeight(OverlayDrawables.BODY));
+    }
+
+    void setSmsVisible(boolean visible) {
+        if (smsVisible != visible) {
+            smsVisible = visible;
+            requestLayout();
+            invalidate();
+        }
+    }
+
+    private int firstRow() {
+        return smsVisible ? SMS : SMS + 1;
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        // Each row has 8dp under it, the list 20dp
+        int rows = LABELS.length - firstRow();
+        setMeasuredDimension(MeasureSpec.getSize(widthMeasureSpec),
+            resolveSize(rows * (rowHeight + drawables.dp(8)) + drawables.dp(20), heightMeasureSpec));
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        super.onLayout(changed, left, top, right, bottom);
+        float y = 0;
+        for (int i = 0; i < LABELS.length; i++) {
+            if (i < firstRow()) {
+                targets[i].setEmpty();
+                continue;
+            }
+            targets[i].set(0, y, right - left, y + rowHeight);
+            y += rowHeight + drawables.dp(8);
+        }
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        float radius = drawables.dp(8);
+        float border = drawables.dp(1);
+        drawables.fill.setColor(ROW_BG);
+        drawables.stroke.setColor(ROW_BORDER);
+        drawables.stroke.setStrokeWidth(border);
+        for (int i = firstRow(); i < LABELS.length; i++) {
+            float top = targets[i].top;
+            float centerY = top + rowHeight / 2f;
+            drawables.rect.set(border / 2f, top + border / 2f, getWidth() - border / 2f, top + rowHeight - border / 2f);
+            canvas.drawRoundRect(drawables.rect, radius, radius, drawables.fill);
+            canvas.drawRoundRect(drawables.rect, radius, radius, drawables.stroke);
+
+            float x = drawables.dp(16);
+            drawables.draw(canvas, icons[i], x, centerY - icons[i].getHeight() / 2f, TEXT);
+            x += icons[i].getWidth() + drawables.dp(12);
+            drawables.draw(canvas, labels[i], x, centerY - labels[i].getHeight() / 2f, TEXT);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.leadzen;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.Build;
+import android.os.PowerManager;
+import android.view.Choreographer;
+import android.view.View;
+import android.view.animation.DecelerateInterpolator;
+import java.util.ArrayList;
+
+// Owns every overlay animation of FloatingOverlayService.
+//
+// Pulse rings (PulseView) share one Choreographer frame callback as their clock. It is posted
+// only while the screen is on and at least one registered ring is on screen, so a detached
+// bubble, an expanded overlay that was hidden or thrown away, or a screen that went off costs
+// no frames. The slide-in of the expanded overlay is one ValueAnimator created once and
+// re-targeted on every show, so rebuilding the overlay doesn't add animators.
+//
+// Main thread only.
+final class OverlayAnimationController implements Choreographer.FrameCallback {
+    // The running service's controller, for stats; main thread
+    private static OverlayAnimationController current;
+
+    private final Context context;
+    private final ArrayList<PulseView> pulses = new ArrayList<>();
+    private int activePulses;
+    private boolean screenOn = true;
+    private boolean ticking;
+    private boolean released;
+
+    private final ValueAnimator slide;
+    private View slideTarget;
+    private float slideFromY;
+
+    // Stats
+    private long frames;
+    private long pauses;
+    private long resumes;
+    private long slides;
+
+    private final BroadcastReceiver screenReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            setScreenOn(Intent.ACTION_SCREEN_ON.equals(intent.getAction()));
+        }
+    };
+
+    OverlayAnimationController(Context context) {
+        this.context = context;
+        slide = ValueAnimator.ofFloat(0f, 1f);
+        slide.setInterpolator(new DecelerateInterpolator());
+        slide.addUpdateListener(animator -> {
+            if (slideTarget != null) {
+                float fraction = (float) animator.getAnimatedValue();
+                slideTarget.setAlpha(fraction);
+                slideTarget.setTranslationY(slideFromY * (1f - fraction));
+            }
+        });
+        slide.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                // The overlay window holds the view; don't keep it past the animation
+                slideTarget = null;
+            }
+        });
+    }
+
+    // Service onCreate: follow screen on / off from here on
+    void start() {
+        PowerManager power = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        screenOn = power == null || power.isInteractive();
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_SCREEN_ON);
+        filter.addAction(Intent.ACTION_SCREEN_OFF);
+        // SCREEN_ON/OFF are protected broadcasts, which only the system can send, and they reach
+        // a non-exported receiver too; RECEIVER_NOT_EXPORTED keeps other apps from sending them here
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
+            context.registerReceiver(screenReceiver, filter, Context.RECEIVER_NOT_EXPORTED);
+        } else {
+            context.registerReceiver(screenReceiver, filter);
+        }
+        current = this;
+    }
+
+    // Service onDestroy
+    void release() {
+        if (released) {
+            return;
+        }
+        released = true;
+        if (current == this) {
+            current = null;
+        }
+        try {
+            context.unregisterReceiver(screenReceiver);
+        } catch (IllegalArgumentException e) {
+            // start() never ran
+        }
+        cancelSlide();
+        pulses.clear();
+        activePulses = 0;
+        reconcile();
+    }
+
+    void register(PulseView pulse) {
+        if (!pulses.contains(pulse)) {
+            pulses.add(pulse);
+        }
+    }
+
+    // The view is being thrown away (memory trim); it won't be drawn again
+    void unregister(PulseView pulse) {
+        if (pulses.remove(pulse) && pulse.active) {
+            pulse.active = false;
+            activePulses--;
+            reconcile();
+        }
+    }
+
+    void setActive(PulseView pulse, boolean active) {
+        if (pulse.active == active || !pulses.contains(pulse)) {
+            return;
+        }
+        pulse.active = active;
+        activePulses += active ? 1 : -1;
+        reconcile();
+    }
+
+    void setScreenOn(boolean on) {
+        if (screenOn != on) {
+            screenOn = on;
+            reconcile();
+        }
+    }
+
+    // Fades and slides `view` in from `fromY` px below its place
+    void slideIn(View view, float fromY, long durationMs) {
+        slide.cancel();
+        slideTarget = view;
+        slideFromY = fromY;
+        view.setAlpha(0f);
+        view.setTranslationY(fromY);
+        slide.setDuration(durationMs);
+        slide.start();
+        slides++;
+    }
+
+    void cancelSlide() {
+        slide.cancel();
+        slideTarget = null;
+    }
+
+    private void reconcile() {
+        boolean run = !released && screenOn && activePulses > 0;
+        if (run == ticking) {
+            return;
+        }
+        ticking = run;
+        if (run) {
+            resumes++;
+            Choreographer.getInstance().postFrameCallback(this);
+        } else {
+            pauses++;
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!ticking) {
+            return;
+        }
+        frames++;
+        for (int i = 0; i < pulses.size(); i++) {
+            PulseView pulse = pulses.get(i);
+            if (pulse.active) {
+                pulse.onFrame(frameTimeNanos);
+            }
+        }
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    static OverlayAnimationController current() {
+        return current;
+    }
+
+    // Running animators: the pulse clock and the slide-in; at most 2 whatever the number of rebuilds
+    int activeAnimators() {
+        return (ticking ? 1 : 0) + (slide.isRunning() ? 1 : 0);
+    }
+
+    int registeredPulses() {
+        return pulses.size();
+    }
+
+    int activePulses() {
+        return activePulses;
+    }
+
+    boolean screenOn() {
+        return screenOn;
+    }
+
+    long frames() {
+        return frames;
+    }
+
+    long pauses() {
+        return pauses;
+    }
+
+    long resumes() {
+        return resumes;
+    }
+
+    long slides() {
+        return slides;
+    }
+}
@@ -0,0 +1,222 @@
+package com.leadzen;
+
+import android.animation.ValueAnimator;
+import android.util.DisplayMetrics;
+import android.view.Choreographer;
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.View;
+import android.view.ViewConfiguration;
+import android.view.WindowManager;
+import android.view.animation.DecelerateInterpolator;
+
+// Touch handling for the floating bubble.
+// Move events only record the target position; the window is moved at most once per
+// Choreographer frame. Nothing on the move path allocates or logs. On release the bubble
+// keeps its fling momentum and settles inside the screen edges using one reusable animator.
+final class OverlayDragController implements View.OnTouchListener, Choreographer.FrameCallback {
+    private static final float DRAG_THRESHOLD_PX = 15f;
+    private static final float CLICK_MAX_DISTANCE_PX = 20f;
+    private static final long CLICK_MAX_DURATION_MS = 500;
+    private static final float FLING_PROJECTION_SECONDS = 0.2f;
+    private static final long SETTLE_DURATION_MS = 300;
+
+    private final WindowManager windowManager;
+    private final View view;
+    private final WindowManager.LayoutParams params;
+    private final Runnable onClick;
+    private final Choreographer choreographer = Choreographer.getInstance();
+    private final int minFlingVelocity;
+    private final int maxFlingVelocity;
+
+    private VelocityTracker velocityTracker;
+    private ValueAnimator settleAnimator;
+    private int settleFromX, settleFromY, settleToX, settleToY;
+
+    private int initialX, initialY;
+    private float initialTouchX, initialTouchY;
+    private long touchStartTime;
+    private boolean isDragging;
+    private int pendingX, pendingY;
+    private boolean frameScheduled;
+
+    // Counters for the drag path, reset on every touch down
+    private int moveEvents;
+    private int layoutUpdates;
+
+    OverlayDragController(WindowManager windowManager, View view, WindowManager.LayoutParams params, Runnable onClick) {
+        this.windowManager = windowManager;
+        this.view = view;
+        this.params = params;
+        this.onClick = onClick;
+        ViewConfiguration configuration = ViewConfiguration.get(view.getContext());
+        this.minFlingVelocity = configuration.getScaledMinimumFlingVelocity();
+        this.maxFlingVelocity = configuration.getScaledMaximumFlingVelocity();
+    }
+
+    int moveEventCount() {
+        return moveEvents;
+    }
+
+    int layoutUpdateCount() {
+        return layoutUpdates;
+    }
+
+    @Override
+    public boolean onTouch(View v, MotionEvent event) {
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                cancelSettle();
+                initialX = params.x;
+                initialY = params.y;
+                pendingX = params.x;
+                pendingY = params.y;
+                initialTouchX = event.getRawX();
+                initialTouchY = event.getRawY();
+                touchStartTime = event.getEventTime();
+                isDragging = false;
+                moveEvents = 0;
+                layoutUpdates = 0;
+                if (velocityTracker == null) {
+                    velocityTracker = VelocityTracker.obtain();
+                } else {
+                    velocityTracker.clear();
+                }
+                velocityTracker.addMovement(event);
+
+                // Add visual feedback - slightly scale down
+                view.animate().scaleX(0.95f).scaleY(0.95f).setDuration(100).start();
+                return true;
+
+            case MotionEvent.ACTION_MOVE:
+                if (velocityTracker == null) {
+                    // No DOWN seen for this gesture (e.g. the bubble was re-added mid-touch)
+                    return false;
+                }
+                moveEvents++;
+                velocityTracker.addMovement(event);
+                float deltaX = event.getRawX() - initialTouchX;
+                float deltaY = event.getRawY() - initialTouchY;
+                if (!isDragging && deltaX * deltaX + deltaY * deltaY > DRAG_THRESHOLD_PX * DRAG_THRESHOLD_PX) {
+                    isDragging = true;
+                }
+                if (isDragging) {
+                    pendingX = initialX + (int) deltaX;
+                    pendingY = initialY + (int) deltaY;
+                    if (!frameScheduled) {
+                        frameScheduled = true;
+                        choreographer.postFrameCallback(this);
+                    }
+                }
+                return true;
+
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
+                if (velocityTracker == null) {
+                    return false;
+                }
+                velocityTracker.addMovement(event);
+                // Restore visual feedback
+                view.animate().scaleX(1.0f).scaleY(1.0f).setDuration(100).start();
+
+                long touchDuration = event.getEventTime() - touchStartTime;
+                float finalDeltaX = event.getRawX() - initialTouchX;
+                float finalDeltaY = event.getRawY() - initialTouchY;
+                float finalMoveDistance = (float) Math.sqrt(finalDeltaX * finalDeltaX + finalDeltaY * finalDeltaY);
+
+                if (isDragging) {
+                    // Apply the last position now rather than on the next frame, then fling from there
+                    if (frameScheduled) {
+                        choreographer.removeFrameCallback(this);
+                        doFrame(0L);
+                    }
+                    velocityTracker.computeCurrentVelocity(1000, maxFlingVelocity);
+                    settle(velocityTracker.getXVelocity(), velocityTracker.getYVelocity());
+                    OverlayLog.d("📍 Drag ended: {} move events, {} layout updates", moveEvents, layoutUpdates);
+                } else if (event.getActionMasked() == MotionEvent.ACTION_UP
+                    && touchDuration < CLICK_MAX_DURATION_MS && finalMoveDistance < CLICK_MAX_DISTANCE_PX) {
+                    // This is a click, not a drag
+                    if (OverlayLog.DEBUG) {
+                        OverlayLog.d("🎯 Click confirmed: {}ms, {}px", touchDuration, (long) finalMoveDistance);
+                    }
+                    onClick.run();
+                }
+
+                isDragging = false;
+                velocityTracker.recycle();
+                velocityTracker = null;
+                return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        frameScheduled = false;
+        if (pendingX != params.x || pendingY != params.y) {
+            params.x = pendingX;
+            params.y = pendingY;
+            updateLayout();
+        }
+    }
+
+    // Projects the fling a short distance ahead and eases into a position fully on screen
+    private void settle(float velocityX, float velocityY) {
+        int targetX = params.x;
+        int targetY = params.y;
+        if (Math.abs(velocityX) > minFlingVelocity || Math.abs(velocityY) > minFlingVelocity) {
+            targetX += (int) (velocityX * FLING_PROJECTION_SECONDS);
+            targetY += (int) (velocityY * FLING_PROJECTION_SECONDS);
+        }
+        DisplayMetrics metrics = view.getResources().getDisplayMetrics();
+        targetX = Math.max(0, Math.min(targetX, metrics.widthPixels - view.getWidth()));
+        targetY = Math.max(0, Math.min(targetY, metrics.heightPixels - view.getHeight()));
+        if (targetX == params.x && targetY == params.y) {
+            return;
+        }
+
+        settleFromX = params.x;
+        settleFromY = params.y;
+        settleToX = targetX;
+        settleToY = targetY;
+        if (settleAnimator == null) {
+            settleAnimator = ValueAnimator.ofFloat(0f, 1f);
+            settleAnimator.setDuration(SETTLE_DURATION_MS);
+            settleAnimator.setInterpolator(new DecelerateInterpolator());
+            settleAnimator.addUpdateListener(animation -> {
+                float fraction = animation.getAnimatedFraction();
+                params.x = settleFromX + Math.round((settleToX - settleFromX) * fraction);
+                params.y = settleFromY + Math.round((settleToY - settleFromY) * fraction);
+                updateLayout();
+            });
+        }
+        settleAnimator.start();
+    }
+
+    private void cancelSettle() {
+        if (settleAnimator != null && settleAnimator.isRunning()) {
+            settleAnimator.cancel();
+        }
+    }
+
+    // Stops pending frame work when the bubble is removed
+    void release() {
+        cancelSettle();
+        if (frameScheduled) {
+            choreographer.removeFrameCallback(this);
+            frameScheduled = false;
+        }
+        if (velocityTracker != null) {
+            velocityTracker.recycle();
+            velocityTracker = null;
+        }
+    }
+
+    private void updateLayout() {
+        if (!view.isAttachedToWindow()) {
+            return;
+        }
+        windowManager.updateViewLayout(view, params);
+        layoutUpdates++;
+    }
+}
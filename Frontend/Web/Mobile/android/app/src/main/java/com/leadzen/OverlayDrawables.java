@@ -0,0 +1,100 @@
+package com.leadzen;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.graphics.Typeface;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.text.TextUtils;
+import android.util.DisplayMetrics;
+import java.util.HashMap;
+
+// Drawing state shared by the flat sections of the expanded overlay (FlatOverlayView): one fill
+// and one stroke Paint, a TextPaint per text style and the single-line StaticLayouts of the fixed
+// captions (tab titles, pill and button labels, icons). FloatingOverlayService owns it, so an
+// overlay rebuilt after a memory trim lays out no caption twice.
+//
+// Colors are set on the shared paints right before each draw. Main thread only.
+final class OverlayDrawables {
+    // Text styles, matching the TextView sizes of the old section builders
+    static final int TITLE = 0;       // 18sp bold: contact name
+    static final int BODY = 1;        // 14sp
+    static final int BODY_BOLD = 2;   // 14sp bold
+    static final int SMALL = 3;       // 12sp
+    static final int SMALL_BOLD = 4;  // 12sp bold
+    static final int ICON = 5;        // 16sp
+    static final int ICON_LARGE = 6;  // 20sp
+    static final int AVATAR = 7;      // 24sp
+    private static final int[] SIZES_SP = {18, 14, 14, 12, 12, 16, 20, 24};
+    private static final boolean[] BOLD = {true, false, true, false, true, false, false, false};
+
+    final Paint fill = new Paint(Paint.ANTI_ALIAS_FLAG);
+    final Paint stroke = new Paint(Paint.ANTI_ALIAS_FLAG);
+    final RectF rect = new RectF(); // scratch for onDraw
+    private final TextPaint[] paints = new TextPaint[SIZES_SP.length];
+    private final int[] lineHeights = new int[SIZES_SP.length];
+    // Fixed strings only, so it stays at a few dozen entries
+    private final HashMap<String, StaticLayout> captions = new HashMap<>();
+    private final float density;
+
+    OverlayDrawables(Context context) {
+        DisplayMetrics metrics = context.getResources().getDisplayMetrics();
+        density = metrics.density;
+        stroke.setStyle(Paint.Style.STROKE);
+        for (int i = 0; i < paints.length; i++) {
+            TextPaint paint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+            paint.setTextSize(SIZES_SP[i] * metrics.scaledDensity);
+            paint.setTypeface(BOLD[i] ? Typeface.DEFAULT_BOLD : Typeface.DEFAULT);
+            paints[i] = paint;
+            lineHeights[i] = -1;
+        }
+    }
+
+    int dp(int dp) {
+        return Math.round(dp * density);
+    }
+
+    // Fixed text at its natural width, built once per style
+    StaticLayout caption(String text, int style) {
+        String key = style + "|" + text;
+        StaticLayout layout = captions.get(key);
+        if (layout == null) {
+            layout = build(text, paints[style]);
+            captions.put(key, layout);
+        }
+        return layout;
+    }
+
+    // Per-call text (name, number): one line, ellipsized to maxWidth; the caller keeps it until the text changes
+    StaticLayout line(CharSequence text, int style, int maxWidth) {
+        TextPaint paint = paints[style];
+        return build(TextUtils.ellipsize(text, paint, Math.max(0, maxWidth), TextUtils.TruncateAt.END), paint);
+    }
+
+    // Height of one line in the style, font padding included like a TextView's
+    int lineHeight(int style) {
+        if (lineHeights[style] < 0) {
+            lineHeights[style] = caption("Ag", style).getHeight();
+        }
+        return lineHeights[style];
+    }
+
+    // Draws the layout with its top-left corner at (x, y)
+    void draw(Canvas canvas, StaticLayout layout, float x, float y, int color) {
+        layout.getPaint().setColor(color);
+        canvas.save();
+        canvas.translate(x, y);
+        layout.draw(canvas);
+        canvas.restore();
+    }
+
+    // The constructor is deprecated, but StaticLayout.Builder needs API 23 and minSdk is 21
+    @SuppressWarnings("deprecation")
+    private static StaticLayout build(CharSequence text, TextPaint paint) {
+        int width = (int) Math.ceil(paint.measureText(text, 0, text.length()));
+        return new StaticLayout(text, paint, Math.max(1, width), Layout.Alignment.ALIGN_NORMAL, 1f, 0f, true);
+    }
+}
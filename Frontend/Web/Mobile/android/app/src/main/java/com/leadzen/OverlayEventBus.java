@@ -0,0 +1,155 @@
+package com.leadzen;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// In-process event bus from FloatingOverlayService to FloatingOverlayModule.
+// Replaces the FLOATING_OVERLAY_CLICKED broadcast: the service and the React module live in the
+// same process, so events go through a lock-free queue instead of a system-server round trip.
+//
+// Events are buffered (up to MAX_PENDING, oldest dropped first) while no listener is attached or
+// the listener reports it cannot deliver yet (Catalyst inactive). They are replayed in sequence
+// order on the next attach() or drain(); the module drains again on host resume.
+final class OverlayEventBus {
+    static final int TYPE_CLICK = 1;
+    static final int TYPE_ACTION = 2;
+    static final int TYPE_TAB_CHANGED = 3;
+    static final int TYPE_CALL_STATE = 4;
+
+    private static final int MAX_PENDING = 64;
+
+    static final class Event {
+        final long sequence;
+        final int type;
+        final String name;
+        final String value;
+        final long postedAtNanos;
+
+        Event(long sequence, int type, String name, String value, long postedAtNanos) {
+            this.sequence = sequence;
+            this.type = type;
+            this.name = name;
+            this.value = value;
+            this.postedAtNanos = postedAtNanos;
+        }
+
+        static String typeName(int type) {
+            switch (type) {
+                case TYPE_CLICK:
+                    return "click";
+                case TYPE_ACTION:
+                    return "action";
+                case TYPE_TAB_CHANGED:
+                    return "tabChanged";
+                case TYPE_CALL_STATE:
+                    return "callState";
+                default:
+                    return "unknown";
+            }
+        }
+    }
+
+    interface Listener {
+        // Returns false when the event cannot be delivered yet; it then stays buffered
+        boolean deliver(Event event);
+    }
+
+    private static final AtomicLong sequence = new AtomicLong();
+    private static final AtomicReference<Listener> listener = new AtomicReference<>();
+    private static final ConcurrentLinkedQueue<Event> pending = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger pendingCount = new AtomicInteger();
+    private static final AtomicBoolean draining = new AtomicBoolean();
+
+    private static final AtomicLong delivered = new AtomicLong();
+    private static final AtomicLong dropped = new AtomicLong();
+    private static final AtomicLong totalLatencyNanos = new AtomicLong();
+    private static final AtomicLong maxLatencyNanos = new AtomicLong();
+    private static volatile long lastLatencyNanos;
+
+    private OverlayEventBus() {
+    }
+
+    static long post(int type, String name, String value) {
+        Event event = new Event(sequence.incrementAndGet(), type, name, value, System.nanoTime());
+        pending.offer(event);
+        if (pendingCount.incrementAndGet() > MAX_PENDING && pending.poll() != null) {
+            pendingCount.decrementAndGet();
+            dropped.incrementAndGet();
+        }
+        drain();
+        return event.sequence;
+    }
+
+    static void attach(Listener newListener) {
+        listener.set(newListener);
+        drain();
+    }
+
+    static void detach(Listener oldListener) {
+        listener.compareAndSet(oldListener, null);
+    }
+
+    // Delivers buffered events in order. Only one thread drains at a time; a thread that loses the
+    // race leaves its event to the active drainer, which re-checks the queue before giving up.
+    static void drain() {
+        while (true) {
+            Listener current = listener.get();
+            if (current == null || pending.isEmpty() || !draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                Event event;
+                while ((event = pending.peek()) != null) {
+                    if (!current.deliver(event)) {
+                        return;
+                    }
+                    // remove by identity: a poster may have dropped this head as overflow meanwhile
+                    if (pending.remove(event)) {
+                        pendingCount.decrementAndGet();
+                    }
+                    recordLatency(System.nanoTime() - event.postedAtNanos);
+                }
+            } finally {
+                draining.set(false);
+            }
+        }
+    }
+
+    private static void recordLatency(long latencyNanos) {
+        delivered.incrementAndGet();
+        totalLatencyNanos.addAndGet(latencyNanos);
+        lastLatencyNanos = latencyNanos;
+        long max;
+        while (latencyNanos > (max = maxLatencyNanos.get()) && !maxLatencyNanos.compareAndSet(max, latencyNanos)) {
+            // retry
+        }
+    }
+
+    static long deliveredCount() {
+        return delivered.get();
+    }
+
+    static long droppedCount() {
+        return dropped.get();
+    }
+
+    static int pendingCount() {
+        return Math.max(0, pendingCount.get());
+    }
+
+    static long averageLatencyNanos() {
+        long count = delivered.get();
+        return count == 0 ? 0 : totalLatencyNanos.get() / count;
+    }
+
+    static long maxLatencyNanos() {
+        return maxLatencyNanos.get();
+    }
+
+    static long lastLatencyNanos() {
+        return lastLatencyNanos;
+    }
+}
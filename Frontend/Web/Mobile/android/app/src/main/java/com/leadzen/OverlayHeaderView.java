@@ -0,0 +1,116 @@
+package com.leadzen;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.text.StaticLayout;
+import android.text.TextUtils;
+
+// Expanded overlay header: purple-ringed avatar, contact name / company / number and the close
+// button. The three text lines are laid out again only when the contact or the width changes.
+final class OverlayHeaderView extends FlatOverlayView {
+    static final int CLOSE = 0;
+
+    private static final int RING = Color.parseColor("#8B5CF6");
+    private static final int AVATAR_BG = Color.parseColor("#F3F4F6");
+    private static final int NAME = Color.parseColor("#111827");
+    private static final int ROLE = Color.parseColor("#6B7280");
+    private static final int PHONE = Color.parseColor("#374151");
+    private static final int CLOSE_COLOR = Color.parseColor("#9CA3AF");
+
+    private final StaticLayout avatar;
+    private final StaticLayout close;
+    private CharSequence name = "";
+    private CharSequence role = "";
+    private CharSequence phone = "";
+    private StaticLayout nameLayout;
+    private StaticLayout roleLayout;
+    private StaticLayout phoneLayout;
+    private int rowHeight;
+    private int textLeft;
+    private int textWidth = -1;
+
+    OverlayHeaderView(Context context, OverlayDrawables drawables) {
+        super(context, drawables, new String[] {"Close"});
+        avatar = drawables.caption("👤", OverlayDrawables.AVATAR);
+        close = drawables.caption("✕", OverlayDrawables.ICON_LARGE);
+    }
+
+    void setContact(CharSequence name, CharSequence role, CharSequence phone) {
+        if (TextUtils.equals(name, this.name) && TextUtils.equals(role, this.role) && TextUtils.equals(phone, this.phone)) {
+            return;
+        }
+        this.name = name;
+        this.role = role;
+        this.phone = phone;
+        setContentDescription(name + ", " + role + ", " + phone);
+        layoutText();
+        invalidate();
+    }
+
+    private int textHeight() {
+        return drawables.lineHeight(OverlayDrawables.TITLE) + drawables.dp(2)
+            + drawables.lineHeight(OverlayDrawables.BODY) + drawables.dp(4)
+            + drawables.lineHeight(OverlayDrawables.BODY);
+    }
+
+    private int closeWidth() {
+        return close.getWidth() + drawables.dp(24);
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int closeHeight = close.getHeight() + drawables.dp(24);
+        rowHeight = Math.max(drawables.dp(60), Math.max(textHeight(), closeHeight));
+        // 16dp under the contact row, 20dp under the header
+        setMeasuredDimension(MeasureSpec.getSize(widthMeasureSpec),
+            resolveSize(rowHeight + drawables.dp(36), heightMeasureSpec));
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        int closeWidth = closeWidth();
+        int closeHeight = close.getHeight() + drawables.dp(24);
+        float closeTop = (rowHeight - closeHeight) / 2f;
+        targets[CLOSE].set(w - closeWidth, closeTop, w, closeTop + closeHeight);
+        textLeft = drawables.dp(60) + drawables.dp(16);
+        textWidth = Math.max(0, w - textLeft - closeWidth);
+        layoutText();
+    }
+
+    private void layoutText() {
+        if (textWidth < 0) {
+            return; // not measured yet; onSizeChanged lays it out
+        }
+        nameLayout = drawables.line(name, OverlayDrawables.TITLE, textWidth);
+        roleLayout = drawables.line(role, OverlayDrawables.BODY, textWidth);
+        phoneLayout = drawables.line(phone, OverlayDrawables.BODY, textWidth);
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        float radius = drawables.dp(60) / 2f;
+        float ring = drawables.dp(3);
+        float centerY = rowHeight / 2f;
+
+        drawables.fill.setColor(AVATAR_BG);
+        canvas.drawCircle(radius, centerY, radius, drawables.fill);
+        drawables.stroke.setColor(RING);
+        drawables.stroke.setStrokeWidth(ring);
+        canvas.drawCircle(radius, centerY, radius - ring / 2f, drawables.stroke);
+        drawables.draw(canvas, avatar, radius - avatar.getWidth() / 2f, centerY - avatar.getHeight() / 2f, NAME);
+
+        if (nameLayout != null) {
+            float y = centerY - textHeight() / 2f;
+            drawables.draw(canvas, nameLayout, textLeft, y, NAME);
+            y += nameLayout.getHeight() + drawables.dp(2);
+            drawables.draw(canvas, roleLayout, textLeft, y, ROLE);
+            y += roleLayout.getHeight() + drawables.dp(4);
+            drawables.draw(canvas, phoneLayout, textLeft, y, PHONE);
+        }
+
+        float closeX = getWidth() - closeWidth() + drawables.dp(12);
+        drawables.draw(canvas, close, closeX, centerY - close.getHeight() / 2f, CLOSE_COLOR);
+    }
+}
@@ -0,0 +1,84 @@
+package com.leadzen;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.text.StaticLayout;
+import android.text.TextUtils;
+
+// Label section of the expanded overlay: a "Label <contact>" heading over one row of colored
+// pills. Pills past the right edge are clipped, as in the LinearLayout row they replace.
+final class OverlayLabelRowView extends FlatOverlayView {
+    private static final String[] PILLS = {"Warm Leads", "Customer", "Budge $", "Project A", "Project B"};
+    private static final int[] PILL_TEXT = {
+        Color.parseColor("#F59E0B"), // Orange/Yellow
+        Color.parseColor("#EF4444"), // Red
+        Color.parseColor("#8B5CF6"), // Purple
+        Color.parseColor("#3B82F6"), // Blue
+        Color.parseColor("#10B981"), // Green
+    };
+    private static final int[] PILL_BG = {
+        Color.parseColor("#FEF3C7"),
+        Color.parseColor("#FEE2E2"),
+        Color.parseColor("#F3E8FF"),
+        Color.parseColor("#DBEAFE"),
+        Color.parseColor("#D1FAE5"),
+    };
+    private static final int HEADER = Color.parseColor("#6B7280");
+
+    private final StaticLayout[] pills = new StaticLayout[PILLS.length];
+    private final int pillHeight;
+    private CharSequence header = "";
+    private StaticLayout headerLayout;
+
+    OverlayLabelRowView(Context context, OverlayDrawables drawables) {
+        super(context, drawables, new String[0]);
+        for (int i = 0; i < PILLS.length; i++) {
+            pills[i] = drawables.caption(PILLS[i], OverlayDrawables.SMALL_BOLD);
+        }
+        pillHeight = drawables.dp(12) + drawables.lineHeight(OverlayDrawables.SMALL_BOLD);
+    }
+
+    void setHeader(CharSequence header) {
+        if (!TextUtils.equals(header, this.header)) {
+            this.header = header;
+            layoutHeader(getWidth());
+            invalidate();
+        }
+    }
+
+    private void layoutHeader(int width) {
+        headerLayout = width > 0 ? drawables.line(header, OverlayDrawables.BODY_BOLD, width) : null;
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        // 12dp between heading and pills, 20dp under the section
+        int height = drawables.lineHeight(OverlayDrawables.BODY_BOLD) + drawables.dp(12) + pillHeight + drawables.dp(20);
+        setMeasuredDimension(MeasureSpec.getSize(widthMeasureSpec), resolveSize(height, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        layoutHeader(w);
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        if (headerLayout != null) {
+            drawables.draw(canvas, headerLayout, 0, 0, HEADER);
+        }
+        float top = drawables.lineHeight(OverlayDrawables.BODY_BOLD) + drawables.dp(12);
+        float radius = drawables.dp(16);
+        float x = 0;
+        for (int i = 0; i < PILLS.length && x < getWidth(); i++) {
+            float width = pills[i].getWidth() + drawables.dp(24);
+            drawables.rect.set(x, top, x + width, top + pillHeight);
+            drawables.fill.setColor(PILL_BG[i]);
+            canvas.drawRoundRect(drawables.rect, radius, radius, drawables.fill);
+            drawables.draw(canvas, pills[i], x + drawables.dp(12), top + drawables.dp(6), PILL_TEXT[i]);
+            x += width + drawables.dp(8);
+        }
+    }
+}
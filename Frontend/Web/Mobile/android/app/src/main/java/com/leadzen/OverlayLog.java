@@ -0,0 +1,216 @@
+package com.leadzen;
+
+import android.os.SystemClock;
+import android.util.Log;
+import java.util.Arrays;
+
+// Logging facade for the native overlay layer.
+//
+// Messages are templates with "{}" placeholders and up to two arguments. Primitive overloads take
+// long so call sites never box, and nothing is formatted unless the line is actually written.
+// Debug lines are gated on BuildConfig.OVERLAY_DEBUG_LOG, a compile-time constant that is false in
+// release builds, so `if (OverlayLog.DEBUG) OverlayLog.d(...)` is removed by javac there.
+//
+// Info and above are also kept in a fixed-size ring buffer (release included) that dump() formats
+// on demand for field debugging. The ring holds primitives and strings only: an object argument is
+// stored as its String.valueOf(), so a logged view, exception or bridge object is never kept alive
+// by the log. Logcat lines of those levels are formatted only while the tag is loggable, so
+// `setprop log.tag.FloatingOverlay ASSERT` leaves just the ring.
+//
+// Arguments are evaluated before the call, so a debug line whose arguments call methods or compute
+// values goes inside `if (OverlayLog.DEBUG)`.
+final class OverlayLog {
+    static final String TAG = "FloatingOverlay";
+    static final boolean DEBUG = BuildConfig.OVERLAY_DEBUG_LOG;
+
+    private static final int CAPACITY = 256;
+    private static final byte ARG_NONE = 0;
+    private static final byte ARG_LONG = 1;
+    private static final byte ARG_OBJECT = 2;
+
+    private static final Object lock = new Object();
+    private static final long[] times = new long[CAPACITY];
+    private static final int[] levels = new int[CAPACITY];
+    private static final String[] templates = new String[CAPACITY];
+    private static final byte[] kinds1 = new byte[CAPACITY];
+    private static final byte[] kinds2 = new byte[CAPACITY];
+    private static final long[] longs1 = new long[CAPACITY];
+    private static final long[] longs2 = new long[CAPACITY];
+    private static final String[] strings1 = new String[CAPACITY];
+    private static final String[] strings2 = new String[CAPACITY];
+    private static long written;
+
+    private OverlayLog() {
+    }
+
+    static void d(String message) {
+        if (DEBUG) {
+            log(Log.DEBUG, message, ARG_NONE, 0L, null, ARG_NONE, 0L, null);
+        }
+    }
+
+    static void d(String template, long a) {
+        if (DEBUG) {
+            log(Log.DEBUG, template, ARG_LONG, a, null, ARG_NONE, 0L, null);
+        }
+    }
+
+    static void d(String template, Object a) {
+        if (DEBUG) {
+            log(Log.DEBUG, template, ARG_OBJECT, 0L, a, ARG_NONE, 0L, null);
+        }
+    }
+
+    static void d(String template, long a, long b) {
+        if (DEBUG) {
+            log(Log.DEBUG, template, ARG_LONG, a, null, ARG_LONG, b, null);
+        }
+    }
+
+    static void d(String template, Object a, Object b) {
+        if (DEBUG) {
+            log(Log.DEBUG, template, ARG_OBJECT, 0L, a, ARG_OBJECT, 0L, b);
+        }
+    }
+
+    static void i(String message) {
+        log(Log.INFO, message, ARG_NONE, 0L, null, ARG_NONE, 0L, null);
+    }
+
+    static void i(String template, long a) {
+        log(Log.INFO, template, ARG_LONG, a, null, ARG_NONE, 0L, null);
+    }
+
+    static void i(String template, Object a) {
+        log(Log.INFO, template, ARG_OBJECT, 0L, a, ARG_NONE, 0L, null);
+    }
+
+    static void i(String template, long a, long b) {
+        log(Log.INFO, template, ARG_LONG, a, null, ARG_LONG, b, null);
+    }
+
+    static void i(String template, Object a, Object b) {
+        log(Log.INFO, template, ARG_OBJECT, 0L, a, ARG_OBJECT, 0L, b);
+    }
+
+    static void w(String message) {
+        log(Log.WARN, message, ARG_NONE, 0L, null, ARG_NONE, 0L, null);
+    }
+
+    static void w(String template, Object a) {
+        log(Log.WARN, template, ARG_OBJECT, 0L, a, ARG_NONE, 0L, null);
+    }
+
+    static void e(String message) {
+        log(Log.ERROR, message, ARG_NONE, 0L, null, ARG_NONE, 0L, null);
+    }
+
+    static void e(String template, Object a) {
+        log(Log.ERROR, template, ARG_OBJECT, 0L, a, ARG_NONE, 0L, null);
+    }
+
+    static void e(String message, Throwable error) {
+        record(Log.ERROR, message + ": {}", ARG_OBJECT, 0L, String.valueOf(error), ARG_NONE, 0L, null);
+        Log.e(TAG, message, error);
+    }
+
+    private static void log(int level, String template, byte kind1, long long1, Object object1,
+                            byte kind2, long long2, Object object2) {
+        if (level >= Log.INFO) {
+            record(level, template, kind1, long1, object1, kind2, long2, object2);
+            if (!Log.isLoggable(TAG, level)) {
+                return;
+            }
+        }
+        Log.println(level, TAG, format(template, kind1, long1, object1, kind2, long2, object2));
+    }
+
+    private static void record(int level, String template, byte kind1, long long1, Object object1,
+                               byte kind2, long long2, Object object2) {
+        synchronized (lock) {
+            int slot = (int) (written++ % CAPACITY);
+            times[slot] = SystemClock.elapsedRealtime();
+            levels[slot] = level;
+            templates[slot] = template;
+            kinds1[slot] = kind1;
+            longs1[slot] = long1;
+            strings1[slot] = kind1 == ARG_OBJECT ? String.valueOf(object1) : null;
+            kinds2[slot] = kind2;
+            longs2[slot] = long2;
+            strings2[slot] = kind2 == ARG_OBJECT ? String.valueOf(object2) : null;
+        }
+    }
+
+    // Oldest first, "<elapsedRealtime ms> <level> <message>"
+    static String[] dump() {
+        synchronized (lock) {
+            int count = (int) Math.min(written, CAPACITY);
+            String[] lines = new String[count];
+            long first = written - count;
+            for (int i = 0; i < count; i++) {
+                int slot = (int) ((first + i) % CAPACITY);
+                lines[i] = times[slot] + " " + levelName(levels[slot]) + " "
+                    + format(templates[slot], kinds1[slot], longs1[slot], strings1[slot],
+                        kinds2[slot], longs2[slot], strings2[slot]);
+            }
+            return lines;
+        }
+    }
+
+    static void clear() {
+        synchronized (lock) {
+            Arrays.fill(templates, null);
+            Arrays.fill(strings1, null);
+            Arrays.fill(strings2, null);
+            written = 0;
+        }
+    }
+
+    private static String format(String template, byte kind1, long long1, Object object1,
+                                 byte kind2, long long2, Object object2) {
+        if (kind1 == ARG_NONE) {
+            return template;
+        }
+        StringBuilder out = new StringBuilder(template.length() + 16);
+        int argument = 0;
+        int from = 0;
+        int marker;
+        while ((marker = template.indexOf("{}", from)) >= 0) {
+            out.append(template, from, marker);
+            if (argument == 0) {
+                appendArgument(out, kind1, long1, object1);
+            } else if (argument == 1) {
+                appendArgument(out, kind2, long2, object2);
+            } else {
+                out.append("{}");
+            }
+            argument++;
+            from = marker + 2;
+        }
+        out.append(template, from, template.length());
+        return out.toString();
+    }
+
+    private static void appendArgument(StringBuilder out, byte kind, long value, Object object) {
+        if (kind == ARG_LONG) {
+            out.append(value);
+        } else if (kind == ARG_OBJECT) {
+            out.append(object);
+        } else {
+            out.append("{}");
+        }
+    }
+
+    private static String levelName(int level) {
+        switch (level) {
+            case Log.DEBUG:
+                return "D";
+            case Log.INFO:
+                return "I";
+            case Log.WARN:
+                return "W";
+            default:
+                return "E";
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.leadzen;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.widget.FrameLayout;
+
+// Root of the expanded overlay window. Adds up the main-thread time its tree spends in measure,
+// layout and draw (display list recording) and records the sum per drawn frame as
+// MetricsRegistry.EXPANDED_TRAVERSAL, so the overlay's frame cost can be compared across builds.
+final class OverlayRootLayout extends FrameLayout {
+    private long traversalUs;
+
+    OverlayRootLayout(Context context) {
+        super(context);
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        long startUs = MetricsRegistry.nowUs();
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        traversalUs += MetricsRegistry.nowUs() - startUs;
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        long startUs = MetricsRegistry.nowUs();
+        super.onLayout(changed, left, top, right, bottom);
+        traversalUs += MetricsRegistry.nowUs() - startUs;
+    }
+
+    @Override
+    public void draw(Canvas canvas) {
+        long startUs = MetricsRegistry.nowUs();
+        super.draw(canvas);
+        MetricsRegistry.record(MetricsRegistry.EXPANDED_TRAVERSAL, traversalUs + MetricsRegistry.nowUs() - startUs);
+        traversalUs = 0;
+    }
+}
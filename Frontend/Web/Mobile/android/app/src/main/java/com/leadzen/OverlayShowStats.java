@@ -0,0 +1,82 @@
+package com.leadzen;
+
+// Show-to-first-frame latency of the bubble, split by whether the show paid a cold start
+// (fresh service instance or a bubble rebuilt after memory trimming) or hit the warm standby.
+final class OverlayShowStats {
+    private static long coldCount;
+    private static long coldTotalMs;
+    private static long coldMaxMs;
+    private static long warmCount;
+    private static long warmTotalMs;
+    private static long warmMaxMs;
+    private static long lastMs = -1;
+    private static boolean lastCold;
+    private static long trims;
+    private static int expandedViews;
+
+    private OverlayShowStats() {
+    }
+
+    static synchronized void record(boolean cold, long elapsedMs) {
+        if (cold) {
+            coldCount++;
+            coldTotalMs += elapsedMs;
+            coldMaxMs = Math.max(coldMaxMs, elapsedMs);
+        } else {
+            warmCount++;
+            warmTotalMs += elapsedMs;
+            warmMaxMs = Math.max(warmMaxMs, elapsedMs);
+        }
+        lastMs = elapsedMs;
+        lastCold = cold;
+    }
+
+    static synchronized void recordTrim() {
+        trims++;
+    }
+
+    // Views in the expanded overlay tree as last built
+    static synchronized void recordExpandedViews(int views) {
+        expandedViews = views;
+    }
+
+    static synchronized long coldCount() {
+        return coldCount;
+    }
+
+    static synchronized double coldAverageMs() {
+        return coldCount == 0 ? 0 : (double) coldTotalMs / coldCount;
+    }
+
+    static synchronized long coldMaxMs() {
+        return coldMaxMs;
+    }
+
+    static synchronized long warmCount() {
+        return warmCount;
+    }
+
+    static synchronized double warmAverageMs() {
+        return warmCount == 0 ? 0 : (double) warmTotalMs / warmCount;
+    }
+
+    static synchronized long warmMaxMs() {
+        return warmMaxMs;
+    }
+
+    static synchronized long lastMs() {
+        return lastMs;
+    }
+
+    static synchronized boolean lastCold() {
+        return lastCold;
+    }
+
+    static synchronized long trimCount() {
+        return trims;
+    }
+
+    static synchronized int expandedViews() {
+        return expandedViews;
+    }
+}
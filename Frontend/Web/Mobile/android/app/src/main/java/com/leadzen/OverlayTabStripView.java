@@ -0,0 +1,72 @@
+package com.leadzen;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.text.StaticLayout;
+
+// Action / Activity / Insight tabs of the expanded overlay in equal cells; the selected tab is
+// bold purple in an outlined cell. Selecting only redraws.
+final class OverlayTabStripView extends FlatOverlayView {
+    private static final String[] TABS = {"Action", "Activity", "Insight"};
+    private static final int SELECTED = Color.parseColor("#8B5CF6");
+    private static final int SELECTED_BG = Color.parseColor("#F9FAFB");
+    private static final int UNSELECTED = Color.parseColor("#9CA3AF");
+
+    private final StaticLayout[] titles = new StaticLayout[TABS.length];
+    private final StaticLayout[] selectedTitles = new StaticLayout[TABS.length];
+    private final int cellHeight;
+    private int selected;
+
+    OverlayTabStripView(Context context, OverlayDrawables drawables) {
+        super(context, drawables, TABS);
+        for (int i = 0; i < TABS.length; i++) {
+            titles[i] = drawables.caption(TABS[i], OverlayDrawables.BODY);
+            selectedTitles[i] = drawables.caption(TABS[i], OverlayDrawables.BODY_BOLD);
+        }
+        cellHeight = drawables.dp(24) + drawables.lineHeight(OverlayDrawables.BODY_BOLD);
+    }
+
+    void setSelectedTab(int index) {
+        if (selected != index) {
+            selected = index;
+            invalidate();
+        }
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        // 16dp above and below the cells
+        setMeasuredDimension(MeasureSpec.getSize(widthMeasureSpec),
+            resolveSize(cellHeight + drawables.dp(32), heightMeasureSpec));
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        float cellWidth = w / (float) TABS.length;
+        float top = drawables.dp(16);
+        for (int i = 0; i < TABS.length; i++) {
+            targets[i].set(i * cellWidth, top, (i + 1) * cellWidth, top + cellHeight);
+        }
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        for (int i = 0; i < TABS.length; i++) {
+            boolean isSelected = i == selected;
+            if (isSelected) {
+                float border = drawables.dp(2);
+                drawables.fill.setColor(SELECTED_BG);
+                canvas.drawRect(targets[i].left, targets[i].top, targets[i].right, targets[i].bottom, drawables.fill);
+                drawables.stroke.setColor(SELECTED);
+                drawables.stroke.setStrokeWidth(border);
+                canvas.drawRect(targets[i].left + border / 2f, targets[i].top + border / 2f,
+                    targets[i].right - border / 2f, targets[i].bottom - border / 2f, drawables.stroke);
+            }
+            StaticLayout title = isSelected ? selectedTitles[i] : titles[i];
+            drawables.draw(canvas, title, targets[i].centerX() - title.getWidth() / 2f,
+                targets[i].centerY() - title.getHeight() / 2f, isSelected ? SELECTED : UNSELECTED);
+        }
+    }
+}
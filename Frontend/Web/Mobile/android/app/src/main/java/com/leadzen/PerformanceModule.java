@@ -0,0 +1,137 @@
+package com.leadzen;
+
+import androidx.annotation.NonNull;
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import java.io.File;
+
+// Native performance surface for JS: the cold-start timeline (StartupTrace) and the
+// counters, gauges and latency histograms of MetricsRegistry
+public class PerformanceModule extends ReactContextBaseJavaModule {
+
+    public PerformanceModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+    }
+
+    @NonNull
+    @Override
+    public String getName() {
+        return "PerformanceModule";
+    }
+
+    // JS calls this once its first screen has been drawn
+    @ReactMethod
+    public void markFirstFrame() {
+        StartupTrace.firstFrame();
+    }
+
+    @ReactMethod
+    public void getStartupReport(Promise promise) {
+        try {
+            int capacity = StartupTrace.capacity();
+            String[] names = new String[capacity];
+            long[] starts = new long[capacity];
+            long[] durations = new long[capacity];
+            int count = StartupTrace.snapshot(names, starts, durations);
+
+            WritableArray entries = Arguments.createArray();
+            for (int i = 0; i < count; i++) {
+                WritableMap entry = Arguments.createMap();
+                entry.putString("name", names[i]);
+                entry.putDouble("atMs", starts[i]);
+                if (durations[i] >= 0) {
+                    entry.putDouble("durationMs", durations[i]);
+                } else {
+                    entry.putNull("durationMs");
+                }
+                entries.pushMap(entry);
+            }
+            WritableArray history = Arguments.createArray();
+            for (String run : StartupTrace.history()) {
+                int colon = run.indexOf(':');
+                WritableMap item = Arguments.createMap();
+                item.putString("modules", run.substring(0, colon));
+                item.putDouble("firstFrameMs", Long.parseLong(run.substring(colon + 1)));
+                history.pushMap(item);
+            }
+
+            WritableMap report = Arguments.createMap();
+            report.putString("modules", StartupTrace.eagerModules() ? "eager" : "lazy");
+            long firstFrame = StartupTrace.firstFrameAt();
+            if (firstFrame >= 0) {
+                report.putDouble("firstFrameMs", firstFrame);
+            } else {
+                report.putNull("firstFrameMs");
+            }
+            report.putArray("entries", entries);
+            report.putArray("history", history);
+            promise.resolve(report);
+        } catch (Exception e) {
+            promise.reject("ERROR", "Failed to read startup report: " + e.getMessage());
+        }
+    }
+
+    // Latencies in ms; percentiles are histogram bucket bounds, within 6.25% of the true value
+    @ReactMethod
+    public void getMetrics(Promise promise) {
+        try {
+            MetricsRegistry.Snapshot snapshot = MetricsRegistry.snapshot();
+            WritableMap counters = Arguments.createMap();
+            for (int i = 0; i < snapshot.counters.length; i++) {
+                counters.putDouble(MetricsRegistry.COUNTER_NAMES[i], snapshot.counters[i]);
+            }
+            WritableMap gauges = Arguments.createMap();
+            for (int i = 0; i < snapshot.gauges.length; i++) {
+                gauges.putDouble(MetricsRegistry.GAUGE_NAMES[i], snapshot.gauges[i]);
+            }
+            WritableMap histograms = Arguments.createMap();
+            for (MetricsRegistry.Histogram histogram : snapshot.histograms) {
+                WritableMap summary = Arguments.createMap();
+                summary.putDouble("count", histogram.count);
+                summary.putDouble("meanMs", histogram.mean() / 1000.0);
+                summary.putDouble("p50Ms", histogram.percentile(0.50) / 1000.0);
+                summary.putDouble("p95Ms", histogram.percentile(0.95) / 1000.0);
+                summary.putDouble("p99Ms", histogram.percentile(0.99) / 1000.0);
+                summary.putDouble("maxMs", histogram.max / 1000.0);
+                histograms.putMap(histogram.name, summary);
+            }
+            WritableMap metrics = Arguments.createMap();
+            metrics.putMap("counters", counters);
+            metrics.putMap("gauges", gauges);
+            metrics.putMap("histograms", histograms);
+            promise.resolve(metrics);
+        } catch (Exception e) {
+            promise.reject("ERROR", "Failed to read metrics: " + e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    public void resetMetrics() {
+        MetricsRegistry.reset();
+    }
+
+    // Appends a dump line now; resolves the metrics file path
+    @ReactMethod
+    public void dumpMetrics(Promise promise) {
+        new Thread(() -> {
+            File file = MetricsRegistry.dump(getReactApplicationContext(), true);
+            if (file != null) {
+                promise.resolve(file.getAbsolutePath());
+            } else {
+                promise.reject("ERROR", "Failed to write metrics dump");
+            }
+        }, "MetricsDump").start();
+    }
+
+    // Debug switch for comparing cold starts; takes effect from the next launch
+    @ReactMethod
+    public void setEagerModules(boolean eager, Promise promise) {
+        StartupTrace.setEagerModules(eager);
+        promise.resolve(eager);
+    }
+}
@@ -0,0 +1,284 @@
+package com.leadzen;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Phone numbers as long keys, parsed char-by-char with no regex and no intermediate Strings.
+//
+// A key is either
+//   - an international number: its E.164 digits (country code + national number), or
+//   - RAW_FLAG | digit count << 50 | digits, for input that can't be placed in a country (short
+//     codes, numbers of unexpected length); the count keeps leading zeros apart ("0123" != "123").
+// Equal keys mean the same number, so keys can be compared and hashed instead of strings.
+//
+// Numbers without a '+' are read in the default region: international prefix ("00", "011"),
+// country code without '+', trunk prefix ("0" in IN/GB) and plain national numbers all resolve
+// to the same key. Extensions ("x12", "ext. 12", "#12", ";ext=12") and dial pauses (",") end the
+// number and are ignored. With region IN this agrees with PhoneMatchingService.normalizePhoneNumber
+// (+91XXXXXXXXXX, 91XXXXXXXXXX and XXXXXXXXXX match), and additionally resolves 0XXXXXXXXXX,
+// 0091XXXXXXXXXX and "+91 0XXXXXXXXXX" instead of treating them as different numbers.
+final class PhoneNormalizer {
+    static final long RAW_FLAG = 1L << 62;
+    private static final int COUNT_SHIFT = 50;
+    private static final long DIGITS_MASK = (1L << COUNT_SHIFT) - 1;
+    private static final int MAX_DIGITS = 15;     // E.164
+    private static final int MAX_INPUT_DIGITS = 18; // fits a long; room for an international prefix
+    private static final int MEMO_SIZE = 4096;    // power of two
+
+    private static final long[] POW10 = new long[MAX_INPUT_DIGITS + 1];
+
+    static {
+        POW10[0] = 1L;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10L;
+        }
+    }
+
+    static final class Region {
+        final String code;
+        final int countryCode;
+        final int countryCodeDigits;
+        final String trunkPrefix;         // "" when the region has none
+        final String internationalPrefix;
+        final int minNationalDigits;
+        final int maxNationalDigits;
+
+        Region(String code, int countryCode, String trunkPrefix, String internationalPrefix,
+               int minNationalDigits, int maxNationalDigits) {
+            this.code = code;
+            this.countryCode = countryCode;
+            this.countryCodeDigits = Integer.toString(countryCode).length();
+            this.trunkPrefix = trunkPrefix;
+            this.internationalPrefix = internationalPrefix;
+            this.minNationalDigits = minNationalDigits;
+            this.maxNationalDigits = maxNationalDigits;
+        }
+    }
+
+    static final Region[] REGIONS = {
+        new Region("IN", 91, "0", "00", 10, 10),
+        new Region("US", 1, "1", "011", 10, 10),
+        new Region("CA", 1, "1", "011", 10, 10),
+        new Region("GB", 44, "0", "00", 10, 10),
+        new Region("AE", 971, "0", "00", 8, 9),
+        new Region("SG", 65, "", "000", 8, 8),
+        new Region("AU", 61, "0", "0011", 9, 9),
+    };
+
+    // IN until PhoneNormalizerModule.restoreRegion installs the saved or detected region
+    private static volatile PhoneNormalizer current = new PhoneNormalizer(REGIONS[0]);
+
+    // Memo for the bulk path: direct-mapped, so it is bounded and needs no bookkeeping; a
+    // colliding number simply replaces the slot. Entries are immutable, safe to share.
+    private static final class Entry {
+        final String input;
+        final long key;
+        final String formatted;
+
+        Entry(String input, long key, String formatted) {
+            this.input = input;
+            this.key = key;
+            this.formatted = formatted;
+        }
+    }
+
+    private final Region region;
+    private final Entry[] memo = new Entry[MEMO_SIZE];
+    // Bulk calls come from several bridge and worker threads at once
+    private final AtomicLong memoHits = new AtomicLong();
+    private final AtomicLong memoMisses = new AtomicLong();
+
+    PhoneNormalizer(Region region) {
+        this.region = region;
+    }
+
+    static PhoneNormalizer current() {
+        return current;
+    }
+
+    // Keys already handed out (CallerIdIndex, the lead snapshot, import maps) were made in the old
+    // region; callers rebuild them after switching
+    static void install(PhoneNormalizer normalizer) {
+        if (normalizer != null) {
+            current = normalizer;
+        }
+    }
+
+    // Supported region for an ISO 3166 code, any case; null otherwise
+    static Region region(String code) {
+        if (code == null) {
+            return null;
+        }
+        for (Region region : REGIONS) {
+            if (region.code.equalsIgnoreCase(code)) {
+                return region;
+            }
+        }
+        return null;
+    }
+
+    // The first supported region among the candidate country codes (SIM, network, locale), else IN
+    static Region defaultRegion(String... countryCodes) {
+        for (String code : countryCodes) {
+            Region region = region(code);
+            if (region != null) {
+                return region;
+            }
+        }
+        return REGIONS[0];
+    }
+
+    Region region() {
+        return region;
+    }
+
+    // Key for the number, or 0 when there is nothing usable (no digits, too many)
+    long pack(CharSequence number) {
+        if (number == null) {
+            return 0L;
+        }
+        long value = 0L;
+        int digits = 0;
+        boolean plus = false;
+        for (int i = 0, n = number.length(); i < n; i++) {
+            char c = number.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digits > MAX_INPUT_DIGITS) {
+                    return 0L;
+                }
+                value = value * 10 + (c - '0');
+            } else if (c == '+') {
+                plus |= digits == 0;
+            } else if (digits > 0 && (c == '#' || c == ';' || c == ',' || Character.isLetter(c))) {
+                break; // extension or pause; letters before the number ("Tel: ...") are skipped
+            }
+        }
+        if (digits == 0) {
+            return 0L;
+        }
+
+        if (!plus) {
+            String idd = region.internationalPrefix;
+            if (!isNational(digits) && digits > idd.length() && startsWith(value, digits, idd, 0)) {
+                digits -= idd.length();
+                value %= POW10[digits];
+                plus = true;
+            }
+        }
+        if (plus) {
+            if (digits > MAX_DIGITS) {
+                return 0L;
+            }
+            if (digitAt(value, digits, 0) == 0) {
+                return raw(value, digits); // no country code starts with 0
+            }
+            // "+91 0XXXXXXXXXX": the trunk prefix dialled after the country code
+            int cc = region.countryCodeDigits;
+            int trunk = region.trunkPrefix.length();
+            if (trunk > 0 && isNational(digits - cc - trunk) && value / POW10[digits - cc] == region.countryCode
+                && startsWith(value, digits, region.trunkPrefix, cc)) {
+                return region.countryCode * POW10[digits - cc - trunk] + value % POW10[digits - cc - trunk];
+            }
+            return value;
+        }
+
+        // Country code without '+' (91XXXXXXXXXX, 1XXXXXXXXXX)
+        int national = digits - region.countryCodeDigits;
+        if (isNational(national) && value / POW10[national] == region.countryCode) {
+            return value;
+        }
+        // Trunk prefix (0XXXXXXXXXX)
+        String trunk = region.trunkPrefix;
+        national = digits - trunk.length();
+        if (!trunk.isEmpty() && isNational(national) && startsWith(value, digits, trunk, 0)) {
+            return region.countryCode * POW10[national] + value % POW10[national];
+        }
+        if (isNational(digits)) {
+            return region.countryCode * POW10[digits] + value;
+        }
+        return digits > MAX_DIGITS ? 0L : raw(value, digits);
+    }
+
+    private boolean isNational(int digits) {
+        return digits >= region.minNationalDigits && digits <= region.maxNationalDigits;
+    }
+
+    private static long raw(long value, int digits) {
+        return RAW_FLAG | ((long) digits << COUNT_SHIFT) | value;
+    }
+
+    private static int digitAt(long value, int digits, int position) {
+        return (int) (value / POW10[digits - 1 - position] % 10);
+    }
+
+    private static boolean startsWith(long value, int digits, String prefix, int from) {
+        if (from + prefix.length() > digits) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (digitAt(value, digits, from + i) != prefix.charAt(i) - '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean isInternational(long key) {
+        return key > 0 && (key & RAW_FLAG) == 0;
+    }
+
+    // "+<E.164 digits>" for international keys, the digits as entered otherwise, "" for 0
+    static String format(long key) {
+        if (key <= 0) {
+            return "";
+        }
+        if ((key & RAW_FLAG) == 0) {
+            return "+" + key;
+        }
+        int digits = (int) ((key & ~RAW_FLAG) >>> COUNT_SHIFT);
+        String value = Long.toString(key & DIGITS_MASK);
+        if (value.length() >= digits) {
+            return value;
+        }
+        StringBuilder padded = new StringBuilder(digits);
+        for (int i = value.length(); i < digits; i++) {
+            padded.append('0');
+        }
+        return padded.append(value).toString();
+    }
+
+    // Bulk form for JS: keys[i] and formatted[i] for numbers[i]. Repeated numbers come from the
+    // memo, formatted string included.
+    void normalizeAll(String[] numbers, long[] keys, String[] formatted) {
+        Entry[] table = memo;
+        long hits = 0;
+        for (int i = 0; i < numbers.length; i++) {
+            String number = numbers[i];
+            if (number == null) {
+                keys[i] = 0L;
+                formatted[i] = "";
+                continue;
+            }
+            int slot = number.hashCode() & (MEMO_SIZE - 1);
+            Entry entry = table[slot];
+            if (entry != null && entry.input.equals(number)) {
+                hits++;
+            } else {
+                long key = pack(number);
+                entry = new Entry(number, key, format(key));
+                table[slot] = entry;
+            }
+            keys[i] = entry.key;
+            formatted[i] = entry.formatted;
+        }
+        memoHits.addAndGet(hits);
+        memoMisses.addAndGet(numbers.length - hits);
+    }
+
+    long memoHits() {
+        return memoHits.get();
+    }
+
+    long memoMisses() {
+        return memoMisses.get();
+    }
+}
@@ -0,0 +1,110 @@
+package com.leadzen;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.telephony.TelephonyManager;
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import androidx.annotation.NonNull;
+import java.io.File;
+import java.util.Locale;
+
+// Bridge to PhoneNormalizer. normalize() takes a whole array of numbers per call, so matching a
+// caller against the lead book is one bridge round trip instead of a regex pass per lead.
+// The default region is detected from the SIM, network or locale on first run and kept in
+// SharedPreferences, so keys stay stable; JS can change it with setDefaultRegion().
+// MainApplication restores it, so the overlay service and call-log sync use it before JS runs.
+public class PhoneNormalizerModule extends ReactContextBaseJavaModule {
+    private static final String PREFS = "leadzen_phone";
+    private static final String KEY_REGION = "default_region";
+
+    private final ReactApplicationContext reactContext;
+
+    public PhoneNormalizerModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+        this.reactContext = reactContext;
+    }
+
+    @NonNull
+    @Override
+    public String getName() {
+        return "PhoneNormalizerModule";
+    }
+
+    static void restoreRegion(Context context) {
+        SharedPreferences prefs = context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        PhoneNormalizer.Region region = PhoneNormalizer.region(prefs.getString(KEY_REGION, null));
+        if (region == null) {
+            TelephonyManager telephony = (TelephonyManager) context.getSystemService(Context.TELEPHONY_SERVICE);
+            region = telephony == null
+                ? PhoneNormalizer.defaultRegion(Locale.getDefault().getCountry())
+                : PhoneNormalizer.defaultRegion(telephony.getSimCountryIso(), telephony.getNetworkCountryIso(),
+                    Locale.getDefault().getCountry());
+            prefs.edit().putString(KEY_REGION, region.code).apply();
+        }
+        if (region != PhoneNormalizer.current().region()) {
+            PhoneNormalizer.install(new PhoneNormalizer(region));
+        }
+    }
+
+    // Resolves normalized[i] for numbers[i]: "+<E.164>", the digits for numbers that can't be
+    // placed in a country, "" when unusable. Equal strings are equal keys, so JS compares these.
+    @ReactMethod
+    public void normalize(ReadableArray numbers, Promise promise) {
+        try {
+            int count = numbers.size();
+            String[] input = new String[count];
+            for (int i = 0; i < count; i++) {
+                input[i] = numbers.isNull(i) ? null : numbers.getString(i);
+            }
+            long[] keys = new long[count];
+            String[] normalized = new String[count];
+            PhoneNormalizer.current().normalizeAll(input, keys, normalized);
+
+            WritableArray result = Arguments.createArray();
+            for (String number : normalized) {
+                result.pushString(number);
+            }
+            promise.resolve(result);
+        } catch (Exception e) {
+            promise.reject("ERROR", "Failed to normalize phone numbers: " + e.getMessage());
+        }
+    }
+
+    // ISO code of a supported region (IN, US, CA, GB, AE, SG, AU). Keys change with the region, so
+    // the caller-ID index and the lead snapshot are rebuilt in the new one (CallerBookSync).
+    @ReactMethod
+    public void setDefaultRegion(String code, Promise promise) {
+        PhoneNormalizer.Region region = PhoneNormalizer.region(code);
+        if (region == null) {
+            promise.reject("ERROR", "Unsupported phone region: " + code);
+            return;
+        }
+        if (region != PhoneNormalizer.current().region()) {
+            PhoneNormalizer.install(new PhoneNormalizer(region));
+            reactContext.getSharedPreferences(PREFS, Context.MODE_PRIVATE).edit().putString(KEY_REGION, region.code).apply();
+            // Until the rebuild lands, no lookup may hit a key from the old region
+            new File(reactContext.getFilesDir(), LeadSnapshot.FILE_NAME).delete();
+            LeadSnapshot.invalidateShared();
+            CallerBookSync.shared(reactContext).requestRebuild();
+            OverlayLog.i("📞 Phone region set to {}", region.code);
+        }
+        promise.resolve(region.code);
+    }
+
+    @ReactMethod
+    public void getStats(Promise promise) {
+        PhoneNormalizer normalizer = PhoneNormalizer.current();
+        WritableMap stats = Arguments.createMap();
+        stats.putString("region", normalizer.region().code);
+        stats.putDouble("memoHits", normalizer.memoHits());
+        stats.putDouble("memoMisses", normalizer.memoMisses());
+        promise.resolve(stats);
+    }
+}
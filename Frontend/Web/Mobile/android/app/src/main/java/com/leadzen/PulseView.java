@@ -0,0 +1,81 @@
+package com.leadzen;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.view.View;
+
+// The blinking ring behind the bubble and the expanded overlay's top icon, drawn directly:
+// one circle whose radius (1x -> 1.3x -> 1x) and alpha (0.7 -> 0.3 -> 0.7) follow the frame time
+// OverlayAnimationController hands in, instead of scaleX / scaleY / alpha property animators.
+// The view reports whether it can be seen (attached, window visible, shown) so the controller
+// only ticks while some ring is on screen.
+final class PulseView extends View {
+    static final long PERIOD_MS = 1200;
+    private static final float MAX_SCALE = 1.3f;
+    private static final float MAX_ALPHA = 0.7f;
+    private static final float MIN_ALPHA = 0.3f;
+
+    private final OverlayAnimationController controller;
+    private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final int baseAlpha;
+    private float phase; // 0..1 through the period
+    boolean active;      // controller state
+
+    PulseView(Context context, OverlayAnimationController controller, int color) {
+        super(context);
+        this.controller = controller;
+        paint.setColor(color);
+        baseAlpha = color >>> 24;
+        controller.register(this);
+    }
+
+    // Frame time from the controller's single clock, so every ring pulses in step
+    void onFrame(long frameTimeNanos) {
+        phase = (float) ((frameTimeNanos / 1_000_000L) % PERIOD_MS) / PERIOD_MS;
+        invalidate();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        // Triangle wave: 0 at both ends of the period, 1 half way
+        float t = phase < 0.5f ? phase * 2f : (1f - phase) * 2f;
+        float scale = 1f + (MAX_SCALE - 1f) * t;
+        float alpha = MAX_ALPHA + (MIN_ALPHA - MAX_ALPHA) * t;
+        paint.setAlpha(Math.round(baseAlpha * alpha));
+        float radius = Math.min(getWidth(), getHeight()) / 2f;
+        // Near the peak the circle outgrows the view and is clipped to its bounds
+        canvas.drawCircle(getWidth() / 2f, getHeight() / 2f, radius * scale, paint);
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        updateActive();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        updateActive();
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        updateActive();
+    }
+
+    @Override
+    protected void onVisibilityChanged(View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        updateActive();
+    }
+
+    private void updateActive() {
+        // Also called from View's constructor, before the controller field is set
+        if (controller != null) {
+            controller.setActive(this, isAttachedToWindow() && getWindowVisibility() == VISIBLE && isShown());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.leadzen;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+
+// The reminder alarm, plus the broadcasts after which it has to be armed again
+// (reboot, app update, exact-alarm permission granted or revoked)
+public class ReminderReceiver extends BroadcastReceiver {
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        ReminderScheduler scheduler = ReminderScheduler.shared(context);
+        if (ReminderScheduler.ACTION_FIRE.equals(intent.getAction())) {
+            // Keeps the process alive until the notification is posted and the next alarm set
+            PendingResult result = goAsync();
+            scheduler.onAlarm(result::finish);
+        } else {
+            scheduler.rearm();
+        }
+    }
+}
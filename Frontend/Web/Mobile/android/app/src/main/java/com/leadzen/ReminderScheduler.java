@@ -0,0 +1,488 @@
+package com.leadzen;
+
+import android.app.AlarmManager;
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Build;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Reminders for lead follow-ups (leads.next_follow_up_at) and open tasks (tasks.due_date).
+//
+// Items due within HORIZON_MS sit in a TimingWheel owned by the scheduler thread, and exactly
+// one alarm is armed: for the wheel's earliest deadline, exact when the app may use exact alarms.
+// Row changes reach the wheel incrementally: triggers (version 7) append (item, due_at) to
+// reminder_outbox inside the writer's transaction, and after each commit the scheduler applies
+// the entries it hasn't seen and re-arms only when the earliest deadline moved. The base tables
+// are scanned once per process and again when the horizon runs out.
+//
+// When the alarm fires, everything due is expired in one advance() and posted as one
+// notification, a summary when several items are due together. Items that fell due while the
+// process was dead are announced by the next load (up to MAX_LATE_MS late), and a row saved with a
+// deadline already past fires right away; the last deadline announced is kept in prefs so nothing
+// is announced twice.
+final class ReminderScheduler {
+    static final long TICK_MS = 1000;
+    static final long HORIZON_MS = 7 * 86_400_000L;
+    static final long MAX_LATE_MS = 86_400_000L;
+    static final String ACTION_FIRE = "com.leadzen.action.REMINDER_ALARM";
+
+    private static final String PREFS = "leadzen_reminders";
+    private static final String KEY_ANNOUNCED_THROUGH = "announced_through";
+    private static final String CHANNEL_ID = "leadzen_reminders";
+    private static final int NOTIFICATION_ID_BASE = 0x5200;
+    private static final int MAX_LINES = 5;
+    private static final int DRAIN_PAGE = 2000;
+    // Wheel key of the horizon refill; items are id * 2 (follow-up) and id * 2 + 1 (task)
+    private static final long REFILL_KEY = -1L;
+
+    // Version 7
+    private static final String[] OUTBOX = {
+        "CREATE TABLE IF NOT EXISTS reminder_outbox (seq INTEGER PRIMARY KEY AUTOINCREMENT,"
+            + " item INTEGER NOT NULL, due_at INTEGER)",
+        "CREATE TRIGGER IF NOT EXISTS reminder_leads_ai AFTER INSERT ON leads WHEN new.next_follow_up_at IS NOT NULL"
+            + " BEGIN INSERT INTO reminder_outbox (item, due_at) VALUES (new.id * 2, new.next_follow_up_at); END",
+        "CREATE TRIGGER IF NOT EXISTS reminder_leads_au AFTER UPDATE OF next_follow_up_at ON leads"
+            + " WHEN new.next_follow_up_at IS NOT old.next_follow_up_at"
+            + " BEGIN INSERT INTO reminder_outbox (item, due_at) VALUES (new.id * 2, new.next_follow_up_at); END",
+        "CREATE TRIGGER IF NOT EXISTS reminder_leads_ad AFTER DELETE ON leads WHEN old.next_follow_up_at IS NOT NULL"
+            + " BEGIN INSERT INTO reminder_outbox (item, due_at) VALUES (old.id * 2, NULL); END",
+        "CREATE TRIGGER IF NOT EXISTS reminder_tasks_ai AFTER INSERT ON tasks"
+            + " WHEN new.due_date IS NOT NULL AND IFNULL(new.completed, 0) = 0"
+            + " BEGIN INSERT INTO reminder_outbox (item, due_at) VALUES (new.id * 2 + 1, new.due_date); END",
+        "CREATE TRIGGER IF NOT EXISTS reminder_tasks_au AFTER UPDATE OF due_date, completed ON tasks BEGIN"
+            + " INSERT INTO reminder_outbox (item, due_at)"
+            + " VALUES (new.id * 2 + 1, CASE WHEN IFNULL(new.completed, 0) = 0 THEN new.due_date END); END",
+        "CREATE TRIGGER IF NOT EXISTS reminder_tasks_ad AFTER DELETE ON tasks WHEN old.due_date IS NOT NULL"
+            + " BEGIN INSERT INTO reminder_outbox (item, due_at) VALUES (old.id * 2 + 1, NULL); END",
+    };
+
+    private static final String LOAD_SQL =
+        "SELECT id * 2, next_follow_up_at FROM leads WHERE next_follow_up_at > ? AND next_follow_up_at <= ?"
+            + " UNION ALL SELECT id * 2 + 1, due_date FROM tasks WHERE due_date > ? AND due_date <= ?"
+            + " AND IFNULL(completed, 0) = 0";
+
+    // Outbox pruning is best effort: rows left behind are applied again, which is harmless
+    private static final LeadStore.Callback PRUNE = new LeadStore.Callback() {
+        @Override
+        public void onSuccess(long[] results) {
+        }
+
+        @Override
+        public void onError(Exception error) {
+            OverlayLog.w("⏰ Reminder outbox prune failed: {}", error.getMessage());
+        }
+    };
+
+    private static volatile ReminderScheduler shared;
+
+    private final Context context;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ReminderScheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean drainQueued = new AtomicBoolean();
+
+    // Scheduler-thread state; the store and prefs are opened there too, so creating the
+    // scheduler costs its caller nothing
+    private LeadStore store;
+    private SharedPreferences prefs;
+    private TimingWheel wheel;
+    private long horizonEnd;
+    private long lastSeq;
+    private long armedAt = Long.MAX_VALUE;
+
+    // Stats
+    private volatile int loadedItems;
+    private volatile double loadMs;
+    private volatile long outboxApplied;
+    private volatile long rearms;
+    private volatile long alarms;
+    private volatile long announced;
+    private volatile double lastFireLagMs;
+    private volatile double maxFireLagMs;
+    private volatile boolean exact;
+
+    static ReminderScheduler shared(Context context) {
+        ReminderScheduler scheduler = shared;
+        if (scheduler == null) {
+            synchronized (ReminderScheduler.class) {
+                scheduler = shared;
+                if (scheduler == null) {
+                    scheduler = new ReminderScheduler(context.getApplicationContext());
+                    shared = scheduler;
+                    scheduler.start();
+                }
+            }
+        }
+        return scheduler;
+    }
+
+    private ReminderScheduler(Context context) {
+        this.context = context;
+    }
+
+    static void create(SQLiteDatabase db) {
+        for (String statement : OUTBOX) {
+            db.execSQL(statement);
+        }
+    }
+
+    private void start() {
+        worker.execute(() -> {
+            store = LeadStore.shared(context);
+            prefs = context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+            listenForCommits();
+            load();
+        });
+    }
+
+    private void listenForCommits() {
+        store.addCommitListener(leadsChanged -> {
+            if (drainQueued.compareAndSet(false, true)) {
+                worker.execute(() -> {
+                    drainQueued.set(false);
+                    drain();
+                    arm();
+                });
+            }
+        });
+    }
+
+    // Alarm delivery (ReminderReceiver); `done` runs once the notification is posted and the next alarm armed
+    void onAlarm(Runnable done) {
+        worker.execute(() -> {
+            try {
+                alarms++;
+                fire();
+            } finally {
+                done.run();
+            }
+        });
+    }
+
+    // Boot, app update or exact-alarm permission change: the alarm may be gone, arm it again
+    void rearm() {
+        worker.execute(() -> {
+            armedAt = Long.MAX_VALUE;
+            arm();
+        });
+    }
+
+    // Initial scan: everything due up to the horizon, plus what fell due unannounced meanwhile
+    private void load() {
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        try {
+            SQLiteDatabase db = store.database();
+            lastSeq = queryLong(db, "SELECT IFNULL(MAX(seq), 0) FROM reminder_outbox");
+            long from = Math.max(prefs.getLong(KEY_ANNOUNCED_THROUGH, now), now - MAX_LATE_MS);
+            horizonEnd = now + HORIZON_MS;
+            wheel = new TimingWheel(TICK_MS, now, 1024);
+            loadedItems = loadRange(db, from, horizonEnd);
+            wheel.schedule(REFILL_KEY, horizonEnd);
+            // Everything up to lastSeq is reflected in the scan
+            store.submit(Collections.singletonList(
+                LeadStore.Mutation.exec("DELETE FROM reminder_outbox WHERE seq <= ?", lastSeq)), PRUNE);
+            loadMs = (System.nanoTime() - start) / 1e6;
+            OverlayLog.i("⏰ Reminders loaded: {}", loadedItems);
+        } catch (RuntimeException e) {
+            OverlayLog.e("❌ Reminder load failed: {}", e.getMessage());
+            wheel = new TimingWheel(TICK_MS, now, 16);
+        }
+        fire();
+    }
+
+    private int loadRange(SQLiteDatabase db, long from, long to) {
+        String[] args = {Long.toString(from), Long.toString(to), Long.toString(from), Long.toString(to)};
+        Cursor cursor = db.rawQuery(LOAD_SQL, args);
+        try {
+            int count = 0;
+            while (cursor.moveToNext()) {
+                wheel.schedule(cursor.getLong(0), cursor.getLong(1));
+                count++;
+            }
+            return count;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // Applies the outbox entries committed since the last drain
+    private void drain() {
+        if (wheel == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long first = lastSeq;
+        try {
+            SQLiteDatabase db = store.database();
+            while (true) {
+                Cursor cursor = db.rawQuery("SELECT seq, item, due_at FROM reminder_outbox WHERE seq > ? ORDER BY seq LIMIT "
+                    + DRAIN_PAGE, new String[] {Long.toString(lastSeq)});
+                int rows = 0;
+                try {
+                    while (cursor.moveToNext()) {
+                        rows++;
+                        lastSeq = cursor.getLong(0);
+                        long item = cursor.getLong(1);
+                        // Cleared, beyond the horizon (the refill picks it up) or further back than a load
+                        // would announce. A deadline set in the recent past stays: the wheel fires it on the
+                        // next advance, which arm() schedules right away.
+                        if (cursor.isNull(2) || cursor.getLong(2) > horizonEnd || cursor.getLong(2) <= now - MAX_LATE_MS) {
+                            wheel.cancel(item);
+                        } else {
+                            wheel.schedule(item, cursor.getLong(2));
+                        }
+                    }
+                } finally {
+                    cursor.close();
+                }
+                outboxApplied += rows;
+                if (rows < DRAIN_PAGE) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            OverlayLog.e("❌ Reminder outbox drain failed: {}", e.getMessage());
+        }
+        if (lastSeq > first) {
+            store.submit(Collections.singletonList(
+                LeadStore.Mutation.exec("DELETE FROM reminder_outbox WHERE seq <= ?", lastSeq)), PRUNE);
+        }
+    }
+
+    private void fire() {
+        if (wheel == null) {
+            return;
+        }
+        drain();
+        long now = System.currentTimeMillis();
+        long earliest = wheel.nextDueMs();
+        ArrayList<long[]> due = new ArrayList<>();
+        boolean[] refill = {false};
+        wheel.advance(now, (key, dueMs) -> {
+            if (key == REFILL_KEY) {
+                refill[0] = true;
+            } else {
+                due.add(new long[] {key, dueMs});
+            }
+        });
+        if (refill[0]) {
+            long end = now + HORIZON_MS;
+            try {
+                loadedItems += loadRange(store.database(), horizonEnd, end);
+            } catch (RuntimeException e) {
+                OverlayLog.e("❌ Reminder refill failed: {}", e.getMessage());
+            }
+            horizonEnd = end;
+            wheel.schedule(REFILL_KEY, horizonEnd);
+        }
+        if (!due.isEmpty()) {
+            double lag = Math.max(0, now - earliest);
+            lastFireLagMs = lag;
+            maxFireLagMs = Math.max(maxFireLagMs, lag);
+            announce(due, now);
+        }
+        arm();
+    }
+
+    // Only touches AlarmManager when the earliest deadline moved
+    private void arm() {
+        if (wheel == null) {
+            return;
+        }
+        long next = wheel.nextDueMs();
+        if (next == armedAt) {
+            return;
+        }
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        PendingIntent intent = alarmIntent();
+        armedAt = next;
+        rearms++;
+        if (next == Long.MAX_VALUE) {
+            alarmManager.cancel(intent);
+            return;
+        }
+        exact = Build.VERSION.SDK_INT < Build.VERSION_CODES.S || alarmManager.canScheduleExactAlarms();
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+            alarmManager.setExact(AlarmManager.RTC_WAKEUP, next, intent);
+        } else if (exact) {
+            alarmManager.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, next, intent);
+        } else {
+            // Exact alarms not granted (Android 12+): the system may batch this one by a few minutes
+            alarmManager.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, next, intent);
+        }
+    }
+
+    private PendingIntent alarmIntent() {
+        Intent intent = new Intent(context, ReminderReceiver.class).setAction(ACTION_FIRE);
+        int flags = PendingIntent.FLAG_UPDATE_CURRENT;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            flags |= PendingIntent.FLAG_IMMUTABLE;
+        }
+        return PendingIntent.getBroadcast(context, 0, intent, flags);
+    }
+
+    // One notification per alarm: the item itself, or a count with the first MAX_LINES items
+    private void announce(List<long[]> due, long now) {
+        long through = prefs.getLong(KEY_ANNOUNCED_THROUGH, 0);
+        for (long[] item : due) {
+            through = Math.max(through, item[1]);
+        }
+        prefs.edit().putLong(KEY_ANNOUNCED_THROUGH, through).apply();
+        announced += due.size();
+
+        List<String> lines = describe(due.subList(0, Math.min(MAX_LINES, due.size())));
+        NotificationManager manager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        Notification.Builder builder;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(CHANNEL_ID, "Follow-ups and tasks",
+                NotificationManager.IMPORTANCE_DEFAULT);
+            channel.setDescription("Reminders when a follow-up or a task is due");
+            manager.createNotificationChannel(channel);
+            builder = new Notification.Builder(context, CHANNEL_ID);
+        } else {
+            builder = new Notification.Builder(context).setPriority(Notification.PRIORITY_DEFAULT);
+        }
+        builder.setSmallIcon(context.getApplicationInfo().icon)
+            .setCategory(Notification.CATEGORY_REMINDER)
+            .setWhen(now)
+            .setAutoCancel(true);
+        Intent launch = context.getPackageManager().getLaunchIntentForPackage(context.getPackageName());
+        if (launch != null) {
+            int flags = PendingIntent.FLAG_UPDATE_CURRENT;
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+                flags |= PendingIntent.FLAG_IMMUTABLE;
+            }
+            builder.setContentIntent(PendingIntent.getActivity(context, 0, launch, flags));
+        }
+        if (due.size() == 1) {
+            builder.setContentTitle(lines.get(0)).setContentText("Due now");
+        } else {
+            Notification.InboxStyle style = new Notification.InboxStyle();
+            for (String line : lines) {
+                style.addLine(line);
+            }
+            if (due.size() > lines.size()) {
+                style.setSummaryText("+" + (due.size() - lines.size()) + " more");
+            }
+            builder.setContentTitle(due.size() + " reminders due").setContentText(lines.get(0)).setStyle(style);
+        }
+        try {
+            // A new id per alarm tick, so an unread batch isn't replaced by the next one
+            manager.notify(NOTIFICATION_ID_BASE + (int) ((now / TICK_MS) & 0xFFFF), builder.build());
+        } catch (SecurityException e) {
+            // POST_NOTIFICATIONS not granted (Android 13+)
+            OverlayLog.w("⏰ Reminder not posted: {}", e.getMessage());
+        }
+        OverlayLog.i("⏰ Reminders due: {}", due.size());
+    }
+
+    // "Follow up: <lead>" / "Task: <title> (<lead>)", in `items` order
+    private List<String> describe(List<long[]> items) {
+        StringBuilder leadIds = new StringBuilder();
+        StringBuilder taskIds = new StringBuilder();
+        for (long[] item : items) {
+            StringBuilder ids = (item[0] & 1) == 0 ? leadIds : taskIds;
+            ids.append(ids.length() > 0 ? "," : "").append(item[0] >> 1);
+        }
+        HashMap<Long, String> text = new HashMap<>();
+        SQLiteDatabase db = store.database();
+        if (leadIds.length() > 0) {
+            Cursor cursor = db.rawQuery("SELECT id, name FROM leads WHERE id IN (" + leadIds + ")", null);
+            try {
+                while (cursor.moveToNext()) {
+                    text.put(cursor.getLong(0) * 2, "Follow up: " + cursor.getString(1));
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+        if (taskIds.length() > 0) {
+            Cursor cursor = db.rawQuery("SELECT t.id, t.title, l.name FROM tasks t LEFT JOIN leads l ON l.id = t.lead_id"
+                + " WHERE t.id IN (" + taskIds + ")", null);
+            try {
+                while (cursor.moveToNext()) {
+                    text.put(cursor.getLong(0) * 2 + 1, "Task: " + cursor.getString(1)
+                        + (cursor.isNull(2) ? "" : " (" + cursor.getString(2) + ")"));
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+        List<String> lines = new ArrayList<>(items.size());
+        for (long[] item : items) {
+            String line = text.get(item[0]);
+            lines.add(line != null ? line : (item[0] & 1) == 0 ? "Follow-up due" : "Task due");
+        }
+        return lines;
+    }
+
+    private static long queryLong(SQLiteDatabase db, String sql) {
+        Cursor cursor = db.rawQuery(sql, null);
+        try {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0L;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    int scheduled() {
+        TimingWheel current = wheel;
+        return current == null ? 0 : Math.max(0, current.size() - 1);
+    }
+
+    long armedAt() {
+        return armedAt;
+    }
+
+    boolean exact() {
+        return exact;
+    }
+
+    int loadedItems() {
+        return loadedItems;
+    }
+
+    double loadMs() {
+        return loadMs;
+    }
+
+    long outboxApplied() {
+        return outboxApplied;
+    }
+
+    long rearms() {
+        return rearms;
+    }
+
+    long alarms() {
+        return alarms;
+    }
+
+    long announced() {
+        return announced;
+    }
+
+    double lastFireLagMs() {
+        return lastFireLagMs;
+    }
+
+    double maxFireLagMs() {
+        return maxFireLagMs;
+    }
+}
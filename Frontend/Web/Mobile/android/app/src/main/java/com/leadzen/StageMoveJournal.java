@@ -0,0 +1,151 @@
+package com.leadzen;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+// Append-only journal of queued stage moves, so a move acknowledged to JS survives the process
+// dying before StageMoveQueue has flushed it into SQLite.
+//
+// Moves are appended to the current generation file ("stage_moves.<gen>.log"), one write() per
+// record, before they are acknowledged. A flush rotates to the next generation; once the flushed
+// moves are committed, the older generations are deleted. On startup every remaining generation
+// is replayed in order. A record is: leadId (long), movedAt (long), stage (UTF), CRC32 of those
+// (int); a torn record at the end of a file fails its CRC and ends the replay of that file.
+final class StageMoveJournal {
+    private static final String PREFIX = "stage_moves.";
+    private static final String SUFFIX = ".log";
+
+    interface Replay {
+        void move(long leadId, String stage, long movedAt);
+    }
+
+    private final File dir;
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream(64);
+    private final DataOutputStream recordOut = new DataOutputStream(record);
+    private final CRC32 crc = new CRC32();
+    private long generation;
+    private FileOutputStream out;
+
+    StageMoveJournal(File dir) {
+        this.dir = dir;
+    }
+
+    // Replays every generation oldest first and opens a new one after them
+    synchronized int recover(Replay replay) throws IOException {
+        long[] generations = generations();
+        int records = 0;
+        for (long gen : generations) {
+            records += replay(file(gen), replay);
+        }
+        generation = generations.length > 0 ? generations[generations.length - 1] + 1 : 1;
+        out = new FileOutputStream(file(generation), true);
+        return records;
+    }
+
+    synchronized void append(long leadId, String stage, long movedAt) throws IOException {
+        record.reset();
+        recordOut.writeLong(leadId);
+        recordOut.writeLong(movedAt);
+        recordOut.writeUTF(stage);
+        crc.reset();
+        crc.update(record.toByteArray(), 0, record.size());
+        recordOut.writeInt((int) crc.getValue());
+        // One write per record: it reaches the kernel before the move is acknowledged
+        record.writeTo(out);
+    }
+
+    // Starts a new generation; returns the one just closed, which holds everything appended so far
+    synchronized long rotate() throws IOException {
+        out.close();
+        long closed = generation;
+        generation++;
+        out = new FileOutputStream(file(generation), true);
+        return closed;
+    }
+
+    // Deletes the generations up to and including `through` once their moves are committed
+    synchronized void release(long through) {
+        for (long gen : generations()) {
+            if (gen <= through) {
+                file(gen).delete();
+            }
+        }
+    }
+
+    synchronized void close() {
+        try {
+            if (out != null) {
+                out.close();
+            }
+        } catch (IOException ignored) {
+            // nothing left to lose; the file is replayed on the next start
+        }
+    }
+
+    private int replay(File file, Replay replay) throws IOException {
+        int records = 0;
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        CRC32 check = new CRC32();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream bytesOut = new DataOutputStream(bytes);
+        try {
+            while (true) {
+                long leadId = in.readLong();
+                long movedAt = in.readLong();
+                String stage = in.readUTF();
+                int stored = in.readInt();
+                bytes.reset();
+                bytesOut.writeLong(leadId);
+                bytesOut.writeLong(movedAt);
+                bytesOut.writeUTF(stage);
+                check.reset();
+                check.update(bytes.toByteArray(), 0, bytes.size());
+                if ((int) check.getValue() != stored) {
+                    break;
+                }
+                replay.move(leadId, stage, movedAt);
+                records++;
+            }
+        } catch (EOFException | UTFDataFormatException tornTail) {
+            // the process died mid-record
+        } finally {
+            in.close();
+        }
+        return records;
+    }
+
+    private long[] generations() {
+        String[] names = dir.list();
+        if (names == null) {
+            return new long[0];
+        }
+        long[] generations = new long[names.length];
+        int count = 0;
+        for (String name : names) {
+            if (name.startsWith(PREFIX) && name.endsWith(SUFFIX)) {
+                try {
+                    generations[count++] = Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+                } catch (NumberFormatException ignored) {
+                    // not ours
+                }
+            }
+        }
+        generations = Arrays.copyOf(generations, count);
+        Arrays.sort(generations);
+        return generations;
+    }
+
+    private File file(long gen) {
+        return new File(dir, PREFIX + gen + SUFFIX);
+    }
+}
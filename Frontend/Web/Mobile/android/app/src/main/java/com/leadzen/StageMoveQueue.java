@@ -0,0 +1,300 @@
+package com.leadzen;
+
+import android.content.Context;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// Write-behind queue for pipeline stage moves (drag and drop on the board).
+//
+// move() journals the move and returns; the caller acknowledges JS right away. Moves are
+// coalesced per lead (the last one wins) and flushed as one transaction FLUSH_DELAY_MS after the
+// first pending move, or at once when MAX_PENDING leads are waiting, so dragging dozens of cards
+// in a row costs a few commits instead of one per card. The journal makes acknowledged moves
+// survive the process dying before the flush.
+//
+// A move also sets updated_at to the time of the drag, so a flushed card lands in the stage
+// order (updated_at DESC) where the user put it, however late the flush ran.
+//
+// Ordering with other writes: the committer must apply batches in submission order (LeadStore's
+// writer does), and writers call flush() before submitting their own batch; readers call
+// awaitFlushed() so they never see a stage older than one already acknowledged.
+final class StageMoveQueue {
+    static final long FLUSH_DELAY_MS = 200;
+    static final int MAX_PENDING = 256;
+
+    static final class Move {
+        final long leadId;
+        final String stage;
+        final long movedAt;
+        final long queuedNanos;
+
+        Move(long leadId, String stage, long movedAt, long queuedNanos) {
+            this.leadId = leadId;
+            this.stage = stage;
+            this.movedAt = movedAt;
+            this.queuedNanos = queuedNanos;
+        }
+    }
+
+    interface Committer {
+        // Commits the moves atomically, in submission order relative to other writes, then calls
+        // done.run(); on error calls failed.onFailure() instead
+        void commit(List<Move> moves, Runnable done, Failure failed);
+    }
+
+    interface Failure {
+        void onFailure(Exception error);
+    }
+
+    // A lead that changes stage goes to the top of the column (LeadRanks)
+    static final String UPDATE_SQL = "UPDATE leads SET pipeline_stage = ?, updated_at = ?, "
+        + LeadRanks.TOP_ON_STAGE_CHANGE_SQL + " WHERE id = ?";
+
+    private static volatile StageMoveQueue shared;
+
+    private final StageMoveJournal journal;
+    private final Committer committer;
+    private final ScheduledExecutorService scheduler;
+
+    // Guarded by this
+    private LinkedHashMap<Long, Move> pending = new LinkedHashMap<>();
+    private ScheduledFuture<?> scheduledFlush;
+    private int inFlight;
+
+    // Stats
+    private volatile long moves;
+    private volatile long coalesced;
+    private volatile long flushedMoves;
+    private volatile long flushes;
+    private volatile long failedFlushes;
+    private volatile long recovered;
+    private volatile double lastFlushMs;
+    private volatile double maxFlushMs;
+    private volatile double totalFlushMs;
+    private volatile double lastLagMs;
+    private volatile double maxLagMs;
+
+    StageMoveQueue(StageMoveJournal journal, Committer committer, ScheduledExecutorService scheduler) {
+        this.journal = journal;
+        this.committer = committer;
+        this.scheduler = scheduler;
+    }
+
+    // The queue over LeadStore.shared, journaling in filesDir; recovers on first use
+    static StageMoveQueue shared(Context context) throws IOException {
+        StageMoveQueue queue = shared;
+        if (queue == null) {
+            synchronized (StageMoveQueue.class) {
+                queue = shared;
+                if (queue == null) {
+                    Context app = context.getApplicationContext();
+                    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "StageMoveFlush");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    queue = new StageMoveQueue(new StageMoveJournal(app.getFilesDir()), into(LeadStore.shared(app)), scheduler);
+                    queue.recover();
+                    shared = queue;
+                }
+            }
+        }
+        return queue;
+    }
+
+    // Commits each flush as one LeadStore batch; moves of leads deleted meanwhile change nothing
+    static Committer into(LeadStore store) {
+        return (moves, done, failed) -> {
+            List<LeadStore.Mutation> mutations = new ArrayList<>(moves.size());
+            for (Move move : moves) {
+                mutations.add(LeadStore.Mutation.exec(UPDATE_SQL, move.stage, move.movedAt, move.stage, move.stage, move.leadId));
+            }
+            store.submit(mutations, new LeadStore.Callback() {
+                @Override
+                public void onSuccess(long[] results) {
+                    done.run();
+                }
+
+                @Override
+                public void onError(Exception error) {
+                    failed.onFailure(error);
+                }
+            });
+        };
+    }
+
+    // Replays moves a previous process acknowledged but never flushed, and flushes them
+    void recover() throws IOException {
+        long now = System.nanoTime();
+        LinkedHashMap<Long, Move> replayed = new LinkedHashMap<>();
+        int records = journal.recover((leadId, stage, movedAt) -> replayed.put(leadId, new Move(leadId, stage, movedAt, now)));
+        synchronized (this) {
+            pending.putAll(replayed);
+        }
+        recovered = records;
+        if (records > 0) {
+            OverlayLog.i("📥 Stage moves recovered from the journal: {}", records);
+            flush();
+        }
+    }
+
+    // Journals the move; once this returns the move is durable and can be acknowledged
+    void move(long leadId, String stage, long movedAt) throws IOException {
+        boolean flushNow;
+        synchronized (this) {
+            journal.append(leadId, stage, movedAt);
+            Move previous = pending.put(leadId, new Move(leadId, stage, movedAt, System.nanoTime()));
+            moves++;
+            if (previous != null) {
+                coalesced++;
+            }
+            flushNow = pending.size() >= MAX_PENDING;
+            if (!flushNow && scheduledFlush == null) {
+                scheduledFlush = scheduler.schedule(this::flush, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (flushNow) {
+            flush();
+        }
+    }
+
+    // Hands everything pending to the committer now. Returns without waiting for the commit.
+    void flush() {
+        List<Move> batch;
+        long generation;
+        synchronized (this) {
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                generation = journal.rotate();
+            } catch (IOException e) {
+                // Still journaled in the current generation; the next flush retries
+                OverlayLog.e("❌ Stage move journal rotation failed: {}", e.getMessage());
+                return;
+            }
+            batch = new ArrayList<>(pending.values());
+            pending = new LinkedHashMap<>();
+            inFlight++;
+            // Submitted under the lock so batches reach the committer in flush order
+            submit(batch, generation);
+        }
+    }
+
+    private void submit(List<Move> batch, long generation) {
+        long start = System.nanoTime();
+        committer.commit(batch, () -> {
+            long now = System.nanoTime();
+            double flushMs = (now - start) / 1e6;
+            double lagMs = (now - batch.get(0).queuedNanos) / 1e6;
+            journal.release(generation);
+            synchronized (this) {
+                flushes++;
+                flushedMoves += batch.size();
+                lastFlushMs = flushMs;
+                maxFlushMs = Math.max(maxFlushMs, flushMs);
+                totalFlushMs += flushMs;
+                lastLagMs = lagMs;
+                maxLagMs = Math.max(maxLagMs, lagMs);
+                inFlight--;
+                notifyAll();
+            }
+        }, error -> {
+            OverlayLog.e("❌ Stage move flush failed: {}", error.getMessage());
+            synchronized (this) {
+                failedFlushes++;
+                // Newer moves of the same leads win. The rest go back in the queue and are journaled
+                // again: a later flush that commits releases the generation they were written to.
+                for (Move move : batch) {
+                    if (!pending.containsKey(move.leadId)) {
+                        pending.put(move.leadId, move);
+                        try {
+                            journal.append(move.leadId, move.stage, move.movedAt);
+                        } catch (IOException e) {
+                            OverlayLog.e("❌ Stage move journal append failed: {}", e.getMessage());
+                        }
+                    }
+                }
+                inFlight--;
+                notifyAll();
+                if (scheduledFlush == null && !pending.isEmpty()) {
+                    scheduledFlush = scheduler.schedule(this::flush, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+                }
+            }
+        });
+    }
+
+    // Flushes and blocks until every move queued so far is committed (or its flush failed).
+    // Background threads only.
+    void awaitFlushed() throws InterruptedException {
+        flush();
+        synchronized (this) {
+            while (inFlight > 0) {
+                wait();
+            }
+        }
+    }
+
+    synchronized int depth() {
+        return pending.size();
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    long moves() {
+        return moves;
+    }
+
+    long coalesced() {
+        return coalesced;
+    }
+
+    long flushedMoves() {
+        return flushedMoves;
+    }
+
+    long flushes() {
+        return flushes;
+    }
+
+    long failedFlushes() {
+        return failedFlushes;
+    }
+
+    long recovered() {
+        return recovered;
+    }
+
+    double lastFlushMs() {
+        return lastFlushMs;
+    }
+
+    double maxFlushMs() {
+        return maxFlushMs;
+    }
+
+    double averageFlushMs() {
+        long count = flushes;
+        return count > 0 ? totalFlushMs / count : 0;
+    }
+
+    double lastLagMs() {
+        return lastLagMs;
+    }
+
+    double maxLagMs() {
+        return maxLagMs;
+    }
+}
@@ -0,0 +1,199 @@
+package com.leadzen;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Build;
+import android.os.Process;
+import android.os.SystemClock;
+import com.facebook.react.bridge.ReactMarker;
+import com.facebook.react.bridge.ReactMarkerConstants;
+
+// Cold-start timeline: named marks and spans in ms since the process started.
+//
+// MainApplication records SoLoader.init and package creation, FloatingOverlayPackage every module
+// it constructs, a ReactMarker listener the bridge phases (React context, package processing, JS
+// bundle, content appeared), and JS the first frame it has drawn (PerformanceModule.markFirstFrame).
+// At the first frame the timeline is written to logcat, and the cold start total is appended to a
+// short history in prefs together with the module mode, so eager and lazy module init can be
+// compared across launches (PerformanceModule.setEagerModules, applied from the next launch).
+//
+// Recording is a lock, an array store and no allocation beyond the name; at most CAPACITY entries.
+final class StartupTrace {
+    private static final String PREFS = "leadzen_startup";
+    private static final String KEY_EAGER_MODULES = "eager_modules";
+    private static final String KEY_HISTORY = "history";
+    private static final int CAPACITY = 64;
+    private static final int HISTORY = 10;
+
+    // Before API 24 the process start isn't available; this class is loaded in Application.onCreate
+    private static final long LOADED_AT = SystemClock.elapsedRealtime();
+
+    private static final Object lock = new Object();
+    private static final String[] names = new String[CAPACITY];
+    private static final long[] starts = new long[CAPACITY];    // ms since process start
+    private static final long[] durations = new long[CAPACITY]; // ms, -1 for a mark
+    private static int count;
+    private static long firstFrameAt = -1;
+    private static volatile boolean eagerModules;
+    private static SharedPreferences prefs;
+
+    // Bridge phases; START and END arrive in pairs on the same or another thread
+    private static final ReactMarker.MarkerListener MARKERS = (name, tag, instanceKey) -> {
+        switch (name) {
+            case CREATE_REACT_CONTEXT_START:
+            case PROCESS_PACKAGES_START:
+            case RUN_JS_BUNDLE_START:
+                open(name.name());
+                break;
+            case CREATE_REACT_CONTEXT_END:
+                close("CREATE_REACT_CONTEXT_START", "react_context");
+                break;
+            case PROCESS_PACKAGES_END:
+                close("PROCESS_PACKAGES_START", "process_packages");
+                break;
+            case RUN_JS_BUNDLE_END:
+                close("RUN_JS_BUNDLE_START", "run_js_bundle");
+                break;
+            case CONTENT_APPEARED:
+                mark("content_appeared");
+                break;
+            default:
+                break;
+        }
+    };
+
+    private StartupTrace() {
+    }
+
+    // Application.onCreate, first thing
+    static void install(Context context) {
+        prefs = context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        eagerModules = prefs.getBoolean(KEY_EAGER_MODULES, false);
+        mark("application_create");
+        ReactMarker.addListener(MARKERS);
+    }
+
+    static long processStartMs() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+            return Process.getStartElapsedRealtime();
+        }
+        return LOADED_AT;
+    }
+
+    static boolean eagerModules() {
+        return eagerModules;
+    }
+
+    static void setEagerModules(boolean eager) {
+        if (prefs != null) {
+            prefs.edit().putBoolean(KEY_EAGER_MODULES, eager).apply();
+        }
+    }
+
+    static long begin() {
+        return SystemClock.elapsedRealtime();
+    }
+
+    static void end(String name, long began) {
+        long now = SystemClock.elapsedRealtime();
+        record(name, began - processStartMs(), now - began);
+    }
+
+    static void mark(String name) {
+        record(name, SystemClock.elapsedRealtime() - processStartMs(), -1);
+    }
+
+    // Once per process: reloading JS in development draws a "first" frame again
+    static void firstFrame() {
+        long at = SystemClock.elapsedRealtime() - processStartMs();
+        synchronized (lock) {
+            if (firstFrameAt >= 0) {
+                return;
+            }
+            firstFrameAt = at;
+        }
+        record("first_js_frame", at, -1);
+        OverlayLog.i("⏱️ Cold start: {}", dump());
+        if (prefs != null) {
+            String entry = (eagerModules ? "eager:" : "lazy:") + at;
+            String history = prefs.getString(KEY_HISTORY, "");
+            String[] previous = history.isEmpty() ? new String[0] : history.split(",");
+            StringBuilder kept = new StringBuilder(entry);
+            for (int i = 0; i < Math.min(HISTORY - 1, previous.length); i++) {
+                kept.append(',').append(previous[i]);
+            }
+            prefs.edit().putString(KEY_HISTORY, kept.toString()).apply();
+        }
+    }
+
+    static long firstFrameAt() {
+        synchronized (lock) {
+            return firstFrameAt;
+        }
+    }
+
+    // Copies of the entries: names[i] started starts[i] ms after process start and took durations[i]
+    static int snapshot(String[] outNames, long[] outStarts, long[] outDurations) {
+        synchronized (lock) {
+            int n = Math.min(count, outNames.length);
+            System.arraycopy(names, 0, outNames, 0, n);
+            System.arraycopy(starts, 0, outStarts, 0, n);
+            System.arraycopy(durations, 0, outDurations, 0, n);
+            return n;
+        }
+    }
+
+    static int capacity() {
+        return CAPACITY;
+    }
+
+    // Most recent first: "lazy:812" = first frame 812 ms after process start with lazy modules
+    static String[] history() {
+        String history = prefs != null ? prefs.getString(KEY_HISTORY, "") : "";
+        return history.isEmpty() ? new String[0] : history.split(",");
+    }
+
+    // "name@start+duration" per entry, e.g. "soloader_init@41+23 first_js_frame@912"
+    static String dump() {
+        StringBuilder out = new StringBuilder(eagerModules ? "eager modules" : "lazy modules");
+        synchronized (lock) {
+            for (int i = 0; i < count; i++) {
+                out.append(' ').append(names[i]).append('@').append(starts[i]);
+                if (durations[i] >= 0) {
+                    out.append('+').append(durations[i]);
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    private static void record(String name, long start, long duration) {
+        synchronized (lock) {
+            if (count == CAPACITY) {
+                return;
+            }
+            names[count] = name;
+            starts[count] = start;
+            durations[count] = duration;
+            count++;
+        }
+    }
+
+    // Marker pairs: the START is kept as an open entry and completed by its END
+    private static void open(String marker) {
+        record(marker, SystemClock.elapsedRealtime() - processStartMs(), -1);
+    }
+
+    private static void close(String marker, String name) {
+        long now = SystemClock.elapsedRealtime() - processStartMs();
+        synchronized (lock) {
+            for (int i = count - 1; i >= 0; i--) {
+                if (marker.equals(names[i])) {
+                    names[i] = name;
+                    durations[i] = now - starts[i];
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.leadzen;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Arrays;
+
+// Precomputed T9 index over lead names, companies and phone digits.
+//
+// Matching follows src/utils/t9Utils.js exactly:
+//   - name or company: textToT9(text).includes(pattern) || fuzzyT9Match(text, pattern)
+//   - phone: digits(phone).includes(digits(pattern))
+//   - ranking: exact name prefix first, then name order (localeCompare)
+//
+// Every lead carries a 100-bit "ordered digit pair" signature (bit i*10+j is set when digit i
+// appears before digit j in one of its fields). Any substring or subsequence match needs every
+// consecutive pattern pair in that signature, so the first keystroke only verifies leads whose
+// signature passes. Later keystrokes narrow the previous result set, because a longer pattern can
+// only match a subset of the leads matched by its prefix.
+public final class T9Index {
+    private static final byte[] LETTER_TO_DIGIT = new byte[26];
+    private static final byte NONE = -1;
+    // Non-ASCII whitespace survives textToT9 but can never equal an ASCII pattern byte
+    private static final byte WIDE_SPACE = -2;
+
+    static {
+        String[] keys = {"abc", "def", "ghi", "jkl", "mno", "pqrs", "tuv", "wxyz"};
+        for (int d = 0; d < keys.length; d++) {
+            for (int i = 0; i < keys[d].length(); i++) {
+                LETTER_TO_DIGIT[keys[d].charAt(i) - 'a'] = (byte) ('2' + d);
+            }
+        }
+    }
+
+    // Field layout inside the shared byte pool
+    private static final int NAME_T9 = 0;
+    private static final int NAME_LETTERS = 1;
+    private static final int COMPANY_T9 = 2;
+    private static final int COMPANY_LETTERS = 3;
+    private static final int PHONE_DIGITS = 4;
+    private static final int FIELDS = 5;
+
+    // JS skips a field entirely when the value is falsy (null or "")
+    private static final int HAS_NAME = 1;
+    private static final int HAS_COMPANY = 2;
+    private static final int HAS_PHONE = 4;
+
+    private final String[] ids;
+    private final byte[] pool;
+    private final int[] offsets; // FIELDS + 1 entries per lead
+    private final long[] pairLow;
+    private final long[] pairHigh;
+    private final byte[] presence;
+    private final int[] nameRank;
+    private final int size;
+
+    private T9Index(String[] ids, byte[] pool, int[] offsets, byte[] presence,
+                    long[] pairLow, long[] pairHigh, int[] nameRank) {
+        this.ids = ids;
+        this.pool = pool;
+        this.offsets = offsets;
+        this.presence = presence;
+        this.pairLow = pairLow;
+        this.pairHigh = pairHigh;
+        this.nameRank = nameRank;
+        this.size = ids.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String idAt(int lead) {
+        return ids[lead];
+    }
+
+    public static T9Index build(String[] ids, String[] names, String[] companies, String[] phones) {
+        int count = ids.length;
+        byte[] pool = new byte[Math.max(64, count * 48)];
+        int[] offsets = new int[count * FIELDS + 1];
+        long[] pairLow = new long[count];
+        long[] pairHigh = new long[count];
+        byte[] presence = new byte[count];
+        int length = 0;
+        byte[] scratch = new byte[256];
+
+        for (int lead = 0; lead < count; lead++) {
+            for (int field = 0; field < FIELDS; field++) {
+                offsets[lead * FIELDS + field] = length;
+                String source = field <= NAME_LETTERS ? names[lead]
+                    : field <= COMPANY_LETTERS ? companies[lead] : phones[lead];
+                int written = 0;
+                if (source != null) {
+                    if (scratch.length < source.length()) {
+                        scratch = new byte[source.length() * 2];
+                    }
+                    written = encode(source, field, scratch);
+                }
+                if (length + written > pool.length) {
+                    pool = Arrays.copyOf(pool, Math.max(length + written, pool.length * 2));
+                }
+                System.arraycopy(scratch, 0, pool, length, written);
+                length += written;
+            }
+            offsets[lead * FIELDS + FIELDS] = length;
+            presence[lead] = (byte) ((isPresent(names[lead]) ? HAS_NAME : 0)
+                | (isPresent(companies[lead]) ? HAS_COMPANY : 0)
+                | (isPresent(phones[lead]) ? HAS_PHONE : 0));
+
+            long low = 0L;
+            long high = 0L;
+            for (int field = 0; field < FIELDS; field++) {
+                int seen = 0;
+                int end = offsets[lead * FIELDS + field + 1];
+                for (int p = offsets[lead * FIELDS + field]; p < end; p++) {
+                    byte c = pool[p];
+                    if (c < '0' || c > '9') {
+                        continue;
+                    }
+                    int digit = c - '0';
+                    for (int before = 0; before < 10; before++) {
+                        if ((seen & (1 << before)) != 0) {
+                            int bit = before * 10 + digit;
+                            if (bit < 64) {
+                                low |= 1L << bit;
+                            } else {
+                                high |= 1L << (bit - 64);
+                            }
+                        }
+                    }
+                    seen |= 1 << digit;
+                }
+            }
+            pairLow[lead] = low;
+            pairHigh[lead] = high;
+        }
+
+        return new T9Index(ids, Arrays.copyOf(pool, length), offsets, presence, pairLow, pairHigh, rankNames(names));
+    }
+
+    private static boolean isPresent(String value) {
+        return value != null && !value.isEmpty();
+    }
+
+    // Mirrors textToT9 (T9_*), the letters-only text used by fuzzyT9Match (*_LETTERS) and the
+    // digits-only phone used by phoneNumberMatch
+    private static int encode(String source, int field, byte[] out) {
+        int written = 0;
+        for (int i = 0, n = source.length(); i < n; i++) {
+            char c = Character.toLowerCase(source.charAt(i));
+            byte value = NONE;
+            if (c >= 'a' && c <= 'z') {
+                value = field == PHONE_DIGITS ? NONE : LETTER_TO_DIGIT[c - 'a'];
+            } else if (c >= '0' && c <= '9') {
+                value = field == NAME_T9 || field == COMPANY_T9 || field == PHONE_DIGITS ? (byte) c : NONE;
+            } else if (isRegexSpace(c)) {
+                // '0' maps to " +", so the reverse mapping turns a plain space into '0'
+                byte space = c == ' ' ? (byte) '0' : c < 128 ? (byte) c : WIDE_SPACE;
+                value = field == NAME_T9 || field == COMPANY_T9 ? space : NONE;
+            }
+            if (value != NONE) {
+                out[written++] = value;
+            }
+        }
+        return written;
+    }
+
+    // JS \s
+    private static boolean isRegexSpace(char c) {
+        if (c < 128) {
+            return c == ' ' || (c >= '\t' && c <= '\r');
+        }
+        return Character.isSpaceChar(c) || c == '\uFEFF';
+    }
+
+    private static int[] rankNames(String[] names) {
+        int count = names.length;
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        // Collation keys once per name; comparing raw strings re-decomposes them on every compare
+        Collator collator = Collator.getInstance();
+        CollationKey[] keys = new CollationKey[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = collator.getCollationKey(names[i] != null ? names[i] : "");
+        }
+        Arrays.sort(order, (a, b) -> keys[a].compareTo(keys[b]));
+        int[] rank = new int[count];
+        for (int i = 0; i < count; i++) {
+            rank[order[i]] = i;
+        }
+        return rank;
+    }
+
+    // Compiled form of one keystroke's pattern
+    public static final class Query {
+        final byte[] pattern;      // pattern.toLowerCase() as bytes, compared against *_T9 fields
+        final byte[] digits;       // pattern with non-digits removed, compared against phone digits
+        final boolean asciiOnly;   // a non-ASCII pattern can never equal T9 text
+        final long mask1Low, mask1High; // pairs required by substring / phone matches
+        final long mask2Low, mask2High; // pairs required by fuzzy matches (skips digits with no letters)
+
+        public Query(String input) {
+            int n = input.length();
+            byte[] raw = new byte[n];
+            byte[] digitBuffer = new byte[n];
+            byte[] fuzzyBuffer = new byte[n];
+            int digitCount = 0;
+            int fuzzyCount = 0;
+            boolean ascii = true;
+            for (int i = 0; i < n; i++) {
+                char c = Character.toLowerCase(input.charAt(i));
+                if (c > 127) {
+                    ascii = false;
+                }
+                raw[i] = (byte) c;
+                if (c >= '0' && c <= '9') {
+                    digitBuffer[digitCount++] = (byte) c;
+                    if (c != '1') {
+                        fuzzyBuffer[fuzzyCount++] = (byte) c;
+                    }
+                }
+            }
+            pattern = raw;
+            digits = Arrays.copyOf(digitBuffer, digitCount);
+            asciiOnly = ascii;
+            long[] mask1 = pairMask(digitBuffer, digitCount);
+            long[] mask2 = pairMask(fuzzyBuffer, fuzzyCount);
+            mask1Low = mask1[0];
+            mask1High = mask1[1];
+            mask2Low = mask2[0];
+            mask2High = mask2[1];
+        }
+
+        private static long[] pairMask(byte[] digits, int count) {
+            long[] mask = new long[2];
+            for (int i = 0; i + 1 < count; i++) {
+                int bit = (digits[i] - '0') * 10 + (digits[i + 1] - '0');
+                if (bit < 64) {
+                    mask[0] |= 1L << bit;
+                } else {
+                    mask[1] |= 1L << (bit - 64);
+                }
+            }
+            return mask;
+        }
+    }
+
+    public boolean mayMatch(int lead, Query query) {
+        long low = pairLow[lead];
+        long high = pairHigh[lead];
+        return ((low & query.mask1Low) == query.mask1Low && (high & query.mask1High) == query.mask1High)
+            || ((low & query.mask2Low) == query.mask2Low && (high & query.mask2High) == query.mask2High);
+    }
+
+    public boolean matches(int lead, Query query) {
+        int base = lead * FIELDS;
+        int present = presence[lead];
+        return ((present & HAS_NAME) != 0 && fieldMatches(base + NAME_T9, base + NAME_LETTERS, query))
+            || ((present & HAS_COMPANY) != 0 && fieldMatches(base + COMPANY_T9, base + COMPANY_LETTERS, query))
+            || ((present & HAS_PHONE) != 0 && indexOf(offsets[base + PHONE_DIGITS], offsets[base + PHONE_DIGITS + 1], query.digits) >= 0);
+    }
+
+    public boolean isExactNameMatch(int lead, Query query) {
+        int start = offsets[lead * FIELDS + NAME_T9];
+        int end = offsets[lead * FIELDS + NAME_T9 + 1];
+        byte[] pattern = query.pattern;
+        if (!query.asciiOnly || end - start < pattern.length) {
+            return false;
+        }
+        for (int i = 0; i < pattern.length; i++) {
+            if (pool[start + i] != pattern[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int nameRank(int lead) {
+        return nameRank[lead];
+    }
+
+    private boolean fieldMatches(int t9Field, int lettersField, Query query) {
+        int t9Start = offsets[t9Field];
+        int t9End = offsets[t9Field + 1];
+        int lettersStart = offsets[lettersField];
+        int lettersEnd = offsets[lettersField + 1];
+        if (query.asciiOnly && indexOf(t9Start, t9End, query.pattern) >= 0) {
+            return true;
+        }
+        return fuzzyMatches(lettersStart, lettersEnd, query.pattern);
+    }
+
+    private int indexOf(int start, int end, byte[] needle) {
+        int last = end - needle.length;
+        outer:
+        for (int p = start; p <= last; p++) {
+            for (int i = 0; i < needle.length; i++) {
+                if (pool[p + i] != needle[i]) {
+                    continue outer;
+                }
+            }
+            return p;
+        }
+        return -1;
+    }
+
+    // fuzzyT9Match: each pattern digit with letters must be found, in order, in the letters-only text.
+    // Digits without letters ('1' and non-digits) are skipped; '0' maps to " +" which never
+    // occurs in the letters-only text, so it always fails.
+    private boolean fuzzyMatches(int start, int end, byte[] pattern) {
+        int position = start;
+        for (byte c : pattern) {
+            if (c == '1' || c < '0' || c > '9') {
+                continue;
+            }
+            boolean found = false;
+            while (position < end) {
+                if (pool[position++] == c) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,74 @@
+package com.leadzen;
+
+// One dialer's keystroke-by-keystroke search over a T9Index. Keeps the matches of the previous
+// input so typing one more digit only rescans those, then picks the ranked top N. The match
+// buffer is sized to the index once and reused, so a keystroke allocates only its result.
+//
+// Not thread safe; T9SearchModule runs it on its single executor thread.
+final class T9Search {
+    // Matches of the previous keystroke, in matches[0, narrowedCount)
+    private T9Index narrowedIndex;
+    private String narrowedInput;
+    private int[] matches = new int[0];
+    private int narrowedCount;
+    private int[] topKeys = new int[0];
+
+    // Lead positions of the top `limit` matches: exact name prefix first, then name order
+    int[] search(T9Index index, String input, int limit) {
+        T9Index.Query query = new T9Index.Query(input);
+        if (matches.length < index.size()) {
+            matches = new int[index.size()];
+        }
+        int[] matches = this.matches;
+        int count = 0;
+        // One more digit can only remove matches, so rescan just the previous hits; they are
+        // compacted in place, as the write position never passes the read position
+        if (index == narrowedIndex && narrowedInput != null && input.startsWith(narrowedInput)) {
+            for (int i = 0; i < narrowedCount; i++) {
+                int lead = matches[i];
+                if (index.mayMatch(lead, query) && index.matches(lead, query)) {
+                    matches[count++] = lead;
+                }
+            }
+        } else {
+            for (int lead = 0, n = index.size(); lead < n; lead++) {
+                if (index.mayMatch(lead, query) && index.matches(lead, query)) {
+                    matches[count++] = lead;
+                }
+            }
+        }
+        narrowedIndex = index;
+        narrowedInput = input;
+        narrowedCount = count;
+
+        // Bounded insertion sort
+        int size = index.size();
+        int[] top = new int[Math.min(limit, count)];
+        if (topKeys.length < top.length) {
+            topKeys = new int[top.length];
+        }
+        int[] topKeys = this.topKeys;
+        int topCount = 0;
+        for (int i = 0; i < count; i++) {
+            int lead = matches[i];
+            int key = index.isExactNameMatch(lead, query) ? index.nameRank(lead) : size + index.nameRank(lead);
+            if (topCount == top.length && key >= topKeys[topCount - 1]) {
+                continue;
+            }
+            int position = topCount < top.length ? topCount++ : topCount - 1;
+            while (position > 0 && topKeys[position - 1] > key) {
+                top[position] = top[position - 1];
+                topKeys[position] = topKeys[position - 1];
+                position--;
+            }
+            top[position] = lead;
+            topKeys[position] = key;
+        }
+        return top;
+    }
+
+    // Matches found for the last input
+    int matchCount() {
+        return narrowedCount;
+    }
+}
@@ -0,0 +1,176 @@
+package com.leadzen;
+
+import android.util.Log;
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableType;
+import com.facebook.react.bridge.WritableArray;
+import androidx.annotation.NonNull;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Dialer T9 search off the JS thread. The lead book comes from the native store (syncFromStore(),
+// then rebuilt after every commit that writes leads) or is pushed by JS with setLeads(); each
+// keystroke calls search() and gets back the ranked top-N lead ids.
+// Indexes are built on their own thread and swapped in, so a rebuild never delays a keystroke.
+public class T9SearchModule extends ReactContextBaseJavaModule {
+    private static final String TAG = "T9Search";
+    private static final int MIN_INPUT_LENGTH = 2;
+
+    private final ReactApplicationContext reactContext;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ExecutorService builder = Executors.newSingleThreadExecutor();
+    private final AtomicInteger latestSearch = new AtomicInteger();
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private volatile T9Index index = T9Index.build(new String[0], new String[0], new String[0], new String[0]);
+    private LeadStore store;
+    private LeadStore.CommitListener storeListener;
+
+    // Only touched on the executor thread
+    private final T9Search searcher = new T9Search();
+
+    public T9SearchModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+        this.reactContext = reactContext;
+    }
+
+    @NonNull
+    @Override
+    public String getName() {
+        return "T9SearchModule";
+    }
+
+    // Replaces the searchable lead book from columnar arrays:
+    // { ids, names, companies, phones } - all the same length
+    @ReactMethod
+    public void setLeads(ReadableMap columns, Promise promise) {
+        try {
+            ReadableArray idColumn = columns.getArray("ids");
+            int count = idColumn != null ? idColumn.size() : 0;
+            String[] ids = readStrings(idColumn, count);
+            String[] names = readStrings(columns.getArray("names"), count);
+            String[] companies = readStrings(columns.getArray("companies"), count);
+            String[] phones = readStrings(columns.getArray("phones"), count);
+
+            builder.execute(() -> {
+                try {
+                    promise.resolve(install(ids, names, companies, phones));
+                } catch (Exception e) {
+                    promise.reject("ERROR", "Failed to build T9 index: " + e.getMessage());
+                }
+            });
+        } catch (Exception e) {
+            promise.reject("ERROR", "Failed to read T9 leads: " + e.getMessage());
+        }
+    }
+
+    // Indexes the native store's leads and keeps following its commits; resolves the lead count.
+    // Later calls only rebuild.
+    @ReactMethod
+    public synchronized void syncFromStore(Promise promise) {
+        if (storeListener == null) {
+            store = LeadStore.shared(reactContext);
+            storeListener = leadsChanged -> {
+                if (leadsChanged && rebuildQueued.compareAndSet(false, true)) {
+                    builder.execute(() -> {
+                        rebuildQueued.set(false);
+                        try {
+                            buildFromStore();
+                        } catch (Exception e) {
+                            Log.e(TAG, "❌ T9 index rebuild failed", e);
+                        }
+                    });
+                }
+            };
+            store.addCommitListener(storeListener);
+        }
+        builder.execute(() -> {
+            try {
+                promise.resolve(buildFromStore());
+            } catch (Exception e) {
+                promise.reject("ERROR", "Failed to build T9 index from the store: " + e.getMessage());
+            }
+        });
+    }
+
+    // Resolves the ranked lead ids for the input, or null when a newer search has
+    // already been issued (the dialer only renders the latest keystroke)
+    @ReactMethod
+    public void search(String input, int limit, Promise promise) {
+        int searchId = latestSearch.incrementAndGet();
+        executor.execute(() -> {
+            if (searchId != latestSearch.get()) {
+                promise.resolve(null);
+                return;
+            }
+            try {
+                promise.resolve(runSearch(input, limit));
+            } catch (Exception e) {
+                promise.reject("ERROR", "T9 search failed: " + e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public synchronized void invalidate() {
+        super.invalidate();
+        if (storeListener != null) {
+            store.removeCommitListener(storeListener);
+            storeListener = null;
+        }
+        executor.shutdownNow();
+        builder.shutdownNow();
+    }
+
+    // Builder thread
+    private int buildFromStore() {
+        String[][] columns = store.t9Book();
+        return install(columns[0], columns[1], columns[2], columns[3]);
+    }
+
+    // Builder thread
+    private int install(String[] ids, String[] names, String[] companies, String[] phones) {
+        long startNanos = System.nanoTime();
+        index = T9Index.build(ids, names, companies, phones);
+        Log.d(TAG, "✅ T9 index built: " + ids.length + " leads in "
+            + ((System.nanoTime() - startNanos) / 1000000) + "ms");
+        return ids.length;
+    }
+
+    private WritableArray runSearch(String input, int limit) {
+        WritableArray result = Arguments.createArray();
+        T9Index current = index;
+        if (input == null || input.length() < MIN_INPUT_LENGTH || limit <= 0) {
+            return result;
+        }
+
+        for (int lead : searcher.search(current, input, limit)) {
+            result.pushString(current.idAt(lead));
+        }
+        return result;
+    }
+
+    private static String[] readStrings(ReadableArray array, int count) {
+        String[] values = new String[count];
+        if (array == null) {
+            return values;
+        }
+        for (int i = 0; i < count && i < array.size(); i++) {
+            if (array.isNull(i)) {
+                continue;
+            }
+            // Lead ids can arrive as numbers from older records
+            values[i] = array.getType(i) == ReadableType.Number
+                ? String.valueOf((long) array.getDouble(i))
+                : array.getString(i);
+        }
+        return values;
+    }
+}
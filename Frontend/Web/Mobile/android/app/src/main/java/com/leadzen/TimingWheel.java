@@ -0,0 +1,269 @@
+package com.leadzen;
+
+import java.util.Arrays;
+
+// Hierarchical timing wheel of reminder deadlines, keyed by a long (never 0).
+//
+// Time is counted in ticks of tickMs; a deadline belongs to the first tick at or after it, so
+// nothing fires early and nothing fires more than one tick late. LEVELS wheels of 64 slots each:
+// an item sits on the level of the highest 6-bit group in which its tick differs from the
+// current tick, in the slot given by its tick's bits of that group. Items on a lower level are
+// therefore always due before items on a higher one, and within a level the slots are in time
+// order. advance() jumps from occupied slot to occupied slot (one bitmap scan per level, not one
+// step per tick), expiring level-0 slots and re-placing the items of higher ones on lower levels.
+//
+// schedule() and cancel() are O(1): items are nodes in parallel arrays, linked into their slot's
+// list, found through a LongIntMap. nextDueMs() is the single time an alarm needs to be armed
+// for; it is kept up to date on schedule() and only recomputed (scanning one slot) when the item
+// it points at goes away.
+//
+// Ticks are 36 bits wide, so the wheel covers MAX_TICK * tickMs ms of wall time from the epoch:
+// about 2 years at 1 ms, 2000 years at 1 s. The constructor rejects a tick too fine for nowMs, and
+// schedule() and advance() reject times past the end instead of clamping them onto the last tick.
+//
+// Not thread safe; ReminderScheduler owns one on its own thread. No Android types here.
+final class TimingWheel {
+    static final int LEVELS = 6;
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long MAX_TICK = (1L << (BITS * LEVELS)) - 1;
+    private static final int NONE = -1;
+    private static final long UNKNOWN = Long.MIN_VALUE;
+
+    interface Expired {
+        // Called for every item due, in no particular order inside one advance()
+        void onExpired(long key, long dueMs);
+    }
+
+    private final long tickMs;
+    private long current;                                   // ticks
+    private final int[] heads = new int[LEVELS * SLOTS];
+    private final long[] occupied = new long[LEVELS];       // bit s: slot s of that level has items
+    private final LongIntMap index;
+
+    // Nodes
+    private long[] keys;
+    private long[] dueMs;
+    private long[] ticks;
+    private int[] next;
+    private int[] prev;
+    private int[] slotOf;
+    private int free = NONE;
+    private int used;
+    private int size;
+
+    // Tick of the earliest item, Long.MAX_VALUE when empty, UNKNOWN when it needs a scan
+    private long earliest = Long.MAX_VALUE;
+
+    TimingWheel(long tickMs, long nowMs, int expectedSize) {
+        if (tickMs < 1 || tickMs > Long.MAX_VALUE / MAX_TICK) {
+            throw new IllegalArgumentException("Bad tick: " + tickMs + " ms");
+        }
+        this.tickMs = tickMs;
+        this.current = Math.max(0, nowMs) / tickMs;
+        if (current > MAX_TICK / 2) {
+            // Less range left ahead of nowMs than behind it: the tick is too fine for this clock
+            throw new IllegalArgumentException("Tick of " + tickMs + " ms cannot represent " + nowMs);
+        }
+        int capacity = Math.max(16, expectedSize);
+        keys = new long[capacity];
+        dueMs = new long[capacity];
+        ticks = new long[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+        slotOf = new int[capacity];
+        index = new LongIntMap(capacity);
+        Arrays.fill(heads, NONE);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(long key) {
+        return index.get(key, NONE) != NONE;
+    }
+
+    // Last wall time the wheel can represent
+    long maxDueMs() {
+        return MAX_TICK * tickMs;
+    }
+
+    // Adds the item or moves it to a new deadline. A deadline already past fires on the next advance().
+    void schedule(long key, long due) {
+        if (due > maxDueMs()) {
+            throw new IllegalArgumentException("Deadline " + due + " is past the end of the wheel");
+        }
+        int node = index.get(key, NONE);
+        if (node != NONE) {
+            if (ticks[node] == earliest) {
+                earliest = UNKNOWN;
+            }
+            unlink(node);
+        } else {
+            node = allocate();
+            keys[node] = key;
+            index.put(key, node, NONE);
+            size++;
+        }
+        dueMs[node] = due;
+        ticks[node] = Math.max(current, ceilDiv(due, tickMs));
+        place(node);
+        if (earliest != UNKNOWN && ticks[node] < earliest) {
+            earliest = ticks[node];
+        }
+    }
+
+    // Returns false when the key was not scheduled
+    boolean cancel(long key) {
+        int node = index.remove(key, NONE);
+        if (node == NONE) {
+            return false;
+        }
+        if (ticks[node] == earliest) {
+            earliest = UNKNOWN;
+        }
+        unlink(node);
+        release(node);
+        size--;
+        return true;
+    }
+
+    // Wall time the earliest item is due (its tick's end), Long.MAX_VALUE when empty
+    long nextDueMs() {
+        if (earliest == UNKNOWN) {
+            earliest = scanEarliest();
+        }
+        return earliest == Long.MAX_VALUE ? Long.MAX_VALUE : earliest * tickMs;
+    }
+
+    // Expires everything due at nowMs and moves the wheel there. Returns the number expired.
+    int advance(long nowMs, Expired expired) {
+        if (nowMs > maxDueMs()) {
+            throw new IllegalArgumentException("Time " + nowMs + " is past the end of the wheel");
+        }
+        long now = Math.max(0, nowMs) / tickMs;
+        int count = 0;
+        while (true) {
+            int level = 0;
+            while (level < LEVELS && occupied[level] == 0) {
+                level++;
+            }
+            if (level == LEVELS) {
+                current = Math.max(current, now);
+                break;
+            }
+            int slot = Long.numberOfTrailingZeros(occupied[level]);
+            int shift = BITS * level;
+            long start = ((current >>> (shift + BITS)) << (shift + BITS)) | ((long) slot << shift);
+            if (start > now) {
+                current = Math.max(current, now);
+                break;
+            }
+            current = Math.max(current, start);
+
+            int bucket = level * SLOTS + slot;
+            int node = heads[bucket];
+            heads[bucket] = NONE;
+            occupied[level] &= ~(1L << slot);
+            while (node != NONE) {
+                int following = next[node];
+                if (level == 0) {
+                    long key = keys[node];
+                    long due = dueMs[node];
+                    index.remove(key, NONE);
+                    release(node);
+                    size--;
+                    count++;
+                    expired.onExpired(key, due);
+                } else {
+                    place(node);
+                }
+                node = following;
+            }
+        }
+        earliest = UNKNOWN;
+        return count;
+    }
+
+    // Level = highest group in which tick and current differ; level 0 when equal
+    private void place(int node) {
+        long tick = ticks[node];
+        long differ = tick ^ current;
+        int level = differ == 0 ? 0 : (63 - Long.numberOfLeadingZeros(differ)) / BITS;
+        int slot = (int) (tick >>> (BITS * level)) & SLOT_MASK;
+        int bucket = level * SLOTS + slot;
+        int head = heads[bucket];
+        next[node] = head;
+        prev[node] = NONE;
+        if (head != NONE) {
+            prev[head] = node;
+        }
+        heads[bucket] = node;
+        slotOf[node] = bucket;
+        occupied[level] |= 1L << slot;
+    }
+
+    private void unlink(int node) {
+        int bucket = slotOf[node];
+        if (prev[node] != NONE) {
+            next[prev[node]] = next[node];
+        } else {
+            heads[bucket] = next[node];
+            if (heads[bucket] == NONE) {
+                occupied[bucket / SLOTS] &= ~(1L << (bucket & SLOT_MASK));
+            }
+        }
+        if (next[node] != NONE) {
+            prev[next[node]] = prev[node];
+        }
+    }
+
+    // The lowest level's first occupied slot holds the earliest items; a level-0 slot is one tick
+    private long scanEarliest() {
+        for (int level = 0; level < LEVELS; level++) {
+            if (occupied[level] == 0) {
+                continue;
+            }
+            int bucket = level * SLOTS + Long.numberOfTrailingZeros(occupied[level]);
+            long min = Long.MAX_VALUE;
+            for (int node = heads[bucket]; node != NONE; node = next[node]) {
+                min = Math.min(min, ticks[node]);
+                if (level == 0) {
+                    break;
+                }
+            }
+            return min;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private int allocate() {
+        if (free != NONE) {
+            int node = free;
+            free = next[node];
+            return node;
+        }
+        if (used == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            dueMs = Arrays.copyOf(dueMs, capacity);
+            ticks = Arrays.copyOf(ticks, capacity);
+            next = Arrays.copyOf(next, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+            slotOf = Arrays.copyOf(slotOf, capacity);
+        }
+        return used++;
+    }
+
+    private void release(int node) {
+        next[node] = free;
+        free = node;
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        long quotient = value / divisor;
+        return value % divisor > 0 ? quotient + 1 : quotient;
+    }
+}
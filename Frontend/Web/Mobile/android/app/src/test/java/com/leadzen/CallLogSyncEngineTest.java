@@ -0,0 +1,265 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class CallLogSyncEngineTest {
+    private static final int MILLION = 1_000_000;
+
+    // Call log rows in _ID order; [id, number, type, date, duration]
+    private static final class ListRows implements CallLogSyncEngine.Rows {
+        private final List<Object[]> rows = new ArrayList<>();
+        private int index = -1;
+
+        ListRows add(long id, String number, int type, long date, long duration) {
+            rows.add(new Object[] {id, number, type, date, duration});
+            return this;
+        }
+
+        // Rows after the watermark, as CallLogSync queries them
+        ListRows after(long watermarkId) {
+            ListRows rest = new ListRows();
+            for (Object[] row : rows) {
+                if ((Long) row[0] > watermarkId) {
+                    rest.rows.add(row);
+                }
+            }
+            return rest;
+        }
+
+        @Override public boolean next() { return ++index < rows.size(); }
+        @Override public long id() { return (Long) rows.get(index)[0]; }
+        @Override public String number() { return (String) rows.get(index)[1]; }
+        @Override public int type() { return (Integer) rows.get(index)[2]; }
+        @Override public long date() { return (Long) rows.get(index)[3]; }
+        @Override public long durationSeconds() { return (Long) rows.get(index)[4]; }
+    }
+
+    // Commits batches (copying them, the engine reuses its arrays) until failAfter batches
+    private static final class RecordingSink implements CallLogSyncEngine.Sink {
+        final List<Long> deviceIds = new ArrayList<>();
+        final List<String> rows = new ArrayList<>();
+        int failAfter = Integer.MAX_VALUE;
+        int batches;
+
+        @Override
+        public void write(CallLogSyncEngine.Batch batch) throws Exception {
+            if (batches == failAfter) {
+                throw new Exception("permission revoked");
+            }
+            batches++;
+            for (int i = 0; i < batch.size; i++) {
+                deviceIds.add(batch.deviceIds[i]);
+                rows.add(batch.numbers[i] + " " + batch.callTypes[i] + " " + batch.callStatuses[i] + " lead "
+                    + batch.leadIds[i] + " " + batch.startedAt[i] + ".." + batch.endedAt[i]);
+            }
+        }
+    }
+
+    // Every save, in order
+    private static final class Watermarks implements CallLogSyncEngine.WatermarkStore {
+        final List<String> saved = new ArrayList<>();
+        long id;
+        long date;
+
+        @Override
+        public void save(long id, long date) {
+            this.id = id;
+            this.date = date;
+            saved.add(id + "@" + date);
+        }
+    }
+
+    // A device call log generated row by row, as a cursor reads it: nothing is held but the current row
+    private static final class GeneratedRows implements CallLogSyncEngine.Rows {
+        private final int count;
+        private long id;
+        private String number;
+
+        GeneratedRows(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public boolean next() {
+            if (id == count) {
+                return false;
+            }
+            id++;
+            // 20k distinct callers in a few spellings, every 50th withheld
+            long national = 9_800_000_000L + (id * 7_919L) % 20_000L;
+            number = id % 50 == 0 ? null : id % 3 == 0 ? "+91 " + national : Long.toString(national);
+            return true;
+        }
+
+        @Override public long id() { return id; }
+        @Override public String number() { return number; }
+        @Override public int type() { return 1 + (int) (id % 7); }
+        @Override public long date() { return 1_600_000_000_000L + id * 60_000L; }
+        @Override public long durationSeconds() { return id % 4 == 0 ? 0 : id % 600; }
+    }
+
+    private static final CallLogSyncEngine.LeadResolver NO_LEADS = packed -> 0L;
+
+    private static ListRows calls(int count) {
+        ListRows rows = new ListRows();
+        for (int i = 1; i <= count; i++) {
+            rows.add(i, "98765 4" + String.format("%04d", i), CallLogSyncEngine.DEVICE_INCOMING, 1_000L * i, 30);
+        }
+        return rows;
+    }
+
+    @Test
+    public void watermarkMovesAfterEachCommittedBatch() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        Watermarks watermarks = new Watermarks();
+        CallLogSyncEngine.Result result = new CallLogSyncEngine(2).run(calls(5), 0, 0, NO_LEADS, sink, watermarks);
+
+        assertEquals(5, result.rowsRead);
+        assertEquals(5, result.rowsWritten);
+        assertEquals(3, result.batches);
+        assertEquals(Arrays.asList("2@2000", "4@4000", "5@5000"), watermarks.saved);
+        assertEquals(5, result.watermarkId);
+        assertEquals(5_000, result.watermarkDate);
+    }
+
+    @Test
+    public void failedBatchLeavesTheWatermarkAndResumeRepeatsNothingCommitted() throws Exception {
+        ListRows all = calls(5);
+        RecordingSink sink = new RecordingSink();
+        sink.failAfter = 1;
+        Watermarks watermarks = new Watermarks();
+        try {
+            new CallLogSyncEngine(2).run(all.after(0), 0, 0, NO_LEADS, sink, watermarks);
+            fail("expected the sink failure");
+        } catch (Exception expected) {
+            assertEquals("permission revoked", expected.getMessage());
+        }
+        assertEquals(Arrays.asList("2@2000"), watermarks.saved);
+
+        sink.failAfter = Integer.MAX_VALUE;
+        CallLogSyncEngine.Result resumed = new CallLogSyncEngine(2).run(all.after(watermarks.id), watermarks.id,
+            watermarks.date, NO_LEADS, sink, watermarks);
+        assertEquals(3, resumed.rowsRead);
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L), sink.deviceIds);
+        assertEquals(5, watermarks.id);
+    }
+
+    @Test
+    public void skippedRowsStillAdvanceTheWatermark() throws Exception {
+        ListRows rows = new ListRows()
+            .add(11, null, CallLogSyncEngine.DEVICE_INCOMING, 5_000, 0)          // withheld number
+            .add(12, "9876543210", CallLogSyncEngine.DEVICE_VOICEMAIL, 6_000, 40) // voicemail
+            .add(13, "", CallLogSyncEngine.DEVICE_MISSED, 7_000, 0);
+        RecordingSink sink = new RecordingSink();
+        Watermarks watermarks = new Watermarks();
+        CallLogSyncEngine.Result result = new CallLogSyncEngine(10).run(rows, 10, 4_000, NO_LEADS, sink, watermarks);
+
+        assertEquals(3, result.rowsRead);
+        assertEquals(0, result.rowsWritten);
+        assertEquals(0, sink.batches);
+        assertEquals(Arrays.asList("13@7000"), watermarks.saved);
+    }
+
+    @Test
+    public void nothingNewSavesNothing() throws Exception {
+        Watermarks watermarks = new Watermarks();
+        CallLogSyncEngine.Result result = new CallLogSyncEngine(10).run(new ListRows(), 42, 9_000, NO_LEADS,
+            new RecordingSink(), watermarks);
+        assertEquals(0, watermarks.saved.size());
+        assertEquals(42, result.watermarkId);
+        assertEquals(9_000, result.watermarkDate);
+    }
+
+    @Test
+    public void watermarkDateIsTheLatestSeenNotTheLastRow() throws Exception {
+        // A row edited or restored on the device can carry an older date than an earlier _ID
+        ListRows rows = new ListRows()
+            .add(1, "9876543210", CallLogSyncEngine.DEVICE_OUTGOING, 8_000, 10)
+            .add(2, "9876543211", CallLogSyncEngine.DEVICE_OUTGOING, 3_000, 10);
+        Watermarks watermarks = new Watermarks();
+        new CallLogSyncEngine(10).run(rows, 0, 0, NO_LEADS, new RecordingSink(), watermarks);
+        assertEquals(Arrays.asList("2@8000"), watermarks.saved);
+    }
+
+    @Test
+    public void rowsAreNormalizedAndMatched() throws Exception {
+        ListRows rows = new ListRows()
+            .add(1, "+91 98765 43210", CallLogSyncEngine.DEVICE_INCOMING, 10_000, 65)
+            .add(2, "09876543211", CallLogSyncEngine.DEVICE_MISSED, 20_000, 0)
+            .add(3, "9876543210", CallLogSyncEngine.DEVICE_REJECTED, 30_000, 0)
+            .add(4, "9876543210", CallLogSyncEngine.DEVICE_OUTGOING, 40_000, -5);
+        long known = CallerIdIndex.packPhone("9876543210");
+        RecordingSink sink = new RecordingSink();
+        CallLogSyncEngine.Result result = new CallLogSyncEngine(10).run(rows, 0, 0,
+            packed -> packed == known ? 7L : -1L, sink, new Watermarks());
+
+        assertEquals(3, result.rowsMatched);
+        assertEquals(Arrays.asList(
+            "+919876543210 incoming completed lead 7 10000..75000",
+            "+919876543211 missed no_answer lead 0 20000..20000",
+            "+919876543210 missed busy lead 7 30000..30000",
+            "+919876543210 outgoing no_answer lead 7 40000..40000"), sink.rows);
+    }
+
+    @Test
+    public void deviceTypes() {
+        assertEquals("incoming", CallLogSyncEngine.callType(CallLogSyncEngine.DEVICE_ANSWERED_EXTERNALLY));
+        assertEquals("missed", CallLogSyncEngine.callType(CallLogSyncEngine.DEVICE_BLOCKED));
+        assertNull(CallLogSyncEngine.callType(CallLogSyncEngine.DEVICE_VOICEMAIL));
+        assertNull(CallLogSyncEngine.callType(99));
+        assertEquals("busy", CallLogSyncEngine.callStatus(CallLogSyncEngine.DEVICE_BLOCKED, 12));
+        assertEquals("completed", CallLogSyncEngine.callStatus(CallLogSyncEngine.DEVICE_INCOMING, 1));
+    }
+
+    // A million-row call log through the default batch size. The sink samples the heap retained
+    // after a GC every 200 batches; it must stay flat, whatever the number of rows already synced.
+    @Test
+    public void millionRowsInBoundedMemory() throws Exception {
+        LongIntMap leads = new LongIntMap(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            leads.put(CallerIdIndex.packPhone(Long.toString(9_800_000_000L + i * 2L)), i + 1, 0);
+        }
+        Runtime runtime = Runtime.getRuntime();
+        long[] retained = new long[64];
+        int[] samples = new int[1];
+        long[] written = new long[1];
+        CallLogSyncEngine.Sink sink = batch -> {
+            written[0] += batch.size;
+            if (batch.size > 0 && written[0] / batch.size % 200 == 1) {
+                System.gc();
+                retained[samples[0]++] = runtime.totalMemory() - runtime.freeMemory();
+            }
+        };
+        Watermarks watermarks = new Watermarks();
+
+        CallLogSyncEngine.Result result = new CallLogSyncEngine(CallLogSyncEngine.DEFAULT_BATCH_SIZE).run(
+            new GeneratedRows(MILLION), 0, 0, packed -> leads.get(packed, 0), sink, watermarks);
+
+        assertEquals(MILLION, result.rowsRead);
+        // Voicemail (type 4) and withheld numbers are skipped
+        assertTrue(result.rowsWritten > MILLION * 0.8 && result.rowsWritten < MILLION * 0.9);
+        assertEquals(written[0], result.rowsWritten);
+        assertTrue(result.rowsMatched > 0);
+        assertEquals(MILLION, watermarks.id);
+
+        long growth = 0;
+        for (int i = 1; i < samples[0]; i++) {
+            growth = Math.max(growth, retained[i] - retained[0]);
+        }
+        double rowsPerSec = result.rowsRead * 1000.0 / Math.max(1, result.elapsedMs);
+        System.out.println("CallLogSyncEngine: " + result.rowsRead + " rows in " + result.elapsedMs + "ms ("
+            + Math.round(rowsPerSec) + " rows/s), " + result.batches + " batches, retained heap growth "
+            + growth / 1024 + " KiB over " + samples[0] + " samples");
+        assertTrue(samples[0] >= 5);
+        // The watermark log above holds one string per batch; anything per row would be far larger
+        assertTrue("retained heap grew " + growth / 1024 + " KiB", growth < 2 * 1024 * 1024);
+    }
+}
@@ -0,0 +1,110 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class CallStateMachineTest {
+    private final CallStateMachine machine = new CallStateMachine();
+
+    private void assertTransition(CallStateMachine.Transition transition, String event, String overlay, String number) {
+        assertEquals(event, transition.event);
+        assertEquals(overlay, transition.overlayState);
+        assertEquals(number, transition.phoneNumber);
+    }
+
+    @Test
+    public void answeredIncomingCall() {
+        assertTransition(machine.onCallState(CallStateMachine.STATE_RINGING, "9876543210"),
+            CallStateMachine.EVENT_INCOMING, CallStateMachine.OVERLAY_DURING, "9876543210");
+        assertTransition(machine.onCallState(CallStateMachine.STATE_OFFHOOK, null),
+            CallStateMachine.EVENT_OFFHOOK, CallStateMachine.OVERLAY_DURING, "9876543210");
+        CallStateMachine.Transition ended = machine.onCallState(CallStateMachine.STATE_IDLE, null);
+        assertTransition(ended, CallStateMachine.EVENT_DISCONNECTED, CallStateMachine.OVERLAY_AFTER, "9876543210");
+        assertFalse(ended.showsOverlay());
+        assertEquals(CallStateMachine.STATE_IDLE, machine.state());
+        assertNull(machine.phoneNumber());
+    }
+
+    @Test
+    public void missedCallHidesTheOverlay() {
+        machine.onCallState(CallStateMachine.STATE_RINGING, "9876543210");
+        CallStateMachine.Transition missed = machine.onCallState(CallStateMachine.STATE_IDLE, null);
+        assertTransition(missed, CallStateMachine.EVENT_MISSED, CallStateMachine.OVERLAY_ENDED, "9876543210");
+        assertFalse(missed.showsOverlay());
+    }
+
+    @Test
+    public void outgoingCall() {
+        CallStateMachine.Transition dialing = machine.onCallState(CallStateMachine.STATE_OFFHOOK, null);
+        assertTransition(dialing, CallStateMachine.EVENT_OUTGOING, CallStateMachine.OVERLAY_DURING, null);
+        assertTrue(dialing.showsOverlay());
+        CallStateMachine.Transition ended = machine.onCallState(CallStateMachine.STATE_IDLE, "9876543210");
+        assertTransition(ended, CallStateMachine.EVENT_DISCONNECTED, CallStateMachine.OVERLAY_AFTER, null);
+        assertFalse(ended.showsOverlay());
+    }
+
+    @Test
+    public void lateNumberUpdatesTheCallWithoutANewTransition() {
+        // TelephonyCallback reports RINGING without the number, then PHONE_STATE with it
+        CallStateMachine.Transition ringing = machine.onCallState(CallStateMachine.STATE_RINGING, null);
+        assertTransition(ringing, CallStateMachine.EVENT_INCOMING, CallStateMachine.OVERLAY_DURING, null);
+        assertFalse(ringing.numberUpdate);
+        CallStateMachine.Transition number = machine.onCallState(CallStateMachine.STATE_RINGING, "9876543210");
+        assertTransition(number, CallStateMachine.EVENT_INCOMING, CallStateMachine.OVERLAY_DURING, "9876543210");
+        assertTrue(number.numberUpdate);
+        // Nothing new on a third delivery
+        assertNull(machine.onCallState(CallStateMachine.STATE_RINGING, "9876543210"));
+
+        machine.reset();
+        machine.onCallState(CallStateMachine.STATE_RINGING, null);
+        machine.onCallState(CallStateMachine.STATE_OFFHOOK, null);
+        number = machine.onCallState(CallStateMachine.STATE_OFFHOOK, "9123456780");
+        assertTransition(number, CallStateMachine.EVENT_OFFHOOK, CallStateMachine.OVERLAY_DURING, "9123456780");
+        assertTrue(number.numberUpdate);
+    }
+
+    @Test
+    public void repeatedStatesAreNotTransitions() {
+        // PHONE_STATE can arrive twice with the number, and TelephonyCallback reports the same states
+        assertTransition(machine.onCallState(CallStateMachine.STATE_RINGING, "9876543210"),
+            CallStateMachine.EVENT_INCOMING, CallStateMachine.OVERLAY_DURING, "9876543210");
+        assertNull(machine.onCallState(CallStateMachine.STATE_RINGING, null));
+        assertNull(machine.onCallState(CallStateMachine.STATE_RINGING, "9876543210"));
+        assertTransition(machine.onCallState(CallStateMachine.STATE_OFFHOOK, "9876543210"),
+            CallStateMachine.EVENT_OFFHOOK, CallStateMachine.OVERLAY_DURING, "9876543210");
+        assertNull(machine.onCallState(CallStateMachine.STATE_OFFHOOK, null));
+        assertTransition(machine.onCallState(CallStateMachine.STATE_IDLE, "9876543210"),
+            CallStateMachine.EVENT_DISCONNECTED, CallStateMachine.OVERLAY_AFTER, "9876543210");
+        assertNull(machine.onCallState(CallStateMachine.STATE_IDLE, "9876543210"));
+    }
+
+    @Test
+    public void callWaitingKeepsTheActiveCall() {
+        machine.onCallState(CallStateMachine.STATE_RINGING, "9876543210");
+        machine.onCallState(CallStateMachine.STATE_OFFHOOK, null);
+        assertNull(machine.onCallState(CallStateMachine.STATE_RINGING, "9000000001"));
+        assertEquals("9876543210", machine.phoneNumber());
+        // Back to OFFHOOK after the waiting call is rejected: no transition
+        assertNull(machine.onCallState(CallStateMachine.STATE_OFFHOOK, "9000000001"));
+        assertTransition(machine.onCallState(CallStateMachine.STATE_IDLE, null),
+            CallStateMachine.EVENT_DISCONNECTED, CallStateMachine.OVERLAY_AFTER, "9876543210");
+    }
+
+    @Test
+    public void waitingCallNumberDoesNotFillAnUnknownActiveNumber() {
+        machine.onCallState(CallStateMachine.STATE_OFFHOOK, null);
+        assertNull(machine.onCallState(CallStateMachine.STATE_RINGING, "9000000001"));
+        assertNull(machine.phoneNumber());
+    }
+
+    @Test
+    public void idleWhileIdleIsIgnored() {
+        assertNull(machine.onCallState(CallStateMachine.STATE_IDLE, null));
+        assertNull(machine.onCallState(CallStateMachine.STATE_IDLE, "9876543210"));
+        assertNull(machine.phoneNumber());
+    }
+}
@@ -0,0 +1,94 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+public class CallerIdIndexTest {
+    private static final int BOOK_SIZE = 100_000;
+    private static final int LOOKUPS = 200_000;
+
+    @Test
+    public void resolvesEveryWayANumberIsWritten() {
+        CallerIdIndex index = CallerIdIndex.build(
+            new String[] {"+91 98765 43210"}, new int[] {31}, new String[] {"Priya Sharma"});
+        for (String caller : new String[] {"9876543210", "+919876543210", "919876543210", "09876543210", "(987) 654-3210"}) {
+            assertEquals(caller, 31, index.lookupLeadId(caller));
+            assertEquals(caller, "Priya Sharma", index.lookupName(caller));
+        }
+    }
+
+    @Test
+    public void firstLeadWinsASharedNumber() {
+        CallerIdIndex index = CallerIdIndex.build(
+            new String[] {"9876543210", "+91 9876543210", "9123456780"},
+            new int[] {1, 2, 3},
+            new String[] {"Newest", "Older", "Other"});
+        assertEquals(2, index.size());
+        assertEquals(1, index.lookupLeadId("09876543210"));
+        assertEquals("Other", index.lookupName("9123456780"));
+    }
+
+    @Test
+    public void skipsUnusableNumbers() {
+        CallerIdIndex index = CallerIdIndex.build(
+            new String[] {null, "", "n/a", "9876543210"}, new int[] {1, 2, 3, 4}, new String[] {"a", "b", "c", "d"});
+        assertEquals(1, index.size());
+        assertEquals(-1, index.lookupLeadId("9000000000"));
+        assertNull(index.lookupName(null));
+    }
+
+    // Build and lookup time at a 100k-lead book. The bounds are far above what the index needs
+    // (the overlay's budget is 1ms per lookup) so only a real regression trips them on CI.
+    @Test
+    public void lookupsStayUnderAMillisecondAt100kLeads() {
+        String[] phones = new String[BOOK_SIZE];
+        int[] ids = new int[BOOK_SIZE];
+        String[] names = new String[BOOK_SIZE];
+        for (int i = 0; i < BOOK_SIZE; i++) {
+            long national = 9_000_000_000L + i * 7_919L;
+            phones[i] = i % 2 == 0 ? Long.toString(national) : "+91 " + national;
+            ids[i] = i + 1;
+            names[i] = "Lead " + i;
+        }
+        // Callers as the telephony callback reports them, every fourth not in the book
+        String[] callers = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            int lead = (int) ((i * 2_654_435_761L) % BOOK_SIZE);
+            callers[i] = i % 4 == 3 ? "+91" + (8_000_000_000L + lead) : "+91" + (9_000_000_000L + lead * 7_919L);
+        }
+
+        CallerIdIndex index = null;
+        long buildNanos = Long.MAX_VALUE;
+        for (int run = 0; run < 3; run++) {
+            long start = System.nanoTime();
+            index = CallerIdIndex.build(phones, ids, names);
+            buildNanos = Math.min(buildNanos, System.nanoTime() - start);
+        }
+        assertEquals(BOOK_SIZE, index.size());
+
+        // Warm-up pass, then each lookup timed on its own
+        int hits = 0;
+        for (String caller : callers) {
+            hits += index.lookupLeadId(caller) > 0 ? 1 : 0;
+        }
+        long[] nanos = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            long start = System.nanoTime();
+            index.lookupLeadId(callers[i]);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        long p50 = nanos[LOOKUPS / 2];
+        long p99 = nanos[LOOKUPS - LOOKUPS / 100];
+
+        assertEquals(LOOKUPS - LOOKUPS / 4, hits);
+        System.out.println("CallerIdIndex at " + BOOK_SIZE + " leads: build " + buildNanos / 1_000_000
+            + "ms, lookup p50 " + p50 + "ns, p99 " + p99 + "ns");
+        assertTrue("build took " + buildNanos / 1_000_000 + "ms", buildNanos < 1_000_000_000L);
+        assertTrue("p99 lookup " + p99 + "ns", p99 < 1_000_000L);
+    }
+}
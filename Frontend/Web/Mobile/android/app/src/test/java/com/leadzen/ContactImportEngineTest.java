@@ -0,0 +1,161 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class ContactImportEngineTest {
+
+    // Address book rows in contact order
+    private static class ListRows implements ContactImportEngine.Rows {
+        private final List<Object[]> rows = new ArrayList<>();
+        private int index = -1;
+
+        ListRows add(long contactId, int kind, String name, String value, String title) {
+            rows.add(new Object[] {contactId, kind, name, value, title});
+            return this;
+        }
+
+        ListRows phone(long contactId, String name, String number) {
+            return add(contactId, ContactImportEngine.KIND_PHONE, name, number, null);
+        }
+
+        @Override public boolean next() { return ++index < rows.size(); }
+        @Override public long contactId() { return (Long) rows.get(index)[0]; }
+        @Override public int kind() { return (Integer) rows.get(index)[1]; }
+        @Override public String displayName() { return (String) rows.get(index)[2]; }
+        @Override public String value() { return (String) rows.get(index)[3]; }
+        @Override public String title() { return (String) rows.get(index)[4]; }
+    }
+
+    // Copies each batch, since the engine reuses its arrays
+    private static final class RecordingSink implements ContactImportEngine.Sink {
+        final List<String[]> written = new ArrayList<>();
+        final List<Long> leadIds = new ArrayList<>();
+        int batches;
+
+        @Override
+        public void write(ContactImportEngine.Batch batch) {
+            batches++;
+            for (int i = 0; i < batch.size; i++) {
+                leadIds.add(batch.leadIds[i]);
+                written.add(new String[] {batch.names[i], batch.phones[i], batch.secondaryPhones[i],
+                    batch.emails[i], batch.companies[i], batch.positions[i]});
+            }
+        }
+    }
+
+    private static ContactImportEngine.Result run(ListRows rows, LongIntMap known, RecordingSink sink, int batchSize)
+        throws Exception {
+        return new ContactImportEngine(batchSize, 0).run(rows, rows.rows.size(), known, sink, null);
+    }
+
+    @Test
+    public void dedupesNumbersAcrossFormatsAndContacts() throws Exception {
+        ListRows rows = new ListRows()
+            .phone(1, "Ravi Sharma", "+91 98765 43210")
+            .add(1, ContactImportEngine.KIND_EMAIL, "Ravi Sharma", " ravi@example.com ", null)
+            .phone(2, "Ravi (work)", "09876543210")          // same number as contact 1
+            .phone(3, "Priya", "98765 43210")                // again, third format
+            .phone(3, "Priya", "9123456780")                 // but this one is new
+            .phone(4, "No Number", "n/a")
+            .add(5, ContactImportEngine.KIND_EMAIL, "Email Only", "x@example.com", null);
+        RecordingSink sink = new RecordingSink();
+        ContactImportEngine.Result result = run(rows, new LongIntMap(16), sink, 500);
+
+        assertEquals(7, result.rowsRead);
+        assertEquals(5, result.contactsRead);
+        assertEquals(2, result.inserted);
+        assertEquals(1, result.duplicates);
+        assertEquals(2, result.withoutPhone);
+        assertEquals(0, result.matched);
+        assertEquals(2, sink.written.size());
+
+        String[] ravi = sink.written.get(0);
+        assertEquals("Ravi Sharma", ravi[0]);
+        assertEquals(PhoneNormalizer.format(CallerIdIndex.packPhone("9876543210")), ravi[1]);
+        assertNull(ravi[2]);
+        assertEquals("ravi@example.com", ravi[3]);
+
+        // Contact 3 keeps only its unclaimed number, as the primary one
+        String[] priya = sink.written.get(1);
+        assertEquals(PhoneNormalizer.format(CallerIdIndex.packPhone("9123456780")), priya[1]);
+        assertNull(priya[2]);
+    }
+
+    @Test
+    public void keepsTwoDistinctNumbersPerContact() throws Exception {
+        ListRows rows = new ListRows()
+            .phone(1, "Amit", "9876543210")
+            .phone(1, "Amit", "+919876543210")
+            .phone(1, "Amit", "9123456780")
+            .phone(1, "Amit", "9000000001");
+        RecordingSink sink = new RecordingSink();
+        run(rows, new LongIntMap(16), sink, 500);
+
+        String[] amit = sink.written.get(0);
+        assertEquals(PhoneNormalizer.format(CallerIdIndex.packPhone("9876543210")), amit[1]);
+        assertEquals(PhoneNormalizer.format(CallerIdIndex.packPhone("9123456780")), amit[2]);
+    }
+
+    @Test
+    public void numbersOnExistingLeadsFillThatLead() throws Exception {
+        LongIntMap known = new LongIntMap(16);
+        known.put(CallerIdIndex.packPhone("9876543210"), 42, 0);
+        ListRows rows = new ListRows()
+            .phone(1, "Ravi", "+91 98765 43210")
+            .add(1, ContactImportEngine.KIND_ORGANIZATION, "Ravi", "Acme Corp", "Manager")
+            .phone(2, "Ravi again", "9876543210");           // matched, nothing to fill
+        RecordingSink sink = new RecordingSink();
+        ContactImportEngine.Result result = run(rows, known, sink, 500);
+
+        assertEquals(2, result.matched);
+        assertEquals(0, result.inserted);
+        assertEquals(1, sink.written.size());
+        assertEquals(42L, (long) sink.leadIds.get(0));
+        assertEquals("Acme Corp", sink.written.get(0)[4]);
+        assertEquals("Manager", sink.written.get(0)[5]);
+    }
+
+    @Test
+    public void writesFixedSizeBatches() throws Exception {
+        ListRows rows = new ListRows();
+        for (int i = 0; i < 25; i++) {
+            rows.phone(i + 1, "Lead " + i, "98" + (10_000_000 + i));
+        }
+        RecordingSink sink = new RecordingSink();
+        ContactImportEngine.Result result = run(rows, new LongIntMap(16), sink, 10);
+
+        assertEquals(25, result.inserted);
+        assertEquals(3, result.batches);
+        assertEquals(3, sink.batches);
+        assertEquals("Lead 24", sink.written.get(24)[0]);
+    }
+
+    @Test
+    public void cancelLeavesOutTheContactBeingRead() throws Exception {
+        ContactImportEngine engine = new ContactImportEngine(500, 0);
+        ListRows rows = new ListRows() {
+            @Override
+            public boolean next() {
+                boolean more = super.next();
+                if (more && contactId() == 3) {
+                    engine.cancel();
+                }
+                return more;
+            }
+        };
+        rows.phone(1, "A", "9000000001").phone(2, "B", "9000000002").phone(3, "C", "9000000003");
+        RecordingSink sink = new RecordingSink();
+        ContactImportEngine.Result result = engine.run(rows, 3, new LongIntMap(16), sink, null);
+
+        // Cancelled on contact 3's row: contact 1 is written, contact 2 was still being assembled
+        assertTrue(result.cancelled);
+        assertEquals(1, result.inserted);
+        assertEquals(1, sink.written.size());
+    }
+}
@@ -0,0 +1,65 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+public class EventBatcherTest {
+
+    @Test
+    public void keylessEventsKeepTheirOrder() {
+        EventBatcher<String> batcher = new EventBatcher<>();
+        batcher.add(null, "click1");
+        batcher.add(null, "action");
+        batcher.add(null, "click2");
+        assertEquals(Arrays.asList("click1", "action", "click2"), batcher.drain());
+        assertEquals(0, batcher.coalescedCount());
+    }
+
+    @Test
+    public void keyedEventsCollapseToTheLatestInTheirFirstPosition() {
+        EventBatcher<String> batcher = new EventBatcher<>();
+        batcher.add("callState", "RINGING");
+        batcher.add(null, "click");
+        batcher.add("tab", "tab0");
+        batcher.add("callState", "OFFHOOK");
+        batcher.add(null, "action");
+        batcher.add("tab", "tab2");
+        batcher.add("callState", "IDLE");
+
+        assertEquals(Arrays.asList("IDLE", "click", "tab2", "action"), batcher.drain());
+        assertEquals(7, batcher.addedCount());
+        assertEquals(3, batcher.coalescedCount());
+        assertEquals(4, batcher.flushedCount());
+        assertEquals(1, batcher.batchCount());
+    }
+
+    @Test
+    public void replacementsDoNotReorderOtherKeys() {
+        // Each key stays where it first appeared, whatever order its replacements arrive in
+        EventBatcher<String> batcher = new EventBatcher<>();
+        batcher.add("a", "a1");
+        batcher.add("b", "b1");
+        batcher.add("c", "c1");
+        batcher.add("a", "a2");
+        batcher.add("c", "c2");
+        batcher.add("b", "b2");
+        assertEquals(Arrays.asList("a2", "b2", "c2"), batcher.drain());
+    }
+
+    @Test
+    public void drainStartsANewBatch() {
+        EventBatcher<String> batcher = new EventBatcher<>();
+        batcher.add("callState", "RINGING");
+        batcher.drain();
+        assertTrue(batcher.isEmpty());
+        assertEquals(Collections.emptyList(), batcher.drain());
+        batcher.add("callState", "IDLE");
+        assertEquals(Arrays.asList("IDLE"), batcher.drain());
+        assertEquals(0, batcher.coalescedCount());
+        assertEquals(2, batcher.batchCount());
+    }
+}
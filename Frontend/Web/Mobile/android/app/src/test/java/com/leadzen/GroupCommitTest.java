@@ -0,0 +1,125 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class GroupCommitTest {
+    // A batch sets keys; `failures` is how many more attempts throw (-1: every one)
+    private static final class Batch {
+        final String name;
+        final String[] keys;
+        int failures;
+
+        Batch(String name, int failures, String... keys) {
+            this.name = name;
+            this.failures = failures;
+            this.keys = keys;
+        }
+    }
+
+    // Rows plus a transaction that applies batches to a copy and keeps it only if all succeed
+    private static final class Table implements GroupCommit.Transaction<Batch>, GroupCommit.Outcome<Batch> {
+        final Map<String, String> rows = new HashMap<>();
+        final List<String> transactions = new ArrayList<>();
+        final List<String> committed = new ArrayList<>();
+        final List<String> failed = new ArrayList<>();
+
+        @Override
+        public RuntimeException run(List<Batch> batches) {
+            StringBuilder names = new StringBuilder();
+            for (Batch batch : batches) {
+                names.append(batch.name);
+            }
+            transactions.add(names.toString());
+            Map<String, String> pending = new HashMap<>(rows);
+            try {
+                for (Batch batch : batches) {
+                    for (String key : batch.keys) {
+                        pending.put(key, batch.name);
+                    }
+                    if (batch.failures != 0) {
+                        batch.failures--;
+                        throw new IllegalStateException("constraint failed in " + batch.name);
+                    }
+                }
+            } catch (RuntimeException e) {
+                return e;
+            }
+            rows.clear();
+            rows.putAll(pending);
+            return null;
+        }
+
+        @Override
+        public void committed(List<Batch> batches) {
+            for (Batch batch : batches) {
+                committed.add(batch.name);
+            }
+        }
+
+        @Override
+        public void failed(Batch batch, RuntimeException error) {
+            failed.add(batch.name + ": " + error.getMessage());
+        }
+    }
+
+    private static boolean commit(Table table, Batch... group) {
+        return GroupCommit.commit(Arrays.asList(group), table, table);
+    }
+
+    @Test
+    public void groupCommitsInOneTransaction() {
+        Table table = new Table();
+        assertFalse(commit(table, new Batch("a", 0, "1"), new Batch("b", 0, "2"), new Batch("c", 0, "3", "1")));
+        assertEquals(Arrays.asList("abc"), table.transactions);
+        assertEquals(Arrays.asList("a", "b", "c"), table.committed);
+        assertTrue(table.failed.isEmpty());
+        assertEquals("c", table.rows.get("1"));
+        assertEquals("b", table.rows.get("2"));
+    }
+
+    @Test
+    public void failingBatchIsIsolatedAndSiblingsCommitOnRetry() {
+        Table table = new Table();
+        table.rows.put("9", "before");
+        assertTrue(commit(table, new Batch("a", 0, "1"), new Batch("x", -1, "2", "9"), new Batch("c", 0, "3")));
+
+        // The shared transaction rolled back, then each batch ran alone
+        assertEquals(Arrays.asList("axc", "a", "x", "c"), table.transactions);
+        assertEquals(Arrays.asList("a", "c"), table.committed);
+        assertEquals(Arrays.asList("x: constraint failed in x"), table.failed);
+        assertEquals("a", table.rows.get("1"));
+        assertNull(table.rows.get("2"));
+        assertEquals("before", table.rows.get("9"));
+        assertEquals("c", table.rows.get("3"));
+    }
+
+    @Test
+    public void batchThatFailsOnlyOnceCommitsOnRetry() {
+        Table table = new Table();
+        assertTrue(commit(table, new Batch("a", 0, "1"), new Batch("b", 1, "2")));
+        assertEquals(Arrays.asList("ab", "a", "b"), table.transactions);
+        assertEquals(Arrays.asList("a", "b"), table.committed);
+        assertTrue(table.failed.isEmpty());
+        assertEquals("b", table.rows.get("2"));
+    }
+
+    @Test
+    public void loneBatchFailsWithoutARetry() {
+        Table table = new Table();
+        assertFalse(commit(table, new Batch("x", -1, "1")));
+        assertEquals(Arrays.asList("x"), table.transactions);
+        assertTrue(table.committed.isEmpty());
+        assertEquals(Arrays.asList("x: constraint failed in x"), table.failed);
+        assertTrue(table.rows.isEmpty());
+    }
+}
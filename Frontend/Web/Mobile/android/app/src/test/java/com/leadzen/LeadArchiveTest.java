@@ -0,0 +1,191 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.Test;
+
+public class LeadArchiveTest {
+    private static final String[] COLUMNS = {"id", "name", "score", "notes"};
+
+    // Rows of one table, typed by their Java class
+    private static final class ListRows implements LeadArchive.Rows {
+        private final List<Object[]> rows;
+        private int index = -1;
+
+        ListRows(List<Object[]> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean next() {
+            return ++index < rows.size();
+        }
+
+        @Override
+        public int type(int column) {
+            Object value = rows.get(index)[column];
+            if (value == null) {
+                return LeadArchive.TYPE_NULL;
+            }
+            if (value instanceof Long) {
+                return LeadArchive.TYPE_INTEGER;
+            }
+            return value instanceof Double ? LeadArchive.TYPE_FLOAT : LeadArchive.TYPE_STRING;
+        }
+
+        @Override
+        public long getLong(int column) {
+            return (Long) rows.get(index)[column];
+        }
+
+        @Override
+        public double getDouble(int column) {
+            return (Double) rows.get(index)[column];
+        }
+
+        @Override
+        public String getString(int column) {
+            return (String) rows.get(index)[column];
+        }
+    }
+
+    // Collects every chunk the reader hands over
+    private static final class Collected implements LeadArchive.Sink {
+        final List<Object[]> rows = new ArrayList<>();
+        final List<Long> chunks = new ArrayList<>();
+
+        @Override
+        public void write(String table, String[] columns, Object[][] chunk, int count, long index) {
+            assertArrayEquals(COLUMNS, columns);
+            for (int i = 0; i < count; i++) {
+                rows.add(chunk[i].clone());
+            }
+            chunks.add(index);
+        }
+    }
+
+    private static List<Object[]> leads(int count) {
+        List<Object[]> rows = new ArrayList<>();
+        for (long i = 1; i <= count; i++) {
+            rows.add(new Object[] {i, "Lead " + i, i * 0.5, i % 3 == 0 ? null : "note \"" + i + "\"\n\tline"});
+        }
+        return rows;
+    }
+
+    private static byte[] export(List<Object[]> rows, int chunkRows, boolean gzip) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(bytes) : null;
+        LeadArchive.Writer writer = new LeadArchive.Writer(Channels.newChannel(bytes), compressed, chunkRows);
+        writer.header(6, 1_700_000_000_000L);
+        writer.table("leads", COLUMNS, new ListRows(rows), null);
+        writer.finish();
+        return bytes.toByteArray();
+    }
+
+    private static LeadArchive.Result read(byte[] archive, Collected sink, long skipChunks) throws Exception {
+        return new LeadArchive.Reader(new ByteArrayInputStream(archive)).read(sink, skipChunks, null);
+    }
+
+    private static void assertRejected(byte[] archive, String message) throws Exception {
+        try {
+            read(archive, new Collected(), 0);
+            fail("expected " + message);
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(message));
+        }
+    }
+
+    @Test
+    public void roundTripKeepsValuesAndTypes() throws Exception {
+        List<Object[]> rows = leads(25);
+        Collected sink = new Collected();
+        LeadArchive.Result result = read(export(rows, 10, false), sink, 0);
+
+        assertEquals(6, result.schema);
+        assertEquals(25, result.rows);
+        assertEquals(3, result.chunks);
+        assertEquals(Arrays.asList(0L, 1L, 2L), sink.chunks);
+        for (int i = 0; i < rows.size(); i++) {
+            assertArrayEquals(rows.get(i), sink.rows.get(i));
+        }
+    }
+
+    @Test
+    public void gzipRoundTrip() throws Exception {
+        Collected sink = new Collected();
+        byte[] archive = export(leads(2_500), LeadArchive.DEFAULT_CHUNK_ROWS, true);
+        LeadArchive.Result result = new LeadArchive.Reader(
+            new GZIPInputStream(new ByteArrayInputStream(archive))).read(sink, 0, null);
+        assertEquals(2_500, result.rows);
+        assertEquals(3, result.chunks);
+    }
+
+    @Test
+    public void resumeSkipsCommittedChunks() throws Exception {
+        Collected sink = new Collected();
+        LeadArchive.Result result = read(export(leads(25), 10, false), sink, 2);
+        assertEquals(2, result.skippedChunks);
+        assertEquals(5, result.rows);
+        assertEquals(Arrays.asList(2L), sink.chunks);
+        assertEquals(21L, sink.rows.get(0)[0]);
+    }
+
+    @Test
+    public void alteredRowFailsTheChunkCrc() throws Exception {
+        byte[] archive = export(leads(25), 10, false);
+        String text = new String(archive, StandardCharsets.UTF_8);
+        int at = text.indexOf("Lead 12");
+        archive[at + 5] = '3'; // same length, same JSON shape: only the CRC can tell
+        Collected sink = new Collected();
+        try {
+            read(archive, sink, 0);
+            fail("expected a checksum failure");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("chunk 1 is corrupt"));
+        }
+        // The chunk before the damage was still handed over
+        assertEquals(Arrays.asList(0L), sink.chunks);
+    }
+
+    @Test
+    public void cutMidLineIsTruncated() throws Exception {
+        byte[] archive = export(leads(25), 10, false);
+        assertRejected(Arrays.copyOf(archive, archive.length / 2), "truncated line");
+    }
+
+    @Test
+    public void missingEndLineIsTruncated() throws Exception {
+        byte[] archive = export(leads(25), 10, false);
+        String text = new String(archive, StandardCharsets.UTF_8);
+        int end = text.lastIndexOf("{\"end\"");
+        assertRejected(Arrays.copyOf(archive, end), "Archive truncated after chunk 2");
+    }
+
+    @Test
+    public void droppedChunkIsDetected() throws Exception {
+        String text = new String(export(leads(25), 10, false), StandardCharsets.UTF_8);
+        // Remove chunk 1 entirely: rows 11..20 and their trailer
+        int from = text.indexOf("[11,");
+        int to = text.indexOf('\n', text.indexOf("{\"chunk\":1,")) + 1;
+        byte[] archive = (text.substring(0, from) + text.substring(to)).getBytes(StandardCharsets.UTF_8);
+        assertRejected(archive, "chunk 2 is corrupt");
+    }
+
+    @Test
+    public void rejectsForeignHeader() throws Exception {
+        assertRejected("{\"format\":\"other\"}\n".getBytes(StandardCharsets.UTF_8), "Not a LeadZen archive");
+    }
+}
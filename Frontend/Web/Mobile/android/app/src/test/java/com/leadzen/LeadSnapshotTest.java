@@ -0,0 +1,179 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LeadSnapshotTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void tearDown() {
+        LeadSnapshot.invalidateShared();
+    }
+
+    private static int write(File dir) throws IOException {
+        return LeadSnapshot.write(dir,
+            new String[] {"+91 98765 43210", "9123456780", "09876543210", "n/a", "9000000001"},
+            new int[] {1, 2, 3, 4, 5},
+            new String[] {"Priya Sharma", "Ravi Kumar", "Duplicate", "No Phone", null},
+            new String[] {"Acme Corp", "Acme Corp", "Globex", "Globex", null},
+            new String[] {"new", "contacted", "new", "new", "new"},
+            new long[] {1_000L, 2_000L, 3_000L, 4_000L, 5_000L});
+    }
+
+    private static void patchInt(File file, long offset, int value) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(offset);
+            raf.writeInt(Integer.reverseBytes(value));
+        }
+    }
+
+    private static int readInt(File file, long offset) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek(offset);
+            return Integer.reverseBytes(raf.readInt());
+        }
+    }
+
+    @Test
+    public void roundTripsEveryField() throws IOException {
+        File dir = folder.getRoot();
+        // The second spelling of 9876543210 and the unusable number are dropped
+        assertEquals(3, write(dir));
+        assertTrue(new File(dir, LeadSnapshot.FILE_NAME).exists());
+        assertFalse(new File(dir, LeadSnapshot.FILE_NAME + ".tmp").exists());
+
+        LeadSnapshot snapshot = LeadSnapshot.open(new File(dir, LeadSnapshot.FILE_NAME));
+        assertEquals(3, snapshot.size());
+        assertTrue(snapshot.writtenAt() > 0L);
+
+        int record = snapshot.findByPhone("+919876543210");
+        assertTrue(record >= 0);
+        assertEquals(1, snapshot.leadId(record));
+        assertEquals("Priya Sharma", snapshot.readString(record, LeadSnapshot.FIELD_NAME));
+        assertEquals("Acme Corp", snapshot.readString(record, LeadSnapshot.FIELD_COMPANY));
+        assertEquals("new", snapshot.readString(record, LeadSnapshot.FIELD_STAGE));
+        assertEquals(1_000L, snapshot.lastContactAt(record));
+
+        record = snapshot.findByPhone("(912) 345-6780");
+        assertEquals(2, snapshot.leadId(record));
+        assertEquals("contacted", snapshot.readString(record, LeadSnapshot.FIELD_STAGE));
+
+        record = snapshot.findByPhone("9000000001");
+        assertEquals(5, snapshot.leadId(record));
+        assertNull(snapshot.readString(record, LeadSnapshot.FIELD_NAME));
+        assertEquals(-1, snapshot.stringLength(record, LeadSnapshot.FIELD_COMPANY));
+
+        char[] chars = new char[5];
+        record = snapshot.findByPhone("9876543210");
+        assertEquals(5, snapshot.copyString(record, LeadSnapshot.FIELD_NAME, chars));
+        assertEquals("Priya", new String(chars));
+    }
+
+    @Test
+    public void missesReturnMinusOne() throws IOException {
+        File dir = folder.getRoot();
+        write(dir);
+        LeadSnapshot snapshot = LeadSnapshot.open(new File(dir, LeadSnapshot.FILE_NAME));
+        assertEquals(-1, snapshot.findByPhone("9111111111"));
+        assertEquals(-1, snapshot.findByPhone(""));
+        assertEquals(-1, snapshot.findByPhone(null));
+        assertEquals(-1, snapshot.find(Long.MAX_VALUE));
+
+        LeadSnapshot.write(dir, new String[0], new int[0], new String[0], new String[0], new String[0], new long[0]);
+        LeadSnapshot empty = LeadSnapshot.open(new File(dir, LeadSnapshot.FILE_NAME));
+        assertEquals(0, empty.size());
+        assertEquals(-1, empty.findByPhone("9876543210"));
+    }
+
+    @Test
+    public void poolStoresRepeatedStringsOnce() throws IOException {
+        File dir = folder.getRoot();
+        write(dir);
+        // Pool chars from the header: each distinct string once, plus its length char
+        int expected = 0;
+        for (String value : new String[] {"Priya Sharma", "Ravi Kumar", "Acme Corp", "new", "contacted"}) {
+            expected += 1 + value.length();
+        }
+        assertEquals(expected, readInt(new File(dir, LeadSnapshot.FILE_NAME), 20));
+    }
+
+    @Test
+    public void rejectsAnotherVersion() throws IOException {
+        File dir = folder.getRoot();
+        write(dir);
+        File file = new File(dir, LeadSnapshot.FILE_NAME);
+        patchInt(file, 4, LeadSnapshot.VERSION + 1);
+        try {
+            LeadSnapshot.open(file);
+            fail("opened a snapshot of another version");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("version"));
+        }
+    }
+
+    @Test
+    public void rejectsBadHeaders() throws IOException {
+        File dir = folder.getRoot();
+        write(dir);
+        File file = new File(dir, LeadSnapshot.FILE_NAME);
+
+        // Record count that runs past the pool offset
+        patchInt(file, 8, 1_000);
+        assertOpenFails(file);
+
+        // Torn file: shorter than the header
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(20);
+        }
+        assertOpenFails(file);
+
+        // Not a snapshot at all
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(0);
+            raf.write(new byte[64]);
+        }
+        assertOpenFails(file);
+    }
+
+    private static void assertOpenFails(File file) {
+        try {
+            LeadSnapshot.open(file);
+            fail("opened " + file.length() + " bytes of garbage");
+        } catch (IOException expected) {
+            // Rejected before any record is read
+        }
+    }
+
+    @Test
+    public void sharedReaderReopensOnlyAfterAWrite() throws IOException {
+        File dir = folder.getRoot();
+        assertNull(LeadSnapshot.shared(dir));
+
+        write(dir);
+        LeadSnapshot first = LeadSnapshot.shared(dir);
+        assertEquals(3, first.size());
+        assertSame(first, LeadSnapshot.shared(dir));
+
+        LeadSnapshot.write(dir, new String[] {"9876543210"}, new int[] {9}, new String[] {"Only"},
+            new String[] {null}, new String[] {null}, new long[] {0L});
+        LeadSnapshot second = LeadSnapshot.shared(dir);
+        assertNotSame(first, second);
+        assertEquals(1, second.size());
+        assertEquals(9, second.leadId(second.findByPhone("9876543210")));
+    }
+}
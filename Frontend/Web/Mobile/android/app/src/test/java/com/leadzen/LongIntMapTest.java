@@ -0,0 +1,134 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+public class LongIntMapTest {
+
+    @Test
+    public void putGetAndReplace() {
+        LongIntMap map = new LongIntMap(4);
+        assertEquals(-1, map.put(919876543210L, 7, -1));
+        assertEquals(7, map.put(919876543210L, 8, -1));
+        assertEquals(8, map.get(919876543210L, -1));
+        assertEquals(-1, map.get(919876543211L, -1));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void putIfAbsentKeepsTheFirstValue() {
+        LongIntMap map = new LongIntMap(4);
+        assertTrue(map.putIfAbsent(42L, 1));
+        assertFalse(map.putIfAbsent(42L, 2));
+        assertEquals(1, map.get(42L, -1));
+        assertFalse(map.putIfAbsent(0L, 3)); // 0 is the empty marker
+        assertFalse(map.containsKey(0L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void putRejectsTheReservedKey() {
+        new LongIntMap(4).put(0L, 1, -1);
+    }
+
+    @Test
+    public void growsPastTheExpectedSize() {
+        LongIntMap map = new LongIntMap(2);
+        for (int i = 1; i <= 10_000; i++) {
+            map.put(919_800_000_000L + i * 7_919L, i, -1);
+        }
+        assertEquals(10_000, map.size());
+        for (int i = 1; i <= 10_000; i++) {
+            assertEquals(i, map.get(919_800_000_000L + i * 7_919L, -1));
+        }
+    }
+
+    @Test
+    public void matchesHashMapOnRandomPuts() {
+        Random random = new Random(1);
+        LongIntMap map = new LongIntMap(16);
+        Map<Long, Integer> reference = new HashMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            // Narrow key range so keys repeat and probe chains collide
+            long key = 1 + random.nextInt(5_000);
+            int value = random.nextInt();
+            Integer previous = reference.put(key, value);
+            assertEquals(previous == null ? Integer.MIN_VALUE : previous, map.put(key, value, Integer.MIN_VALUE));
+        }
+        assertEquals(reference.size(), map.size());
+        for (Map.Entry<Long, Integer> entry : reference.entrySet()) {
+            assertEquals((int) entry.getValue(), map.get(entry.getKey(), Integer.MIN_VALUE));
+        }
+    }
+
+    @Test
+    public void removeReturnsTheValueOnce() {
+        LongIntMap map = new LongIntMap(4);
+        map.put(42L, 5, -1);
+        assertEquals(5, map.remove(42L, -1));
+        assertEquals(-1, map.remove(42L, -1));
+        assertEquals(-1, map.remove(0L, -1));
+        assertFalse(map.containsKey(42L));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    public void removeShiftsTheProbeChainBack() {
+        // Keys that all hash to one slot of a 16-slot table form a single probe chain; deleting from
+        // its head and middle must not cut off the keys behind the holes
+        LongIntMap map = new LongIntMap(8);
+        long[] chain = new long[5];
+        int found = 0;
+        int home = slotOf(1L, 15);
+        for (long key = 1; found < chain.length; key++) {
+            if (slotOf(key, 15) == home) {
+                chain[found++] = key;
+            }
+        }
+        for (int i = 0; i < chain.length; i++) {
+            map.put(chain[i], i, -1);
+        }
+        assertEquals(0, map.remove(chain[0], -1));
+        assertEquals(2, map.remove(chain[2], -1));
+        assertEquals(1, map.get(chain[1], -1));
+        assertEquals(3, map.get(chain[3], -1));
+        assertEquals(4, map.get(chain[4], -1));
+        assertEquals(3, map.size());
+        map.put(chain[0], 9, -1);
+        assertEquals(9, map.get(chain[0], -1));
+        assertEquals(4, map.size());
+    }
+
+    @Test
+    public void matchesHashMapOnRandomPutsAndRemoves() {
+        Random random = new Random(2);
+        LongIntMap map = new LongIntMap(16);
+        Map<Long, Integer> reference = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            long key = 1 + random.nextInt(3_000);
+            if (random.nextBoolean()) {
+                Integer previous = reference.put(key, i);
+                assertEquals(previous == null ? -1 : previous, map.put(key, i, -1));
+            } else {
+                Integer previous = reference.remove(key);
+                assertEquals(previous == null ? -1 : previous, map.remove(key, -1));
+            }
+            assertEquals(reference.size(), map.size());
+        }
+        for (long key = 1; key <= 3_000; key++) {
+            Integer value = reference.get(key);
+            assertEquals(value == null ? -1 : value, map.get(key, -1));
+        }
+    }
+
+    // LongIntMap.indexFor for a table of mask + 1 slots
+    private static int slotOf(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,77 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.After;
+import org.junit.Test;
+
+public class MetricsRegistryTest {
+
+    @After
+    public void tearDown() {
+        MetricsRegistry.reset();
+    }
+
+    @Test
+    public void bucketsAreContiguousAndAtMostOneSixteenthWide() {
+        assertEquals(0, MetricsRegistry.bucketOf(0));
+        for (int b = 0; b < MetricsRegistry.BUCKETS - 1; b++) {
+            long upper = MetricsRegistry.bucketUpperBound(b);
+            assertEquals("upper bound of " + b, b, MetricsRegistry.bucketOf(upper));
+            assertEquals("value after " + b, b + 1, MetricsRegistry.bucketOf(upper + 1));
+            long lower = b == 0 ? 0 : MetricsRegistry.bucketUpperBound(b - 1) + 1;
+            assertTrue("width of " + b, (upper - lower) * 16 <= Math.max(lower, MetricsRegistry.SUB_BUCKETS));
+        }
+        assertEquals(MetricsRegistry.BUCKETS - 1, MetricsRegistry.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void percentilesStayWithinABucketOfTheExactValue() {
+        // Lognormal latencies around 2 ms with a long tail
+        Random random = new Random(23);
+        long[] samples = new long[200_000];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = Math.round(Math.exp(Math.log(2_000) + random.nextGaussian()));
+            MetricsRegistry.record(MetricsRegistry.DB_COMMIT, samples[i]);
+        }
+        Arrays.sort(samples);
+        MetricsRegistry.Histogram histogram = MetricsRegistry.snapshot().histograms[MetricsRegistry.DB_COMMIT];
+
+        assertEquals(samples.length, histogram.count);
+        assertEquals(samples[samples.length - 1], histogram.max);
+        for (double q : new double[] {0.5, 0.95, 0.99, 0.999}) {
+            long exact = samples[(int) Math.ceil(q * samples.length) - 1];
+            long reported = histogram.percentile(q);
+            // The upper bound of the bucket holding the exact value
+            assertTrue("p" + q + " " + reported + " vs " + exact, reported >= exact && reported <= exact + exact / 16);
+        }
+        assertEquals(samples[samples.length - 1], histogram.percentile(1.0));
+    }
+
+    @Test
+    public void negativeTimesCountAsZeroAndEmptyHistogramsReadZero() {
+        MetricsRegistry.record(MetricsRegistry.BRIDGE_EMIT, -5);
+        MetricsRegistry.Snapshot snapshot = MetricsRegistry.snapshot();
+        assertEquals(1, snapshot.histograms[MetricsRegistry.BRIDGE_EMIT].buckets[0]);
+        assertEquals(0, snapshot.histograms[MetricsRegistry.BRIDGE_EMIT].percentile(0.99));
+        assertEquals(0, snapshot.histograms[MetricsRegistry.DB_WRITE].percentile(0.5));
+    }
+
+    @Test
+    public void dumpLineListsOnlyNonEmptyBuckets() {
+        MetricsRegistry.increment(MetricsRegistry.CALLS_DETECTED);
+        MetricsRegistry.set(MetricsRegistry.DB_QUEUE_DEPTH, 3);
+        MetricsRegistry.record(MetricsRegistry.CALL_TO_OVERLAY, 5);
+        MetricsRegistry.record(MetricsRegistry.CALL_TO_OVERLAY, 5);
+        MetricsRegistry.record(MetricsRegistry.CALL_TO_OVERLAY, 40);
+        String line = MetricsRegistry.dumpLine(MetricsRegistry.snapshot(), 1_000L, "1.0/7", 60);
+
+        assertTrue(line, line.startsWith("m1 1000 1.0/7 60 c:"));
+        assertTrue(line, line.endsWith(" h:" + MetricsRegistry.HISTOGRAM_NAMES[MetricsRegistry.CALL_TO_OVERLAY]
+            + "=3/50/40/5x2." + MetricsRegistry.bucketOf(40) + "x1\n"));
+        assertEquals(1, line.split(" h:").length - 1);
+    }
+}
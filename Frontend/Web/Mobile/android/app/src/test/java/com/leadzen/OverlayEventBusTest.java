@@ -0,0 +1,77 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Test;
+
+public class OverlayEventBusTest {
+    private final List<String> received = new ArrayList<>();
+    private boolean accepting = true;
+    private final OverlayEventBus.Listener listener = event -> {
+        if (!accepting) {
+            return false;
+        }
+        received.add(event.name);
+        return true;
+    };
+
+    @After
+    public void tearDown() {
+        OverlayEventBus.detach(listener);
+    }
+
+    // The bus is process-wide: flush what earlier tests left behind and leave no listener attached
+    private static void detachAll() {
+        OverlayEventBus.Listener sink = event -> true;
+        OverlayEventBus.attach(sink);
+        OverlayEventBus.detach(sink);
+    }
+
+    @Test
+    public void replaysEventsPostedBeforeAttach() {
+        detachAll();
+        OverlayEventBus.post(OverlayEventBus.TYPE_CLICK, "first", null);
+        OverlayEventBus.post(OverlayEventBus.TYPE_ACTION, "second", null);
+        assertEquals(2, OverlayEventBus.pendingCount());
+
+        OverlayEventBus.attach(listener);
+        assertEquals(Arrays.asList("first", "second"), received);
+        assertEquals(0, OverlayEventBus.pendingCount());
+    }
+
+    @Test
+    public void keepsRefusedEventsUntilTheNextDrain() {
+        detachAll();
+        accepting = false;
+        OverlayEventBus.attach(listener);
+        OverlayEventBus.post(OverlayEventBus.TYPE_CLICK, "a", null);
+        OverlayEventBus.post(OverlayEventBus.TYPE_CLICK, "b", null);
+        assertEquals(0, received.size());
+        assertEquals(2, OverlayEventBus.pendingCount());
+
+        accepting = true;
+        OverlayEventBus.drain();
+        assertEquals(Arrays.asList("a", "b"), received);
+        assertEquals(0, OverlayEventBus.pendingCount());
+    }
+
+    @Test
+    public void dropsTheOldestEventsPastTheBufferLimit() {
+        detachAll();
+        long droppedBefore = OverlayEventBus.droppedCount();
+        for (int i = 0; i < 70; i++) {
+            OverlayEventBus.post(OverlayEventBus.TYPE_CLICK, "event" + i, null);
+        }
+        assertEquals(64, OverlayEventBus.pendingCount());
+        assertEquals(6, OverlayEventBus.droppedCount() - droppedBefore);
+
+        OverlayEventBus.attach(listener);
+        assertEquals(64, received.size());
+        assertEquals("event6", received.get(0));
+        assertEquals("event69", received.get(63));
+    }
+}
@@ -0,0 +1,108 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import org.junit.After;
+import org.junit.Test;
+
+public class OverlayLogTest {
+    private static final int CALLS = 100_000;
+
+    @After
+    public void tearDown() {
+        OverlayLog.clear();
+    }
+
+    @Test
+    public void dumpFormatsRecordedArguments() {
+        OverlayLog.clear();
+        OverlayLog.i("Flushed {} events in {}us", 12L, 340L);
+        OverlayLog.w("Unknown region {}", "ZZ");
+        OverlayLog.e("No placeholder");
+        OverlayLog.i("Too many {} {} {}", "a", "b");
+
+        String[] lines = OverlayLog.dump();
+        assertEquals(4, lines.length);
+        assertTrue(lines[0], lines[0].endsWith(" I Flushed 12 events in 340us"));
+        assertTrue(lines[1], lines[1].endsWith(" W Unknown region ZZ"));
+        assertTrue(lines[2], lines[2].endsWith(" E No placeholder"));
+        assertTrue(lines[3], lines[3].endsWith(" I Too many a b {}"));
+    }
+
+    @Test
+    public void ringKeepsTheNewestLines() {
+        OverlayLog.clear();
+        for (long i = 0; i < 300; i++) {
+            OverlayLog.i("line {}", i);
+        }
+        String[] lines = OverlayLog.dump();
+        assertEquals(256, lines.length);
+        assertTrue(lines[0], lines[0].endsWith(" line 44"));
+        assertTrue(lines[255], lines[255].endsWith(" line 299"));
+    }
+
+    @Test
+    public void ringKeepsTheTextNotTheObject() {
+        OverlayLog.clear();
+        StringBuilder state = new StringBuilder("ringing");
+        OverlayLog.i("State {}", state);
+        OverlayLog.e("Bind failed", new IllegalStateException("no window token"));
+        state.setLength(0);
+        state.append("idle");
+
+        String[] lines = OverlayLog.dump();
+        assertTrue(lines[0], lines[0].endsWith(" I State ringing"));
+        assertTrue(lines[1], lines[1].endsWith(" E Bind failed: java.lang.IllegalStateException: no window token"));
+    }
+
+    @Test
+    public void debugLinesAreNotRecorded() {
+        OverlayLog.clear();
+        OverlayLog.d("debug {}", 1L);
+        assertEquals(0, OverlayLog.dump().length);
+    }
+
+    // android.jar stubs report every tag as not loggable, so only the ring is written here: the part
+    // of an info call that also runs in release builds with logcat silenced
+    @Test
+    public void ringPathAllocatesNothingPerCall() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        // Warm-up, so class loading and compilation happen outside the measurement
+        for (long i = 0; i < CALLS; i++) {
+            OverlayLog.i("Drag frame {}", i);
+            OverlayLog.i("Moved to {},{}", i, -i);
+        }
+
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (long i = 0; i < CALLS; i++) {
+            OverlayLog.i("Drag frame {}", i);
+            OverlayLog.i("Moved to {},{}", i, -i);
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        // A few hundred bytes of slack for the measurement itself, far below one object per call
+        assertTrue("allocated " + allocated + " bytes over " + 2 * CALLS + " calls", allocated < 1_024);
+        assertTrue(OverlayLog.dump()[255].endsWith(" I Moved to " + (CALLS - 1) + "," + (1 - CALLS)));
+    }
+
+    @Test
+    public void disabledDebugPathAllocatesNothing() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        for (long i = 0; i < CALLS; i++) {
+            OverlayLog.d("Touch move {}", i);
+        }
+
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (long i = 0; i < CALLS; i++) {
+            OverlayLog.d("Touch move {}", i);
+            OverlayLog.d("Touch at {},{}", i, -i);
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertTrue("allocated " + allocated + " bytes over " + 2 * CALLS + " calls", allocated < 1_024);
+    }
+}
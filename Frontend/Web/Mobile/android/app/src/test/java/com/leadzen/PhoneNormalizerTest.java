@@ -0,0 +1,204 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class PhoneNormalizerTest {
+    // {input, PhoneMatchingService.normalizePhoneNumber(input)}: the JS function's actual output,
+    // produced by running it under node over these inputs. Native in region IN must agree.
+    private static final String[][] JS_GOLDEN = {
+        {"9876543210", "+919876543210"},
+        {"+919876543210", "+919876543210"},
+        {"+91 98765 43210", "+919876543210"},
+        {"919876543210", "+919876543210"},
+        {"91 98765 43210", "+919876543210"},
+        {"(987) 654-3210", "+919876543210"},
+        {"98765-43210", "+919876543210"},
+        {"+91-98765-43210", "+919876543210"},
+        {"+91 (987) 654 3210", "+919876543210"},
+        {"7012345678", "+917012345678"},
+        {"6000000001", "+916000000001"},
+        {"Tel: 98765 43210", "+919876543210"},
+        {"+1 415 555 0100", "+14155550100"},
+        {"+44 20 7946 0958", "+442079460958"},
+        {"121", "121"},
+        {"0121", "0121"},
+        {"", ""},
+        {"Private", ""},
+    };
+
+    // {input, JS output, native output}: same generation, where native deliberately resolves what
+    // the JS function leaves as a different string (trunk and international prefixes, extensions)
+    private static final String[][] JS_DIVERGENT = {
+        {"09876543210", "09876543210", "+919876543210"},
+        {"0091 98765 43210", "00919876543210", "+919876543210"},
+        {"+91 0 98765 43210", "+9109876543210", "+919876543210"},
+        {"+91-9876543210 ext. 12", "+91987654321012", "+919876543210"},
+    };
+
+    private static PhoneNormalizer in(String code) {
+        for (PhoneNormalizer.Region region : PhoneNormalizer.REGIONS) {
+            if (region.code.equals(code)) {
+                return new PhoneNormalizer(region);
+            }
+        }
+        throw new IllegalArgumentException(code);
+    }
+
+    private static void assertNormalized(PhoneNormalizer normalizer, String expected, String... inputs) {
+        for (String input : inputs) {
+            assertEquals(input, expected, PhoneNormalizer.format(normalizer.pack(input)));
+        }
+    }
+
+    @Test
+    public void indianNumbersWrittenEveryWayAreOneKey() {
+        assertNormalized(in("IN"), "+919876543210",
+            "9876543210",
+            "+919876543210",
+            "+91 98765 43210",
+            "919876543210",
+            "09876543210",
+            "0091 98765 43210",
+            "+91 0 98765 43210",
+            "(987) 654-3210",
+            "+91-9876543210 ext. 12",
+            "98765 43210 x7",
+            "98765 43210;ext=7",
+            "98765 43210,1",
+            "Tel: 98765 43210");
+    }
+
+    @Test
+    public void agreesWithTheJsNormalizer() {
+        PhoneNormalizer india = in("IN");
+        for (String[] golden : JS_GOLDEN) {
+            assertEquals(golden[0], golden[1], PhoneNormalizer.format(india.pack(golden[0])));
+        }
+        for (String[] divergent : JS_DIVERGENT) {
+            assertEquals(divergent[0], divergent[2], PhoneNormalizer.format(india.pack(divergent[0])));
+            assertFalse(divergent[0], divergent[1].equals(divergent[2]));
+        }
+    }
+
+    @Test
+    public void defaultRegionComesFromTheFirstSupportedCountry() {
+        assertEquals("GB", PhoneNormalizer.defaultRegion("gb", "in", "US").code);
+        assertEquals("US", PhoneNormalizer.defaultRegion("", "fr", "US").code);
+        assertEquals("AE", PhoneNormalizer.defaultRegion(null, "ae").code);
+        // Nothing supported (or no SIM and a locale without a country): IN
+        assertEquals("IN", PhoneNormalizer.defaultRegion("", null, "FR").code);
+        assertEquals("IN", PhoneNormalizer.defaultRegion().code);
+        assertNull(PhoneNormalizer.region("XX"));
+    }
+
+    @Test
+    public void installedRegionKeysTheCallerIndex() {
+        PhoneNormalizer india = PhoneNormalizer.current();
+        assertEquals("IN", india.region().code);
+        try {
+            PhoneNormalizer.install(new PhoneNormalizer(PhoneNormalizer.region("GB")));
+            assertEquals(PhoneNormalizer.current().pack("+44 20 7946 0958"), CallerIdIndex.packPhone("020 7946 0958"));
+            CallerIdIndex index = CallerIdIndex.build(new String[] {"020 7946 0958"}, new int[] {7}, new String[] {"Oliver"});
+            assertEquals(7, index.lookupLeadId("+442079460958"));
+        } finally {
+            PhoneNormalizer.install(india);
+        }
+        assertSame(india, PhoneNormalizer.current());
+        assertEquals("+919876543210", PhoneNormalizer.format(CallerIdIndex.packPhone("09876543210")));
+    }
+
+    @Test
+    public void foreignNumbersKeepTheirCountry() {
+        PhoneNormalizer india = in("IN");
+        assertNormalized(india, "+14155550100", "+1 415 555 0100", "001 415 555 0100");
+        assertNormalized(india, "+442079460958", "+44 20 7946 0958", "0044 20 7946 0958");
+    }
+
+    @Test
+    public void otherRegions() {
+        assertNormalized(in("US"), "+14155550100", "(415) 555-0100", "1 415 555 0100", "+1-415-555-0100");
+        assertNormalized(in("US"), "+442079460958", "011 44 20 7946 0958");
+        assertNormalized(in("CA"), "+16135550100", "613-555-0100");
+        assertNormalized(in("GB"), "+442079460958", "020 7946 0958", "00 44 20 7946 0958");
+        assertNormalized(in("AE"), "+971501234567", "050 123 4567", "50 123 4567");
+        assertNormalized(in("SG"), "+6591234567", "9123 4567", "000 65 9123 4567");
+        assertNormalized(in("AU"), "+61412345678", "0412 345 678", "0011 61 412 345 678");
+    }
+
+    @Test
+    public void numbersWithoutACountryStayRaw() {
+        PhoneNormalizer india = in("IN");
+        long shortCode = india.pack("121");
+        assertFalse(PhoneNormalizer.isInternational(shortCode));
+        assertEquals("121", PhoneNormalizer.format(shortCode));
+        // Leading zeros are part of a raw number
+        assertEquals("0121", PhoneNormalizer.format(india.pack("0121")));
+        assertTrue(india.pack("0121") != shortCode);
+        // No country code starts with 0
+        assertEquals("0123", PhoneNormalizer.format(india.pack("+0123")));
+        assertTrue(PhoneNormalizer.isInternational(india.pack("9876543210")));
+    }
+
+    @Test
+    public void unusableInputIsEmpty() {
+        PhoneNormalizer india = in("IN");
+        assertNormalized(india, "", "", "   ", "Private", "+", "1234567890123456789", "+1234567890123456");
+        assertEquals(0L, india.pack(null));
+    }
+
+    @Test
+    public void bulkMatchesPackAndCountsMemoHits() {
+        PhoneNormalizer india = in("IN");
+        String[] numbers = {"9876543210", null, "+91 98765 43210", "121", "9876543210", ""};
+        long[] keys = new long[numbers.length];
+        String[] normalized = new String[numbers.length];
+
+        india.normalizeAll(numbers, keys, normalized);
+        for (int i = 0; i < numbers.length; i++) {
+            assertEquals(india.pack(numbers[i]), keys[i]);
+            assertEquals(PhoneNormalizer.format(keys[i]), normalized[i]);
+        }
+        // The repeated "9876543210" is a hit; null counts as a miss
+        assertEquals(1, india.memoHits());
+        assertEquals(numbers.length - 1, india.memoMisses());
+
+        india.normalizeAll(numbers, keys, normalized);
+        assertEquals(1 + 5, india.memoHits()); // every non-null input again
+        assertEquals("+919876543210", normalized[2]);
+    }
+
+    @Test
+    public void memoCountersAddUpAcrossThreads() throws InterruptedException {
+        PhoneNormalizer india = in("IN");
+        String[] numbers = new String[1_000];
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = Long.toString(9_800_000_000L + i % 100);
+        }
+        int threads = 8;
+        int rounds = 200;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                long[] keys = new long[numbers.length];
+                String[] normalized = new String[numbers.length];
+                for (int r = 0; r < rounds; r++) {
+                    india.normalizeAll(numbers, keys, normalized);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertEquals((long) threads * rounds * numbers.length, india.memoHits() + india.memoMisses());
+    }
+}
@@ -0,0 +1,117 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class StageMoveJournalTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private static List<String> recover(StageMoveJournal journal) throws IOException {
+        List<String> moves = new ArrayList<>();
+        journal.recover((leadId, stage, movedAt) -> moves.add(leadId + ":" + stage + "@" + movedAt));
+        return moves;
+    }
+
+    private static File onlyLog(File dir) {
+        File[] logs = dir.listFiles((d, name) -> name.startsWith("stage_moves."));
+        assertEquals(1, logs.length);
+        return logs[0];
+    }
+
+    @Test
+    public void replaysAppendedMovesInOrder() throws IOException {
+        File dir = folder.getRoot();
+        StageMoveJournal journal = new StageMoveJournal(dir);
+        assertEquals(0, recover(journal).size());
+        journal.append(7, "contacted", 1_000L);
+        journal.append(3, "qualified", 1_001L);
+        journal.append(7, "won", 1_002L);
+        journal.close();
+
+        assertEquals(Arrays.asList("7:contacted@1000", "3:qualified@1001", "7:won@1002"),
+            recover(new StageMoveJournal(dir)));
+    }
+
+    @Test
+    public void tornTailEndsTheReplay() throws IOException {
+        File dir = folder.getRoot();
+        StageMoveJournal journal = new StageMoveJournal(dir);
+        recover(journal);
+        journal.append(1, "new", 10L);
+        journal.append(2, "proposal", 20L);
+        journal.close();
+
+        File log = onlyLog(dir);
+        try (RandomAccessFile file = new RandomAccessFile(log, "rw")) {
+            file.setLength(file.length() - 3); // died inside the second record's CRC
+        }
+        assertEquals(Arrays.asList("1:new@10"), recover(new StageMoveJournal(dir)));
+    }
+
+    @Test
+    public void corruptRecordFailsItsCrc() throws IOException {
+        File dir = folder.getRoot();
+        StageMoveJournal journal = new StageMoveJournal(dir);
+        recover(journal);
+        journal.append(1, "new", 10L);
+        journal.append(2, "lost", 20L);
+        journal.append(3, "won", 30L);
+        journal.close();
+
+        File log = onlyLog(dir);
+        // leadId, movedAt, UTF length + bytes, CRC
+        long secondRecord = 8 + 8 + 2 + "new".length() + 4;
+        try (RandomAccessFile file = new RandomAccessFile(log, "rw")) {
+            // Flip one bit in the low byte of record 2's movedAt
+            long offset = secondRecord + 8 + 7;
+            file.seek(offset);
+            int value = file.read();
+            file.seek(offset);
+            file.write(value ^ 1);
+        }
+        assertEquals(Arrays.asList("1:new@10"), recover(new StageMoveJournal(dir)));
+    }
+
+    @Test
+    public void releasedGenerationsAreNotReplayed() throws IOException {
+        File dir = folder.getRoot();
+        StageMoveJournal journal = new StageMoveJournal(dir);
+        recover(journal);
+        journal.append(1, "new", 10L);
+        long flushed = journal.rotate();
+        journal.append(2, "contacted", 20L);
+        journal.rotate();
+        journal.append(3, "won", 30L);
+        journal.release(flushed);
+        journal.close();
+
+        // Unreleased generations replay oldest first
+        assertEquals(Arrays.asList("2:contacted@20", "3:won@30"), recover(new StageMoveJournal(dir)));
+    }
+
+    @Test
+    public void recoveryAppendsToANewGeneration() throws IOException {
+        File dir = folder.getRoot();
+        StageMoveJournal first = new StageMoveJournal(dir);
+        recover(first);
+        first.append(1, "new", 10L);
+        first.close();
+
+        StageMoveJournal second = new StageMoveJournal(dir);
+        assertEquals(1, recover(second).size());
+        second.append(2, "won", 20L);
+        second.close();
+
+        assertEquals(Arrays.asList("1:new@10", "2:won@20"), recover(new StageMoveJournal(dir)));
+    }
+}
@@ -0,0 +1,260 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class T9IndexTest {
+    private static final String[] KEYS = {" +", "", "abc", "def", "ghi", "jkl", "mno", "pqrs", "tuv", "wxyz"};
+    private static final String[] FIRST_NAMES = {
+        "Ravi", "Priya", "Amit", "Sneha", "Arjun", "Kavya", "Rahul", "Ananya", "Vikram", "Meera",
+        "John", "Sarah", "David", "Emily", "Michael", "Olivia", "Daniel", "Sophia", "James", "Grace",
+    };
+    private static final String[] LAST_NAMES = {
+        "Sharma", "Patel", "Kumar", "Reddy", "Iyer", "Gupta", "Singh", "Nair", "Rao", "Mehta",
+        "Smith", "Johnson", "Brown", "Miller", "Wilson", "Taylor", "Anderson", "Thomas", "Moore", "Clark",
+    };
+    private static final int BOOK_SIZE = 100_000;
+
+    // Straight port of T9Search.textToT9 / fuzzyT9Match / phoneNumberMatch for ASCII input
+    private static String textToT9(String text) {
+        StringBuilder out = new StringBuilder();
+        for (char c : text.toLowerCase().toCharArray()) {
+            if (c >= 'a' && c <= 'z') {
+                for (int d = 2; d < KEYS.length; d++) {
+                    if (KEYS[d].indexOf(c) >= 0) {
+                        out.append((char) ('0' + d));
+                    }
+                }
+            } else if (c == ' ') {
+                out.append('0'); // REVERSE_T9_MAPPING picks up ' ' from '0': ' +'
+            } else if ((c >= '0' && c <= '9') || (c >= '\t' && c <= '\r')) {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    private static boolean fuzzy(String text, String pattern) {
+        String clean = text.toLowerCase().replaceAll("[^a-z]", "");
+        int position = 0;
+        for (char digit : pattern.toCharArray()) {
+            String letters = digit >= '0' && digit <= '9' ? KEYS[digit - '0'] : null;
+            if (letters == null || letters.isEmpty()) {
+                continue;
+            }
+            boolean found = false;
+            while (position < clean.length()) {
+                if (letters.indexOf(clean.charAt(position++)) >= 0) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean reference(String name, String company, String phone, String pattern) {
+        String lower = pattern.toLowerCase();
+        if (name != null && !name.isEmpty() && (textToT9(name).contains(lower) || fuzzy(name, pattern))) {
+            return true;
+        }
+        if (company != null && !company.isEmpty() && (textToT9(company).contains(lower) || fuzzy(company, pattern))) {
+            return true;
+        }
+        return phone != null && !phone.isEmpty()
+            && phone.replaceAll("\\D", "").contains(pattern.replaceAll("\\D", ""));
+    }
+
+    @Test
+    public void goldenMatches() {
+        T9Index index = T9Index.build(
+            new String[] {"a", "b", "c"},
+            new String[] {"Rahul Verma", "Anita Desai", null},
+            new String[] {"Acme Corp", null, "Zen Labs"},
+            new String[] {"+91 98765 43210", "", "044-2345-6789"});
+
+        T9Index.Query rahul = new T9Index.Query("72485");
+        assertTrue(index.matches(0, rahul));
+        assertTrue(index.isExactNameMatch(0, rahul));
+        assertFalse(index.matches(1, rahul));
+
+        // "ad" fuzzy over Anita Desai: 2 then 3
+        assertTrue(index.matches(1, new T9Index.Query("23")));
+        // Company only
+        assertTrue(index.matches(2, new T9Index.Query("936")));
+        // Phone digits, punctuation ignored
+        assertTrue(index.matches(2, new T9Index.Query("2345")));
+        assertTrue(index.matches(0, new T9Index.Query("76543")));
+        // '0' is a space in textToT9 and never matches fuzzily
+        assertTrue(index.matches(0, new T9Index.Query("724850")));
+        assertFalse(index.matches(1, new T9Index.Query("00")));
+    }
+
+    @Test
+    public void ranksNamesInCollatorOrder() {
+        T9Index index = T9Index.build(
+            new String[] {"a", "b", "c"},
+            new String[] {"charlie", "Alice", "bob"},
+            new String[3], new String[3]);
+        assertEquals(2, index.nameRank(0));
+        assertEquals(0, index.nameRank(1));
+        assertEquals(1, index.nameRank(2));
+    }
+
+    @Test
+    public void agreesWithTheJsMatcherOnRandomLeads() {
+        Random random = new Random(3);
+        String alphabet = "abcdefghijklmnopqrstuvwxyz ABC.-'019";
+        int count = 400;
+        String[] ids = new String[count];
+        String[] names = new String[count];
+        String[] companies = new String[count];
+        String[] phones = new String[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = "lead" + i;
+            names[i] = random.nextInt(10) == 0 ? null : randomText(random, alphabet, 3 + random.nextInt(14));
+            companies[i] = random.nextInt(3) == 0 ? "" : randomText(random, alphabet, 2 + random.nextInt(10));
+            phones[i] = random.nextInt(5) == 0 ? null : "+91 " + randomText(random, "0123456789- ", 10);
+        }
+        T9Index index = T9Index.build(ids, names, companies, phones);
+
+        for (int q = 0; q < 300; q++) {
+            String pattern = randomText(random, "0123456789", 2 + random.nextInt(5));
+            T9Index.Query query = new T9Index.Query(pattern);
+            for (int lead = 0; lead < count; lead++) {
+                boolean expected = reference(names[lead], companies[lead], phones[lead], pattern);
+                assertEquals(pattern + " / " + names[lead] + " / " + companies[lead] + " / " + phones[lead], expected, index.matches(lead, query));
+                if (expected) {
+                    // The pair signature filter must never drop a real match
+                    assertTrue(pattern + " / " + names[lead], index.mayMatch(lead, query));
+                }
+            }
+        }
+    }
+
+    // 2k leads, so the full scan stays cheap enough to compare against every keystroke
+    @Test
+    public void narrowingMatchesAFullScan() {
+        T9Index index = book(2_000, new Random(5));
+        T9Search session = new T9Search();
+        Random random = new Random(8);
+        for (int typed = 0; typed < 200; typed++) {
+            String digits = keystrokes(random);
+            for (int length = 2; length <= digits.length(); length++) {
+                String input = digits.substring(0, length);
+                int[] narrowed = session.search(index, input, 20);
+                int[] full = new T9Search().search(index, input, 20);
+                assertTrue(input, Arrays.equals(full, narrowed));
+            }
+        }
+    }
+
+    // One session's reused buffers across a rebuilt index that grew and one that shrank
+    @Test
+    public void sessionFollowsARebuiltIndex() {
+        T9Index small = book(300, new Random(21));
+        T9Index large = book(3_000, new Random(22));
+        T9Search session = new T9Search();
+        Random random = new Random(23);
+        T9Index[] order = {small, large, small, large};
+        for (T9Index index : order) {
+            for (int typed = 0; typed < 30; typed++) {
+                String digits = keystrokes(random);
+                for (int length = 2; length <= digits.length(); length++) {
+                    String input = digits.substring(0, length);
+                    assertTrue(input, Arrays.equals(new T9Search().search(index, input, 8), session.search(index, input, 8)));
+                }
+            }
+        }
+    }
+
+    // Per-keystroke latency of the dialer at 100k names: each typed number starts cold (full scan)
+    // and every further digit narrows the previous matches. The p99 bound is far above what the
+    // index needs, so only a real regression trips it on CI.
+    @Test
+    public void keystrokeLatencyAt100kNames() {
+        long start = System.nanoTime();
+        T9Index index = book(BOOK_SIZE, new Random(11));
+        long buildMs = (System.nanoTime() - start) / 1_000_000;
+        T9Search session = new T9Search();
+        Random random = new Random(13);
+
+        // Warm-up
+        for (int typed = 0; typed < 50; typed++) {
+            String digits = keystrokes(random);
+            for (int length = 2; length <= digits.length(); length++) {
+                session.search(index, digits.substring(0, length), 20);
+            }
+        }
+
+        int numbers = 200;
+        long[] first = new long[numbers];
+        long[] nanos = new long[numbers * 8];
+        int count = 0;
+        for (int typed = 0; typed < numbers; typed++) {
+            String digits = keystrokes(random);
+            for (int length = 2; length <= digits.length(); length++) {
+                String input = digits.substring(0, length);
+                start = System.nanoTime();
+                session.search(index, input, 20);
+                long elapsed = System.nanoTime() - start;
+                if (length == 2) {
+                    first[typed] = elapsed;
+                }
+                nanos[count++] = elapsed;
+            }
+        }
+        nanos = Arrays.copyOf(nanos, count);
+        Arrays.sort(nanos);
+        Arrays.sort(first);
+        long p50 = nanos[count / 2];
+        long p99 = nanos[count - count / 100];
+        System.out.println("T9 at " + BOOK_SIZE + " names: build " + buildMs + "ms, keystroke p50 "
+            + p50 / 1_000 + "us, p99 " + p99 / 1_000 + "us, first keystroke p50 " + first[numbers / 2] / 1_000
+            + "us (" + count + " keystrokes)");
+        assertTrue("keystroke p99 " + p99 / 1_000 + "us", p99 < 50_000_000L);
+    }
+
+    // Leads named FIRST LAST n, a company every other lead, ten-digit phones
+    private static T9Index book(int count, Random random) {
+        String[] ids = new String[count];
+        String[] names = new String[count];
+        String[] companies = new String[count];
+        String[] phones = new String[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = "lead" + i;
+            names[i] = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " " + i;
+            companies[i] = i % 2 == 0 ? LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " Traders" : null;
+            phones[i] = "+91 " + (9_000_000_000L + random.nextInt(1_000_000_000));
+        }
+        return T9Index.build(ids, names, companies, phones);
+    }
+
+    // What a user types: the T9 digits of a name's start, or of part of a phone number; 3 to 8 digits
+    private static String keystrokes(Random random) {
+        int length = 3 + random.nextInt(6);
+        if (random.nextInt(4) == 0) {
+            return randomText(random, "0123456789", length);
+        }
+        String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        String digits = textToT9(name);
+        return digits.substring(0, Math.min(length, digits.length()));
+    }
+
+    private static String randomText(Random random, String alphabet, int length) {
+        StringBuilder out = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            out.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return out.toString();
+    }
+}
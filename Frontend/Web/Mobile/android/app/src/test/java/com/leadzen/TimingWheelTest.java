@@ -0,0 +1,183 @@
+package com.leadzen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import org.junit.Test;
+
+public class TimingWheelTest {
+    private static final long START = 1_700_000_000_000L;
+    private static final long TICK = 1000;
+
+    // The wheel's contract without the wheel: an item fires on the first advance() whose tick is at
+    // or past max(tick at schedule time, ceil(due / tickMs))
+    private static final class Reference {
+        final long tickMs;
+        long current;
+        final Map<Long, Long> ticks = new HashMap<>();
+        final Map<Long, Long> dues = new HashMap<>();
+
+        Reference(long tickMs, long nowMs) {
+            this.tickMs = tickMs;
+            this.current = nowMs / tickMs;
+        }
+
+        void schedule(long key, long due) {
+            long tick = Math.max(current, due / tickMs + (due % tickMs > 0 ? 1 : 0));
+            ticks.put(key, tick);
+            dues.put(key, due);
+        }
+
+        boolean cancel(long key) {
+            dues.remove(key);
+            return ticks.remove(key) != null;
+        }
+
+        long nextDueMs() {
+            long min = Long.MAX_VALUE;
+            for (long tick : ticks.values()) {
+                min = Math.min(min, tick);
+            }
+            return min == Long.MAX_VALUE ? Long.MAX_VALUE : min * tickMs;
+        }
+
+        TreeMap<Long, Long> advance(long nowMs) {
+            long now = nowMs / tickMs;
+            TreeMap<Long, Long> expired = new TreeMap<>();
+            for (Map.Entry<Long, Long> entry : new HashMap<>(ticks).entrySet()) {
+                if (entry.getValue() <= now) {
+                    expired.put(entry.getKey(), dues.remove(entry.getKey()));
+                    ticks.remove(entry.getKey());
+                }
+            }
+            current = Math.max(current, now);
+            return expired;
+        }
+    }
+
+    private static TreeMap<Long, Long> advance(TimingWheel wheel, long nowMs) {
+        TreeMap<Long, Long> expired = new TreeMap<>();
+        int count = wheel.advance(nowMs, (key, dueMs) -> assertEquals(null, expired.put(key, dueMs)));
+        assertEquals(expired.size(), count);
+        return expired;
+    }
+
+    @Test
+    public void matchesTheReferenceOnRandomOperations() {
+        Random random = new Random(21);
+        TimingWheel wheel = new TimingWheel(TICK, START, 16);
+        Reference reference = new Reference(TICK, START);
+        long now = START;
+        for (int step = 0; step < 200_000; step++) {
+            int op = random.nextInt(10);
+            long key = 1 + random.nextInt(2_000);
+            if (op < 5) {
+                // Mostly near deadlines, some days or months out (higher levels), a few in the past
+                long span = random.nextInt(4) == 0 ? 90L * 86_400_000L : 600_000L;
+                long due = now - 5_000 + (long) (random.nextDouble() * span);
+                wheel.schedule(key, due);
+                reference.schedule(key, due);
+            } else if (op < 7) {
+                assertEquals(reference.cancel(key), wheel.cancel(key));
+            } else if (op < 9) {
+                now += random.nextInt(3) == 0 ? (long) (random.nextDouble() * 86_400_000L) : random.nextInt(5_000);
+                assertEquals("advance to " + now, reference.advance(now), advance(wheel, now));
+            } else {
+                // Jump straight to the next alarm, as ReminderScheduler does
+                long next = wheel.nextDueMs();
+                assertEquals(reference.nextDueMs(), next);
+                if (next != Long.MAX_VALUE) {
+                    now = Math.max(now, next);
+                    assertEquals(reference.advance(now), advance(wheel, now));
+                }
+            }
+            assertEquals(reference.ticks.size(), wheel.size());
+            assertEquals(reference.ticks.containsKey(key), wheel.contains(key));
+        }
+    }
+
+    @Test
+    public void alarmDrivenRunIsNeverEarlyAndAtMostOneTickLate() {
+        int items = 100_000;
+        Random random = new Random(42);
+        TimingWheel wheel = new TimingWheel(TICK, START, items);
+        for (int key = 1; key <= items; key++) {
+            wheel.schedule(key, START + (long) (random.nextDouble() * 86_400_000L));
+        }
+        int cancels = 0;
+        for (int key = 2; key <= items; key += 2) {
+            assertTrue(wheel.cancel(key));
+            cancels++;
+        }
+
+        long[] fired = new long[1];
+        long[] now = {START};
+        while (wheel.size() > 0) {
+            now[0] = wheel.nextDueMs();
+            wheel.advance(now[0], (key, dueMs) -> {
+                assertFalse("key " + key + " fired early", dueMs > now[0]);
+                assertTrue("key " + key + " fired late", now[0] - dueMs < TICK);
+                assertEquals(1, key % 2);
+                fired[0]++;
+            });
+        }
+        assertEquals(items - cancels, fired[0]);
+        assertEquals(Long.MAX_VALUE, wheel.nextDueMs());
+    }
+
+    @Test
+    public void rescheduleMovesTheDeadline() {
+        TimingWheel wheel = new TimingWheel(TICK, START, 4);
+        wheel.schedule(7, START + 10_000);
+        wheel.schedule(8, START + 20_000);
+        assertEquals(START + 10_000, wheel.nextDueMs());
+        wheel.schedule(7, START + 30_000);
+        assertEquals(START + 20_000, wheel.nextDueMs());
+        assertEquals(1, advance(wheel, START + 25_000).size());
+        assertEquals(START + 30_000, wheel.nextDueMs());
+    }
+
+    @Test
+    public void pastDeadlineFiresOnTheNextAdvance() {
+        TimingWheel wheel = new TimingWheel(TICK, START, 4);
+        wheel.schedule(3, START - 60_000);
+        assertEquals(START, wheel.nextDueMs());
+        assertEquals(START - 60_000, (long) advance(wheel, START).get(3L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsATickTooFineForTheClock() {
+        // 2^36 ticks of 1 ms is about two years: the epoch is already past it
+        new TimingWheel(1, START, 4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAZeroTick() {
+        new TimingWheel(0, START, 4);
+    }
+
+    @Test
+    public void rejectsTimesPastTheEnd() {
+        TimingWheel wheel = new TimingWheel(TICK, START, 4);
+        try {
+            wheel.schedule(1, wheel.maxDueMs() + 1);
+            fail("schedule accepted a deadline past the end");
+        } catch (IllegalArgumentException expected) {
+            assertEquals(0, wheel.size());
+        }
+        try {
+            wheel.advance(wheel.maxDueMs() + 1, (key, dueMs) -> { });
+            fail("advance accepted a time past the end");
+        } catch (IllegalArgumentException expected) {
+            // The wheel is still usable
+        }
+        wheel.schedule(1, wheel.maxDueMs());
+        assertEquals(1, advance(wheel, wheel.maxDueMs()).size());
+    }
+}
@@ -242,7 +242,7 @@ export const PipelineBoardV2: React.FC<PipelineBoardV2Props> = ({
       console.log('🔄 Updating lead status from', lead.status, 'to', newStatus);
       
       // Update in database  
-      await AsyncStorageService.updateLead(lead.id.toString(), { status: newStatus });
+      await AsyncStorageService.moveLeadStage(lead.id.toString(), newStatus);
       
       // Update local state optimistically
       setLeads(prevLeads =>
@@ -279,7 +279,7 @@ export const PipelineBoardV2: React.FC<PipelineBoardV2Props> = ({
     try {
       const newStatus = pipelineStageToStatus(newStageId);
       
-      await AsyncStorageService.updateLead(lead.id.toString(), { status: newStatus });
+      await AsyncStorageService.moveLeadStage(lead.id.toString(), newStatus);
       
       setLeads(prevLeads =>
         prevLeads.map(l =>
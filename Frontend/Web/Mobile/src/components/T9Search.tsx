@@ -35,6 +35,11 @@ const T9Search: React.FC<Props> = ({
   const [searchResults, setSearchResults] = useState<Lead[]>([]);
   const [loading, setLoading] = useState(false);
 
+  // Index the lead book while the user starts typing
+  useEffect(() => {
+    DialerService.prepareSearch().catch(error => console.error('Search index error:', error));
+  }, []);
+
   useEffect(() => {
     performSearch();
   }, [searchInput]);
@@ -49,7 +54,10 @@ const T9Search: React.FC<Props> = ({
     
     try {
       const results = await DialerService.searchLeads(searchInput);
-      setSearchResults(results.slice(0, maxResults));
+      // null means a newer keystroke is already being searched
+      if (results !== null) {
+        setSearchResults(results.slice(0, maxResults));
+      }
     } catch (error) {
       console.error('Search error:', error);
       setSearchResults([]);
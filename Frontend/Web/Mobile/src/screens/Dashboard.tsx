@@ -16,6 +16,7 @@ import { useSidebarContext } from '../context/SidebarContext';
 import { useTabNavigation } from '../context/TabNavigationContext';
 import { Colors, Typography, Spacing, BorderRadius, Shadows } from '../theme';
 import AsyncStorageService from '../services/AsyncStorageService';
+import { LeadAggregates } from '../services/NativeLeadStore';
 import { Lead, LeadStatus } from '../types/Lead';
 import { PIPELINE_STAGES, statusToPipelineStage } from '../utils/pipelineConfig';
 import OverlayService from '../services/OverlayService';
@@ -26,6 +27,7 @@ const Dashboard: React.FC = () => {
   const { toggleSidebar } = useSidebarContext();
   const { navigateToTab } = useTabNavigation();
   const [leads, setLeads] = useState<Lead[]>([]);
+  const [aggregates, setAggregates] = useState<LeadAggregates | null>(null);
   const [loading, setLoading] = useState(true);
   const [refreshing, setRefreshing] = useState(false);
 
@@ -35,6 +37,12 @@ const Dashboard: React.FC = () => {
 
   const loadDashboardData = async () => {
     try {
+      // With the native store the counts come from its aggregates (all leads, not the first 100)
+      const nativeAggregates = await AsyncStorageService.getLeadAggregates();
+      if (nativeAggregates) {
+        setAggregates(nativeAggregates);
+        return;
+      }
       const dbLeads = await AsyncStorageService.getLeads(100, 0);
       setLeads(dbLeads);
     } catch (error) {
@@ -50,8 +58,20 @@ const Dashboard: React.FC = () => {
     setRefreshing(false);
   };
 
+  const countStatus = (status: LeadStatus) =>
+    aggregates!.stages.find(stage => stage.status === status)?.count ?? 0;
+
   // Calculate statistics
-  const stats = {
+  const stats = aggregates ? {
+    totalLeads: aggregates.stages.reduce((total, stage) => total + stage.count, 0),
+    newLeads: countStatus(LeadStatus.NEW),
+    contactedLeads: countStatus(LeadStatus.CONTACTED),
+    qualifiedLeads: countStatus(LeadStatus.QUALIFIED),
+    proposalLeads: countStatus(LeadStatus.PROPOSAL),
+    closedWon: countStatus(LeadStatus.CLOSED_WON),
+    closedLost: countStatus(LeadStatus.CLOSED_LOST),
+    todayFollowUps: aggregates.followUpsToday,
+  } : {
     totalLeads: leads.length,
     newLeads: leads.filter(l => l.status === LeadStatus.NEW).length,
     contactedLeads: leads.filter(l => l.status === LeadStatus.CONTACTED).length,
@@ -204,6 +224,23 @@ const Dashboard: React.FC = () => {
               </View>
             </View>
 
+            {aggregates && (
+              <View style={styles.statsContainer}>
+                <View style={styles.statCard}>
+                  <Text style={styles.statNumber}>{aggregates.callsToday}</Text>
+                  <Text style={styles.statLabel}>
+                    {aggregates.missedCallsToday > 0 ? `Calls Today (${aggregates.missedCallsToday} missed)` : 'Calls Today'}
+                  </Text>
+                </View>
+                <View style={[styles.statCard, styles.warningCard]}>
+                  <Text style={[styles.statNumber, styles.warningText]}>
+                    {aggregates.followUpsOverdue + aggregates.tasksOverdue}
+                  </Text>
+                  <Text style={styles.statLabel}>Overdue Follow-ups & Tasks</Text>
+                </View>
+              </View>
+            )}
+
             <View style={styles.pipelineOverview}>
               <View style={styles.pipelineHeader}>
                 <Text style={styles.sectionTitle}>Pipeline Overview</Text>
@@ -219,9 +256,13 @@ const Dashboard: React.FC = () => {
                 style={styles.pipelineScrollView}
               >
                 {PIPELINE_STAGES.map((stage) => {
-                  const count = leads.filter(lead => 
-                    statusToPipelineStage(lead.status) === stage.id
-                  ).length;
+                  const count = aggregates
+                    ? aggregates.stages
+                        .filter(row => row.status && statusToPipelineStage(row.status) === stage.id)
+                        .reduce((total, row) => total + row.count, 0)
+                    : leads.filter(lead => 
+                        statusToPipelineStage(lead.status) === stage.id
+                      ).length;
                   
                   return (
                     <TouchableOpacity 
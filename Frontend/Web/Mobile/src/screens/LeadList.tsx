@@ -23,14 +23,21 @@ import NoLeadsEmpty from '../components/EmptyStates/NoLeadsEmpty';
 import LeadCardSkeleton from '../components/LoadingStates/LeadCardSkeleton';
 import { PerformanceMonitor } from '../utils/performance';
 
+const PAGE_SIZE = 50;
+const SEARCH_DEBOUNCE_MS = 250;
+
 const LeadList: React.FC = () => {
   const navigation = useNavigation<any>();
   const { toggleSidebar } = useSidebarContext();
   const [leads, setLeads] = useState<Lead[]>([]);
-  const [filteredLeads, setFilteredLeads] = useState<Lead[]>([]);
   const [searchQuery, setSearchQuery] = useState('');
+  const [debouncedQuery, setDebouncedQuery] = useState('');
+  const [searchResults, setSearchResults] = useState<Lead[]>([]);
   const [refreshing, setRefreshing] = useState(false);
   const [loading, setLoading] = useState(true);
+  const [cursor, setCursor] = useState<string | null>(null);
+  const [loadingMore, setLoadingMore] = useState(false);
+  const [totalLeads, setTotalLeads] = useState<number | null>(null);
 
   // Reload leads when screen comes into focus
   useFocusEffect(
@@ -39,32 +46,46 @@ const LeadList: React.FC = () => {
     }, [])
   );
 
+  // Search once typing pauses; clearing the box shows the paged list again right away
   useEffect(() => {
-    // Filter leads based on search query
-    if (searchQuery) {
-      const query = searchQuery.toLowerCase();
-      const filtered = leads.filter(
-        lead =>
-          lead.name.toLowerCase().includes(query) ||
-          lead.company?.toLowerCase().includes(query) ||
-          lead.phone?.includes(query) ||
-          lead.email?.toLowerCase().includes(query)
-      );
-      setFilteredLeads(filtered);
-    } else {
-      setFilteredLeads(leads);
+    if (!searchQuery) {
+      setDebouncedQuery('');
+      return;
+    }
+    const timer = setTimeout(() => setDebouncedQuery(searchQuery), SEARCH_DEBOUNCE_MS);
+    return () => clearTimeout(timer);
+  }, [searchQuery]);
+
+  // Results are kept apart from the paged list: the native store ranks over all leads and their
+  // notes, the AsyncStorage fallback filters the whole lead book, not just the loaded pages
+  useEffect(() => {
+    if (!debouncedQuery) {
+      setSearchResults([]);
+      return;
     }
-  }, [searchQuery, leads]);
+    let stale = false;
+    AsyncStorageService.searchLeads(debouncedQuery)
+      .then(results => {
+        if (!stale) setSearchResults(results);
+      })
+      .catch(error => console.error('Failed to search leads:', error));
+    return () => {
+      stale = true;
+    };
+  }, [debouncedQuery]);
+
+  const visibleLeads = debouncedQuery ? searchResults : leads;
 
   const loadLeads = async () => {
     setLoading(true);
     try {
-      const dbLeads = await PerformanceMonitor.measureAsync(
+      const page = await PerformanceMonitor.measureAsync(
         'Load Leads',
-        () => AsyncStorageService.getLeads(100, 0)
+        () => AsyncStorageService.getLeadPage(PAGE_SIZE, null)
       );
-      setLeads(dbLeads);
-      setFilteredLeads(dbLeads);
+      setLeads(page.leads);
+      setCursor(page.cursor);
+      setTotalLeads(await AsyncStorageService.getLeadCount());
     } catch (error) {
       console.error('Failed to load leads:', error);
       Alert.alert('Error', 'Failed to load leads from database');
@@ -73,6 +94,24 @@ const LeadList: React.FC = () => {
     }
   };
 
+  // Next page from the cursor; constant cost however far the list has been scrolled
+  const loadMoreLeads = async () => {
+    if (!cursor || loadingMore || loading || debouncedQuery) return;
+    setLoadingMore(true);
+    try {
+      const page = await PerformanceMonitor.measureAsync(
+        'Load Lead Page',
+        () => AsyncStorageService.getLeadPage(PAGE_SIZE, cursor)
+      );
+      setLeads(current => [...current, ...page.leads]);
+      setCursor(page.cursor);
+    } catch (error) {
+      console.error('Failed to load more leads:', error);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleRefresh = async () => {
     setRefreshing(true);
     await loadLeads();
@@ -148,18 +187,20 @@ const LeadList: React.FC = () => {
   const renderStats = () => (
     <View style={styles.statsContainer}>
       <View style={styles.statCard}>
-        <Text style={styles.statNumber}>{filteredLeads.length}</Text>
-        <Text style={styles.statLabel}>Total Leads</Text>
+        <Text style={styles.statNumber}>
+          {debouncedQuery ? visibleLeads.length : totalLeads ?? leads.length}
+        </Text>
+        <Text style={styles.statLabel}>{debouncedQuery ? 'Matches' : 'Total Leads'}</Text>
       </View>
       <View style={styles.statCard}>
         <Text style={styles.statNumber}>
-          {filteredLeads.filter(lead => lead.status === LeadStatus.NEW).length}
+          {visibleLeads.filter(lead => lead.status === LeadStatus.NEW).length}
         </Text>
         <Text style={styles.statLabel}>New Leads</Text>
       </View>
       <View style={styles.statCard}>
         <Text style={styles.statNumber}>
-          {filteredLeads.filter(lead => lead.priority === LeadPriority.HIGH || lead.priority === LeadPriority.URGENT).length}
+          {visibleLeads.filter(lead => lead.priority === LeadPriority.HIGH || lead.priority === LeadPriority.URGENT).length}
         </Text>
         <Text style={styles.statLabel}>High Priority</Text>
       </View>
@@ -211,13 +252,13 @@ const LeadList: React.FC = () => {
         onClear={() => setSearchQuery('')}
       />
       
-      {filteredLeads.length > 0 && renderStats()}
+      {visibleLeads.length > 0 && renderStats()}
       
       <FlatList
-        data={filteredLeads}
+        data={visibleLeads}
         renderItem={renderLead}
         keyExtractor={(item) => item.id}
-        contentContainerStyle={filteredLeads.length === 0 ? styles.emptyListContainer : styles.listContainer}
+        contentContainerStyle={visibleLeads.length === 0 ? styles.emptyListContainer : styles.listContainer}
         refreshControl={
           <RefreshControl
             refreshing={refreshing}
@@ -228,6 +269,8 @@ const LeadList: React.FC = () => {
         }
         showsVerticalScrollIndicator={false}
         ListEmptyComponent={NoLeadsEmpty}
+        onEndReached={loadMoreLeads}
+        onEndReachedThreshold={0.5}
         {...PerformanceMonitor.optimizeListRendering()}
       />
     </SafeAreaView>
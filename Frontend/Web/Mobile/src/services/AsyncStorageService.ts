@@ -1,6 +1,7 @@
 import AsyncStorage from '@react-native-async-storage/async-storage';
 import { Lead, LeadStatus, LeadPriority } from '../types/Lead';
 import { demoLeads } from '../data/demoLeads';
+import NativeLeadStore, { ArchiveExport, ArchiveProgress, LeadAggregates, leadsFromPage } from './NativeLeadStore';
 
 // Storage keys
 const STORAGE_KEYS = {
@@ -8,8 +9,12 @@ const STORAGE_KEYS = {
   CALL_LOGS: '@leadzen_call_logs',
   IS_INITIALIZED: '@leadzen_initialized',
   NEXT_ID: '@leadzen_next_id',
+  NATIVE_STORE_MIGRATED: '@leadzen_native_store_migrated',
+  NATIVE_SEARCH_INDEXED: '@leadzen_native_search_indexed',
 };
 
+const NOTES_KEY_PREFIX = '@leadzen_notes_';
+
 export interface CallLog {
   id?: number;
   lead_id?: number | null;
@@ -24,6 +29,8 @@ export interface CallLog {
 
 class AsyncStorageService {
   private nextId: number = 31; // Start after demo leads
+  private useNativeStore: boolean = false; // lead CRUD served by the native SQLite store
+  private leadListeners: Array<() => void> = [];
 
   // Initialize database with demo data if needed
   public async initDatabase(): Promise<void> {
@@ -60,16 +67,103 @@ class AsyncStorageService {
           this.nextId = parseInt(storedNextId);
         }
       }
+      
+      await this.adoptNativeStore();
     } catch (error) {
       console.error('Failed to initialize AsyncStorage:', error);
       throw error;
     }
   }
 
+  // Moves the leads into the native SQLite store once, then serves lead CRUD from it so a
+  // single update no longer rewrites the whole LEADS blob. The import is one atomic batch:
+  // if any lead is rejected (e.g. duplicate phone) we stay on AsyncStorage.
+  private async adoptNativeStore(): Promise<void> {
+    if (!NativeLeadStore.isAvailable()) {
+      return;
+    }
+    
+    try {
+      const migrated = await AsyncStorage.getItem(STORAGE_KEYS.NATIVE_STORE_MIGRATED);
+      // A store that already has rows was imported before the flag could be written
+      if (!migrated && (await NativeLeadStore.count()) === 0) {
+        const leadsJson = await AsyncStorage.getItem(STORAGE_KEYS.LEADS);
+        const leads: Lead[] = leadsJson ? JSON.parse(leadsJson) : [];
+        if (leads.length > 0) {
+          await NativeLeadStore.applyMutations(
+            leads.map(lead => ({ op: 'insert' as const, id: lead.id, fields: lead }))
+          );
+        }
+        console.log('Migrated', leads.length, 'leads to the native lead store');
+      }
+      if (!migrated) {
+        await AsyncStorage.setItem(STORAGE_KEYS.NATIVE_STORE_MIGRATED, 'true');
+      }
+      this.useNativeStore = true;
+    } catch (error) {
+      console.error('Native lead store not adopted, staying on AsyncStorage:', error);
+      return;
+    }
+
+    await this.indexForSearch();
+
+    // Catch up with calls made while the app and the call monitor were not running
+    NativeLeadStore.syncCallLog()
+      .then(result => result && console.log('Synced', result.rowsWritten, 'device call log rows'))
+      .catch(error => console.error('Failed to sync the device call log:', error));
+  }
+
+  // One-time copy of the notes and call logs into the native store so search covers them;
+  // NotesService and addCallLog keep it current afterwards
+  private async indexForSearch(): Promise<void> {
+    try {
+      if (await AsyncStorage.getItem(STORAGE_KEYS.NATIVE_SEARCH_INDEXED)) {
+        return;
+      }
+
+      const noteKeys = (await AsyncStorage.getAllKeys()).filter(key => key.startsWith(NOTES_KEY_PREFIX));
+      const notes = (await AsyncStorage.multiGet(noteKeys)).flatMap(([, json]) => (json ? JSON.parse(json) : []));
+      await NativeLeadStore.indexNotes(notes);
+
+      const callLogsJson = await AsyncStorage.getItem(STORAGE_KEYS.CALL_LOGS);
+      await NativeLeadStore.indexCallLogs(callLogsJson ? JSON.parse(callLogsJson) : []);
+
+      await AsyncStorage.setItem(STORAGE_KEYS.NATIVE_SEARCH_INDEXED, 'true');
+      console.log('Indexed', notes.length, 'notes for native search');
+    } catch (error) {
+      console.error('Failed to index notes and call logs for search:', error);
+    }
+  }
+
+  public usesNativeStore(): boolean {
+    return this.useNativeStore;
+  }
+
+  // Runs after lead writes on the AsyncStorage path; native store commits are followed natively.
+  // Returns the unsubscribe function.
+  public onLeadsChanged(listener: () => void): () => void {
+    this.leadListeners.push(listener);
+    return () => {
+      this.leadListeners = this.leadListeners.filter(l => l !== listener);
+    };
+  }
+
+  private notifyLeadsChanged(): void {
+    this.leadListeners.forEach(listener => listener());
+  }
+
   // CRUD Operations for Leads
 
   public async createLead(lead: Omit<Lead, 'id'>): Promise<number> {
     try {
+      if (this.useNativeStore) {
+        return await NativeLeadStore.createLead({
+          ...lead,
+          createdAt: lead.createdAt || new Date(),
+          updatedAt: lead.updatedAt || new Date(),
+        });
+      }
+      
       // Get existing leads
       const leadsJson = await AsyncStorage.getItem(STORAGE_KEYS.LEADS);
       const leads: Lead[] = leadsJson ? JSON.parse(leadsJson) : [];
@@ -89,6 +183,7 @@ class AsyncStorageService {
       // Update next ID
       this.nextId++;
       await AsyncStorage.setItem(STORAGE_KEYS.NEXT_ID, this.nextId.toString());
+      this.notifyLeadsChanged();
       
       return parseInt(newLead.id);
     } catch (error) {
@@ -99,6 +194,11 @@ class AsyncStorageService {
 
   public async getLeads(limit: number = 100, offset: number = 0): Promise<Lead[]> {
     try {
+      if (this.useNativeStore) {
+        // Already newest first
+        return await NativeLeadStore.getLeads(limit, offset);
+      }
+      
       const leadsJson = await AsyncStorage.getItem(STORAGE_KEYS.LEADS);
       
       if (!leadsJson) {
@@ -131,8 +231,35 @@ class AsyncStorageService {
     }
   }
 
+  // Newest-first page for list screens. Native store: keyset cursor; JSON blob: offset as cursor
+  public async getLeadPage(
+    limit: number = 50,
+    cursor: string | null = null
+  ): Promise<{ leads: Lead[]; cursor: string | null }> {
+    try {
+      if (this.useNativeStore) {
+        const page = await NativeLeadStore.queryPage({ order: 'created', limit, cursor });
+        return { leads: leadsFromPage(page), cursor: page.cursor };
+      }
+
+      const offset = cursor ? parseInt(cursor, 10) : 0;
+      const leads = await this.getLeads(limit + 1, offset);
+      return {
+        leads: leads.slice(0, limit),
+        cursor: leads.length > limit ? String(offset + limit) : null,
+      };
+    } catch (error) {
+      console.error('Failed to get lead page:', error);
+      throw error;
+    }
+  }
+
   public async getLeadById(id: string): Promise<Lead | null> {
     try {
+      if (this.useNativeStore) {
+        return await NativeLeadStore.getLead(id);
+      }
+      
       const leadsJson = await AsyncStorage.getItem(STORAGE_KEYS.LEADS);
       
       if (!leadsJson) {
@@ -162,6 +289,13 @@ class AsyncStorageService {
 
   public async updateLead(id: string, updates: Partial<Lead>): Promise<void> {
     try {
+      if (this.useNativeStore) {
+        if (!(await NativeLeadStore.updateLead(id, updates))) {
+          throw new Error('Lead not found');
+        }
+        return;
+      }
+      
       const leadsJson = await AsyncStorage.getItem(STORAGE_KEYS.LEADS);
       
       if (!leadsJson) {
@@ -185,14 +319,57 @@ class AsyncStorageService {
       
       // Save back to AsyncStorage
       await AsyncStorage.setItem(STORAGE_KEYS.LEADS, JSON.stringify(leads));
+      this.notifyLeadsChanged();
     } catch (error) {
       console.error('Failed to update lead:', error);
       throw error;
     }
   }
 
+  // Pipeline drag and drop. The native store acknowledges before committing (write-behind);
+  // the AsyncStorage path is a plain update.
+  public async moveLeadStage(id: string, status: Lead['status']): Promise<void> {
+    try {
+      if (this.useNativeStore) {
+        await NativeLeadStore.moveLeadStage(id, status);
+        return;
+      }
+
+      await this.updateLead(id, { status });
+    } catch (error) {
+      console.error('Failed to move lead:', error);
+      throw error;
+    }
+  }
+
+  // Every lead in the store, not just the pages loaded so far
+  public async getLeadCount(): Promise<number> {
+    if (this.useNativeStore) {
+      return NativeLeadStore.count();
+    }
+    const leadsJson = await AsyncStorage.getItem(STORAGE_KEYS.LEADS);
+    return leadsJson ? (JSON.parse(leadsJson) as Lead[]).length : 0;
+  }
+
+  // Dashboard totals maintained by the native store; null on the AsyncStorage path, where the
+  // caller counts the loaded leads itself
+  public async getLeadAggregates(): Promise<LeadAggregates | null> {
+    if (!this.useNativeStore) {
+      return null;
+    }
+    return NativeLeadStore.getAggregates();
+  }
+
   public async deleteLead(id: string): Promise<void> {
     try {
+      if (this.useNativeStore) {
+        if (!(await NativeLeadStore.deleteLead(id))) {
+          throw new Error('Lead not found');
+        }
+        await this.deleteCallLogsForLead(parseInt(id));
+        return;
+      }
+      
       const leadsJson = await AsyncStorage.getItem(STORAGE_KEYS.LEADS);
       
       if (!leadsJson) {
@@ -208,6 +385,7 @@ class AsyncStorageService {
       
       // Save updated array
       await AsyncStorage.setItem(STORAGE_KEYS.LEADS, JSON.stringify(filteredLeads));
+      this.notifyLeadsChanged();
       
       // Also remove associated call logs
       await this.deleteCallLogsForLead(parseInt(id));
@@ -219,6 +397,11 @@ class AsyncStorageService {
 
   public async searchLeads(searchQuery: string): Promise<Lead[]> {
     try {
+      if (this.useNativeStore) {
+        // Ranked full-text hits; a lead also matches through its notes and call notes
+        return NativeLeadStore.searchLeads(searchQuery, 50);
+      }
+
       const leads = await this.getLeads(1000, 0); // Get all leads
       const query = searchQuery.toLowerCase();
       
@@ -264,6 +447,12 @@ class AsyncStorageService {
       
       callLogs.push(newCallLog);
       await AsyncStorage.setItem(STORAGE_KEYS.CALL_LOGS, JSON.stringify(callLogs));
+
+      if (this.useNativeStore) {
+        NativeLeadStore.indexCallLogs([newCallLog]).catch(error =>
+          console.error('Failed to index call log for search:', error)
+        );
+      }
       
       // Update lead's last contact date (only if lead_id exists)
       if (callLog.lead_id !== null && callLog.lead_id !== undefined) {
@@ -335,12 +524,24 @@ class AsyncStorageService {
 
   public async clearAllData(): Promise<void> {
     try {
+      if (this.useNativeStore) {
+        // Notes and lead call logs cascade with their leads; unmatched call logs go by id
+        const leads = await NativeLeadStore.getLeads(Number.MAX_SAFE_INTEGER, 0);
+        await NativeLeadStore.applyMutations(leads.map(lead => ({ op: 'delete' as const, id: lead.id })));
+        const callLogs = await this.getCallLogs();
+        await NativeLeadStore.removeCallLogs(callLogs.map(log => log.id).filter((id): id is number => !!id));
+        this.useNativeStore = false;
+      }
+      
       await AsyncStorage.multiRemove([
         STORAGE_KEYS.LEADS,
         STORAGE_KEYS.CALL_LOGS,
         STORAGE_KEYS.IS_INITIALIZED,
         STORAGE_KEYS.NEXT_ID,
+        STORAGE_KEYS.NATIVE_STORE_MIGRATED,
+        STORAGE_KEYS.NATIVE_SEARCH_INDEXED,
       ]);
+      this.notifyLeadsChanged();
       console.log('All data cleared from AsyncStorage');
     } catch (error) {
       console.error('Failed to clear data:', error);
@@ -348,6 +549,23 @@ class AsyncStorageService {
     }
   }
 
+  // Backup and restore of the native store as a file, streamed natively; null on the
+  // AsyncStorage path, where exportData() below is the only export
+  public async exportArchive(onProgress?: (progress: ArchiveProgress) => void): Promise<ArchiveExport | null> {
+    if (!this.useNativeStore) {
+      return null;
+    }
+    return NativeLeadStore.exportArchive(true, onProgress);
+  }
+
+  public async importArchive(path: string, onProgress?: (progress: ArchiveProgress) => void): Promise<ArchiveProgress | null> {
+    if (!this.useNativeStore) {
+      return null;
+    }
+    return NativeLeadStore.importArchive(path, onProgress);
+  }
+
+  // Whole dataset as one object in JS memory; fine for small books, use exportArchive() for backups
   public async exportData(): Promise<{ leads: Lead[], callLogs: CallLog[] }> {
     try {
       const leads = await this.getLeads(1000, 0);
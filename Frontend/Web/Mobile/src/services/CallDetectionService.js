@@ -4,6 +4,9 @@ import OverlayService from './OverlayService';
 import PhoneMatchingService from './PhoneMatchingService';
 import PermissionManager from './PermissionManager';
 import NativeFloatingOverlay from './NativeFloatingOverlay';
+import AsyncStorageService from './AsyncStorageService';
+import NativeLeadSnapshot from './NativeLeadSnapshot';
+import NativeLeadStore from './NativeLeadStore';
 
 class CallDetectionService {
   constructor() {
@@ -15,6 +18,7 @@ class CallDetectionService {
     this.lastCallPhoneNumber = null; // Store phone number from Incoming/Outgoing events
     this.lastMatchResult = null; // Store last match result
     this.nativeOverlayActive = false;
+    this.nativeCallMonitor = false; // true when the overlay follows calls natively
     this.setupNativeOverlayListener();
   }
   
@@ -101,6 +105,16 @@ class CallDetectionService {
 
       this.isRunning = true;
       console.log('✅ Call detection service started successfully');
+      
+      // Let the overlay react to call states natively, without waiting for this JS handler
+      this.nativeCallMonitor = await NativeFloatingOverlay.startCallMonitor();
+      if (!this.nativeCallMonitor) {
+        // Still keep the overlay warm so JS-driven shows skip the cold service start
+        NativeFloatingOverlay.startOverlayStandby();
+      }
+      
+      // Let the native overlay resolve caller names without a JS round trip
+      this.syncCallerIdIndex();
       return true;
     } catch (error) {
       console.error('❌ Error starting call detection service:', error);
@@ -109,6 +123,22 @@ class CallDetectionService {
     }
   }
 
+  async syncCallerIdIndex() {
+    try {
+      if (AsyncStorageService.usesNativeStore()) {
+        // Built natively from the store; the lead book doesn't round-trip through JS
+        await NativeLeadStore.syncCallerIndex();
+        return;
+      }
+      const leads = await AsyncStorageService.getLeads(Number.MAX_SAFE_INTEGER, 0);
+      await NativeFloatingOverlay.updateCallerIdIndex(leads);
+      // Persist a mapped snapshot so the overlay can resolve callers before JS is running
+      await NativeLeadSnapshot.writeSnapshot(leads);
+    } catch (error) {
+      console.error('[CALL_DETECTION] Error syncing caller ID index:', error);
+    }
+  }
+
   stop() {
     try {
       console.log('🛑 Stopping call detection service...');
@@ -118,6 +148,11 @@ class CallDetectionService {
         this.callDetector = null;
       }
       
+      if (this.nativeCallMonitor) {
+        NativeFloatingOverlay.stopCallMonitor();
+        this.nativeCallMonitor = false;
+      }
+      
       this.isRunning = false;
       this.currentCall = null;
       console.log('✅ Call detection service stopped');
@@ -203,6 +238,13 @@ class CallDetectionService {
         hasMatch: false
       };
       
+      // Show the native overlay right away - it resolves the caller name from its own index
+      // (skipped when the native call monitor already showed it from the telephony callback)
+      if (NativeFloatingOverlay.isAvailable() && !this.nativeCallMonitor) {
+        await NativeFloatingOverlay.showFloatingOverlay(effectivePhoneNumber);
+        this.nativeOverlayActive = true;
+      }
+      
       let leadName = 'Unknown Contact';
       if (phoneNumber && phoneNumber.trim()) {
         matchResult = await PhoneMatchingService.matchPhoneToLead(phoneNumber);
@@ -221,7 +263,9 @@ class CallDetectionService {
       console.log('[FLOATING_CALL] 📱 Stored match result for later use:', this.lastMatchResult);
       
       // Show NATIVE overlay over dialer
-      if (NativeFloatingOverlay.isAvailable()) {
+      if (this.nativeCallMonitor) {
+        this.nativeOverlayActive = true;
+      } else if (NativeFloatingOverlay.isAvailable()) {
         console.log('[FLOATING_CALL] 🎯 Showing NATIVE overlay over dialer');
         await NativeFloatingOverlay.showFloatingOverlay(effectivePhoneNumber, leadName);
         this.nativeOverlayActive = true;
@@ -258,6 +302,13 @@ class CallDetectionService {
         hasMatch: false
       };
       
+      // Show the native overlay right away - it resolves the caller name from its own index
+      // (skipped when the native call monitor already showed it from the telephony callback)
+      if (NativeFloatingOverlay.isAvailable() && !this.nativeCallMonitor) {
+        await NativeFloatingOverlay.showFloatingOverlay(effectivePhoneNumber);
+        this.nativeOverlayActive = true;
+      }
+      
       let leadName = 'Unknown Contact';
       if (phoneNumber && phoneNumber.trim()) {
         matchResult = await PhoneMatchingService.matchPhoneToLead(phoneNumber);
@@ -272,7 +323,9 @@ class CallDetectionService {
       }
       
       // Show NATIVE overlay over dialer
-      if (NativeFloatingOverlay.isAvailable()) {
+      if (this.nativeCallMonitor) {
+        this.nativeOverlayActive = true;
+      } else if (NativeFloatingOverlay.isAvailable()) {
         console.log('[FLOATING_CALL] 🎯 Showing NATIVE overlay over dialer');
         await NativeFloatingOverlay.showFloatingOverlay(effectivePhoneNumber, leadName);
         this.nativeOverlayActive = true;
@@ -331,7 +384,9 @@ class CallDetectionService {
         }
         
         // Show NATIVE overlay over dialer FIRST
-        if (NativeFloatingOverlay.isAvailable()) {
+        if (this.nativeCallMonitor) {
+          this.nativeOverlayActive = true;
+        } else if (NativeFloatingOverlay.isAvailable()) {
           console.log('[FLOATING_CALL] 🎯 Showing NATIVE overlay over dialer from handleCallAnswered');
           await NativeFloatingOverlay.showFloatingOverlay(effectivePhoneNumber, leadName);
           this.nativeOverlayActive = true;
@@ -360,8 +415,8 @@ class CallDetectionService {
   handleCallEnded(phoneNumber) {
     console.log('📴 Call ended with:', phoneNumber);
     
-    // Hide native overlay
-    if (this.nativeOverlayActive && NativeFloatingOverlay.isAvailable()) {
+    // Hide native overlay (the native call monitor detaches the bubble itself on Disconnected)
+    if (this.nativeOverlayActive && !this.nativeCallMonitor && NativeFloatingOverlay.isAvailable()) {
       console.log('[FLOATING_CALL] Hiding native overlay after call ended');
       NativeFloatingOverlay.hideFloatingOverlay();
       this.nativeOverlayActive = false;
@@ -521,6 +576,7 @@ class CallDetectionService {
     return {
       isRunning: this.isRunning,
       hasDetector: !!this.callDetector,
+      nativeCallMonitor: this.nativeCallMonitor,
       currentCall: this.currentCall,
       floatingCallManager: !!this.floatingCallManager,
       callStartTime: this.callStartTime,
@@ -2,11 +2,24 @@ import { Linking, Alert, Vibration } from 'react-native';
 import AsyncStorageService from './AsyncStorageService';
 import { PhoneUtils } from '../utils/phoneUtils';
 import { T9Search } from '../utils/t9Utils';
+import NativeT9Search from './NativeT9Search';
 
 class DialerService {
   constructor() {
     this.recentCalls = [];
     this.callHistory = [];
+    // AsyncStorage path only: the leads pushed to the native T9 index, by id
+    this.t9LeadsById = null;
+    this.t9Build = null;
+    this.t9Building = false;
+    this.t9Stale = false;
+    // The native store keeps its T9 index current itself; the JSON book is re-pushed after writes
+    AsyncStorageService.onLeadsChanged(() => {
+      this.t9Stale = true;
+      if (this.t9Build && !this.t9Building) {
+        this.startT9Build();
+      }
+    });
   }
 
   /**
@@ -126,7 +139,7 @@ class DialerService {
   /**
    * Search leads using T9 algorithm
    * @param {string} input - T9 input string
-   * @returns {Promise<Array>} - Array of matching leads
+   * @returns {Promise<Array|null>} - Array of matching leads, or null if a newer search superseded this one
    */
   async searchLeads(input) {
     try {
@@ -135,6 +148,14 @@ class DialerService {
       }
 
       console.log('🔍 Searching leads with T9 input:', input);
+
+      if (NativeT9Search.isAvailable()) {
+        try {
+          return await this.searchLeadsNative(input);
+        } catch (error) {
+          console.error('❌ Native T9 search failed, falling back to JS:', error);
+        }
+      }
       
       // Get all leads from database
       const allLeads = await AsyncStorageService.getLeads(500, 0); // Get more leads for better search
@@ -151,6 +172,68 @@ class DialerService {
     }
   }
 
+  /**
+   * Build the native T9 index before the first keystroke; the dialer calls this when it opens.
+   * Later lead writes update the index in the background, never on a keystroke.
+   * @returns {Promise<void>} - Resolves once the first index is built
+   */
+  prepareSearch() {
+    if (!NativeT9Search.isAvailable()) {
+      return Promise.resolve();
+    }
+    return this.t9Build || this.startT9Build();
+  }
+
+  startT9Build() {
+    this.t9Building = true;
+    this.t9Build = this.buildT9Index().then(
+      () => {
+        this.t9Building = false;
+      },
+      error => {
+        // The next search tries again
+        this.t9Building = false;
+        this.t9Build = null;
+        throw error;
+      });
+    return this.t9Build;
+  }
+
+  async buildT9Index() {
+    if (AsyncStorageService.usesNativeStore()) {
+      // Built natively from the store and rebuilt after every commit that writes leads
+      await NativeT9Search.syncFromStore();
+      this.t9LeadsById = null;
+      return;
+    }
+    do {
+      this.t9Stale = false;
+      const allLeads = await AsyncStorageService.getLeads(Number.MAX_SAFE_INTEGER, 0);
+      await NativeT9Search.setLeads(allLeads);
+      this.t9LeadsById = new Map(allLeads.map(lead => [String(lead.id), lead]));
+    } while (this.t9Stale);
+  }
+
+  /**
+   * T9 search on the native index. Only a search before prepareSearch() finished waits for the build.
+   * @param {string} input - T9 input string
+   * @returns {Promise<Array|null>} - Array of matching leads, or null if superseded
+   */
+  async searchLeadsNative(input) {
+    await this.prepareSearch();
+
+    const ids = await NativeT9Search.search(input, 8);
+    if (ids === null) {
+      return null;
+    }
+
+    const matches = this.t9LeadsById
+      ? ids.map(id => this.t9LeadsById.get(id)).filter(Boolean)
+      : (await Promise.all(ids.map(id => AsyncStorageService.getLeadById(id)))).filter(Boolean);
+    console.log(`📋 Found ${matches.length} native T9 matches for "${input}"`);
+    return matches;
+  }
+
   /**
    * Get recent calls from database
    * @param {number} limit - Number of recent calls to retrieve
@@ -4,7 +4,77 @@ interface FloatingOverlayModule {
   showFloatingOverlay(phoneNumber: string, leadName: string): Promise<string>;
   hideFloatingOverlay(): Promise<string>;
   stopFloatingOverlay(): Promise<string>;
-  testBroadcast(): Promise<string>;
+  startOverlayStandby(): Promise<boolean>;
+  getOverlayShowStats(): Promise<OverlayShowStats>;
+  getOverlayAnimationStats(): Promise<OverlayAnimationStats>;
+  startCallMonitor(): Promise<boolean>;
+  stopCallMonitor(): Promise<boolean>;
+  testBroadcast(): Promise<DispatchLatency>;
+  updateCallerIdIndex(phones: string[], leadIds: string[], names: string[]): Promise<number>;
+  dumpNativeLog(): Promise<string[]>;
+  getEventBusStats(): Promise<EventBusStats>;
+  setEventBatchWindow(windowMs: number): void;
+  getBridgeStats(): Promise<BridgeStats>;
+}
+
+export interface OverlayEvent {
+  type: 'click' | 'action' | 'tabChanged' | 'callState';
+  sequence: number;
+  name: string | null;
+  value: string | null;
+}
+
+// The same test click sent from the main thread through each path, timed until its batch is
+// emitted to JS: eventBusLatencyMs through the event bus, broadcastLatencyMs as a package-local broadcast
+interface DispatchLatency {
+  eventBusLatencyMs: number;
+  broadcastLatencyMs: number;
+}
+
+interface BridgeStats {
+  eventsQueued: number;
+  eventsCoalesced: number;
+  eventsEmitted: number;
+  batchesEmitted: number;
+  batchWindowMs: number;
+}
+
+interface OverlayShowStats {
+  coldShows: number;
+  coldAverageMs: number;
+  coldMaxMs: number;
+  warmShows: number;
+  warmAverageMs: number;
+  warmMaxMs: number;
+  lastShowMs: number;
+  lastShowCold: boolean;
+  memoryTrims: number;
+  expandedViews: number; // views in the expanded overlay tree; 0 until it is first built
+}
+
+interface OverlayAnimationStats {
+  activeAnimators: number; // pulse clock + slide-in; 0 while nothing is on screen or the screen is off
+  pulseViews: number;
+  visiblePulseViews: number;
+  screenOn: boolean;
+  frames: number;
+  pauses: number;
+  resumes: number;
+  slides: number;
+}
+
+interface EventBusStats {
+  delivered: number;
+  dropped: number;
+  pending: number;
+  averageLatencyMs: number;
+  maxLatencyMs: number;
+}
+
+interface CallerIdEntry {
+  id: string;
+  name: string;
+  phone?: string;
 }
 
 const { FloatingOverlayModule, SimpleFloatingModule } = NativeModules;
@@ -105,6 +175,130 @@ class NativeFloatingOverlayService {
     }
   }
 
+  /**
+   * Keep the overlay service running in the foreground with the bubble built
+   * but hidden, so the next show only attaches and binds data
+   */
+  async startOverlayStandby(): Promise<boolean> {
+    if (!this.isModuleAvailable || !FloatingOverlayModule) {
+      return false;
+    }
+    
+    try {
+      return await FloatingOverlayModule.startOverlayStandby();
+    } catch (error) {
+      console.error('[NATIVE_OVERLAY] ❌ Error starting overlay standby:', error);
+      return false;
+    }
+  }
+
+  /**
+   * Cold vs warm show-to-first-frame latency of the bubble
+   */
+  async getOverlayShowStats(): Promise<OverlayShowStats | null> {
+    if (!this.isModuleAvailable || !FloatingOverlayModule) {
+      return null;
+    }
+    
+    try {
+      return await FloatingOverlayModule.getOverlayShowStats();
+    } catch (error) {
+      console.error('[NATIVE_OVERLAY] ❌ Error reading overlay show stats:', error);
+      return null;
+    }
+  }
+
+  async getOverlayAnimationStats(): Promise<OverlayAnimationStats | null> {
+    if (!this.isModuleAvailable || !FloatingOverlayModule) {
+      return null;
+    }
+    
+    try {
+      return await FloatingOverlayModule.getOverlayAnimationStats();
+    } catch (error) {
+      console.error('[NATIVE_OVERLAY] ❌ Error reading overlay animation stats:', error);
+      return null;
+    }
+  }
+
+  /**
+   * Start the native call-state listener. The overlay then follows incoming and
+   * outgoing calls by itself; JS keeps its own call detection for its call logs.
+   * Resolves false when READ_PHONE_STATE is not granted.
+   */
+  async startCallMonitor(): Promise<boolean> {
+    if (!this.isModuleAvailable || !FloatingOverlayModule) {
+      return false;
+    }
+    
+    try {
+      const started = await FloatingOverlayModule.startCallMonitor();
+      console.log('[NATIVE_OVERLAY] 📞 Native call monitor started:', started);
+      return started;
+    } catch (error) {
+      console.error('[NATIVE_OVERLAY] ❌ Error starting native call monitor:', error);
+      return false;
+    }
+  }
+
+  async stopCallMonitor(): Promise<boolean> {
+    if (!this.isModuleAvailable || !FloatingOverlayModule) {
+      return false;
+    }
+    
+    try {
+      return await FloatingOverlayModule.stopCallMonitor();
+    } catch (error) {
+      console.error('[NATIVE_OVERLAY] ❌ Error stopping native call monitor:', error);
+      return false;
+    }
+  }
+
+  /**
+   * Push the lead book to the native caller-ID index so the overlay can
+   * resolve the caller name without waiting for JS phone matching
+   */
+  async updateCallerIdIndex(leads: CallerIdEntry[]): Promise<number> {
+    if (!this.isModuleAvailable || !FloatingOverlayModule) {
+      return 0;
+    }
+    
+    try {
+      const phones: string[] = [];
+      const leadIds: string[] = [];
+      const names: string[] = [];
+      for (const lead of leads) {
+        if (!lead.phone) continue;
+        phones.push(lead.phone);
+        leadIds.push(lead.id);
+        names.push(lead.name);
+      }
+      
+      const indexed = await FloatingOverlayModule.updateCallerIdIndex(phones, leadIds, names);
+      console.log('[NATIVE_OVERLAY] ✅ Caller ID index updated:', indexed, 'numbers');
+      return indexed;
+    } catch (error) {
+      console.error('[NATIVE_OVERLAY] ❌ Error updating caller ID index:', error);
+      return 0;
+    }
+  }
+
+  /**
+   * Recent native overlay log lines kept in memory (release builds included)
+   */
+  async dumpNativeLog(): Promise<string[]> {
+    if (!this.isModuleAvailable || !FloatingOverlayModule) {
+      return [];
+    }
+    
+    try {
+      return await FloatingOverlayModule.dumpNativeLog();
+    } catch (error) {
+      console.error('[NATIVE_OVERLAY] ❌ Error dumping native log:', error);
+      return [];
+    }
+  }
+
   /**
    * Listen for overlay click events
    */
@@ -129,10 +323,11 @@ class NativeFloatingOverlayService {
       console.log('[NATIVE_OVERLAY] ✅ Event emitter test successful');
       
       // Set up the actual listener
-      console.log('[NATIVE_OVERLAY] 📡 Adding listener for "FloatingOverlayClicked" event');
+      // Native ships overlay events in batches; pick the clicks out of each one
+      console.log('[NATIVE_OVERLAY] 📡 Adding listener for "FloatingOverlayEvents" batches');
       this.overlayClickListener = this.eventEmitter.addListener(
-        'FloatingOverlayClicked',
-        (data) => {
+        'FloatingOverlayEvents',
+        (batch: OverlayEvent[]) => batch.filter(event => event.type === 'click').forEach((data) => {
           console.log('[NATIVE_OVERLAY] 🎯 ========================================');
           console.log('[NATIVE_OVERLAY] 🎯 FLOATING OVERLAY CLICKED EVENT RECEIVED!');
           console.log('[NATIVE_OVERLAY] 🎯 This means the native->RN communication is working!');
@@ -147,7 +342,7 @@ class NativeFloatingOverlayService {
           } catch (error) {
             console.error('[NATIVE_OVERLAY] ❌ Error in callback:', error);
           }
-        }
+        })
       );
       
       console.log('[NATIVE_OVERLAY] ✅ Overlay click listener set up successfully');
@@ -169,6 +364,56 @@ class NativeFloatingOverlayService {
     };
   }
 
+  /**
+   * Listen for all typed overlay events (clicks, action buttons, tab changes, call state)
+   */
+  onOverlayEvent(callback: (event: OverlayEvent) => void): () => void {
+    if (!this.isModuleAvailable || !this.eventEmitter) {
+      return () => {};
+    }
+    
+    const subscription = this.eventEmitter.addListener(
+      'FloatingOverlayEvents',
+      (batch: OverlayEvent[]) => batch.forEach(callback)
+    );
+    return () => subscription.remove();
+  }
+
+  /**
+   * Batch overlay events natively for windowMs before crossing the bridge (0 = once per frame)
+   */
+  setEventBatchWindow(windowMs: number): void {
+    if (this.isModuleAvailable && FloatingOverlayModule) {
+      FloatingOverlayModule.setEventBatchWindow(windowMs);
+    }
+  }
+
+  async getBridgeStats(): Promise<BridgeStats | null> {
+    if (!this.isModuleAvailable || !FloatingOverlayModule) {
+      return null;
+    }
+    
+    try {
+      return await FloatingOverlayModule.getBridgeStats();
+    } catch (error) {
+      console.error('[NATIVE_OVERLAY] ❌ Error reading bridge stats:', error);
+      return null;
+    }
+  }
+
+  async getEventBusStats(): Promise<EventBusStats | null> {
+    if (!this.isModuleAvailable || !FloatingOverlayModule) {
+      return null;
+    }
+    
+    try {
+      return await FloatingOverlayModule.getEventBusStats();
+    } catch (error) {
+      console.error('[NATIVE_OVERLAY] ❌ Error reading event bus stats:', error);
+      return null;
+    }
+  }
+
   /**
    * Test broadcast communication (for debugging)
    */
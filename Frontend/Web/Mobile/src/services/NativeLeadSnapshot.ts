@@ -0,0 +1,91 @@
+import { NativeModules } from 'react-native';
+import { Lead } from '../types/Lead';
+
+interface SnapshotLead {
+  id: string;
+  name: string | null;
+  company: string | null;
+  stage: string | null;
+  lastContactAt: number | null;
+}
+
+interface SnapshotInfo {
+  exists: boolean;
+  version: number;
+  leadCount: number;
+  sizeBytes: number;
+  writtenAt: number;
+}
+
+const { LeadSnapshotModule } = NativeModules;
+
+class NativeLeadSnapshotService {
+  isAvailable(): boolean {
+    return !!LeadSnapshotModule;
+  }
+
+  /**
+   * Write the binary lead snapshot that the native overlay reads via mmap
+   */
+  async writeSnapshot(leads: Lead[]): Promise<number> {
+    if (!LeadSnapshotModule) {
+      return 0;
+    }
+
+    try {
+      const columns = {
+        phones: [] as string[],
+        ids: [] as string[],
+        names: [] as string[],
+        companies: [] as (string | null)[],
+        stages: [] as string[],
+        lastContacts: [] as number[],
+      };
+
+      for (const lead of leads) {
+        if (!lead.phone) continue;
+        columns.phones.push(lead.phone);
+        columns.ids.push(lead.id);
+        columns.names.push(lead.name);
+        columns.companies.push(lead.company || null);
+        columns.stages.push(lead.status);
+        columns.lastContacts.push(lead.lastContactedAt ? new Date(lead.lastContactedAt).getTime() : 0);
+      }
+
+      const written = await LeadSnapshotModule.writeSnapshot(columns);
+      console.log('[LEAD_SNAPSHOT] ✅ Snapshot written:', written, 'leads');
+      return written;
+    } catch (error) {
+      console.error('[LEAD_SNAPSHOT] ❌ Error writing snapshot:', error);
+      return 0;
+    }
+  }
+
+  async lookupLead(phoneNumber: string): Promise<SnapshotLead | null> {
+    if (!LeadSnapshotModule) {
+      return null;
+    }
+
+    try {
+      return await LeadSnapshotModule.lookupLead(phoneNumber);
+    } catch (error) {
+      console.error('[LEAD_SNAPSHOT] ❌ Error looking up lead:', error);
+      return null;
+    }
+  }
+
+  async getSnapshotInfo(): Promise<SnapshotInfo | null> {
+    if (!LeadSnapshotModule) {
+      return null;
+    }
+
+    try {
+      return await LeadSnapshotModule.getSnapshotInfo();
+    } catch (error) {
+      console.error('[LEAD_SNAPSHOT] ❌ Error reading snapshot info:', error);
+      return null;
+    }
+  }
+}
+
+export default new NativeLeadSnapshotService();
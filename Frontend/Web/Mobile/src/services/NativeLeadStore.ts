@@ -0,0 +1,517 @@
+import { NativeModules, NativeEventEmitter, EmitterSubscription, PermissionsAndroid } from 'react-native';
+import { Lead } from '../types/Lead';
+import { Note } from '../types/notes';
+
+export type LeadMutation =
+  | { op: 'insert'; id?: string; fields: Partial<Lead> }
+  | { op: 'update'; id: string; fields: Partial<Lead> }
+  | { op: 'delete'; id: string };
+
+export type LeadPageOrder = 'created' | 'stage' | 'followUp' | 'rank';
+
+export interface LeadPageQuery {
+  order: LeadPageOrder;
+  stage?: string; // required for 'stage' and 'rank'
+  limit?: number;
+  cursor?: string | null; // from the previous page; omit for the first
+}
+
+// Columnar page: index i of every array belongs to the lead ids[i]
+export interface LeadPage {
+  ids: string[];
+  name: string[];
+  company: (string | null)[];
+  phone: (string | null)[];
+  email: (string | null)[];
+  position: (string | null)[];
+  source: (string | null)[];
+  status: (string | null)[];
+  priority: (string | null)[];
+  value: (number | null)[];
+  nextFollowUpAt: (number | null)[];
+  createdAt: number[];
+  updatedAt: number[];
+  cursor: string | null; // null on the last page
+}
+
+export interface SearchHit {
+  type: 'lead' | 'note' | 'callLog';
+  id: string; // lead id, note id or call log id
+  leadId: string | null;
+  leadName: string | null;
+  snippet: string | null; // matched terms wrapped in \u0002 ... \u0003, see splitSnippet
+  score: number; // bm25, higher is better
+}
+
+interface IndexedCallLog {
+  id?: number;
+  lead_id?: number | null;
+  phone_number: string;
+  call_type: string;
+  call_status?: string;
+  duration: number;
+  started_at: Date;
+  ended_at?: Date;
+  notes?: string;
+}
+
+interface CallLogSyncResult {
+  rowsRead: number;
+  rowsWritten: number;
+  rowsMatched: number;
+  elapsedMs: number;
+}
+
+interface CallLogSyncStatus {
+  permitted: boolean;
+  observing: boolean; // the overlay service watches the device call log
+  watermarkId: number;
+  lastSyncAt: number;
+  totalWritten: number;
+  lastError: string | null;
+  lastResult?: CallLogSyncResult;
+}
+
+export interface ContactImportProgress {
+  rowsRead: number;
+  rowsTotal: number; // contact data rows (phones, emails, organizations), -1 if unknown
+  contactsRead: number;
+  inserted: number; // new leads
+  matched: number; // number already on a lead; its blank email / company / position filled in
+  duplicates: number; // every number already imported from an earlier contact
+  withoutPhone: number;
+  cancelled: boolean;
+  elapsedMs: number;
+}
+
+export interface ArchiveProgress {
+  rows: number; // rows written (export) or committed (import) so far
+  chunks: number;
+  skippedChunks: number; // import: committed by an earlier, interrupted run of the same file
+  bytes: number; // export result: archive size
+  elapsedMs: number;
+  rowsPerSec: number;
+}
+
+export interface ArchiveExport extends ArchiveProgress {
+  path: string;
+}
+
+interface LeadStoreStats {
+  mutations: number;
+  batches: number;
+  transactions: number;
+  retriedGroups: number;
+  maxGroupSize: number;
+  statementCacheHits: number;
+  statementCacheMisses: number;
+  groupCommitWindowMs: number;
+  rankMoves: number;
+  rankRebalances: number;
+  rankInlineRebalances: number; // moves that found no gap and rebalanced first
+  rankRebalancedRows: number;
+}
+
+export interface LeadAggregates {
+  stages: { status: Lead['status'] | ''; count: number; value: number }[]; // '' = no stage
+  callsToday: number;
+  missedCallsToday: number;
+  talkSecondsToday: number;
+  followUpsOverdue: number;
+  followUpsToday: number;
+  tasksOverdue: number; // open tasks due before today
+  tasksToday: number;
+}
+
+interface ReminderStats {
+  scheduled: number; // follow-ups and open tasks due within the next 7 days
+  armedAt: number | null; // epoch ms of the single armed alarm
+  exact: boolean; // false when Android 12+ denies exact alarms
+  loadedItems: number;
+  loadMs: number;
+  outboxApplied: number; // row changes applied to the wheel without a rescan
+  rearms: number;
+  alarms: number;
+  announced: number;
+  lastFireLagMs: number;
+  maxFireLagMs: number;
+}
+
+interface StageMoveStats {
+  depth: number; // leads waiting for the next flush
+  inFlight: number; // flushes handed to the writer, not committed yet
+  moves: number;
+  coalesced: number; // moves replaced by a later move of the same lead before flushing
+  flushedMoves: number;
+  flushes: number;
+  failedFlushes: number;
+  recovered: number; // moves replayed from the journal at startup
+  lastFlushMs: number;
+  maxFlushMs: number;
+  averageFlushMs: number;
+  lastLagMs: number; // oldest move of the last flush, queued to committed
+  maxLagMs: number;
+}
+
+const { LeadStoreModule } = NativeModules;
+
+const DATE_FIELDS = ['createdAt', 'updatedAt', 'lastContactedAt', 'nextFollowUpAt'] as const;
+
+// Dates cross the bridge as epoch milliseconds, tags as a JSON array
+const toNativeFields = (fields: Partial<Lead>): Record<string, unknown> => {
+  const nativeFields: Record<string, unknown> = {};
+  for (const [key, value] of Object.entries(fields)) {
+    if (value === undefined || key === 'id') continue;
+    if (value instanceof Date) {
+      nativeFields[key] = value.getTime();
+    } else if ((DATE_FIELDS as readonly string[]).includes(key) && value !== null) {
+      nativeFields[key] = new Date(value as string).getTime();
+    } else if (key === 'tags') {
+      nativeFields[key] = value === null ? null : JSON.stringify(value);
+    } else {
+      nativeFields[key] = value;
+    }
+  }
+  return nativeFields;
+};
+
+const fromNativeLead = (row: any): Lead => ({
+  ...row,
+  tags: row.tags ? JSON.parse(row.tags) : [],
+  createdAt: new Date(row.createdAt),
+  updatedAt: new Date(row.updatedAt),
+  lastContactedAt: row.lastContactedAt ? new Date(row.lastContactedAt) : undefined,
+  nextFollowUpAt: row.nextFollowUpAt ? new Date(row.nextFollowUpAt) : undefined,
+});
+
+// Card-level Lead objects from a page; notes, tags and the remaining fields load with the detail view
+export const leadsFromPage = (page: LeadPage): Lead[] =>
+  page.ids.map((id, i) => ({
+    id,
+    name: page.name[i],
+    company: page.company[i] ?? undefined,
+    phone: page.phone[i] ?? undefined,
+    email: page.email[i] ?? undefined,
+    position: page.position[i] ?? undefined,
+    source: (page.source[i] ?? 'manual') as Lead['source'],
+    status: page.status[i] as Lead['status'],
+    priority: page.priority[i] as Lead['priority'],
+    value: page.value[i] ?? undefined,
+    nextFollowUpAt: page.nextFollowUpAt[i] ? new Date(page.nextFollowUpAt[i] as number) : undefined,
+    createdAt: new Date(page.createdAt[i]),
+    updatedAt: new Date(page.updatedAt[i]),
+  }));
+
+// Snippet text split into plain and matched runs, for highlighting
+export const splitSnippet = (snippet: string): { text: string; match: boolean }[] =>
+  snippet
+    .split('\u0002')
+    .flatMap((part, i) => {
+      if (i === 0) return [{ text: part, match: false }];
+      const [matched, rest = ''] = part.split('\u0003');
+      return [{ text: matched, match: true }, { text: rest, match: false }];
+    })
+    .filter(run => run.text.length > 0);
+
+class NativeLeadStoreService {
+  private eventEmitter: NativeEventEmitter | null = LeadStoreModule ? new NativeEventEmitter(LeadStoreModule) : null;
+
+  isAvailable(): boolean {
+    return !!LeadStoreModule;
+  }
+
+  /**
+   * Apply a batch of lead mutations atomically. Batches issued close together are
+   * group-committed natively. Resolves the new id (insert) or rows changed per mutation.
+   */
+  async applyMutations(mutations: LeadMutation[]): Promise<number[]> {
+    const operations = mutations.map(mutation => ({
+      op: mutation.op,
+      id: mutation.id ?? null,
+      fields: mutation.op === 'delete' ? null : toNativeFields(mutation.fields),
+    }));
+    return LeadStoreModule.applyMutations(operations);
+  }
+
+  async createLead(lead: Omit<Lead, 'id'>): Promise<number> {
+    const [id] = await this.applyMutations([{ op: 'insert', fields: lead }]);
+    return id;
+  }
+
+  async updateLead(id: string, updates: Partial<Lead>): Promise<boolean> {
+    const [changed] = await this.applyMutations([{ op: 'update', id, fields: updates }]);
+    return changed > 0;
+  }
+
+  /**
+   * Write-behind stage change for pipeline drag and drop: resolves once the move is journaled
+   * natively and is committed shortly after, coalesced with other moves of the same lead.
+   */
+  async moveLeadStage(id: string, status: Lead['status'], movedAt: Date = new Date()): Promise<void> {
+    await LeadStoreModule.moveLeadStage(id, status, movedAt.getTime());
+  }
+
+  /**
+   * Manual order inside a pipeline column: puts the lead in `status`'s column right after
+   * afterId, or at the top when afterId is null. Only the moved lead is written. Read the column
+   * back in this order with queryPage({ order: 'rank', stage }).
+   */
+  async moveLeadRank(id: string, status: Lead['status'], afterId: string | null): Promise<boolean> {
+    return LeadStoreModule.moveLeadRank(id, status, afterId);
+  }
+
+  async deleteLead(id: string): Promise<boolean> {
+    const [changed] = await this.applyMutations([{ op: 'delete', id }]);
+    return changed > 0;
+  }
+
+  async getLead(id: string): Promise<Lead | null> {
+    const row = await LeadStoreModule.getLead(id);
+    return row ? fromNativeLead(row) : null;
+  }
+
+  async getLeads(limit: number, offset: number): Promise<Lead[]> {
+    const rows = await LeadStoreModule.getLeads(limit, offset);
+    return rows.map(fromNativeLead);
+  }
+
+  /**
+   * Rebuild the overlay's caller-ID index and the lead snapshot natively from the store.
+   * Resolves the number of indexed phone numbers.
+   */
+  async syncCallerIndex(): Promise<number> {
+    return LeadStoreModule.syncCallerIndex();
+  }
+
+  /**
+   * Keyset-paginated read. Every page costs the same however deep the list is scrolled;
+   * pass the returned cursor to get the next one.
+   */
+  async queryPage(query: LeadPageQuery): Promise<LeadPage> {
+    return LeadStoreModule.queryLeadPage({
+      order: query.order,
+      stage: query.stage ?? null,
+      limit: query.limit ?? 50,
+      cursor: query.cursor ?? null,
+    });
+  }
+
+  /**
+   * Ranked type-ahead search over lead fields, notes and call-log notes in one native call.
+   * Each whitespace-separated term matches as a prefix.
+   */
+  async search(query: string, limit = 20): Promise<SearchHit[]> {
+    return LeadStoreModule.search(query, limit);
+  }
+
+  /**
+   * The leads behind the best `limit` search hits, each once and best first, read in the same
+   * native call as the search.
+   */
+  async searchLeads(query: string, limit = 20): Promise<Lead[]> {
+    const rows = await LeadStoreModule.searchLeads(query, limit);
+    return rows.map(fromNativeLead);
+  }
+
+  // Mirror NotesService notes into the native notes table (replacing same-id notes) for search
+  async indexNotes(notes: Note[]): Promise<void> {
+    if (notes.length === 0) return;
+    await LeadStoreModule.indexNotes(
+      notes.map(note => ({
+        id: note.id,
+        leadId: note.leadId,
+        content: note.content,
+        tag: note.tag,
+        createdBy: note.createdBy ?? null,
+        createdAt: new Date(note.createdAt).getTime(),
+      }))
+    );
+  }
+
+  async removeNotes(noteIds: string[]): Promise<void> {
+    if (noteIds.length === 0) return;
+    await LeadStoreModule.removeNotes(noteIds);
+  }
+
+  // Mirror call logs (the AsyncStorage copy stays authoritative) so their notes are searchable
+  async indexCallLogs(callLogs: IndexedCallLog[]): Promise<void> {
+    if (callLogs.length === 0) return;
+    await LeadStoreModule.indexCallLogs(
+      callLogs.map(log => ({
+        ...log,
+        lead_id: log.lead_id ?? null,
+        started_at: new Date(log.started_at).getTime(),
+        ended_at: log.ended_at ? new Date(log.ended_at).getTime() : null,
+      }))
+    );
+  }
+
+  async removeCallLogs(callLogIds: number[]): Promise<void> {
+    if (callLogIds.length === 0) return;
+    await LeadStoreModule.removeCallLogs(callLogIds);
+  }
+
+  /**
+   * Copy device call-log rows newer than the sync watermark into call_logs, matched to leads by
+   * number. Resolves null without READ_CALL_LOG.
+   */
+  async syncCallLog(): Promise<CallLogSyncResult | null> {
+    return LeadStoreModule.syncCallLog();
+  }
+
+  async getCallLogSyncStatus(): Promise<CallLogSyncStatus | null> {
+    if (!LeadStoreModule) {
+      return null;
+    }
+
+    try {
+      return await LeadStoreModule.getCallLogSyncStatus();
+    } catch (error) {
+      console.error('[LEAD_STORE] ❌ Error reading call log sync status:', error);
+      return null;
+    }
+  }
+
+  /**
+   * Import the device address book as leads natively (the rows never cross the bridge).
+   * onProgress is called at most four times a second; cancelContactImport() stops the import
+   * and it resolves with cancelled: true. Resolves null without the READ_CONTACTS permission.
+   */
+  async importContacts(onProgress?: (progress: ContactImportProgress) => void): Promise<ContactImportProgress | null> {
+    const granted = await PermissionsAndroid.request(PermissionsAndroid.PERMISSIONS.READ_CONTACTS);
+    if (granted !== PermissionsAndroid.RESULTS.GRANTED) {
+      console.log('[LEAD_STORE] ⚠️ READ_CONTACTS denied, skipping contact import');
+      return null;
+    }
+
+    let subscription: EmitterSubscription | undefined;
+    if (onProgress && this.eventEmitter) {
+      subscription = this.eventEmitter.addListener('LeadStoreImportProgress', onProgress);
+    }
+    try {
+      const result: ContactImportProgress = await LeadStoreModule.importContacts();
+      console.log('[LEAD_STORE] 📇 Contact import:', result);
+      return result;
+    } finally {
+      subscription?.remove();
+    }
+  }
+
+  /**
+   * Backup: streams every lead, call log, note, label and task to a new archive file natively
+   * (chunked NDJSON with checksums, gzipped by default). Nothing crosses the bridge but progress.
+   */
+  async exportArchive(gzip = true, onProgress?: (progress: ArchiveProgress) => void): Promise<ArchiveExport> {
+    let subscription: EmitterSubscription | undefined;
+    if (onProgress && this.eventEmitter) {
+      subscription = this.eventEmitter.addListener('LeadStoreArchiveProgress', onProgress);
+    }
+    try {
+      const result: ArchiveExport = await LeadStoreModule.exportArchive(gzip);
+      console.log('[LEAD_STORE] 📦 Archive export:', result);
+      return result;
+    } finally {
+      subscription?.remove();
+    }
+  }
+
+  /**
+   * Restore: replaces the store's data with the archive at path. If an import of the same file
+   * was interrupted, this resumes it (skippedChunks > 0).
+   */
+  async importArchive(path: string, onProgress?: (progress: ArchiveProgress) => void): Promise<ArchiveProgress> {
+    let subscription: EmitterSubscription | undefined;
+    if (onProgress && this.eventEmitter) {
+      subscription = this.eventEmitter.addListener('LeadStoreArchiveProgress', onProgress);
+    }
+    try {
+      const result: ArchiveProgress = await LeadStoreModule.importArchive(path);
+      console.log('[LEAD_STORE] 📦 Archive import:', result);
+      return result;
+    } finally {
+      subscription?.remove();
+    }
+  }
+
+  cancelContactImport(): void {
+    LeadStoreModule?.cancelContactImport();
+  }
+
+  async count(): Promise<number> {
+    return LeadStoreModule.count();
+  }
+
+  setGroupCommitWindow(windowMs: number): void {
+    LeadStoreModule?.setGroupCommitWindow(windowMs);
+  }
+
+  async getStats(): Promise<LeadStoreStats | null> {
+    if (!LeadStoreModule) {
+      return null;
+    }
+
+    try {
+      return await LeadStoreModule.getStats();
+    } catch (error) {
+      console.error('[LEAD_STORE] ❌ Error reading stats:', error);
+      return null;
+    }
+  }
+
+  /**
+   * Dashboard and pipeline header totals, kept current by triggers on every write; the cost of
+   * the read doesn't grow with the number of leads, calls or tasks
+   */
+  async getAggregates(): Promise<LeadAggregates | null> {
+    if (!LeadStoreModule) {
+      return null;
+    }
+
+    try {
+      return await LeadStoreModule.getAggregates();
+    } catch (error) {
+      console.error('[LEAD_STORE] ❌ Error reading aggregates:', error);
+      return null;
+    }
+  }
+
+  /**
+   * Compares the aggregates with a full recompute; resolves the number of differing rows (0 when
+   * consistent). With rebuild, recomputes them afterwards.
+   */
+  async verifyAggregates(rebuild = false): Promise<number> {
+    const mismatches: number = await LeadStoreModule.verifyAggregates(rebuild);
+    if (mismatches > 0) {
+      console.warn('[LEAD_STORE] ⚠️ Aggregates differ from a recompute:', mismatches);
+    }
+    return mismatches;
+  }
+
+  async getReminderStats(): Promise<ReminderStats | null> {
+    if (!LeadStoreModule) {
+      return null;
+    }
+
+    try {
+      return await LeadStoreModule.getReminderStats();
+    } catch (error) {
+      console.error('[LEAD_STORE] ❌ Error reading reminder stats:', error);
+      return null;
+    }
+  }
+
+  async getStageMoveStats(): Promise<StageMoveStats | null> {
+    if (!LeadStoreModule) {
+      return null;
+    }
+
+    try {
+      return await LeadStoreModule.getStageMoveStats();
+    } catch (error) {
+      console.error('[LEAD_STORE] ❌ Error reading stage move stats:', error);
+      return null;
+    }
+  }
+}
+
+export default new NativeLeadStoreService();
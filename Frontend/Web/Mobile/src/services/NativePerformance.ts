@@ -0,0 +1,119 @@
+import { NativeModules } from 'react-native';
+
+const { PerformanceModule } = NativeModules;
+
+export type ModuleInit = 'lazy' | 'eager';
+
+interface StartupEntry {
+  name: string; // e.g. soloader_init, create_packages, react_context, module:LeadStoreModule, first_js_frame
+  atMs: number; // since process start
+  durationMs: number | null; // null for a point in time
+}
+
+interface StartupReport {
+  modules: ModuleInit;
+  firstFrameMs: number | null;
+  entries: StartupEntry[];
+  history: { modules: ModuleInit; firstFrameMs: number }[]; // previous cold starts, most recent first
+}
+
+interface LatencySummary {
+  count: number;
+  meanMs: number;
+  p50Ms: number; // percentiles are histogram bucket bounds, at most 6.25% above the true value
+  p95Ms: number;
+  p99Ms: number;
+  maxMs: number;
+}
+
+// Cumulative since the process started or the last resetMetrics()
+interface NativeMetrics {
+  counters: Record<string, number>; // calls_detected, overlay_shows, bridge_emits, db_mutations, ...
+  gauges: Record<string, number>; // db_queue_depth, db_group_mutations, bridge_batch_events
+  histograms: Record<string, LatencySummary>; // call_to_overlay, expanded_show, overlay_rebind, bridge_emit, db_commit, db_write, expanded_traversal, ...
+}
+
+class NativePerformanceService {
+  private firstFrameMarked = false;
+
+  isAvailable(): boolean {
+    return !!PerformanceModule;
+  }
+
+  /**
+   * Call once the first screen has been drawn; closes the cold-start timeline and writes it to
+   * logcat. Later calls are ignored.
+   */
+  markFirstFrame(): void {
+    if (!PerformanceModule || this.firstFrameMarked) {
+      return;
+    }
+    this.firstFrameMarked = true;
+    PerformanceModule.markFirstFrame();
+  }
+
+  async getStartupReport(): Promise<StartupReport | null> {
+    if (!PerformanceModule) {
+      return null;
+    }
+
+    try {
+      const report: StartupReport = await PerformanceModule.getStartupReport();
+      console.log('[PERFORMANCE] ⏱️ Startup report:', report);
+      return report;
+    } catch (error) {
+      console.error('[PERFORMANCE] ❌ Error reading startup report:', error);
+      return null;
+    }
+  }
+
+  async getMetrics(): Promise<NativeMetrics | null> {
+    if (!PerformanceModule) {
+      return null;
+    }
+
+    try {
+      return await PerformanceModule.getMetrics();
+    } catch (error) {
+      console.error('[PERFORMANCE] ❌ Error reading native metrics:', error);
+      return null;
+    }
+  }
+
+  resetMetrics(): void {
+    PerformanceModule?.resetMetrics();
+  }
+
+  /**
+   * Appends the current metrics to the on-disk log (also written every 15 minutes while anything
+   * changes) and resolves its path
+   */
+  async dumpMetrics(): Promise<string | null> {
+    if (!PerformanceModule) {
+      return null;
+    }
+
+    try {
+      const path: string = await PerformanceModule.dumpMetrics();
+      console.log('[PERFORMANCE] 📈 Metrics dumped to', path);
+      return path;
+    } catch (error) {
+      console.error('[PERFORMANCE] ❌ Error dumping metrics:', error);
+      return null;
+    }
+  }
+
+  /**
+   * Debug switch: construct native modules while the React context is created ('eager', the old
+   * behaviour) or on first use ('lazy', default). Applies from the next cold start; compare the
+   * two through getStartupReport().history.
+   */
+  async setModuleInit(mode: ModuleInit): Promise<void> {
+    if (!PerformanceModule) {
+      return;
+    }
+    await PerformanceModule.setEagerModules(mode === 'eager');
+  }
+}
+
+export default new NativePerformanceService();
@@ -0,0 +1,52 @@
+import { NativeModules } from 'react-native';
+
+const { PhoneNormalizerModule } = NativeModules;
+
+export type PhoneRegion = 'IN' | 'US' | 'CA' | 'GB' | 'AE' | 'SG' | 'AU';
+
+interface PhoneNormalizerStats {
+  region: PhoneRegion;
+  memoHits: number;
+  memoMisses: number;
+}
+
+class NativePhoneNormalizerService {
+  isAvailable(): boolean {
+    return !!PhoneNormalizerModule;
+  }
+
+  /**
+   * Normalize many numbers in one bridge call: "+<E.164>" for numbers that resolve to a country,
+   * the digits for ones that don't (short codes), '' for unusable input. Two numbers are the same
+   * when their normalized strings are equal. Rejects if the native module fails.
+   */
+  normalize(phoneNumbers: (string | null | undefined)[]): Promise<string[]> {
+    return PhoneNormalizerModule.normalize(phoneNumbers.map(number => number || null));
+  }
+
+  /**
+   * Region for numbers dialled without a country code. Detected from the SIM, network or locale
+   * on first run; native rebuilds the caller-ID index and lead snapshot after a change.
+   */
+  async setDefaultRegion(region: PhoneRegion): Promise<PhoneRegion | null> {
+    if (!PhoneNormalizerModule) {
+      return null;
+    }
+
+    try {
+      return await PhoneNormalizerModule.setDefaultRegion(region);
+    } catch (error) {
+      console.error('[PHONE_NORMALIZER] ❌ Error setting default region:', error);
+      return null;
+    }
+  }
+
+  async getStats(): Promise<PhoneNormalizerStats | null> {
+    if (!PhoneNormalizerModule) {
+      return null;
+    }
+    return PhoneNormalizerModule.getStats();
+  }
+}
+
+export default new NativePhoneNormalizerService();
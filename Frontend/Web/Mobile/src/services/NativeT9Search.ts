@@ -0,0 +1,60 @@
+import { NativeModules } from 'react-native';
+import { Lead } from '../types/Lead';
+
+const { T9SearchModule } = NativeModules;
+
+class NativeT9SearchService {
+  isAvailable(): boolean {
+    return !!T9SearchModule;
+  }
+
+  /**
+   * Replace the lead book searched by the native T9 index
+   */
+  async setLeads(leads: Lead[]): Promise<number> {
+    if (!T9SearchModule) {
+      return 0;
+    }
+
+    try {
+      const columns = {
+        ids: [] as string[],
+        names: [] as (string | null)[],
+        companies: [] as (string | null)[],
+        phones: [] as (string | null)[],
+      };
+
+      for (const lead of leads) {
+        columns.ids.push(String(lead.id));
+        columns.names.push(lead.name || null);
+        columns.companies.push(lead.company || null);
+        columns.phones.push(lead.phone || null);
+      }
+
+      const indexed = await T9SearchModule.setLeads(columns);
+      console.log('[T9_SEARCH] ✅ Native T9 index updated:', indexed, 'leads');
+      return indexed;
+    } catch (error) {
+      console.error('[T9_SEARCH] ❌ Error updating native T9 index:', error);
+      return 0;
+    }
+  }
+
+  /**
+   * Index the native store's leads; native rebuilds the index after every commit that writes
+   * leads, so nothing crosses the bridge afterwards. Resolves the number of indexed leads.
+   */
+  syncFromStore(): Promise<number> {
+    return T9SearchModule.syncFromStore();
+  }
+
+  /**
+   * Ranked lead ids for the T9 input, or null when a newer keystroke superseded this one.
+   * Rejects if the native search fails so callers can fall back to the JS search.
+   */
+  search(input: string, limit: number): Promise<string[] | null> {
+    return T9SearchModule.search(input, limit);
+  }
+}
+
+export default new NativeT9SearchService();
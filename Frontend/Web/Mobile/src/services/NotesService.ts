@@ -1,5 +1,6 @@
 import AsyncStorage from '@react-native-async-storage/async-storage';
 import AsyncStorageService from './AsyncStorageService';
+import NativeLeadStore from './NativeLeadStore';
 import { Note, NoteTag } from '../types/notes';
 
 class NotesService {
@@ -56,6 +57,7 @@ class NotesService {
       
       // Save back to storage
       await AsyncStorage.setItem(`@leadzen_notes_${noteData.leadId}`, JSON.stringify(updatedNotes));
+      this.syncSearchIndex([newNote], []);
       
       console.log('✅ Note added successfully');
       return newNote;
@@ -109,6 +111,7 @@ class NotesService {
 
       // Save back to storage
       await AsyncStorage.setItem(`@leadzen_notes_${targetLeadId}`, JSON.stringify(updatedNotes));
+      this.syncSearchIndex([updatedNote], []);
       
       console.log('✅ Note updated successfully');
       return updatedNote;
@@ -150,6 +153,7 @@ class NotesService {
 
       // Save back to storage
       await AsyncStorage.setItem(`@leadzen_notes_${targetLeadId}`, JSON.stringify(updatedNotes));
+      this.syncSearchIndex([], [noteId]);
       
       console.log('✅ Note deleted successfully');
     } catch (error) {
@@ -191,6 +195,20 @@ class NotesService {
     }
   }
 
+  /**
+   * Keep the native full-text index in step with the notes in AsyncStorage.
+   * Fire and forget: a failed index write never fails the note operation.
+   */
+  private syncSearchIndex(indexed: Note[], removedIds: string[]): void {
+    if (!AsyncStorageService.usesNativeStore()) {
+      return;
+    }
+
+    Promise.all([NativeLeadStore.indexNotes(indexed), NativeLeadStore.removeNotes(removedIds)]).catch(error =>
+      console.error('❌ Error updating note search index:', error)
+    );
+  }
+
   /**
    * Generate a unique note ID
    * @returns string
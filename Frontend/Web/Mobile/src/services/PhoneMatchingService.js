@@ -1,4 +1,5 @@
 import AsyncStorageService from './AsyncStorageService';
+import NativePhoneNormalizer from './NativePhoneNormalizer';
 
 class PhoneMatchingService {
   /**
@@ -27,6 +28,23 @@ class PhoneMatchingService {
     return normalized;
   }
 
+  /**
+   * Normalize a batch of numbers, natively in one bridge call when available
+   * (E.164 across regions, trunk prefixes, extensions), else with normalizePhoneNumber
+   * @param {Array<string>} phoneNumbers - Raw phone numbers
+   * @returns {Promise<Array<string>>} - Normalized numbers, same order
+   */
+  async normalizePhoneNumbers(phoneNumbers) {
+    if (NativePhoneNormalizer.isAvailable()) {
+      try {
+        return await NativePhoneNormalizer.normalize(phoneNumbers);
+      } catch (error) {
+        console.error('[PHONE_MATCH] Native normalization failed, using JS:', error);
+      }
+    }
+    return phoneNumbers.map(phoneNumber => this.normalizePhoneNumber(phoneNumber));
+  }
+
   /**
    * Match phone number to existing lead in database
    * @param {string} phoneNumber - Phone number to match
@@ -36,19 +54,23 @@ class PhoneMatchingService {
     try {
       console.log('[PHONE_MATCH] Matching phone:', phoneNumber);
       
-      const normalizedNumber = this.normalizePhoneNumber(phoneNumber);
-      console.log('[PHONE_MATCH] Normalized to:', normalizedNumber);
-      
       // Get all leads from database
       const allLeads = await AsyncStorageService.getLeads(1000, 0);
       console.log('[PHONE_MATCH] Searching through', allLeads.length, 'leads');
       
+      // The caller and every lead number normalized in one pass
+      const [normalizedNumber, ...leadNormalizedPhones] = await this.normalizePhoneNumbers([
+        phoneNumber,
+        ...allLeads.map(lead => lead.phone),
+      ]);
+      console.log('[PHONE_MATCH] Normalized to:', normalizedNumber);
+      
       // Find matching leads
-      const matchedLeads = allLeads.filter(lead => {
+      const matchedLeads = allLeads.filter((lead, index) => {
         if (!lead.phone) return false;
         
-        const leadNormalizedPhone = this.normalizePhoneNumber(lead.phone);
-        const isMatch = leadNormalizedPhone === normalizedNumber;
+        const leadNormalizedPhone = leadNormalizedPhones[index];
+        const isMatch = !!normalizedNumber && leadNormalizedPhone === normalizedNumber;
         
         if (isMatch) {
           console.log('[PHONE_MATCH] Found match:', lead.name, leadNormalizedPhone);
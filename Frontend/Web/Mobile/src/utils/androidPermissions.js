@@ -8,6 +8,7 @@ export const ANDROID_PERMISSIONS = {
   READ_CONTACTS: PERMISSIONS.ANDROID.READ_CONTACTS,
   WRITE_EXTERNAL_STORAGE: PERMISSIONS.ANDROID.WRITE_EXTERNAL_STORAGE,
   CAMERA: PERMISSIONS.ANDROID.CAMERA,
+  POST_NOTIFICATIONS: PERMISSIONS.ANDROID.POST_NOTIFICATIONS,
   VIBRATE: 'android.permission.VIBRATE',
 };
 
@@ -49,6 +50,11 @@ export const PERMISSION_EXPLANATIONS = {
     description: 'To take photos for lead profiles',
     required: false,
   },
+  [ANDROID_PERMISSIONS.POST_NOTIFICATIONS]: {
+    title: '⏰ Reminders',
+    description: 'To remind you when a follow-up or a task is due (Android 13+)',
+    required: false,
+  },
   [ANDROID_PERMISSIONS.VIBRATE]: {
     title: '📳 Vibration',
     description: 'Auto-granted by Android - provides haptic feedback when dialing',
@@ -72,6 +78,7 @@ export const OPTIONAL_PERMISSIONS = [
   // Note: WRITE_EXTERNAL_STORAGE is deprecated in Android 10+
   // ANDROID_PERMISSIONS.WRITE_EXTERNAL_STORAGE,
   ANDROID_PERMISSIONS.CAMERA,
+  ANDROID_PERMISSIONS.POST_NOTIFICATIONS,
 ];
 
 // Special permissions that need different handling